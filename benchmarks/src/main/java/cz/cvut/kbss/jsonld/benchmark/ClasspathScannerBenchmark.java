@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.deserialization.util.ClasspathScanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ClasspathScanner#processClasses(String)}.
+ * <p>
+ * The scanned packages are located in a directory (when running from the IDE) or in the benchmark uber-jar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClasspathScannerBenchmark {
+
+    @Param({"cz.cvut.kbss.jsonld.benchmark.model", "cz.cvut.kbss.jsonld", "org.openjdk.jmh"})
+    public String scanPath;
+
+    @Benchmark
+    public void processClasses(Blackhole blackhole) {
+        new ClasspathScanner(blackhole::consume).processClasses(scanPath);
+    }
+}
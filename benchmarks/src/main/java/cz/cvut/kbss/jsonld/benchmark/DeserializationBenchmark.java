@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.benchmark.model.Node;
+import cz.cvut.kbss.jsonld.benchmark.model.Organization;
+import cz.cvut.kbss.jsonld.deserialization.JsonLdDeserializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserialization of expanded JSON-LD.
+ * <p>
+ * The organization input contains forward references and unmapped properties stored in a {@code @Properties} field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeserializationBenchmark {
+
+    /**
+     * Number of instances in the generated input.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Object organization;
+    private Object chain;
+
+    private JsonLdDeserializer deserializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ExpandedInputGenerator generator = new ExpandedInputGenerator(size);
+        this.organization = generator.organization(size);
+        this.chain = generator.nodeChain(size);
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld.benchmark.model");
+        this.deserializer = JsonLdDeserializer.createExpandedDeserializer(config);
+    }
+
+    @Benchmark
+    public Organization deserializeOrganization() {
+        return deserializer.deserialize(organization, Organization.class);
+    }
+
+    @Benchmark
+    public Node deserializeDeep() {
+        return deserializer.deserialize(chain, Node.class);
+    }
+}
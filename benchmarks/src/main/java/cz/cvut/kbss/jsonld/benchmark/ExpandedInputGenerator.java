@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.benchmark.model.Vocabulary;
+
+import java.util.*;
+
+/**
+ * Generates expanded JSON-LD input for the deserialization benchmarks.
+ * <p>
+ * The input corresponds to the structure produced by JSON-LD expansion (e.g., by jsonld-java), i.e., lists of maps
+ * with full IRIs as keys.
+ */
+public class ExpandedInputGenerator {
+
+    private final Random random;
+
+    private int counter;
+
+    public ExpandedInputGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates an organization with the specified number of employees.
+     * <p>
+     * Each employee references the organization and has an unmapped property, which is deserialized into the
+     * {@code @Properties} field. Every tenth employee is a manager whose subordinates are referenced only by
+     * identifier before they appear in the document, so these references have to be resolved later.
+     *
+     * @param employeeCount Number of employees
+     * @return Expanded JSON-LD
+     */
+    public List<Object> organization(int employeeCount) {
+        final Map<String, Object> org = new LinkedHashMap<>();
+        final String orgId = generateId("Organization");
+        org.put(JsonLd.ID, orgId);
+        org.put(JsonLd.TYPE, Collections.singletonList(Vocabulary.ORGANIZATION));
+        org.put(Vocabulary.NAME, literals("Organization" + random.nextInt()));
+        org.put(Vocabulary.BRAND, literals("Brand" + random.nextInt(), "Brand" + random.nextInt()));
+        final List<Object> employees = new ArrayList<>(employeeCount);
+        List<Object> subordinates = null;
+        for (int i = 0; i < employeeCount; i++) {
+            final Map<String, Object> employee;
+            if (i % 10 == 0) {
+                employee = person(Vocabulary.MANAGER, Vocabulary.EMPLOYEE, Vocabulary.PERSON);
+                subordinates = new ArrayList<>();
+                employee.put(Vocabulary.MANAGES, subordinates);
+            } else {
+                employee = person(Vocabulary.EMPLOYEE, Vocabulary.PERSON);
+                subordinates.add(Collections.singletonMap(JsonLd.ID, employee.get(JsonLd.ID)));
+            }
+            employee.put(Vocabulary.IS_MEMBER_OF,
+                    Collections.singletonList(Collections.singletonMap(JsonLd.ID, orgId)));
+            employees.add(employee);
+        }
+        org.put(Vocabulary.HAS_MEMBER, employees);
+        return Collections.singletonList(org);
+    }
+
+    private Map<String, Object> person(String... types) {
+        final Map<String, Object> person = new LinkedHashMap<>();
+        person.put(JsonLd.ID, generateId("Employee"));
+        person.put(JsonLd.TYPE, Arrays.asList(types));
+        final String firstName = "FirstName" + random.nextInt();
+        person.put(Vocabulary.FIRST_NAME, literals(firstName));
+        person.put(Vocabulary.LAST_NAME, literals("LastName" + random.nextInt()));
+        person.put(Vocabulary.EMAIL, literals(firstName + "@example.org"));
+        person.put(Vocabulary.NAMESPACE + "nickname", literals("Nick" + random.nextInt()));
+        return person;
+    }
+
+    /**
+     * Generates a chain of nodes of the specified length.
+     *
+     * @param depth Number of nodes in the chain
+     * @return Expanded JSON-LD
+     */
+    public List<Object> nodeChain(int depth) {
+        Map<String, Object> next = null;
+        for (int i = 0; i < depth; i++) {
+            final Map<String, Object> node = new LinkedHashMap<>();
+            node.put(JsonLd.ID, generateId("Node"));
+            node.put(JsonLd.TYPE, Collections.singletonList(Vocabulary.NODE));
+            node.put(Vocabulary.VALUE, Collections.singletonList(Collections.singletonMap(JsonLd.VALUE, i)));
+            if (next != null) {
+                node.put(Vocabulary.HAS_NEXT, Collections.singletonList(next));
+            }
+            next = node;
+        }
+        return Collections.singletonList(next);
+    }
+
+    private static List<Object> literals(String... values) {
+        final List<Object> result = new ArrayList<>(values.length);
+        for (String v : values) {
+            result.add(Collections.singletonMap(JsonLd.VALUE, v));
+        }
+        return result;
+    }
+
+    private String generateId(String prefix) {
+        return Vocabulary.NAMESPACE + prefix + "/instance" + (counter++);
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.benchmark.model.*;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Generates object graphs of configurable size for the benchmarks.
+ * <p>
+ * This is a scalable counterpart of the test {@code Generator}. The generated data are deterministic for a given seed,
+ * so that repeated benchmark runs process the same graphs.
+ */
+public class GraphGenerator {
+
+    private final Random random;
+
+    private int counter;
+
+    public GraphGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public URI generateUri(String prefix) {
+        return URI.create(Vocabulary.NAMESPACE + prefix + "/instance" + (counter++));
+    }
+
+    /**
+     * Generates an organization with the specified number of employees which do not reference the organization.
+     *
+     * @param employeeCount Number of employees
+     * @return Organization instance
+     */
+    public Organization flatGraph(int employeeCount) {
+        final Organization org = generateOrganization();
+        for (int i = 0; i < employeeCount; i++) {
+            org.getEmployees().add(generateEmployee(new Employee()));
+        }
+        return org;
+    }
+
+    /**
+     * Generates an organization with the specified number of employees, each referencing the organization back.
+     * <p>
+     * Every tenth employee is a manager of the following nine employees, so the graph contains additional cycles and
+     * exercises polymorphic serialization.
+     *
+     * @param employeeCount Number of employees
+     * @return Organization instance
+     */
+    public Organization cyclicGraph(int employeeCount) {
+        final Organization org = generateOrganization();
+        Manager manager = null;
+        for (int i = 0; i < employeeCount; i++) {
+            final Employee employee;
+            if (i % 10 == 0) {
+                manager = generateEmployee(new Manager());
+                manager.setSubordinates(new HashSet<>());
+                employee = manager;
+            } else {
+                employee = generateEmployee(new Employee());
+                manager.getSubordinates().add(employee);
+            }
+            employee.setEmployer(org);
+            org.getEmployees().add(employee);
+        }
+        return org;
+    }
+
+    /**
+     * Generates a chain of nodes of the specified length.
+     *
+     * @param depth Number of nodes in the chain
+     * @return Head of the chain
+     */
+    public Node deepGraph(int depth) {
+        final Node head = generateNode();
+        Node current = head;
+        for (int i = 1; i < depth; i++) {
+            final Node next = generateNode();
+            current.setNext(next);
+            current = next;
+        }
+        return head;
+    }
+
+    /**
+     * Generates a node with the specified number of children.
+     *
+     * @param width Number of children
+     * @return The parent node
+     */
+    public Node wideGraph(int width) {
+        final Node root = generateNode();
+        root.setChildren(new HashSet<>(width));
+        for (int i = 0; i < width; i++) {
+            root.getChildren().add(generateNode());
+        }
+        return root;
+    }
+
+    private Organization generateOrganization() {
+        final Organization org = new Organization();
+        org.setUri(generateUri("Organization"));
+        org.setName("Organization" + random.nextInt());
+        org.setBrands(new HashSet<>(Arrays.asList("Brand" + random.nextInt(), "Brand" + random.nextInt())));
+        org.setEmployees(new LinkedHashSet<>());
+        return org;
+    }
+
+    private <T extends Employee> T generateEmployee(T employee) {
+        employee.setUri(generateUri("Employee"));
+        employee.setFirstName("FirstName" + random.nextInt());
+        employee.setLastName("LastName" + random.nextInt());
+        employee.setEmail(employee.getFirstName() + "@example.org");
+        final Map<String, Set<String>> properties = new HashMap<>();
+        properties.put(Vocabulary.NAMESPACE + "nickname", Collections.singleton("Nick" + random.nextInt()));
+        employee.setProperties(properties);
+        return employee;
+    }
+
+    private Node generateNode() {
+        final Node node = new Node();
+        node.setUri(generateUri("Node"));
+        node.setValue(random.nextInt());
+        return node;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.serialization.JsonLdSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JsonLdSerializer#serialize(Object)} on graphs of different shapes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    /**
+     * Number of instances in the generated graph.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Object flat;
+    private Object cyclic;
+    private Object deep;
+    private Object wide;
+
+    private StringBuilderJsonGenerator generator;
+    private JsonLdSerializer serializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final GraphGenerator graphGenerator = new GraphGenerator(size);
+        this.flat = graphGenerator.flatGraph(size);
+        this.cyclic = graphGenerator.cyclicGraph(size);
+        this.deep = graphGenerator.deepGraph(size);
+        this.wide = graphGenerator.wideGraph(size);
+        this.generator = new StringBuilderJsonGenerator();
+        this.serializer = JsonLdSerializer.createCompactedJsonLdSerializer(generator);
+    }
+
+    @Benchmark
+    public int serializeFlat() {
+        return serialize(flat);
+    }
+
+    @Benchmark
+    public int serializeCyclic() {
+        return serialize(cyclic);
+    }
+
+    @Benchmark
+    public int serializeDeep() {
+        return serialize(deep);
+    }
+
+    @Benchmark
+    public int serializeWide() {
+        return serialize(wide);
+    }
+
+    /**
+     * Serializes the specified graph into a cleared output buffer.
+     * <p>
+     * Clearing the buffer is part of the measured operation, as a {@code Level.Invocation} fixture would distort the
+     * sub-millisecond measurements. Its cost (resetting the buffer length) is negligible.
+     */
+    private int serialize(Object root) {
+        generator.reset();
+        serializer.serialize(root);
+        return generator.length();
+    }
+}
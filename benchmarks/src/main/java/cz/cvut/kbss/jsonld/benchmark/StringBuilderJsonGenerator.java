@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jsonld.serialization.JsonGenerator;
+
+import java.util.Arrays;
+
+/**
+ * Minimal {@link JsonGenerator} writing into a reusable {@link StringBuilder}.
+ * <p>
+ * It allows measuring the cost of the serialization itself without depending on a particular JSON library. Strings are
+ * not escaped.
+ */
+public class StringBuilderJsonGenerator implements JsonGenerator {
+
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    /**
+     * Whether the next member of a container on the given nesting level has to be preceded by a comma.
+     */
+    private boolean[] needsComma = new boolean[64];
+    private int depth;
+    private boolean afterFieldName;
+
+    /**
+     * Clears the buffer so that the generator can be reused.
+     */
+    public void reset() {
+        buffer.setLength(0);
+        depth = 0;
+        afterFieldName = false;
+    }
+
+    public int length() {
+        return buffer.length();
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    private void separate() {
+        if (depth > 0 && needsComma[depth - 1]) {
+            buffer.append(',');
+        }
+        if (depth > 0) {
+            needsComma[depth - 1] = true;
+        }
+    }
+
+    private void beforeValue() {
+        if (afterFieldName) {
+            afterFieldName = false;
+        } else {
+            separate();
+        }
+    }
+
+    private void push() {
+        if (depth == needsComma.length) {
+            this.needsComma = Arrays.copyOf(needsComma, depth * 2);
+        }
+        needsComma[depth++] = false;
+    }
+
+    @Override
+    public void writeFieldName(String name) {
+        separate();
+        buffer.append('"').append(name).append("\":");
+        this.afterFieldName = true;
+    }
+
+    @Override
+    public void writeObjectStart() {
+        beforeValue();
+        buffer.append('{');
+        push();
+    }
+
+    @Override
+    public void writeObjectEnd() {
+        depth--;
+        buffer.append('}');
+    }
+
+    @Override
+    public void writeArrayStart() {
+        beforeValue();
+        buffer.append('[');
+        push();
+    }
+
+    @Override
+    public void writeArrayEnd() {
+        depth--;
+        buffer.append(']');
+    }
+
+    @Override
+    public void writeNumber(Number number) {
+        beforeValue();
+        buffer.append(number);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        beforeValue();
+        buffer.append(value);
+    }
+
+    @Override
+    public void writeNull() {
+        beforeValue();
+        buffer.append("null");
+    }
+
+    @Override
+    public void writeString(String text) {
+        beforeValue();
+        buffer.append('"').append(text).append('"');
+    }
+}
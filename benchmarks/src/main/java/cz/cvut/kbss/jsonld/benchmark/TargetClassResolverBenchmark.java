@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark;
+
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jsonld.benchmark.model.*;
+import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolver;
+import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolverConfig;
+import cz.cvut.kbss.jsonld.deserialization.util.TypeMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TargetClassResolver#getTargetClass(Class, Collection)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TargetClassResolverBenchmark {
+
+    private static final Collection<String> EXACT = Collections.singletonList(Vocabulary.ORGANIZATION);
+    private static final Collection<String> SUBCLASS =
+            Arrays.asList(Vocabulary.MANAGER, Vocabulary.EMPLOYEE, Vocabulary.PERSON);
+
+    private TargetClassResolver resolver;
+    private TargetClassResolver optimisticResolver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final TypeMap typeMap = new TypeMap();
+        for (Class<?> cls : Arrays.asList(Person.class, Employee.class, Manager.class, Organization.class,
+                Node.class)) {
+            typeMap.register(cls.getAnnotation(OWLClass.class).iri(), cls);
+        }
+        this.resolver = new TargetClassResolver(typeMap);
+        this.optimisticResolver = new TargetClassResolver(typeMap, new TargetClassResolverConfig(false, true, true));
+    }
+
+    @Benchmark
+    public Class<?> resolveExactType() {
+        return resolver.getTargetClass(Organization.class, EXACT);
+    }
+
+    @Benchmark
+    public Class<?> resolveSubclass() {
+        return resolver.getTargetClass(Person.class, SUBCLASS);
+    }
+
+    @Benchmark
+    public Class<?> resolveSubclassOptimistic() {
+        return optimisticResolver.getTargetClass(Person.class, SUBCLASS);
+    }
+}
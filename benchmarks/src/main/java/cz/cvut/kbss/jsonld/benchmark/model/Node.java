@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark.model;
+
+import cz.cvut.kbss.jopa.model.annotations.Id;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
+
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * Generic graph node used to build deep and wide object graphs.
+ */
+@OWLClass(iri = Vocabulary.NODE)
+public class Node {
+
+    @Id
+    private URI uri;
+
+    @OWLDataProperty(iri = Vocabulary.VALUE)
+    private Integer value;
+
+    @OWLObjectProperty(iri = Vocabulary.HAS_NEXT)
+    private Node next;
+
+    @OWLObjectProperty(iri = Vocabulary.HAS_CHILD)
+    private Set<Node> children;
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public void setUri(URI uri) {
+        this.uri = uri;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public void setValue(Integer value) {
+        this.value = value;
+    }
+
+    public Node getNext() {
+        return next;
+    }
+
+    public void setNext(Node next) {
+        this.next = next;
+    }
+
+    public Set<Node> getChildren() {
+        return children;
+    }
+
+    public void setChildren(Set<Node> children) {
+        this.children = children;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark.model;
+
+import cz.cvut.kbss.jopa.model.annotations.*;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+
+@OWLClass(iri = Vocabulary.PERSON)
+public class Person {
+
+    @Id
+    private URI uri;
+
+    @OWLDataProperty(iri = Vocabulary.FIRST_NAME)
+    private String firstName;
+
+    @OWLDataProperty(iri = Vocabulary.LAST_NAME)
+    private String lastName;
+
+    @OWLDataProperty(iri = Vocabulary.EMAIL)
+    private String email;
+
+    @Properties
+    private Map<String, Set<String>> properties;
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public void setUri(URI uri) {
+        this.uri = uri;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Map<String, Set<String>> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, Set<String>> properties) {
+        this.properties = properties;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.benchmark.model;
+
+public final class Vocabulary {
+
+    public static final String NAMESPACE = "http://krizik.felk.cvut.cz/ontologies/jb4jsonld/benchmark/";
+
+    public static final String PERSON = NAMESPACE + "Person";
+    public static final String EMPLOYEE = NAMESPACE + "Employee";
+    public static final String MANAGER = NAMESPACE + "Manager";
+    public static final String ORGANIZATION = NAMESPACE + "Organization";
+    public static final String NODE = NAMESPACE + "Node";
+
+    public static final String FIRST_NAME = NAMESPACE + "firstName";
+    public static final String LAST_NAME = NAMESPACE + "lastName";
+    public static final String EMAIL = NAMESPACE + "email";
+    public static final String NAME = NAMESPACE + "name";
+    public static final String BRAND = NAMESPACE + "brand";
+    public static final String IS_MEMBER_OF = NAMESPACE + "isMemberOf";
+    public static final String HAS_MEMBER = NAMESPACE + "hasMember";
+    public static final String MANAGES = NAMESPACE + "manages";
+    public static final String HAS_NEXT = NAMESPACE + "hasNext";
+    public static final String HAS_CHILD = NAMESPACE + "hasChild";
+    public static final String VALUE = NAMESPACE + "value";
+
+    private Vocabulary() {
+        throw new AssertionError();
+    }
+}
@@ -77,7 +77,92 @@ public enum ConfigParam {
      *
      * @see #ENABLE_OPTIMISTIC_TARGET_TYPE_RESOLUTION
      */
-    PREFER_SUPERCLASS("preferSuperclass");
+    PREFER_SUPERCLASS("preferSuperclass"),
+
+    /**
+     * Size of the pool used to deduplicate identifiers, types and language tags during deserialization.
+     * <p>
+     * When set to a positive number, equal identifier, type and language tag strings (and URIs created from
+     * identifiers of referenced nodes) share a single instance in the deserialized object graph, which reduces memory
+     * footprint of large graphs. The value limits the number of pooled values, least recently used values are evicted
+     * when the limit is reached.
+     * <p>
+     * Defaults to {@code 0}, which disables the pool.
+     */
+    STRING_POOL_SIZE("stringPoolSize"),
+
+    /**
+     * Whether to write serialized JSON-LD in canonical form.
+     * <p>
+     * In canonical form, object attributes are ordered by their names and members of sets (including {@code @type}
+     * values) by their serialized form, so that the same object graph always produces the same output, which can be
+     * used, e.g., to compute ETags. Note that blank node identifiers are generated in traversal order, which depends on
+     * the iteration order of collections, so canonical output is stable only for instances with identifiers.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    CANONICAL_OUTPUT("canonicalOutput"),
+
+    /**
+     * Whether to deserialize plural object properties lazily.
+     * <p>
+     * If set to {@code true}, {@link java.util.List} and {@link java.util.Set} fields mapping object properties are
+     * populated with collections which keep a reference to the corresponding part of the input and deserialize it on
+     * first access. The cost of deserialization then depends on which part of the object graph the application actually
+     * reads. The input must not be modified until all the collections are loaded.
+     * <p>
+     * References to nodes contained only in not yet loaded collections are resolved when the collection is loaded.
+     * Unresolved references are still reported, either by the deserialization itself or, if they may target nodes of
+     * a not yet loaded collection, by the access which loads the last such collection. Lazy loading is not applied when deserializing into an existing instance.
+     * <p>
+     * Defaults to {@code false}.
+     *
+     * @see cz.cvut.kbss.jsonld.deserialization.util.LazyList
+     * @see cz.cvut.kbss.jsonld.deserialization.util.LazySet
+     */
+    LAZY_COLLECTIONS("lazyCollections"),
+
+    /**
+     * Whether to serialize values of object properties with {@link
+     * cz.cvut.kbss.jopa.model.annotations.FetchType#LAZY} fetch type only as references.
+     * <p>
+     * If set to {@code true}, instances referenced by lazily fetched object properties are serialized as objects
+     * containing only their identifier ({@code {"@id": ...}}). The rest of their object graph is not traversed, so it
+     * does not increase the output size and does not trigger lazy loading of managed entities. Instances without an
+     * identifier are serialized in full.
+     * <p>
+     * Note that {@code LAZY} is the default fetch type of object properties in JOPA, so only object properties
+     * explicitly marked as {@code EAGER} are serialized in full when this is enabled.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    LAZY_FETCH_AS_REFERENCE("lazyFetchAsReference"),
+
+    /**
+     * Maximum depth of objects serialized in full.
+     * <p>
+     * Objects deeper in the serialized object graph (the root is at depth {@code 1}) are serialized only as references
+     * ({@code {"@id": ...}}) and their attributes are not traversed, which bounds the time and output size of
+     * serialization of densely connected object graphs. Objects without an identifier are serialized in full.
+     * <p>
+     * The limit can be overridden for individual attributes by {@link
+     * cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth}.
+     * <p>
+     * Defaults to {@code 0}, which means unlimited depth.
+     */
+    MAX_INLINE_DEPTH("maxInlineDepth"),
+
+    /**
+     * Whether to deduplicate serialized objects by their identifiers.
+     * <p>
+     * By default, an object is serialized in full once and later occurrences of the same Java instance are serialized
+     * as references. If set to {@code true}, this applies also to distinct Java instances with the same identifier
+     * (e.g., entities loaded from different persistence contexts), i.e., only the first of them is serialized in full.
+     * This avoids redundant traversal and duplicate data in the output.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    DEDUPLICATE_BY_ID("deduplicateById");
 
     private final String name;
 
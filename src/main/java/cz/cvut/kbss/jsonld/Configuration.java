@@ -14,6 +14,8 @@
  */
 package cz.cvut.kbss.jsonld;
 
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -25,12 +27,15 @@ public class Configuration {
 
     private final Map<String, String> config = new HashMap<>();
 
+    private JsonLdMetrics metrics = JsonLdMetrics.NO_OP;
+
     public Configuration() {
     }
 
     public Configuration(Configuration other) {
         Objects.requireNonNull(other);
         config.putAll(other.config);
+        this.metrics = other.metrics;
     }
 
     public String get(ConfigParam param) {
@@ -51,6 +56,28 @@ public class Configuration {
         return config.getOrDefault(param, defaultValue);
     }
 
+    /**
+     * Gets value of the specified integer parameter.
+     *
+     * @param param        Parameter
+     * @param defaultValue Value to return if the parameter is not set
+     * @return Parameter value
+     * @throws IllegalArgumentException If the parameter value is not an integer
+     */
+    public int getInt(ConfigParam param, int defaultValue) {
+        Objects.requireNonNull(param);
+        final String value = get(param);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Value of configuration parameter " + param.getName() + " is not an integer: " + value, e);
+        }
+    }
+
     public boolean is(ConfigParam param) {
         Objects.requireNonNull(param);
         return is(param.getName());
@@ -70,4 +97,37 @@ public class Configuration {
         Objects.requireNonNull(param);
         config.put(param, value);
     }
+
+    /**
+     * Gets the listener receiving (de)serialization metrics.
+     *
+     * @return Metrics listener, {@link JsonLdMetrics#NO_OP} by default
+     */
+    public JsonLdMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the listener receiving (de)serialization metrics.
+     * <p>
+     * Note that deserializers report the classpath scan only if the listener is set before they are created.
+     *
+     * @param metrics Metrics listener
+     */
+    public void setMetrics(JsonLdMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Creates an immutable snapshot of this configuration.
+     * <p>
+     * Subsequent changes to this configuration are not reflected by the snapshot. The snapshot can be safely shared by
+     * multiple threads.
+     *
+     * @return Immutable copy of this configuration
+     * @see ImmutableConfiguration
+     */
+    public Configuration snapshot() {
+        return new ImmutableConfiguration(this);
+    }
 }
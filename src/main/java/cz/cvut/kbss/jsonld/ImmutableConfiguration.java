@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld;
+
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of a {@link Configuration}.
+ * <p>
+ * Boolean parameters are resolved when the snapshot is created and integer parameters when they are first read, so
+ * that they need not be parsed on every lookup.
+ * Attempts to modify the snapshot result in an {@link UnsupportedOperationException}.
+ *
+ * @see Configuration#snapshot()
+ */
+public final class ImmutableConfiguration extends Configuration {
+
+    private final Set<ConfigParam> enabled = EnumSet.noneOf(ConfigParam.class);
+
+    private final Map<ConfigParam, Integer> integers = new ConcurrentHashMap<>();
+
+    ImmutableConfiguration(Configuration other) {
+        super(other);
+        for (ConfigParam param : ConfigParam.values()) {
+            if (super.is(param)) {
+                enabled.add(param);
+            }
+        }
+    }
+
+    @Override
+    public boolean is(ConfigParam param) {
+        Objects.requireNonNull(param);
+        return enabled.contains(param);
+    }
+
+    @Override
+    public int getInt(ConfigParam param, int defaultValue) {
+        Objects.requireNonNull(param);
+        if (get(param) == null) {
+            return defaultValue;
+        }
+        return integers.computeIfAbsent(param, p -> super.getInt(p, defaultValue));
+    }
+
+    @Override
+    public void set(ConfigParam param, String value) {
+        throw new UnsupportedOperationException("Configuration snapshot cannot be modified.");
+    }
+
+    @Override
+    public void set(String param, String value) {
+        throw new UnsupportedOperationException("Configuration snapshot cannot be modified.");
+    }
+
+    @Override
+    public void setMetrics(JsonLdMetrics metrics) {
+        throw new UnsupportedOperationException("Configuration snapshot cannot be modified.");
+    }
+
+    @Override
+    public Configuration snapshot() {
+        return this;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the depth up to which objects referenced by the annotated object property are serialized in full.
+ * <p>
+ * The depth is relative to the object declaring the annotated attribute, i.e., value {@code 1} means that the
+ * referenced objects are serialized in full, but objects they reference are serialized only as references
+ * ({@code {"@id": ...}}). Value {@code 0} means that the referenced objects themselves are serialized only as
+ * references.
+ * <p>
+ * The annotation overrides {@link cz.cvut.kbss.jsonld.ConfigParam#MAX_INLINE_DEPTH} for the subgraph reachable via the
+ * annotated attribute, unless it is overridden again by an annotation on an attribute in the subgraph.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface JsonLdInlineDepth {
+
+    /**
+     * Maximum depth of fully serialized objects, relative to the object declaring the annotated attribute.
+     *
+     * @return Non-negative depth
+     */
+    int value();
+}
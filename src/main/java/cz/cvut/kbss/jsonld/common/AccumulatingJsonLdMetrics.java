@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@link JsonLdMetrics} implementation which sums the reported values.
+ */
+public class AccumulatingJsonLdMetrics implements JsonLdMetrics {
+
+    private final Map<Phase, LongAdder> durations = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> invocations = new EnumMap<>(Phase.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+    public AccumulatingJsonLdMetrics() {
+        for (Phase phase : Phase.values()) {
+            durations.put(phase, new LongAdder());
+            invocations.put(phase, new LongAdder());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    @Override
+    public void phaseCompleted(Phase phase, long durationNanos) {
+        durations.get(phase).add(durationNanos);
+        invocations.get(phase).increment();
+    }
+
+    @Override
+    public void count(Counter counter, long delta) {
+        counters.get(counter).add(delta);
+    }
+
+    /**
+     * Gets total time spent in the specified phase.
+     *
+     * @param phase Phase
+     * @return Total duration in nanoseconds
+     */
+    public long getTotalTime(Phase phase) {
+        return durations.get(phase).sum();
+    }
+
+    /**
+     * Gets the number of times the specified phase has been completed.
+     *
+     * @param phase Phase
+     * @return Number of completions
+     */
+    public long getInvocationCount(Phase phase) {
+        return invocations.get(phase).sum();
+    }
+
+    /**
+     * Gets the current value of the specified counter.
+     *
+     * @param counter Counter
+     * @return Counter value
+     */
+    public long getCount(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Resets all the recorded values.
+     */
+    public void reset() {
+        durations.values().forEach(LongAdder::reset);
+        invocations.values().forEach(LongAdder::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AccumulatingJsonLdMetrics{");
+        for (Phase phase : Phase.values()) {
+            sb.append(phase).append('=').append(getTotalTime(phase)).append("ns/").append(getInvocationCount(phase))
+              .append(", ");
+        }
+        for (Counter counter : Counter.values()) {
+            sb.append(counter).append('=').append(getCount(counter)).append(", ");
+        }
+        sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+}
@@ -199,7 +199,18 @@ public class BeanAnnotationProcessor {
      */
     public static List<Field> getSerializableFields(Object object) {
         Objects.requireNonNull(object);
-        final Class<?> cls = object.getClass();
+        return getSerializableFields(object.getClass());
+    }
+
+    /**
+     * Returns all fields of the specified class and its superclasses, which can be serialized into JSON-LD.
+     *
+     * @param cls Class whose fields should be discovered
+     * @return List of discovered fields
+     * @see #getSerializableFields(Object)
+     */
+    public static List<Field> getSerializableFields(Class<?> cls) {
+        Objects.requireNonNull(cls);
         return getMarshallableFields(cls, propertyAccessResolver::isReadable);
     }
 
@@ -409,22 +420,38 @@ public class BeanAnnotationProcessor {
      */
     public static Optional<Object> getInstanceIdentifier(Object instance) {
         Objects.requireNonNull(instance);
-        final List<Class<?>> classes = getAncestors(instance.getClass());
-        for (Class<?> cls : classes) {
-            for (Field f : cls.getDeclaredFields()) {
+        final Optional<Field> idField = getIdentifierField(instance.getClass());
+        if (!idField.isPresent()) {
+            // No identifier field, a blank node should be generated
+            return Optional.empty();
+        }
+        final Field f = idField.get();
+        if (!f.isAccessible()) {
+            f.setAccessible(true);
+        }
+        try {
+            return Optional.ofNullable(f.get(instance));
+        } catch (IllegalAccessException e) {
+            throw new JsonLdSerializationException("Unable to extract identifier of instance " + instance);
+        }
+    }
+
+    /**
+     * Finds the identifier field (i.e. annotated with {@link Id}) declared by the specified class or any of its
+     * ancestors.
+     *
+     * @param cls Class to scan
+     * @return Identifier field, empty {@code Optional} if there is none
+     */
+    public static Optional<Field> getIdentifierField(Class<?> cls) {
+        Objects.requireNonNull(cls);
+        for (Class<?> c : getAncestors(cls)) {
+            for (Field f : c.getDeclaredFields()) {
                 if (f.getDeclaredAnnotation(Id.class) != null) {
-                    if (!f.isAccessible()) {
-                        f.setAccessible(true);
-                    }
-                    try {
-                        return Optional.ofNullable(f.get(instance));
-                    } catch (IllegalAccessException e) {
-                        throw new JsonLdSerializationException("Unable to extract identifier of instance " + instance);
-                    }
+                    return Optional.of(f);
                 }
             }
         }
-        // No identifier field, a blank node should be generated
         return Optional.empty();
     }
 
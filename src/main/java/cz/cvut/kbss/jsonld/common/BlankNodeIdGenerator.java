@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+/**
+ * Strategy for generating blank node identifiers of instances without an identifier.
+ * <p>
+ * A generator is owned by a single (de)serialization session, so implementations need not be thread-safe. Generated
+ * identifiers have to be unique within the session.
+ */
+public interface BlankNodeIdGenerator {
+
+    /**
+     * Generates a new blank node identifier.
+     *
+     * @return Blank node identifier, starting with {@link IdentifierUtil#B_NODE_PREFIX}
+     */
+    String generate();
+
+    /**
+     * Resets this generator when a session ends, so that it can be reused by another session.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Creates a generator producing sequential identifiers ({@code _:b0}, {@code _:b1}, ...).
+     *
+     * @return New generator
+     * @see SequentialBlankNodeIdGenerator
+     */
+    static BlankNodeIdGenerator sequential() {
+        return new SequentialBlankNodeIdGenerator();
+    }
+
+    /**
+     * Creates a generator producing sequential identifiers which are unique across sessions ({@code _:g<session>b0},
+     * {@code _:g<session>b1}, ...).
+     * <p>
+     * Suitable where generated identifiers may meet identifiers from other sources, e.g., labels of the deserialized
+     * input or instances from other deserializations.
+     *
+     * @return New generator
+     * @see SequentialBlankNodeIdGenerator#withSessionPrefix()
+     */
+    static BlankNodeIdGenerator sessionUnique() {
+        return SequentialBlankNodeIdGenerator.withSessionPrefix();
+    }
+
+    /**
+     * Gets a generator producing (pseudo)random identifiers.
+     * <p>
+     * Random identifiers may collide in large graphs, so sequential identifiers are preferable.
+     *
+     * @return Generator
+     * @see IdentifierUtil#generateBlankNodeId()
+     */
+    static BlankNodeIdGenerator random() {
+        return IdentifierUtil::generateBlankNodeId;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+/**
+ * Constants and rules of the <a href="https://www.rfc-editor.org/rfc/rfc8949.html">CBOR</a> encoding shared by the
+ * binary generator and parser.
+ * <p>
+ * Repeated strings are encoded using the <a href="http://cbor.schmorp.de/stringref">stringref</a> extension. Each
+ * top-level item is wrapped in a stringref namespace and strings long enough to benefit from it are put into a table
+ * in the order of their first occurrence. Later occurrences are replaced with a reference to the table index.
+ */
+public final class Cbor {
+
+    public static final int MAJOR_UNSIGNED = 0;
+    public static final int MAJOR_NEGATIVE = 1;
+    public static final int MAJOR_BYTES = 2;
+    public static final int MAJOR_TEXT = 3;
+    public static final int MAJOR_ARRAY = 4;
+    public static final int MAJOR_MAP = 5;
+    public static final int MAJOR_TAG = 6;
+    public static final int MAJOR_SIMPLE = 7;
+
+    /**
+     * Additional information value denoting indefinite length.
+     */
+    public static final int INDEFINITE = 31;
+
+    public static final int FALSE = 0xF4;
+    public static final int TRUE = 0xF5;
+    public static final int NULL = 0xF6;
+    public static final int HALF_FLOAT = 0xF9;
+    public static final int SINGLE_FLOAT = 0xFA;
+    public static final int DOUBLE_FLOAT = 0xFB;
+    public static final int BREAK = 0xFF;
+
+    public static final int TAG_POSITIVE_BIGNUM = 2;
+    public static final int TAG_NEGATIVE_BIGNUM = 3;
+    public static final int TAG_DECIMAL_FRACTION = 4;
+    public static final int TAG_STRINGREF = 25;
+    public static final int TAG_STRINGREF_NAMESPACE = 256;
+
+    private Cbor() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Determines whether a string of the specified encoded length is added into the stringref table.
+     * <p>
+     * A string is added only if a reference to it would be shorter than the string itself.
+     *
+     * @param byteLength Length of the encoded string
+     * @param nextIndex  Index the string would get in the table (i.e., current table size)
+     * @return {@code true} if the string is to be added to the table
+     */
+    public static boolean isStringRefCandidate(int byteLength, int nextIndex) {
+        if (nextIndex < 24) {
+            return byteLength >= 3;
+        } else if (nextIndex < 256) {
+            return byteLength >= 4;
+        } else if (nextIndex < 65536) {
+            return byteLength >= 5;
+        } else {
+            return byteLength >= 7;
+        }
+    }
+}
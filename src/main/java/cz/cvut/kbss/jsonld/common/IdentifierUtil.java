@@ -15,7 +15,7 @@
 package cz.cvut.kbss.jsonld.common;
 
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Allows to generate blank nodes for identifier-less instances.
@@ -31,15 +31,15 @@ public class IdentifierUtil {
      */
     public static final String B_NODE_PREFIX = "_:";
 
-    private static final Random RANDOM = new Random();
-
     /**
      * Generates a (pseudo)random blank node identifier.
+     * <p>
+     * Note that the serializers and deserializers use a {@link BlankNodeIdGenerator} owned by each session instead.
      *
      * @return Blank node identifier
      */
     public static String generateBlankNodeId() {
-        return B_NODE_PREFIX + RANDOM.nextInt(Integer.MAX_VALUE);
+        return B_NODE_PREFIX + ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
     }
 
     /**
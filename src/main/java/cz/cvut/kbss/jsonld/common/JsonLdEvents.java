@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+/**
+ * Emits JDK Flight Recorder events for serialization, deserialization and classpath scanning.
+ * <p>
+ * This is the Java 8 version of the class, which does nothing. The library jar is a multi-release jar whose Java 11
+ * layer contains an implementation emitting {@code jdk.jfr} events.
+ * <p>
+ * Operations obtain an event handle from a {@code begin} method and pass it to the corresponding {@code end} method.
+ * The handle is {@code null} when the events are disabled, in which case callers may skip gathering the event data.
+ */
+public final class JsonLdEvents {
+
+    private JsonLdEvents() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Starts a serialization event.
+     *
+     * @return Event handle, {@code null} if the event is disabled
+     */
+    public static Object beginSerialization() {
+        return null;
+    }
+
+    /**
+     * Ends and commits a serialization event.
+     *
+     * @param event      Handle returned by {@link #beginSerialization()}
+     * @param rootClass  Class of the serialized object graph root
+     * @param nodeCount  Number of serialized objects
+     * @param depth      Maximum depth of the serialized object graph
+     * @param outputSize Estimated size of the output in bytes
+     */
+    public static void endSerialization(Object event, Class<?> rootClass, int nodeCount, int depth,
+                                        long outputSize) {
+        // Do nothing
+    }
+
+    /**
+     * Starts a deserialization event.
+     *
+     * @return Event handle, {@code null} if the event is disabled
+     */
+    public static Object beginDeserialization() {
+        return null;
+    }
+
+    /**
+     * Ends and commits a deserialization event.
+     *
+     * @param event     Handle returned by {@link #beginDeserialization()}
+     * @param rootClass Class of the deserialized root
+     * @param nodeCount Number of deserialized objects
+     * @param depth     Maximum nesting depth of the deserialized data
+     */
+    public static void endDeserialization(Object event, Class<?> rootClass, int nodeCount, int depth) {
+        // Do nothing
+    }
+
+    /**
+     * Starts a classpath scan event.
+     *
+     * @return Event handle, {@code null} if the event is disabled
+     */
+    public static Object beginClasspathScan() {
+        return null;
+    }
+
+    /**
+     * Ends and commits a classpath scan event.
+     *
+     * @param event      Handle returned by {@link #beginClasspathScan()}
+     * @param scanPath   Scanned package
+     * @param classCount Number of classes found
+     */
+    public static void endClasspathScan(Object event, String scanPath, int classCount) {
+        // Do nothing
+    }
+}
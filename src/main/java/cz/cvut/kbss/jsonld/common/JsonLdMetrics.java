@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+/**
+ * Listener receiving timings of the individual phases of (de)serialization and counts of processed items.
+ * <p>
+ * All methods have empty default implementations, so that implementations need to override only the callbacks they are
+ * interested in. A listener is registered via {@link cz.cvut.kbss.jsonld.Configuration#setMetrics(JsonLdMetrics)}.
+ * Since a configuration may be shared by multiple serializers/deserializers, implementations should be thread-safe.
+ * <p>
+ * Phases may be nested, e.g., {@link Phase#TRAVERSAL} is part of {@link Phase#TREE_BUILD}, and {@link
+ * Phase#TARGET_RESOLUTION} and {@link Phase#REFERENCE_RESOLUTION} are reported for each resolved object.
+ * <p>
+ * The default {@link #NO_OP} listener does not even read the system timer, so that disabled metrics cost nothing.
+ */
+public interface JsonLdMetrics {
+
+    /**
+     * Listener which ignores all events.
+     */
+    JsonLdMetrics NO_OP = new JsonLdMetrics() {
+        @Override
+        public long startTimer() {
+            return 0L;
+        }
+
+        @Override
+        public void stopTimer(Phase phase, long startTime) {
+            // Do nothing
+        }
+    };
+
+    /**
+     * Measured phases.
+     */
+    enum Phase {
+        /**
+         * Scanning of the classpath for mapped classes.
+         */
+        CLASSPATH_SCAN,
+        /**
+         * Resolution of the target class of a deserialized object.
+         */
+        TARGET_RESOLUTION,
+        /**
+         * Traversal of the serialized object graph.
+         */
+        TRAVERSAL,
+        /**
+         * Building of the JSON-LD tree model, including object graph traversal.
+         */
+        TREE_BUILD,
+        /**
+         * Writing of the JSON-LD tree model into the output.
+         */
+        WRITE,
+        /**
+         * Resolution of pending references to a deserialized object.
+         */
+        REFERENCE_RESOLUTION
+    }
+
+    /**
+     * Counted items.
+     */
+    enum Counter {
+        /**
+         * Serialized or deserialized objects.
+         */
+        NODES,
+        /**
+         * Serialized or deserialized attributes.
+         */
+        ATTRIBUTES,
+        /**
+         * Serialized or deserialized literal values.
+         */
+        LITERALS,
+        /**
+         * References to objects not deserialized yet.
+         */
+        PENDING_REFERENCES,
+        /**
+         * Lookups of per-class (de)serialization plans which found a compiled plan.
+         */
+        CACHE_HITS,
+        /**
+         * Lookups of per-class (de)serialization plans which had to compile the plan.
+         */
+        CACHE_MISSES,
+        /**
+         * Estimated size of the written JSON in bytes (UTF-8), excluding separators and whitespace.
+         */
+        BYTES_WRITTEN
+    }
+
+    /**
+     * Called when a phase is completed.
+     *
+     * @param phase         The completed phase
+     * @param durationNanos Duration of the phase in nanoseconds
+     */
+    default void phaseCompleted(Phase phase, long durationNanos) {
+        // Do nothing by default
+    }
+
+    /**
+     * Called when the specified counter is incremented.
+     *
+     * @param counter The counter
+     * @param delta   Increment
+     */
+    default void count(Counter counter, long delta) {
+        // Do nothing by default
+    }
+
+    /**
+     * Starts measuring a phase.
+     *
+     * @return Start time to pass to {@link #stopTimer(Phase, long)}
+     */
+    default long startTimer() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops measuring a phase and reports its duration.
+     *
+     * @param phase     The measured phase
+     * @param startTime Value returned by {@link #startTimer()} when the phase was started
+     */
+    default void stopTimer(Phase phase, long startTime) {
+        phaseCompleted(phase, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Whether this listener records anything.
+     *
+     * @return {@code false} for the {@link #NO_OP} listener, {@code true} otherwise
+     */
+    default boolean isEnabled() {
+        return this != NO_OP;
+    }
+}
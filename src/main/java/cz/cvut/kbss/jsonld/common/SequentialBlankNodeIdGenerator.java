@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates sequential blank node identifiers, i.e., {@code _:b0}, {@code _:b1} and so on.
+ * <p>
+ * The identifiers are unique within a session and cheap to produce, as the prefix is kept in a reused buffer. The
+ * sequence starts from the beginning after {@link #reset()}. This class is not thread-safe.
+ * <p>
+ * A generator created by {@link #withSessionPrefix()} instead prefixes the sequence with a session number, so that
+ * identifiers generated in different sessions do not collide.
+ */
+public class SequentialBlankNodeIdGenerator implements BlankNodeIdGenerator {
+
+    /**
+     * Default prefix of the generated identifiers.
+     */
+    public static final String DEFAULT_PREFIX = IdentifierUtil.B_NODE_PREFIX + "b";
+
+    // Number of sessions which have used a generator with session prefix
+    private static final AtomicLong SESSIONS = new AtomicLong();
+
+    private final StringBuilder buffer;
+
+    private final boolean sessionPrefix;
+
+    private int prefixLength;
+
+    private long counter;
+
+    public SequentialBlankNodeIdGenerator() {
+        this(DEFAULT_PREFIX);
+    }
+
+    /**
+     * Creates a generator of identifiers with the specified prefix.
+     *
+     * @param prefix Identifier prefix, has to start with {@link IdentifierUtil#B_NODE_PREFIX}
+     */
+    public SequentialBlankNodeIdGenerator(String prefix) {
+        if (!prefix.startsWith(IdentifierUtil.B_NODE_PREFIX)) {
+            throw new IllegalArgumentException(
+                    "Blank node identifier prefix must start with " + IdentifierUtil.B_NODE_PREFIX + ", got " + prefix);
+        }
+        this.buffer = new StringBuilder(prefix.length() + 8).append(prefix);
+        this.prefixLength = prefix.length();
+        this.sessionPrefix = false;
+    }
+
+    private SequentialBlankNodeIdGenerator(boolean sessionPrefix) {
+        this.buffer = new StringBuilder(24);
+        this.sessionPrefix = sessionPrefix;
+        nextSessionPrefix();
+    }
+
+    /**
+     * Creates a generator whose identifiers are unique across sessions in this JVM.
+     * <p>
+     * The identifiers have the form {@code _:g<session>b<n>}. Each session (including one started by {@link #reset()})
+     * gets a new session number.
+     *
+     * @return New generator
+     */
+    public static SequentialBlankNodeIdGenerator withSessionPrefix() {
+        return new SequentialBlankNodeIdGenerator(true);
+    }
+
+    private void nextSessionPrefix() {
+        buffer.setLength(0);
+        buffer.append(IdentifierUtil.B_NODE_PREFIX).append('g').append(SESSIONS.getAndIncrement()).append('b');
+        this.prefixLength = buffer.length();
+    }
+
+    @Override
+    public String generate() {
+        buffer.setLength(prefixLength);
+        return buffer.append(counter++).toString();
+    }
+
+    @Override
+    public void reset() {
+        this.counter = 0;
+        if (sessionPrefix) {
+            nextSessionPrefix();
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.common.Cbor;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads binary <a href="https://www.rfc-editor.org/rfc/rfc8949.html">CBOR</a> into the generic JSON object model
+ * consumed by the deserializers.
+ * <p>
+ * Maps are read as {@link Map}s with string keys, arrays as {@link List}s, text as {@link String}s and numbers as
+ * {@link Integer}, {@link Long}, {@link BigInteger}, {@link Double} or {@link BigDecimal} (decimal fractions),
+ * depending on their size and encoding. Both definite and indefinite lengths and the stringref extension (see {@link
+ * Cbor}) are supported, so the output of {@link cz.cvut.kbss.jsonld.serialization.CborJsonGenerator} can be read.
+ * <p>
+ * Note that the serializers write compacted JSON-LD, so, just as with textual JSON, the result has to be expanded before
+ * it is passed to a {@link JsonLdReader}. Instances are not thread-safe.
+ */
+public class CborParser {
+
+    private static final Object BREAK = new Object();
+
+    private final InputStream in;
+
+    private final Deque<List<Object>> stringRefNamespaces = new ArrayDeque<>();
+
+    private long offset;
+
+    private int peeked = -1;
+
+    /**
+     * Creates a parser reading from the specified stream.
+     * <p>
+     * The stream is read byte by byte, so it should be buffered.
+     *
+     * @param in Stream to read
+     */
+    public CborParser(InputStream in) {
+        this.in = Objects.requireNonNull(in);
+    }
+
+    /**
+     * Parses the single CBOR item contained in the specified data.
+     *
+     * @param data CBOR data
+     * @return Parsed item
+     * @throws JsonLdDeserializationException If the data is malformed
+     */
+    public static Object parse(byte[] data) {
+        return new CborParser(new ByteArrayInputStream(data)).next();
+    }
+
+    /**
+     * Checks whether there is another top-level item in the input.
+     *
+     * @return {@code true} if the input is not exhausted
+     * @throws JsonLdDeserializationException If the input cannot be read
+     */
+    public boolean hasNext() {
+        if (peeked < 0) {
+            try {
+                this.peeked = in.read();
+            } catch (IOException e) {
+                throw new JsonLdDeserializationException("Unable to read CBOR input.", e);
+            }
+        }
+        return peeked >= 0;
+    }
+
+    /**
+     * Reads the next top-level item from the input.
+     *
+     * @return Parsed item
+     * @throws JsonLdDeserializationException If the input is exhausted or malformed
+     */
+    public Object next() {
+        if (!hasNext()) {
+            throw new JsonLdDeserializationException("Unexpected end of CBOR input at offset " + offset + ".");
+        }
+        try {
+            final Object item = readItem();
+            if (item == BREAK) {
+                throw error("Unexpected break");
+            }
+            return item;
+        } catch (IOException e) {
+            throw new JsonLdDeserializationException("Unable to read CBOR input.", e);
+        }
+    }
+
+    private JsonLdDeserializationException error(String message) {
+        return new JsonLdDeserializationException(message + " at offset " + (offset - 1) + ".");
+    }
+
+    private int readByte() throws IOException {
+        final int b;
+        if (peeked >= 0) {
+            b = peeked;
+            this.peeked = -1;
+        } else {
+            b = in.read();
+        }
+        if (b < 0) {
+            throw new JsonLdDeserializationException("Unexpected end of CBOR input at offset " + offset + ".");
+        }
+        offset++;
+        return b;
+    }
+
+    private long readUnsigned(int count) throws IOException {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private byte[] readBytes(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw error("Unsupported length " + Long.toUnsignedString(length));
+        }
+        final byte[] bytes = new byte[(int) length];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the argument of an item head.
+     *
+     * @return The argument, {@code -1} for indefinite length. Note that values above {@link Long#MAX_VALUE} are
+     * negative as well, they are only valid for integers
+     */
+    private long readArgument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return readUnsigned(1);
+            case 25:
+                return readUnsigned(2);
+            case 26:
+                return readUnsigned(4);
+            case 27:
+                return readUnsigned(8);
+            case Cbor.INDEFINITE:
+                return -1;
+            default:
+                throw error("Invalid additional information " + info);
+        }
+    }
+
+    private Object readItem() throws IOException {
+        final int initial = readByte();
+        final int major = initial >>> 5;
+        final int info = initial & 0x1F;
+        if (major == Cbor.MAJOR_SIMPLE) {
+            return readSimple(initial, info);
+        }
+        final long argument = readArgument(info);
+        if (info == Cbor.INDEFINITE && (major == Cbor.MAJOR_UNSIGNED || major == Cbor.MAJOR_NEGATIVE ||
+                major == Cbor.MAJOR_TAG)) {
+            throw error("Invalid indefinite length item of major type " + major);
+        }
+        switch (major) {
+            case Cbor.MAJOR_UNSIGNED:
+                return toInteger(argument, false);
+            case Cbor.MAJOR_NEGATIVE:
+                return toInteger(argument, true);
+            case Cbor.MAJOR_BYTES:
+                return readByteString(argument);
+            case Cbor.MAJOR_TEXT:
+                return readText(argument);
+            case Cbor.MAJOR_ARRAY:
+                return readArray(argument);
+            case Cbor.MAJOR_MAP:
+                return readMap(argument);
+            default:
+                return readTagged(argument);
+        }
+    }
+
+    private static Number toInteger(long argument, boolean negative) {
+        if (argument >= 0) {
+            final long value = negative ? -1 - argument : argument;
+            return value == (int) value ? (Number) (int) value : (Number) value;
+        }
+        // Argument is above Long.MAX_VALUE
+        final BigInteger unsigned = new BigInteger(Long.toUnsignedString(argument));
+        return negative ? unsigned.not() : unsigned;
+    }
+
+    private Object readSimple(int initial, int info) throws IOException {
+        switch (initial) {
+            case Cbor.FALSE:
+                return false;
+            case Cbor.TRUE:
+                return true;
+            case Cbor.NULL:
+            case Cbor.NULL + 1:     // Undefined
+                return null;
+            case Cbor.HALF_FLOAT:
+                return halfToDouble((int) readUnsigned(2));
+            case Cbor.SINGLE_FLOAT:
+                return (double) Float.intBitsToFloat((int) readUnsigned(4));
+            case Cbor.DOUBLE_FLOAT:
+                return Double.longBitsToDouble(readUnsigned(8));
+            case Cbor.BREAK:
+                return BREAK;
+            default:
+                if (info == 24) {
+                    readByte();
+                }
+                throw error("Unsupported simple value");
+        }
+    }
+
+    private static double halfToDouble(int half) {
+        final int exponent = (half >> 10) & 0x1F;
+        final int mantissa = half & 0x3FF;
+        final double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private byte[] readByteString(long length) throws IOException {
+        if (length >= 0) {
+            final byte[] bytes = readBytes(length);
+            registerStringRef(bytes, bytes.length);
+            return bytes;
+        }
+        return readChunks(Cbor.MAJOR_BYTES);
+    }
+
+    private String readText(long length) throws IOException {
+        if (length >= 0) {
+            final byte[] bytes = readBytes(length);
+            final String text = new String(bytes, StandardCharsets.UTF_8);
+            registerStringRef(text, bytes.length);
+            return text;
+        }
+        return new String(readChunks(Cbor.MAJOR_TEXT), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads chunks of an indefinite length string. Such strings are not added into the stringref table.
+     */
+    private byte[] readChunks(int major) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        while (true) {
+            final int initial = readByte();
+            if (initial == Cbor.BREAK) {
+                return result.toByteArray();
+            }
+            if (initial >>> 5 != major || (initial & 0x1F) == Cbor.INDEFINITE) {
+                throw error("Invalid chunk of indefinite length string");
+            }
+            final byte[] chunk = readBytes(readArgument(initial & 0x1F));
+            result.write(chunk, 0, chunk.length);
+        }
+    }
+
+    private void registerStringRef(Object value, int byteLength) {
+        final List<Object> table = stringRefNamespaces.peek();
+        if (table != null && Cbor.isStringRefCandidate(byteLength, table.size())) {
+            table.add(value);
+        }
+    }
+
+    private List<Object> readArray(long length) throws IOException {
+        final List<Object> result = new ArrayList<>(length >= 0 ? (int) Math.min(length, 1024) : 10);
+        for (long i = 0; length < 0 || i < length; i++) {
+            final Object item = readItem();
+            if (item == BREAK) {
+                if (length >= 0) {
+                    throw error("Unexpected break");
+                }
+                break;
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    private Map<String, Object> readMap(long length) throws IOException {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        for (long i = 0; length < 0 || i < length; i++) {
+            final Object key = readItem();
+            if (key == BREAK) {
+                if (length >= 0) {
+                    throw error("Unexpected break");
+                }
+                break;
+            }
+            if (!(key instanceof String)) {
+                throw error("Unsupported map key " + key);
+            }
+            final Object value = readItem();
+            if (value == BREAK) {
+                throw error("Missing value of map key " + key);
+            }
+            result.put((String) key, value);
+        }
+        return result;
+    }
+
+    private Object readTagged(long tag) throws IOException {
+        if (tag == Cbor.TAG_STRINGREF_NAMESPACE) {
+            stringRefNamespaces.push(new ArrayList<>());
+            try {
+                return readItem();
+            } finally {
+                stringRefNamespaces.pop();
+            }
+        }
+        final Object content = readItem();
+        if (content == BREAK) {
+            throw error("Unexpected break");
+        }
+        if (tag == Cbor.TAG_STRINGREF) {
+            final List<Object> table = stringRefNamespaces.peek();
+            if (table == null || !(content instanceof Integer) || (Integer) content < 0 ||
+                    (Integer) content >= table.size()) {
+                throw error("Invalid string reference " + content);
+            }
+            return table.get((Integer) content);
+        } else if (tag == Cbor.TAG_POSITIVE_BIGNUM || tag == Cbor.TAG_NEGATIVE_BIGNUM) {
+            if (!(content instanceof byte[])) {
+                throw error("Invalid bignum content");
+            }
+            final BigInteger magnitude = new BigInteger(1, (byte[]) content);
+            return tag == Cbor.TAG_POSITIVE_BIGNUM ? magnitude : magnitude.not();
+        } else if (tag == Cbor.TAG_DECIMAL_FRACTION) {
+            if (!(content instanceof List) || ((List<?>) content).size() != 2) {
+                throw error("Invalid decimal fraction content");
+            }
+            final List<?> parts = (List<?>) content;
+            if (!(parts.get(0) instanceof Integer) || !(parts.get(1) instanceof Number)) {
+                throw error("Invalid decimal fraction content");
+            }
+            final Number mantissa = (Number) parts.get(1);
+            final BigInteger unscaled = mantissa instanceof BigInteger ? (BigInteger) mantissa :
+                                        BigInteger.valueOf(mantissa.longValue());
+            return new BigDecimal(unscaled, -(Integer) parts.get(0));
+        }
+        // Other tags carry no information relevant for JSON
+        return content;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Precomputed deserialization metadata of a single class.
+ * <p>
+ * Contains mapping of properties to fields, the properties field and OWL classes mapped by the class, so that they
+ * need not be discovered by reflection for every deserialized instance. Primitive {@code int}, {@code long},
+ * {@code double} and {@code boolean} fields are bound to typed setters, so that their values are set without
+ * conversion to intermediate wrapper objects.
+ * <p>
+ * Instances are immutable.
+ */
+final class ClassDeserializationPlan {
+
+    private final Map<String, Field> fieldMap;
+    private final Field propertiesField;
+    private final Set<String> owlClasses;
+    private final Map<Field, PrimitiveFieldSetter> primitiveSetters;
+
+    private ClassDeserializationPlan(Class<?> cls) {
+        this.fieldMap = Collections.unmodifiableMap(BeanAnnotationProcessor.mapFieldsForDeserialization(cls));
+        this.propertiesField =
+                BeanAnnotationProcessor.hasPropertiesField(cls) ? BeanAnnotationProcessor.getPropertiesField(cls) :
+                null;
+        this.owlClasses = Collections.unmodifiableSet(BeanAnnotationProcessor.getOwlClasses(cls));
+        this.primitiveSetters = Collections.unmodifiableMap(bindPrimitiveSetters(fieldMap));
+    }
+
+    private static Map<Field, PrimitiveFieldSetter> bindPrimitiveSetters(Map<String, Field> fieldMap) {
+        final Map<Field, PrimitiveFieldSetter> result = new HashMap<>();
+        for (Field f : fieldMap.values()) {
+            final PrimitiveFieldSetter setter = PrimitiveFieldSetter.of(f.getType());
+            if (setter != null) {
+                if (!f.isAccessible()) {
+                    f.setAccessible(true);
+                }
+                result.put(f, setter);
+            }
+        }
+        return result;
+    }
+
+    static ClassDeserializationPlan compile(Class<?> cls) {
+        return new ClassDeserializationPlan(Objects.requireNonNull(cls));
+    }
+
+    Map<String, Field> getFieldMap() {
+        return fieldMap;
+    }
+
+    boolean hasPropertiesField() {
+        return propertiesField != null;
+    }
+
+    Field getPropertiesField() {
+        return propertiesField;
+    }
+
+    Set<String> getOwlClasses() {
+        return owlClasses;
+    }
+
+    /**
+     * Gets typed setters of primitive fields of the class.
+     *
+     * @return Map of primitive fields to their setters
+     */
+    Map<Field, PrimitiveFieldSetter> getPrimitiveSetters() {
+        return primitiveSetters;
+    }
+}
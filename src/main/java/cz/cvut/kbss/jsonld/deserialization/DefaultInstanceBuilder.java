@@ -14,18 +14,24 @@ package cz.cvut.kbss.jsonld.deserialization;
 
 import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.common.BlankNodeIdGenerator;
 import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
 import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
 import cz.cvut.kbss.jsonld.common.CollectionType;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.deserialization.reference.PendingReferenceRegistry;
 import cz.cvut.kbss.jsonld.deserialization.util.DataTypeTransformer;
+import cz.cvut.kbss.jsonld.deserialization.util.LangString;
+import cz.cvut.kbss.jsonld.deserialization.util.LazyList;
+import cz.cvut.kbss.jsonld.deserialization.util.LazySet;
+import cz.cvut.kbss.jsonld.deserialization.util.StringPool;
 import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolver;
 import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 import cz.cvut.kbss.jsonld.exception.TargetTypeException;
 
 import java.lang.reflect.Field;
-import java.net.URI;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Default implementation of the JSON-LD deserializer, which takes values parsed from a JSON-LD document and builds Java
@@ -41,28 +47,85 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
 
     private final PendingReferenceRegistry pendingReferenceRegistry;
 
+    private final StringPool stringPool;
+
+    private final DeserializationPlanCache plans;
+
+    private final JsonLdMetrics metrics;
+
+    // Blank node identifiers for objects without one. Unique across deserializations, so that they collide neither with
+    // blank node labels of the input nor with instances from other deserializations
+    private final BlankNodeIdGenerator blankNodeIds = BlankNodeIdGenerator.sessionUnique();
+
+    // Fields already merged into existing instances in merge mode, null if merge mode is not enabled
+    private Map<Object, Set<Field>> mergedFields;
+
     private InstanceContext currentInstance;
 
+    private int nodeCount;
+    private int maxDepth;
+
+    // Loaders of lazy collections which have not been loaded yet
+    private final Set<LazyCollectionLoader> unloadedLazyCollections = new HashSet<>();
+
     public DefaultInstanceBuilder(TargetClassResolver classResolver,
                                   PendingReferenceRegistry pendingReferenceRegistry) {
+        this(classResolver, pendingReferenceRegistry, StringPool.disabled());
+    }
+
+    public DefaultInstanceBuilder(TargetClassResolver classResolver,
+                                  PendingReferenceRegistry pendingReferenceRegistry, StringPool stringPool) {
+        this(classResolver, pendingReferenceRegistry, stringPool, new DeserializationPlanCache());
+    }
+
+    public DefaultInstanceBuilder(TargetClassResolver classResolver,
+                                  PendingReferenceRegistry pendingReferenceRegistry, StringPool stringPool,
+                                  DeserializationPlanCache plans) {
+        this(classResolver, pendingReferenceRegistry, stringPool, plans, JsonLdMetrics.NO_OP);
+    }
+
+    public DefaultInstanceBuilder(TargetClassResolver classResolver,
+                                  PendingReferenceRegistry pendingReferenceRegistry, StringPool stringPool,
+                                  DeserializationPlanCache plans, JsonLdMetrics metrics) {
         this.classResolver = classResolver;
         this.pendingReferenceRegistry = pendingReferenceRegistry;
+        this.stringPool = Objects.requireNonNull(stringPool);
+        this.plans = Objects.requireNonNull(plans);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Switches this builder into merge mode, in which the deserialized data are merged into existing instances.
+     * <p>
+     * In merge mode, objects whose identifiers match the specified known instances (or values of the fields being
+     * populated) are reused instead of creating new instances. Values of singular attributes are overwritten and
+     * values of plural attributes are replaced by the deserialized collection (reusing the matching items).
+     *
+     * @param knownInstances Already existing instances, mapped by their identifiers
+     */
+    public void enableMergeMode(Map<String, ?> knownInstances) {
+        Objects.requireNonNull(knownInstances);
+        this.knownInstances.putAll(knownInstances);
+        this.mergedFields = new IdentityHashMap<>();
     }
 
     @Override
     public void openObject(String id, String property, List<String> types) {
         Objects.requireNonNull(property);
+        id = stringPool.intern(id);
         final Field targetField = currentInstance.getFieldForProperty(property);
         assert targetField != null;
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
         final Class<?> type = targetField.getType();
         final InstanceContext<?> ctx;
         if (BeanClassProcessor.isIdentifierType(type)) {
             ctx = new NodeReferenceContext<>(currentInstance, targetField, knownInstances);
-            ctx.setIdentifierValue(id);
+            ctx.setIdentifierValue(id != null ? id : blankNodeIds.generate());
         } else {
+            final boolean replace = startMerge(targetField);
             ctx = openObjectForProperty(id, types, targetField);
             final Object newPropertyObject = ctx.getInstance();
-            if (!isPlural(property)) {
+            if (!isPlural(property) && !replace) {
                 final Object oldPropertyObject = BeanClassProcessor
                         .getFieldValue(targetField, currentInstance.getInstance());
                 if (oldPropertyObject != null && !oldPropertyObject.equals(newPropertyObject))
@@ -71,7 +134,7 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
             }
             currentInstance.setFieldValue(targetField, newPropertyObject);
         }
-        openInstances.push(currentInstance);
+        pushCurrentInstance();
         this.currentInstance = ctx;
     }
 
@@ -79,13 +142,14 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
         final Class<?> type = targetField.getType();
         final Class<?> targetClass = classResolver.getTargetClass(type, types);
         assert BeanAnnotationProcessor.isOwlClassEntity(targetClass);
-        if (knownInstances.containsKey(id)) {
+        if (id != null && knownInstances.containsKey(id)) {
             return reopenExistingInstance(id, targetClass);
         } else {
             final Object instance = BeanClassProcessor.createInstance(targetClass);
-            final InstanceContext<?> ctx = new SingularObjectContext<>(instance,
-                    BeanAnnotationProcessor.mapFieldsForDeserialization(targetClass), knownInstances);
-            ctx.setIdentifierValue(id);
+            countNode();
+            final ClassDeserializationPlan plan = plans.get(targetClass, metrics);
+            final InstanceContext<?> ctx = new SingularObjectContext<>(instance, plan, knownInstances);
+            setIdentifier(ctx, id, plan);
             return ctx;
         }
     }
@@ -96,39 +160,114 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
             throw new TargetTypeException("An instance with id " + id + " already exists, but its type " + instance
                     .getClass() + " is not compatible with target type " + cls + ".");
         }
-        return new SingularObjectContext<>(cls.cast(instance),
-                BeanAnnotationProcessor.mapFieldsForDeserialization(cls), knownInstances);
+        return new SingularObjectContext<>(cls.cast(instance), plans.get(cls), knownInstances);
     }
 
     @Override
     public <T> void openObject(String id, Class<T> cls) {
+        id = stringPool.intern(id);
         if (BeanClassProcessor.isIdentifierType(cls)) {
             final InstanceContext<T> context = new NodeReferenceContext<>(currentInstance, knownInstances);
-            context.setIdentifierValue(id);
+            context.setIdentifierValue(id != null ? id : blankNodeIds.generate());
             assert currentInstance != null;
-            openInstances.push(currentInstance);
+            pushCurrentInstance();
             this.currentInstance = context;
         } else {
-            if (knownInstances.containsKey(id)) {
+            if (id != null && knownInstances.containsKey(id)) {
                 final InstanceContext<T> context = reopenExistingInstance(id, cls);
                 replaceCurrentContext(context);
             } else {
                 final T instance = BeanClassProcessor.createInstance(cls);
-                final InstanceContext<T> context = new SingularObjectContext<>(instance,
-                        BeanAnnotationProcessor.mapFieldsForDeserialization(cls), knownInstances);
+                countNode();
+                final ClassDeserializationPlan plan = plans.get(cls, metrics);
+                final InstanceContext<T> context = new SingularObjectContext<>(instance, plan, knownInstances);
                 replaceCurrentContext(context);
-                currentInstance.setIdentifierValue(id);
+                setIdentifier(context, id, plan);
+            }
+        }
+    }
+
+    /**
+     * Sets identifier of a newly created instance.
+     * <p>
+     * If the object has no identifier, a blank node identifier is generated, but only if the instance has a string
+     * identifier field to hold it. Other identifier types cannot represent blank nodes.
+     */
+    private void setIdentifier(InstanceContext<?> ctx, String id, ClassDeserializationPlan plan) {
+        if (id == null) {
+            final Field idField = plan.getFieldMap().get(JsonLd.ID);
+            if (idField == null || !String.class.equals(idField.getType())) {
+                return;
             }
+            id = blankNodeIds.generate();
+        }
+        ctx.setIdentifierValue(id);
+    }
+
+    @Override
+    public <T> void openExistingObject(String id, T instance) {
+        Objects.requireNonNull(instance);
+        countNode();
+        final InstanceContext<T> context =
+                new SingularObjectContext<>(instance, plans.get(instance.getClass(), metrics), knownInstances);
+        replaceCurrentContext(context);
+        if (id != null) {
+            currentInstance.setIdentifierValue(stringPool.intern(id));
+        }
+    }
+
+    /**
+     * Starts merging the specified field of the current instance, if merge mode is enabled and the field has not been
+     * merged yet.
+     * <p>
+     * Existing values of the field are registered as known instances, so that they are reused by the deserialization.
+     *
+     * @param field Field to merge
+     * @return {@code true} if the existing value of the field should be replaced, {@code false} otherwise
+     */
+    private boolean startMerge(Field field) {
+        if (mergedFields == null ||
+                !mergedFields.computeIfAbsent(currentInstance.getInstance(), k -> new HashSet<>()).add(field)) {
+            return false;
+        }
+        final Object existing = BeanClassProcessor.getFieldValue(field, currentInstance.getInstance());
+        if (existing instanceof Collection) {
+            ((Collection<?>) existing).forEach(this::registerExistingInstance);
+        } else if (existing != null) {
+            registerExistingInstance(existing);
+        }
+        return true;
+    }
+
+    private void registerExistingInstance(Object instance) {
+        if (instance == null || !BeanAnnotationProcessor.isOwlClassEntity(instance.getClass())) {
+            return;
+        }
+        final Field idField = plans.get(instance.getClass()).getFieldMap().get(JsonLd.ID);
+        final Object id = idField != null ? BeanClassProcessor.getFieldValue(idField, instance) : null;
+        if (id != null) {
+            knownInstances.putIfAbsent(id.toString(), instance);
         }
     }
 
     private void replaceCurrentContext(InstanceContext<?> ctx) {
         if (currentInstance != null) {
-            openInstances.push(currentInstance);
+            pushCurrentInstance();
         }
         this.currentInstance = ctx;
     }
 
+    private void pushCurrentInstance() {
+        openInstances.push(currentInstance);
+        // The current instance is on top of the pushed ones
+        this.maxDepth = Math.max(maxDepth, openInstances.size() + 1);
+    }
+
+    private void countNode() {
+        nodeCount++;
+        metrics.count(JsonLdMetrics.Counter.NODES, 1);
+    }
+
     @Override
     public void closeObject() {
         currentInstance.close();
@@ -143,10 +282,58 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean setLazyCollection(String property, Set<String> nodeIds, Runnable loader) {
+        Objects.requireNonNull(nodeIds);
+        Objects.requireNonNull(loader);
+        final Field field = currentInstance.getFieldForProperty(property);
+        if (field == null || mergedFields != null || !BeanAnnotationProcessor.isObjectProperty(field)) {
+            return false;
+        }
+        final LazyCollectionLoader load =
+                new LazyCollectionLoader(currentInstance.getInstance(), field, nodeIds, loader);
+        final Collection<?> lazy;
+        if (List.class.equals(field.getType())) {
+            lazy = new LazyList<>(() -> (List<Object>) load.get());
+        } else if (Set.class.equals(field.getType())) {
+            lazy = new LazySet<>(() -> (Set<Object>) load.get());
+        } else {
+            return false;
+        }
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
+        currentInstance.setFieldValue(field, lazy);
+        unloadedLazyCollections.add(load);
+        return true;
+    }
+
+    /**
+     * Gets the number of lazy collections set by this builder which have not been loaded yet.
+     *
+     * @return Number of unloaded lazy collections
+     * @see #setLazyCollection(String, Set, Runnable)
+     */
+    public synchronized int getUnloadedLazyCollectionCount() {
+        return unloadedLazyCollections.size();
+    }
+
+    /**
+     * Checks that there are no unresolved references, except for references to nodes defined in lazy collections
+     * which have not been loaded yet.
+     *
+     * @throws cz.cvut.kbss.jsonld.exception.UnresolvedReferenceException Thrown when unresolved references exist
+     */
+    public synchronized void verifyNoUnresolvedReferencesExist() {
+        final Set<String> deferred = new HashSet<>();
+        unloadedLazyCollections.forEach(c -> deferred.addAll(c.nodeIds));
+        pendingReferenceRegistry.verifyNoUnresolvedReferencesExist(deferred);
+    }
+
     @Override
     public void openCollection(String property) {
         Objects.requireNonNull(property);
         final Field targetField = currentInstance.getFieldForProperty(property);
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
         final InstanceContext<?> ctx;
         if (targetField == null) {
             if (currentInstance.hasPropertiesField() && !JsonLd.TYPE.equals(property)) {
@@ -159,10 +346,13 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
                 ctx = new MultilingualStringContext(new MultilingualString(), knownInstances);
             } else {
                 verifyPluralAttribute(property, targetField);
-                final Collection<?> instance = (Collection<?>) getCollectionForField(targetField);
+                final Collection<?> instance = startMerge(targetField) ?
+                                               BeanClassProcessor.createCollection(targetField) :
+                                               (Collection<?>) getCollectionForField(targetField);
                 if (JsonLd.TYPE.equals(property)) {
                     ctx = new TypesContext(instance, knownInstances,
-                            BeanClassProcessor.getCollectionItemType(targetField), currentInstance.getInstanceType());
+                            BeanClassProcessor.getCollectionItemType(targetField),
+                            plans.get(currentInstance.getInstanceType()).getOwlClasses());
                 } else {
                     ctx = new CollectionInstanceContext<>(instance,
                             BeanClassProcessor.getCollectionItemType(targetField), knownInstances);
@@ -170,12 +360,13 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
             }
             currentInstance.setFieldValue(targetField, ctx.instance);
         }
-        openInstances.push(currentInstance);
+        pushCurrentInstance();
         this.currentInstance = ctx;
     }
 
     private InstanceContext<?> buildPropertiesContext(String property) {
-        final Field propsField = BeanAnnotationProcessor.getPropertiesField(currentInstance.getInstanceType());
+        final Field propsField = plans.get(currentInstance.getInstanceType()).getPropertiesField();
+        assert propsField != null;
         BeanClassProcessor.verifyPropertiesFieldType(propsField);
         final Map<?, ?> propertiesMap = (Map<?, ?>) getCollectionForField(propsField);
         currentInstance.setFieldValue(propsField, propertiesMap);
@@ -222,23 +413,44 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
             addValue(value);
             closeCollection();
         } else {
-            currentInstance.setFieldValue(targetField, value);
+            metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
+            metrics.count(JsonLdMetrics.Counter.LITERALS, 1);
+            currentInstance.setFieldValue(targetField, canonicalize(value));
         }
     }
 
     @Override
     public void addValue(Object value) {
         assert currentInstance != null;
-        currentInstance.addItem(value);
+        metrics.count(JsonLdMetrics.Counter.LITERALS, 1);
+        currentInstance.addItem(canonicalize(value));
+    }
+
+    /**
+     * Replaces types and language tags with their canonical instances from the string pool.
+     */
+    private Object canonicalize(Object value) {
+        if (!stringPool.isEnabled()) {
+            return value;
+        }
+        if (value instanceof LangString) {
+            final LangString ls = (LangString) value;
+            return ls.getLanguage() != null ? new LangString(ls.getValue(), stringPool.intern(ls.getLanguage())) : ls;
+        }
+        return currentInstance instanceof TypesContext && value instanceof String ? stringPool.intern((String) value) :
+               value;
     }
 
     @Override
     public void addNodeReference(String property, String nodeId) {
+        nodeId = stringPool.intern(nodeId);
         final Field field = currentInstance.getFieldForProperty(property);
         assert field != null;
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
+        startMerge(field);
         final Class<?> type = field.getType();
         if (BeanClassProcessor.isIdentifierType(type) || Object.class.equals(type)) {
-            currentInstance.setFieldValue(field, DataTypeTransformer.transformValue(URI.create(nodeId), type));
+            currentInstance.setFieldValue(field, DataTypeTransformer.transformValue(stringPool.uri(nodeId), type));
         } else {
             if (knownInstances.containsKey(nodeId)) {
                 currentInstance.setFieldValue(field, knownInstances.get(nodeId));
@@ -250,9 +462,10 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
 
     @Override
     public void addNodeReference(String nodeId) {
+        nodeId = stringPool.intern(nodeId);
         final Class<?> targetType = getCurrentCollectionElementType();
         if (canDirectlyAddNodeReference(targetType)) {
-            currentInstance.addItem(DataTypeTransformer.transformValue(URI.create(nodeId), targetType));
+            currentInstance.addItem(DataTypeTransformer.transformValue(stringPool.uri(nodeId), targetType));
         } else {
             if (knownInstances.containsKey(nodeId)) {
                 currentInstance.addItem(knownInstances.get(nodeId));
@@ -267,6 +480,24 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
                 targetType == null;
     }
 
+    /**
+     * Gets the number of objects created (or reused in merge mode) by this builder.
+     *
+     * @return Number of deserialized objects
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the maximum nesting depth of objects and collections processed by this builder.
+     *
+     * @return Maximum depth, the root is at depth 1
+     */
+    public int getMaxDepth() {
+        return Math.max(maxDepth, currentInstance != null ? 1 : 0);
+    }
+
     @Override
     public Object getCurrentRoot() {
         return currentInstance != null ? currentInstance.getInstance() : null;
@@ -307,4 +538,60 @@ public class DefaultInstanceBuilder implements InstanceBuilder {
     public boolean isCurrentCollectionProperties() {
         return currentInstance instanceof PropertiesInstanceContext;
     }
+
+    /**
+     * Loads content of a lazy collection.
+     * <p>
+     * The owner of the collection is reopened and the loader deserializes the collection into the field. The field is
+     * then given back the lazy collection, which delegates to the loaded one. Once loaded, references to nodes defined
+     * in the collection are verified to have been resolved. If the verification fails, it is repeated (and fails
+     * again) on subsequent attempts to load the collection.
+     */
+    private final class LazyCollectionLoader implements Supplier<Collection<Object>> {
+
+        private final Object owner;
+        private final Field field;
+        private final Set<String> nodeIds;
+        private final Runnable loader;
+
+        private Collection<Object> loaded;
+
+        private LazyCollectionLoader(Object owner, Field field, Set<String> nodeIds, Runnable loader) {
+            this.owner = owner;
+            this.field = field;
+            this.nodeIds = nodeIds;
+            this.loader = loader;
+        }
+
+        @Override
+        public Collection<Object> get() {
+            synchronized (DefaultInstanceBuilder.this) {
+                if (loaded == null) {
+                    load();
+                }
+                verifyNoUnresolvedReferencesExist();
+                return loaded;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void load() {
+            final Object lazy = BeanClassProcessor.getFieldValue(field, owner);
+            BeanClassProcessor.setFieldValue(field, owner, null);
+            final boolean hasCurrent = currentInstance != null;
+            if (hasCurrent) {
+                openInstances.push(currentInstance);
+            }
+            currentInstance = new SingularObjectContext<>(owner, plans.get(owner.getClass()), knownInstances);
+            try {
+                loader.run();
+            } finally {
+                currentInstance = hasCurrent ? openInstances.pop() : null;
+            }
+            final Object value = BeanClassProcessor.getFieldValue(field, owner);
+            this.loaded = (Collection<Object>) (value != null ? value : BeanClassProcessor.createCollection(field));
+            BeanClassProcessor.setFieldValue(field, owner, lazy);
+            unloadedLazyCollections.remove(this);
+        }
+    }
 }
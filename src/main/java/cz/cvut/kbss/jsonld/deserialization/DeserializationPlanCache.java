@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe cache of per-class deserialization plans.
+ * <p>
+ * A plan is compiled the first time an instance of a class is deserialized and then reused for all subsequent
+ * instances of the class. Sharing one cache between deserializations thus removes most of the reflection overhead
+ * from the deserialization of repeated types.
+ */
+public final class DeserializationPlanCache {
+
+    private final ConcurrentMap<Class<?>, ClassDeserializationPlan> plans = new ConcurrentHashMap<>();
+
+    ClassDeserializationPlan get(Class<?> cls) {
+        final ClassDeserializationPlan plan = plans.get(cls);
+        return plan != null ? plan : plans.computeIfAbsent(cls, ClassDeserializationPlan::compile);
+    }
+
+    ClassDeserializationPlan get(Class<?> cls, JsonLdMetrics metrics) {
+        final ClassDeserializationPlan plan = plans.get(cls);
+        if (plan != null) {
+            metrics.count(JsonLdMetrics.Counter.CACHE_HITS, 1);
+            return plan;
+        }
+        metrics.count(JsonLdMetrics.Counter.CACHE_MISSES, 1);
+        return plans.computeIfAbsent(cls, ClassDeserializationPlan::compile);
+    }
+}
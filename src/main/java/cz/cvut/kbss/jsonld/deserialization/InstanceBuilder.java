@@ -18,6 +18,7 @@ import cz.cvut.kbss.jsonld.common.CollectionType;
 import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Builds instances from parsed JSON-LD.
@@ -38,7 +39,8 @@ public interface InstanceBuilder {
      * <p>
      * This method assumes that the property is mapped, i.e. that {@link #isPropertyMapped(String)} returned true.
      *
-     * @param id       Identifier of the object being open
+     * @param id       Identifier of the object being open. If {@code null}, a blank node identifier is generated if
+     *                 needed
      * @param property Property identifier (IRI)
      * @param types    Types of the object being open
      * @throws IllegalStateException If there is no {@link OWLClass} instance open
@@ -56,17 +58,55 @@ public interface InstanceBuilder {
      * #openObject(String, String, List)} for opening objects as values of attributes.
      *
      * @param <T> The type of the object to open
-     * @param id  Identifier of the object being open
+     * @param id  Identifier of the object being open. If {@code null}, a blank node identifier is generated if needed
      * @param cls Java type of the object being open
      * @see #openObject(String, String, List)
      */
     <T> void openObject(String id, Class<T> cls);
 
+    /**
+     * Opens the specified existing instance as a top level object, so that the deserialized data are merged into it.
+     * <p>
+     * The instance becomes the currently open object.
+     * <p>
+     * The default implementation throws a {@link JsonLdDeserializationException}, builders supporting deserialization
+     * into existing instances override it.
+     *
+     * @param <T>      The type of the object to open
+     * @param id       Identifier of the object being open, {@code null} if the JSON-LD object has no identifier
+     * @param instance Existing instance to populate
+     * @throws JsonLdDeserializationException If the builder does not support populating existing instances
+     */
+    default <T> void openExistingObject(String id, T instance) {
+        throw new JsonLdDeserializationException(
+                getClass().getName() + " does not support deserialization into existing instances.");
+    }
+
     /**
      * Closes the most recently open object.
      */
     void closeObject();
 
+    /**
+     * Sets a lazily loaded collection as value of the specified property of the currently open object.
+     * <p>
+     * When the collection is first accessed, the specified loader is invoked to deserialize its content. The loader is
+     * expected to populate the property as if it was being deserialized eagerly (i.e., by opening a collection for the
+     * property).
+     * <p>
+     * Lazy loading is supported only for plural object properties. For other properties, nothing is done and the
+     * value should be deserialized eagerly.
+     *
+     * @param property Property identifier (IRI)
+     * @param nodeIds  Identifiers of nodes defined in the collection content. References to them remain pending until
+     *                 the collection is loaded
+     * @param loader   Deserializes the collection content
+     * @return {@code true} if a lazy collection was set, {@code false} if the property does not support lazy loading
+     */
+    default boolean setLazyCollection(String property, Set<String> nodeIds, Runnable loader) {
+        return false;
+    }
+
     /**
      * Creates new instance of appropriate collection and sets it as value of the specified property of the currently
      * open object.
@@ -131,19 +131,18 @@ abstract class InstanceContext<T> {
     }
 
     Optional<Object> resolveAssignableValue(Class<?> targetType, Object value) {
-        if (!targetType.isAssignableFrom(value.getClass())) {
-            if (knownInstances.containsKey(value.toString())) {
+        switch (ValueAssignment.of(targetType, value.getClass())) {
+            case DIRECT:
+                return Optional.of(value);
+            case REFERENCE:
                 final Object known = knownInstances.get(value.toString());
-                if (!targetType.isAssignableFrom(known.getClass())) {
-                    return Optional.ofNullable(DataTypeTransformer.transformValue(value, targetType));
-                } else {
+                if (known != null && targetType.isAssignableFrom(known.getClass())) {
                     return Optional.of(known);
                 }
-            } else {
+                // Intentional fall-through
+            default:
                 return Optional.ofNullable(DataTypeTransformer.transformValue(value, targetType));
-            }
         }
-        return Optional.of(value);
     }
 
     /**
@@ -17,12 +17,17 @@ import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.Configuration;
 import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
 import cz.cvut.kbss.jsonld.common.Configurable;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.deserialization.expanded.ExpandedJsonLdDeserializer;
 import cz.cvut.kbss.jsonld.deserialization.util.ClasspathScanner;
+import cz.cvut.kbss.jsonld.deserialization.util.StringPool;
 import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolver;
 import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolverConfig;
 import cz.cvut.kbss.jsonld.deserialization.util.TypeMap;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -34,6 +39,8 @@ public abstract class JsonLdDeserializer implements Configurable {
 
     protected final TargetClassResolver classResolver;
 
+    protected final DeserializationPlanCache plans = new DeserializationPlanCache();
+
     protected JsonLdDeserializer() {
         this.configuration = new Configuration();
         this.classResolver = initializeTargetClassResolver();
@@ -47,17 +54,20 @@ public abstract class JsonLdDeserializer implements Configurable {
     private TargetClassResolver initializeTargetClassResolver() {
         final TypeMap typeMap = new TypeMap();
         final String scanPath = configuration.get(ConfigParam.SCAN_PACKAGE, "");
-        new ClasspathScanner(c -> {
+        final JsonLdMetrics metrics = configuration.getMetrics();
+        final long start = metrics.startTimer();
+        new ClasspathScanner(OWLClass.class, c -> {
             final OWLClass ann = c.getDeclaredAnnotation(OWLClass.class);
             if (ann != null) {
                 typeMap.register(BeanAnnotationProcessor.expandIriIfNecessary(ann.iri(), c), c);
             }
         }).processClasses(scanPath);
+        metrics.stopTimer(JsonLdMetrics.Phase.CLASSPATH_SCAN, start);
         return new TargetClassResolver(typeMap,
                 new TargetClassResolverConfig(
                         configuration.is(ConfigParam.ASSUME_TARGET_TYPE),
                         configuration().is(ConfigParam.ENABLE_OPTIMISTIC_TARGET_TYPE_RESOLUTION),
-                        configuration().is(ConfigParam.PREFER_SUPERCLASS)));
+                        configuration().is(ConfigParam.PREFER_SUPERCLASS)), metrics);
     }
 
     @Override
@@ -65,6 +75,16 @@ public abstract class JsonLdDeserializer implements Configurable {
         return configuration;
     }
 
+    /**
+     * Creates a string pool for a single deserialization, as specified by {@link ConfigParam#STRING_POOL_SIZE}.
+     *
+     * @return New string pool, possibly disabled
+     */
+    protected StringPool createStringPool() {
+        final int poolSize = configuration().getInt(ConfigParam.STRING_POOL_SIZE, 0);
+        return poolSize > 0 ? new StringPool(poolSize) : StringPool.disabled();
+    }
+
     /**
      * Deserializes the specified JSON-LD data.
      *
@@ -75,6 +95,46 @@ public abstract class JsonLdDeserializer implements Configurable {
      */
     public abstract <T> T deserialize(Object jsonLd, Class<T> resultClass);
 
+    /**
+     * Deserializes the specified JSON-LD data into an existing instance.
+     * <p>
+     * Attributes present in the JSON-LD overwrite the corresponding attributes of the instance, attributes not present
+     * in the JSON-LD are left untouched. Nested objects whose identifier matches the current value of the attribute
+     * being deserialized are reused and updated, instead of being replaced by new instances.
+     *
+     * @param <T>      The type of the target object
+     * @param jsonLd   JSON-LD structure
+     * @param existing Instance to populate
+     * @return The populated instance
+     * @see #deserializeInto(Object, Object, Map)
+     */
+    public <T> T deserializeInto(Object jsonLd, T existing) {
+        return deserializeInto(jsonLd, existing, Collections.emptyMap());
+    }
+
+    /**
+     * Deserializes the specified JSON-LD data into an existing instance, reusing the specified known instances.
+     * <p>
+     * Objects in the JSON-LD whose identifier is a key in {@code knownInstances} are deserialized into the mapped
+     * instances instead of creating new ones.
+     * <p>
+     * The default implementation throws a {@link JsonLdDeserializationException}, deserializers supporting
+     * deserialization into existing instances override it.
+     *
+     * @param <T>            The type of the target object
+     * @param jsonLd         JSON-LD structure
+     * @param existing       Instance to populate
+     * @param knownInstances Existing instances mapped by their identifiers
+     * @return The populated instance
+     * @throws JsonLdDeserializationException If the deserializer does not support deserialization into existing
+     *                                        instances
+     * @see #deserializeInto(Object, Object)
+     */
+    public <T> T deserializeInto(Object jsonLd, T existing, Map<String, ?> knownInstances) {
+        throw new JsonLdDeserializationException(
+                getClass().getName() + " does not support deserialization into existing instances.");
+    }
+
     /**
      * Creates deserializer for expanded JSON-LD, initialized with the specified configuration.
      *
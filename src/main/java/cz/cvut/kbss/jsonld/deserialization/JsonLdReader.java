@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.Configuration;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, thread-safe reader of expanded JSON-LD.
+ * <p>
+ * The reader takes a snapshot of the configuration and scans the classpath for mapped classes when it is created. Both
+ * the resolved mapped classes and per-class deserialization plans are then reused by all subsequent calls, so a reader
+ * is intended to be created once and shared by the whole application.
+ */
+public final class JsonLdReader {
+
+    private final JsonLdDeserializer deserializer;
+
+    public JsonLdReader() {
+        this(new Configuration());
+    }
+
+    /**
+     * Creates a reader using a snapshot of the specified configuration.
+     *
+     * @param configuration Reader configuration. Later changes to it do not affect the reader
+     */
+    public JsonLdReader(Configuration configuration) {
+        this.deserializer =
+                JsonLdDeserializer.createExpandedDeserializer(Objects.requireNonNull(configuration).snapshot());
+    }
+
+    /**
+     * Gets the (immutable) configuration of this reader.
+     *
+     * @return Reader configuration
+     */
+    public Configuration configuration() {
+        return deserializer.configuration();
+    }
+
+    /**
+     * Deserializes the specified expanded JSON-LD data.
+     *
+     * @param <T>         The type of the target object
+     * @param jsonLd      JSON-LD structure
+     * @param resultClass Type of the result instance
+     * @return Deserialized Java instance
+     */
+    public <T> T read(Object jsonLd, Class<T> resultClass) {
+        Objects.requireNonNull(jsonLd);
+        Objects.requireNonNull(resultClass);
+        return deserializer.deserialize(jsonLd, resultClass);
+    }
+
+    /**
+     * Deserializes the specified expanded JSON-LD data into an existing instance.
+     *
+     * @param <T>      The type of the target object
+     * @param jsonLd   JSON-LD structure
+     * @param existing Instance to populate
+     * @return The populated instance
+     * @see JsonLdDeserializer#deserializeInto(Object, Object)
+     */
+    public <T> T readInto(Object jsonLd, T existing) {
+        return readInto(jsonLd, existing, Collections.emptyMap());
+    }
+
+    /**
+     * Deserializes the specified expanded JSON-LD data into an existing instance, reusing the specified known
+     * instances.
+     *
+     * @param <T>            The type of the target object
+     * @param jsonLd         JSON-LD structure
+     * @param existing       Instance to populate
+     * @param knownInstances Existing instances mapped by their identifiers
+     * @return The populated instance
+     * @see JsonLdDeserializer#deserializeInto(Object, Object, Map)
+     */
+    public <T> T readInto(Object jsonLd, T existing, Map<String, ?> knownInstances) {
+        Objects.requireNonNull(jsonLd);
+        return deserializer.deserializeInto(jsonLd, existing, knownInstances);
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads large line-delimited JSON-LD (NDJSON-LD) files in parallel.
+ * <p>
+ * The file is memory-mapped and split on line boundaries into chunks of approximately {@code chunkSize} bytes. Chunks
+ * are deserialized by tasks running on an executor, each line using its own instance builder, and the results are
+ * returned in the order of lines in the file. At most {@code maxChunksInFlight} chunks are being processed or waiting
+ * to be consumed at any time, which bounds the heap used by the reader.
+ * <p>
+ * As in {@link NdJsonLdReader}, lines are converted to expanded JSON-LD by a line parser supplied by the integration.
+ * Both the parser and the {@link JsonLdReader} are used concurrently, so the parser must be thread-safe.
+ */
+public class MappedNdJsonLdReader {
+
+    /**
+     * Default size of a chunk, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    // Maximum size of a single mapped region of the file
+    private static final int MAX_MAPPED_WINDOW = 1 << 30;
+
+    private final JsonLdReader reader;
+    private final Function<String, Object> lineParser;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxMappedWindow;
+
+    /**
+     * Creates a reader processing chunks of default size in the common fork-join pool.
+     *
+     * @param reader     Reader used to deserialize the documents
+     * @param lineParser Converts a single line into expanded JSON-LD
+     */
+    public MappedNdJsonLdReader(JsonLdReader reader, Function<String, Object> lineParser) {
+        this(reader, lineParser, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE,
+                2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a reader.
+     *
+     * @param reader            Reader used to deserialize the documents
+     * @param lineParser        Converts a single line into expanded JSON-LD
+     * @param executor          Executor running the chunk deserialization
+     * @param chunkSize         Approximate size of a chunk, in bytes
+     * @param maxChunksInFlight Maximum number of chunks being deserialized or waiting to be consumed
+     */
+    public MappedNdJsonLdReader(JsonLdReader reader, Function<String, Object> lineParser, Executor executor,
+                                int chunkSize, int maxChunksInFlight) {
+        this(reader, lineParser, executor, chunkSize, maxChunksInFlight, MAX_MAPPED_WINDOW);
+    }
+
+    MappedNdJsonLdReader(JsonLdReader reader, Function<String, Object> lineParser, Executor executor, int chunkSize,
+                         int maxChunksInFlight, int maxMappedWindow) {
+        this.reader = Objects.requireNonNull(reader);
+        this.lineParser = Objects.requireNonNull(lineParser);
+        this.executor = Objects.requireNonNull(executor);
+        if (chunkSize <= 0 || maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and maximum number of chunks in flight must be positive.");
+        }
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.maxMappedWindow = maxMappedWindow;
+    }
+
+    /**
+     * Deserializes all lines of the specified file, passing the results to the specified consumer in order.
+     * <p>
+     * The consumer is invoked by the calling thread.
+     *
+     * @param file        NDJSON-LD file
+     * @param resultClass Type of the deserialized instances
+     * @param consumer    Consumer of the deserialized instances
+     * @param <T>         Type of the deserialized instances
+     * @throws JsonLdDeserializationException If the file cannot be read or a line cannot be parsed
+     */
+    public <T> void forEach(Path file, Class<T> resultClass, Consumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        try (ChunkIterator<T> it = new ChunkIterator<>(file, resultClass)) {
+            it.forEachRemaining(consumer);
+        }
+    }
+
+    /**
+     * Lazily deserializes lines of the specified file into a sequential stream of results in order.
+     * <p>
+     * The stream holds the file open and should be closed when no longer needed, e.g., using try-with-resources.
+     *
+     * @param file        NDJSON-LD file
+     * @param resultClass Type of the deserialized instances
+     * @param <T>         Type of the deserialized instances
+     * @return Stream of the deserialized instances
+     * @throws JsonLdDeserializationException If the file cannot be read or a line cannot be parsed
+     */
+    public <T> Stream<T> stream(Path file, Class<T> resultClass) {
+        final ChunkIterator<T> it = new ChunkIterator<>(file, resultClass);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                            .onClose(it::close);
+    }
+
+    private <T> List<T> readChunk(ByteBuffer chunk, long offset, Class<T> resultClass) {
+        final List<T> result = new ArrayList<>();
+        byte[] lineBytes = new byte[256];
+        int lineStart = 0;
+        for (int i = 0; i < chunk.limit(); i++) {
+            if (chunk.get(i) != '\n' && i + 1 < chunk.limit()) {
+                continue;
+            }
+            int lineEnd = chunk.get(i) == '\n' ? i : i + 1;
+            if (lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            final int length = lineEnd - lineStart;
+            if (length > lineBytes.length) {
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            }
+            for (int j = 0; j < length; j++) {
+                lineBytes[j] = chunk.get(lineStart + j);
+            }
+            final String line = new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+            if (!line.trim().isEmpty()) {
+                result.add(readLine(line, offset + lineStart, resultClass));
+            }
+            lineStart = i + 1;
+        }
+        return result;
+    }
+
+    private <T> T readLine(String line, long offset, Class<T> resultClass) {
+        final Object jsonLd;
+        try {
+            jsonLd = lineParser.apply(line);
+        } catch (RuntimeException e) {
+            throw new JsonLdDeserializationException("Unable to parse JSON-LD line at byte offset " + offset + ".", e);
+        }
+        return reader.read(jsonLd, resultClass);
+    }
+
+    /**
+     * Splits the file into chunks ending at line boundaries.
+     */
+    private final class ChunkSplitter {
+
+        private final FileChannel channel;
+        private final long size;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        private ChunkSplitter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * Gets offset of the next chunk in the file.
+         */
+        private long position() {
+            return position;
+        }
+
+        private ByteBuffer next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            while (true) {
+                if (window == null || position + Math.min(chunkSize, size - position) > windowStart + window.limit()) {
+                    mapWindow();
+                }
+                final int start = (int) (position - windowStart);
+                int end = (int) Math.min((long) start + chunkSize, window.limit());
+                while (end < window.limit() && window.get(end - 1) != '\n') {
+                    end++;
+                }
+                if (window.get(end - 1) != '\n' && windowStart + end < size) {
+                    // Line continues beyond the mapped window
+                    if (windowStart == position) {
+                        throw new JsonLdDeserializationException(
+                                "Line at byte offset " + position + " is longer than the maximum mapped region.");
+                    }
+                    this.window = null;
+                    continue;
+                }
+                final ByteBuffer chunk = window.duplicate();
+                chunk.position(start).limit(end);
+                position = windowStart + end;
+                return chunk.slice();
+            }
+        }
+
+        private void mapWindow() throws IOException {
+            this.windowStart = position;
+            this.window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position,
+                    maxMappedWindow));
+        }
+    }
+
+    private final class ChunkIterator<T> implements Iterator<T>, AutoCloseable {
+
+        private final Class<T> resultClass;
+        private final FileChannel channel;
+        private final ChunkSplitter splitter;
+        private final Deque<CompletableFuture<List<T>>> pending = new ArrayDeque<>();
+
+        private Iterator<T> current = Collections.emptyIterator();
+
+        private ChunkIterator(Path file, Class<T> resultClass) {
+            this.resultClass = Objects.requireNonNull(resultClass);
+            try {
+                this.channel = FileChannel.open(Objects.requireNonNull(file), StandardOpenOption.READ);
+                this.splitter = new ChunkSplitter(channel);
+            } catch (IOException e) {
+                throw new JsonLdDeserializationException("Unable to open file " + file + ".", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitChunks();
+                final CompletableFuture<List<T>> next = pending.poll();
+                if (next == null) {
+                    return false;
+                }
+                this.current = await(next).iterator();
+            }
+            return true;
+        }
+
+        private void submitChunks() {
+            try {
+                while (pending.size() < maxChunksInFlight) {
+                    final long offset = splitter.position();
+                    final ByteBuffer chunk = splitter.next();
+                    if (chunk == null) {
+                        return;
+                    }
+                    pending.add(CompletableFuture.supplyAsync(() -> readChunk(chunk, offset, resultClass), executor));
+                }
+            } catch (IOException e) {
+                throw new JsonLdDeserializationException("Unable to read NDJSON-LD file.", e);
+            }
+        }
+
+        private List<T> await(CompletableFuture<List<T>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            pending.forEach(f -> f.cancel(false));
+            pending.clear();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new JsonLdDeserializationException("Unable to close NDJSON-LD file.", e);
+            }
+        }
+    }
+}
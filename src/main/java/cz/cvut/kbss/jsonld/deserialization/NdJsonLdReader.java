@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads line-delimited JSON-LD (NDJSON-LD), i.e., one JSON-LD document per line.
+ * <p>
+ * Parsing JSON is not part of this library, so each line is first converted to expanded JSON-LD by a line parser
+ * supplied by the integration (e.g., a JSON library combined with a JSON-LD processor). The expanded documents are
+ * then deserialized by a single {@link JsonLdReader}, so that the scanned classes and deserialization plans are
+ * reused by all lines. Blank lines are skipped.
+ */
+public class NdJsonLdReader {
+
+    private final JsonLdReader reader;
+
+    private final Function<String, Object> lineParser;
+
+    /**
+     * Creates a reader.
+     *
+     * @param reader     Reader used to deserialize the documents
+     * @param lineParser Converts a single line into expanded JSON-LD
+     */
+    public NdJsonLdReader(JsonLdReader reader, Function<String, Object> lineParser) {
+        this.reader = Objects.requireNonNull(reader);
+        this.lineParser = Objects.requireNonNull(lineParser);
+    }
+
+    /**
+     * Lazily deserializes the lines of the specified input.
+     * <p>
+     * The input is read as the returned iterator advances. It is not closed by the iterator.
+     *
+     * @param input       NDJSON-LD input
+     * @param resultClass Type of the deserialized instances
+     * @param <T>         Type of the deserialized instances
+     * @return Iterator over the deserialized instances
+     * @throws JsonLdDeserializationException If the input cannot be read or a line cannot be parsed
+     */
+    public <T> Iterator<T> read(Reader input, Class<T> resultClass) {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(resultClass);
+        return new LineIterator<>(
+                input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input), resultClass);
+    }
+
+    /**
+     * Lazily deserializes the lines of the specified input into a sequential stream.
+     *
+     * @param input       NDJSON-LD input
+     * @param resultClass Type of the deserialized instances
+     * @param <T>         Type of the deserialized instances
+     * @return Stream of the deserialized instances
+     * @see #read(Reader, Class)
+     */
+    public <T> Stream<T> stream(Reader input, Class<T> resultClass) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(read(input, resultClass), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    private final class LineIterator<T> implements Iterator<T> {
+
+        private final BufferedReader input;
+        private final Class<T> resultClass;
+
+        private String nextLine;
+        private int lineNumber;
+
+        private LineIterator(BufferedReader input, Class<T> resultClass) {
+            this.input = input;
+            this.resultClass = resultClass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    final String line = input.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!line.trim().isEmpty()) {
+                        this.nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new JsonLdDeserializationException("Unable to read JSON-LD line.", e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String line = nextLine;
+            this.nextLine = null;
+            final Object jsonLd;
+            try {
+                jsonLd = lineParser.apply(line);
+            } catch (RuntimeException e) {
+                throw new JsonLdDeserializationException("Unable to parse JSON-LD at line " + lineNumber + ".", e);
+            }
+            return reader.read(jsonLd, resultClass);
+        }
+    }
+}
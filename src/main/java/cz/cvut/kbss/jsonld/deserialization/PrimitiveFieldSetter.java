@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.exception.BeanProcessingException;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets values of primitive fields using the typed {@link Field} setters, without converting the value into an
+ * intermediate wrapper of the field type.
+ * <p>
+ * Setters accept only values which can be represented by the field type exactly. For other values, {@code false} is
+ * returned and the caller is expected to fall back to the general conversion.
+ */
+enum PrimitiveFieldSetter {
+    INT {
+        @Override
+        boolean set(Field field, Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                field.setInt(instance, ((Number) value).intValue());
+                return true;
+            }
+            if (value instanceof Long) {
+                final long l = (Long) value;
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                    field.setInt(instance, (int) l);
+                    return true;
+                }
+            }
+            return false;
+        }
+    },
+    LONG {
+        @Override
+        boolean set(Field field, Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                field.setLong(instance, ((Number) value).longValue());
+                return true;
+            }
+            return false;
+        }
+    },
+    DOUBLE {
+        @Override
+        boolean set(Field field, Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Double || value instanceof Float || value instanceof Integer ||
+                    value instanceof Short || value instanceof Byte) {
+                field.setDouble(instance, ((Number) value).doubleValue());
+                return true;
+            }
+            if (value instanceof Long) {
+                // Longs beyond 2^53 cannot be represented exactly
+                final long l = (Long) value;
+                final double d = (double) l;
+                if ((long) d == l && d != 0x1p63) {
+                    field.setDouble(instance, d);
+                    return true;
+                }
+            }
+            return false;
+        }
+    },
+    BOOLEAN {
+        @Override
+        boolean set(Field field, Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Boolean) {
+                field.setBoolean(instance, (Boolean) value);
+                return true;
+            }
+            return false;
+        }
+    };
+
+    abstract boolean set(Field field, Object instance, Object value) throws IllegalAccessException;
+
+    /**
+     * Sets the specified value on the specified field if it is supported by this setter.
+     *
+     * @param field    Field to set
+     * @param instance Instance on which the field value is set
+     * @param value    Value to set
+     * @return {@code true} if the value was set, {@code false} if it is not supported by this setter
+     */
+    boolean setValue(Field field, Object instance, Object value) {
+        if (!field.isAccessible()) {
+            field.setAccessible(true);
+        }
+        try {
+            return set(field, instance, value);
+        } catch (IllegalAccessException e) {
+            throw new BeanProcessingException("Unable to set value of field " + field, e);
+        }
+    }
+
+    /**
+     * Gets setter for the specified field type.
+     *
+     * @param type Field type
+     * @return Matching setter, {@code null} if the type is not a supported primitive type
+     */
+    static PrimitiveFieldSetter of(Class<?> type) {
+        if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == boolean.class) {
+            return BOOLEAN;
+        }
+        return null;
+    }
+}
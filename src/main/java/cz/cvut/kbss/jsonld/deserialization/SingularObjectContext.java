@@ -20,6 +20,7 @@ import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,9 +28,21 @@ class SingularObjectContext<T> extends InstanceContext<T> {
 
     private final Map<String, Field> fieldMap;
 
+    private final Map<Field, PrimitiveFieldSetter> primitiveSetters;
+
+    private Boolean hasPropertiesField;
+
     SingularObjectContext(T instance, Map<String, Field> fieldMap, Map<String, Object> knownInstances) {
         super(instance, knownInstances);
         this.fieldMap = fieldMap;
+        this.primitiveSetters = Collections.emptyMap();
+    }
+
+    SingularObjectContext(T instance, ClassDeserializationPlan plan, Map<String, Object> knownInstances) {
+        super(instance, knownInstances);
+        this.fieldMap = plan.getFieldMap();
+        this.hasPropertiesField = plan.hasPropertiesField();
+        this.primitiveSetters = plan.getPrimitiveSetters();
     }
 
     @Override
@@ -40,6 +53,10 @@ class SingularObjectContext<T> extends InstanceContext<T> {
     @Override
     void setFieldValue(Field field, Object value) {
         assert !(instance instanceof Collection);
+        final PrimitiveFieldSetter primitiveSetter = primitiveSetters.get(field);
+        if (primitiveSetter != null && primitiveSetter.setValue(field, instance, value)) {
+            return;
+        }
         final Optional<Object> toSet = resolveAssignableValue(field.getType(), value);
         if (!toSet.isPresent()) {
             throw valueTypeMismatch(value, field);
@@ -59,6 +76,14 @@ class SingularObjectContext<T> extends InstanceContext<T> {
         return fieldMap.containsKey(property) || hasPropertiesField();
     }
 
+    @Override
+    boolean hasPropertiesField() {
+        if (hasPropertiesField == null) {
+            this.hasPropertiesField = super.hasPropertiesField();
+        }
+        return hasPropertiesField;
+    }
+
     @Override
     boolean supports(String property) {
         if (!isPropertyMapped(property)) {
@@ -32,6 +32,12 @@ class TypesContext<T extends Collection<E>, E> extends InstanceContext<T> {
         this.mappedTypes = BeanAnnotationProcessor.getOwlClasses(ownerType);
     }
 
+    TypesContext(T instance, Map<String, Object> knownInstances, Class<E> elementType, Set<String> mappedTypes) {
+        super(instance, knownInstances);
+        this.elementType = elementType;
+        this.mappedTypes = mappedTypes;
+    }
+
     @Override
     void addItem(Object item) {
         assert item instanceof String;
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
+
+/**
+ * Describes how a value of a particular class is assigned to a target (field or collection element) of a particular
+ * type.
+ * <p>
+ * The decision depends only on the target type and the value class, so it is made once for each such pair and cached.
+ * Only values which may represent identifiers of already deserialized instances are looked up among the known
+ * instances.
+ */
+enum ValueAssignment {
+    /**
+     * Value is assignable to the target type as is.
+     */
+    DIRECT,
+    /**
+     * Value has to be converted to the target type.
+     *
+     * @see cz.cvut.kbss.jsonld.deserialization.util.DataTypeTransformer
+     */
+    CONVERT,
+    /**
+     * Value may be an identifier of a known instance assignable to the target type. If it is not, it has to be
+     * converted to the target type.
+     */
+    REFERENCE;
+
+    /**
+     * Decisions keyed by target type and then by value class.
+     * <p>
+     * Both levels are {@link ClassValue}s, so the cache is attached to the classes themselves and references neither
+     * the target types nor the value classes strongly.
+     */
+    private static final ClassValue<ClassValue<ValueAssignment>> DECISIONS =
+            new ClassValue<ClassValue<ValueAssignment>>() {
+                @Override
+                protected ClassValue<ValueAssignment> computeValue(Class<?> targetType) {
+                    return new ClassValue<ValueAssignment>() {
+                        @Override
+                        protected ValueAssignment computeValue(Class<?> valueClass) {
+                            return decide(targetType, valueClass);
+                        }
+                    };
+                }
+            };
+
+    /**
+     * Gets the assignment of values of the specified class to the specified target type.
+     *
+     * @param targetType Target type
+     * @param valueClass Class of the assigned value
+     * @return Value assignment
+     */
+    static ValueAssignment of(Class<?> targetType, Class<?> valueClass) {
+        return DECISIONS.get(targetType).get(valueClass);
+    }
+
+    private static ValueAssignment decide(Class<?> targetType, Class<?> valueClass) {
+        if (targetType.isAssignableFrom(valueClass)) {
+            return DIRECT;
+        }
+        // Known instances are entities referenced by their identifiers, so only identifiers can reference them and
+        // they can never be assigned to primitive, enum or identifier targets
+        if (BeanClassProcessor.isIdentifierType(valueClass) && !targetType.isPrimitive() && !targetType.isEnum() &&
+                !BeanClassProcessor.isIdentifierType(targetType)) {
+            return REFERENCE;
+        }
+        return CONVERT;
+    }
+}
@@ -12,6 +12,7 @@
  */
 package cz.cvut.kbss.jsonld.deserialization.expanded;
 
+import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.jsonld.deserialization.InstanceBuilder;
 import cz.cvut.kbss.jsonld.deserialization.util.LangString;
@@ -19,16 +20,27 @@ import cz.cvut.kbss.jsonld.deserialization.util.XSDTypeCoercer;
 import cz.cvut.kbss.jsonld.exception.MissingIdentifierException;
 
 import java.net.URI;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class CollectionDeserializer extends Deserializer<List<?>> {
 
     private final String property;
 
+    // Whether the collection may be loaded lazily. Disabled when the lazy collection is being loaded
+    private final boolean lazy;
+
     CollectionDeserializer(InstanceBuilder instanceBuilder, DeserializerConfig config, String property) {
+        this(instanceBuilder, config, property, config.getConfiguration().is(ConfigParam.LAZY_COLLECTIONS));
+    }
+
+    private CollectionDeserializer(InstanceBuilder instanceBuilder, DeserializerConfig config, String property,
+                                   boolean lazy) {
         super(instanceBuilder, config);
         this.property = property;
+        this.lazy = lazy;
     }
 
     @Override
@@ -45,6 +57,10 @@ class CollectionDeserializer extends Deserializer<List<?>> {
                 return;
             }
         }
+        if (lazy && containsOnlyNodes(value) && instanceBuilder.setLazyCollection(property, collectNodeIds(value),
+                () -> new CollectionDeserializer(instanceBuilder, config, property, false).processValue(value))) {
+            return;
+        }
         instanceBuilder.openCollection(property);
         for (Object item : value) {
             if (item instanceof Map) {
@@ -56,6 +72,41 @@ class CollectionDeserializer extends Deserializer<List<?>> {
         instanceBuilder.closeCollection();
     }
 
+    private static boolean containsOnlyNodes(List<?> value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (Object item : value) {
+            if (!(item instanceof Map) || ((Map<?, ?>) item).containsKey(JsonLd.VALUE) ||
+                    ((Map<?, ?>) item).containsKey(JsonLd.LIST)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> collectNodeIds(List<?> value) {
+        final Set<String> ids = new HashSet<>();
+        value.forEach(item -> collectNodeIds(item, ids));
+        return ids;
+    }
+
+    private static void collectNodeIds(Object value, Set<String> ids) {
+        if (value instanceof List) {
+            ((List<?>) value).forEach(item -> collectNodeIds(item, ids));
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            if (map.containsKey(JsonLd.VALUE)) {
+                return;
+            }
+            // Node references (objects with identifier only) do not define the node
+            if (map.size() > 1 && map.containsKey(JsonLd.ID)) {
+                ids.add(map.get(JsonLd.ID).toString());
+            }
+            map.values().forEach(v -> collectNodeIds(v, ids));
+        }
+    }
+
     private void resolveValue(Map<?, ?> value) {
         if (value.size() == 1 && value.containsKey(JsonLd.VALUE)) {
             instanceBuilder.addValue(value.get(JsonLd.VALUE));
@@ -15,26 +15,46 @@
 package cz.cvut.kbss.jsonld.deserialization.expanded;
 
 import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
 import cz.cvut.kbss.jsonld.deserialization.DefaultInstanceBuilder;
-import cz.cvut.kbss.jsonld.deserialization.InstanceBuilder;
 import cz.cvut.kbss.jsonld.deserialization.JsonLdDeserializer;
 import cz.cvut.kbss.jsonld.deserialization.reference.PendingReferenceRegistry;
 import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class ExpandedJsonLdDeserializer extends JsonLdDeserializer {
 
+    private final DeserializerConfig deserializerConfig;
+
     public ExpandedJsonLdDeserializer() {
+        this.deserializerConfig = new DeserializerConfig(configuration(), classResolver);
     }
 
     public ExpandedJsonLdDeserializer(Configuration configuration) {
         super(configuration);
+        this.deserializerConfig = new DeserializerConfig(configuration(), classResolver);
     }
 
     @Override
     public <T> T deserialize(Object jsonLd, Class<T> resultClass) {
+        final Object event = JsonLdEvents.beginDeserialization();
+        final Map<?, ?> root = extractRoot(jsonLd);
+        final PendingReferenceRegistry referenceRegistry = new PendingReferenceRegistry(configuration().getMetrics());
+        final DefaultInstanceBuilder instanceBuilder = createInstanceBuilder(referenceRegistry);
+        new ObjectDeserializer(instanceBuilder, deserializerConfig, resultClass).processValue(root);
+        // References to nodes in unloaded lazy collections are verified when the collections are loaded
+        instanceBuilder.verifyNoUnresolvedReferencesExist();
+        assert resultClass.isAssignableFrom(instanceBuilder.getCurrentRoot().getClass());
+        final T result = resultClass.cast(instanceBuilder.getCurrentRoot());
+        JsonLdEvents.endDeserialization(event, result.getClass(), instanceBuilder.getNodeCount(),
+                instanceBuilder.getMaxDepth());
+        return result;
+    }
+
+    private static Map<?, ?> extractRoot(Object jsonLd) {
         if (!(jsonLd instanceof List)) {
             throw new JsonLdDeserializationException(
                     "Expanded JSON-LD deserializer requires a JSON-LD array as input.");
@@ -44,13 +64,28 @@ public class ExpandedJsonLdDeserializer extends JsonLdDeserializer {
             throw new JsonLdDeserializationException(
                     "Input is not expanded JSON-LD. The input does not contain exactly one root element.");
         }
-        final Map<?, ?> root = (Map<?, ?>) input.get(0);
-        final PendingReferenceRegistry referenceRegistry = new PendingReferenceRegistry();
-        final InstanceBuilder instanceBuilder = new DefaultInstanceBuilder(classResolver, referenceRegistry);
-        new ObjectDeserializer(instanceBuilder, new DeserializerConfig(configuration(), classResolver), resultClass)
-                .processValue(root);
+        return (Map<?, ?>) input.get(0);
+    }
+
+    private DefaultInstanceBuilder createInstanceBuilder(PendingReferenceRegistry referenceRegistry) {
+        return new DefaultInstanceBuilder(classResolver, referenceRegistry, createStringPool(), plans,
+                configuration().getMetrics());
+    }
+
+    @Override
+    public <T> T deserializeInto(Object jsonLd, T existing, Map<String, ?> knownInstances) {
+        Objects.requireNonNull(existing);
+        Objects.requireNonNull(knownInstances);
+        final Object event = JsonLdEvents.beginDeserialization();
+        final Map<?, ?> root = extractRoot(jsonLd);
+        final PendingReferenceRegistry referenceRegistry = new PendingReferenceRegistry(configuration().getMetrics());
+        final DefaultInstanceBuilder instanceBuilder = createInstanceBuilder(referenceRegistry);
+        instanceBuilder.enableMergeMode(knownInstances);
+        ObjectDeserializer.mergingInto(instanceBuilder, deserializerConfig, existing).processValue(root);
         referenceRegistry.verifyNoUnresolvedReferencesExist();
-        assert resultClass.isAssignableFrom(instanceBuilder.getCurrentRoot().getClass());
-        return resultClass.cast(instanceBuilder.getCurrentRoot());
+        assert instanceBuilder.getCurrentRoot() == existing;
+        JsonLdEvents.endDeserialization(event, existing.getClass(), instanceBuilder.getNodeCount(),
+                instanceBuilder.getMaxDepth());
+        return existing;
     }
 }
@@ -17,7 +17,6 @@ package cz.cvut.kbss.jsonld.deserialization.expanded;
 import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
-import cz.cvut.kbss.jsonld.common.IdentifierUtil;
 import cz.cvut.kbss.jsonld.deserialization.InstanceBuilder;
 import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
@@ -29,12 +28,14 @@ class ObjectDeserializer extends Deserializer<Map<?, ?>> {
 
     private final String property;
     private final Class<?> targetClass;
+    private final Object existingInstance;
 
     ObjectDeserializer(InstanceBuilder instanceBuilder, DeserializerConfig config, String property) {
         super(instanceBuilder, config);
         assert property != null;
         this.property = property;
         this.targetClass = null;
+        this.existingInstance = null;
     }
 
     ObjectDeserializer(InstanceBuilder instanceBuilder, DeserializerConfig config, Class<?> targetClass) {
@@ -42,6 +43,28 @@ class ObjectDeserializer extends Deserializer<Map<?, ?>> {
         assert targetClass != null;
         this.targetClass = targetClass;
         this.property = null;
+        this.existingInstance = null;
+    }
+
+    private ObjectDeserializer(InstanceBuilder instanceBuilder, DeserializerConfig config, Object existingInstance) {
+        super(instanceBuilder, config);
+        this.existingInstance = existingInstance;
+        this.targetClass = existingInstance.getClass();
+        this.property = null;
+    }
+
+    /**
+     * Creates a deserializer which merges the processed object into the specified existing instance.
+     *
+     * @param instanceBuilder  Instance builder
+     * @param config           Deserializer configuration
+     * @param existingInstance Instance to populate
+     * @return New deserializer
+     */
+    static ObjectDeserializer mergingInto(InstanceBuilder instanceBuilder, DeserializerConfig config,
+                                          Object existingInstance) {
+        assert existingInstance != null;
+        return new ObjectDeserializer(instanceBuilder, config, existingInstance);
     }
 
     @Override
@@ -63,6 +86,8 @@ class ObjectDeserializer extends Deserializer<Map<?, ?>> {
         try {
             if (property != null) {
                 instanceBuilder.openObject(getId(value), property, getObjectTypes(value));
+            } else if (existingInstance != null) {
+                instanceBuilder.openExistingObject(getId(value), existingInstance);
             } else {
                 assert targetClass != null;
                 final Class<?> cls = resolveTargetClass(value, targetClass);
@@ -76,8 +101,9 @@ class ObjectDeserializer extends Deserializer<Map<?, ?>> {
         }
     }
 
-    private String getId(Map<?, ?> object) {
-        return object.containsKey(JsonLd.ID) ? object.get(JsonLd.ID).toString() : IdentifierUtil.generateBlankNodeId();
+    private static String getId(Map<?, ?> object) {
+        // Blank node identifier is generated by the instance builder, but only if it is needed
+        return object.containsKey(JsonLd.ID) ? object.get(JsonLd.ID).toString() : null;
     }
 
     private Map<?, ?> orderAttributesForProcessing(Map<?, ?> value) {
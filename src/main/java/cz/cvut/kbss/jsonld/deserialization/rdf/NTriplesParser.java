@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.common.IdentifierUtil;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+import cz.cvut.kbss.jsonld.serialization.rdf.RdfSink;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Streaming parser of the <a href="https://www.w3.org/TR/n-triples/">N-Triples</a> format.
+ * <p>
+ * The input is read line by line and each statement is passed to an {@link RdfSink} as soon as it is parsed, so the
+ * parser itself keeps no statements in memory. Graph labels of <a href="https://www.w3.org/TR/n-quads/">N-Quads</a>
+ * statements are accepted and ignored. Simple literals are reported with the {@code xsd:string} datatype.
+ */
+public class NTriplesParser {
+
+    private final BufferedReader reader;
+
+    private String line;
+    private int pos;
+    private int lineNumber;
+
+    public NTriplesParser(Reader input) {
+        Objects.requireNonNull(input);
+        this.reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+    }
+
+    /**
+     * Parses the whole input, passing the statements to the specified sink.
+     *
+     * @param sink Statement sink
+     * @throws JsonLdDeserializationException If the input is not valid N-Triples or it cannot be read
+     */
+    public void parse(RdfSink sink) {
+        Objects.requireNonNull(sink);
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                pos = 0;
+                parseLine(sink);
+            }
+        } catch (IOException e) {
+            throw new JsonLdDeserializationException("Unable to read N-Triples input.", e);
+        }
+    }
+
+    private void parseLine(RdfSink sink) {
+        skipWhitespace();
+        if (pos >= line.length() || line.charAt(pos) == '#') {
+            return;
+        }
+        final String subject = parseResource();
+        skipWhitespace();
+        final String predicate = parseIri();
+        skipWhitespace();
+        if (peek() == '"') {
+            final String lexicalForm = parseString();
+            if (line.startsWith("^^", pos)) {
+                pos += 2;
+                final String datatype = parseIri();
+                finishStatement();
+                sink.literal(subject, predicate, lexicalForm, datatype);
+            } else if (peek() == '@') {
+                final String language = parseLanguage();
+                finishStatement();
+                sink.langString(subject, predicate, lexicalForm, language);
+            } else {
+                finishStatement();
+                sink.literal(subject, predicate, lexicalForm, XSD.STRING);
+            }
+        } else {
+            final String object = parseResource();
+            finishStatement();
+            sink.statement(subject, predicate, object);
+        }
+    }
+
+    private void finishStatement() {
+        skipWhitespace();
+        if (peek() != '.') {
+            // Graph label of an N-Quads statement
+            parseResource();
+            skipWhitespace();
+        }
+        expect('.');
+        skipWhitespace();
+        if (pos < line.length() && line.charAt(pos) != '#') {
+            throw error("Unexpected content after end of statement");
+        }
+    }
+
+    private String parseResource() {
+        if (line.startsWith(IdentifierUtil.B_NODE_PREFIX, pos)) {
+            return parseBlankNode();
+        }
+        return parseIri();
+    }
+
+    private String parseBlankNode() {
+        final int start = pos;
+        pos += IdentifierUtil.B_NODE_PREFIX.length();
+        while (pos < line.length() && !isWhitespace(line.charAt(pos)) && line.charAt(pos) != '<' &&
+                line.charAt(pos) != '"') {
+            pos++;
+        }
+        // Blank node label cannot end with a dot, it belongs to the statement
+        while (line.charAt(pos - 1) == '.') {
+            pos--;
+        }
+        if (pos == start + IdentifierUtil.B_NODE_PREFIX.length()) {
+            throw error("Empty blank node label");
+        }
+        return line.substring(start, pos);
+    }
+
+    private String parseIri() {
+        expect('<');
+        final StringBuilder sb = new StringBuilder();
+        while (peek() != '>') {
+            final char c = line.charAt(pos++);
+            if (c == '\\') {
+                appendUnicodeEscape(sb);
+            } else {
+                sb.append(c);
+            }
+        }
+        pos++;
+        return sb.toString();
+    }
+
+    private String parseString() {
+        expect('"');
+        final StringBuilder sb = new StringBuilder();
+        while (peek() != '"') {
+            final char c = line.charAt(pos++);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            final char escaped = peek();
+            switch (escaped) {
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                    sb.append(escaped);
+                    break;
+                default:
+                    appendUnicodeEscape(sb);
+                    continue;
+            }
+            pos++;
+        }
+        pos++;
+        return sb.toString();
+    }
+
+    private void appendUnicodeEscape(StringBuilder sb) {
+        final char type = peek();
+        final int length = type == 'u' ? 4 : type == 'U' ? 8 : -1;
+        if (length < 0 || pos + 1 + length > line.length()) {
+            throw error("Invalid escape sequence");
+        }
+        try {
+            sb.appendCodePoint(Integer.parseInt(line.substring(pos + 1, pos + 1 + length), 16));
+        } catch (IllegalArgumentException e) {
+            throw error("Invalid escape sequence");
+        }
+        pos += 1 + length;
+    }
+
+    private String parseLanguage() {
+        expect('@');
+        final int start = pos;
+        while (pos < line.length() && (Character.isLetterOrDigit(line.charAt(pos)) || line.charAt(pos) == '-')) {
+            pos++;
+        }
+        if (pos == start) {
+            throw error("Empty language tag");
+        }
+        return line.substring(start, pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < line.length() && isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private char peek() {
+        if (pos >= line.length()) {
+            throw error("Unexpected end of line");
+        }
+        return line.charAt(pos);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private JsonLdDeserializationException error(String message) {
+        return new JsonLdDeserializationException(
+                "Invalid N-Triples at line " + lineNumber + ", column " + (pos + 1) + ": " + message + ".");
+    }
+}
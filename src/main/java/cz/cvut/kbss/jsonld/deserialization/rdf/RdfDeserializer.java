@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
+import cz.cvut.kbss.jsonld.deserialization.DefaultInstanceBuilder;
+import cz.cvut.kbss.jsonld.deserialization.JsonLdDeserializer;
+import cz.cvut.kbss.jsonld.deserialization.reference.PendingReferenceRegistry;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Deserializes objects directly from <a href="https://www.w3.org/TR/n-triples/">N-Triples</a>, without converting
+ * them to JSON-LD first.
+ * <p>
+ * The input (a {@link Reader} or a {@link CharSequence}) is parsed by {@link NTriplesParser} and the statements are
+ * grouped by their subjects. The subjects are then fed into an instance builder, starting from the root. Unless
+ * specified explicitly, the root is the first subject which is not referenced by any statement.
+ */
+public class RdfDeserializer extends JsonLdDeserializer {
+
+    public RdfDeserializer() {
+    }
+
+    public RdfDeserializer(Configuration configuration) {
+        super(configuration);
+    }
+
+    @Override
+    public <T> T deserialize(Object input, Class<T> resultClass) {
+        return deserialize(input, null, resultClass);
+    }
+
+    /**
+     * Deserializes the subject with the specified identifier from the specified N-Triples input.
+     *
+     * @param <T>         The type of the target object
+     * @param input       N-Triples input
+     * @param rootId      Identifier of the subject to deserialize, {@code null} to determine the root automatically
+     * @param resultClass Type of the result instance
+     * @return Deserialized Java instance
+     */
+    public <T> T deserialize(Object input, String rootId, Class<T> resultClass) {
+        Objects.requireNonNull(resultClass);
+        final Object event = JsonLdEvents.beginDeserialization();
+        final SubjectIndex index = parse(input);
+        final SubjectIndex.Subject root = findRoot(index, rootId);
+        final PendingReferenceRegistry referenceRegistry = new PendingReferenceRegistry(configuration().getMetrics());
+        final DefaultInstanceBuilder instanceBuilder = createInstanceBuilder(referenceRegistry);
+        new SubjectDeserializer(instanceBuilder, classResolver, configuration(), index).deserialize(root, resultClass);
+        referenceRegistry.verifyNoUnresolvedReferencesExist();
+        final T result = resultClass.cast(instanceBuilder.getCurrentRoot());
+        JsonLdEvents.endDeserialization(event, result.getClass(), instanceBuilder.getNodeCount(),
+                instanceBuilder.getMaxDepth());
+        return result;
+    }
+
+    private static SubjectIndex parse(Object input) {
+        final Reader reader;
+        if (input instanceof Reader) {
+            reader = (Reader) input;
+        } else if (input instanceof CharSequence) {
+            reader = new StringReader(input.toString());
+        } else {
+            throw new JsonLdDeserializationException(
+                    "RDF deserializer requires N-Triples as a Reader or a CharSequence.");
+        }
+        final SubjectIndex index = new SubjectIndex();
+        new NTriplesParser(reader).parse(index);
+        return index;
+    }
+
+    private static SubjectIndex.Subject findRoot(SubjectIndex index, String rootId) {
+        if (rootId == null) {
+            return index.findRoot().orElseThrow(
+                    () -> new JsonLdDeserializationException("The input does not contain any statements."));
+        }
+        final SubjectIndex.Subject root = index.get(rootId);
+        if (root == null) {
+            throw new JsonLdDeserializationException("The input does not contain any statements about " + rootId + ".");
+        }
+        return root;
+    }
+
+    private DefaultInstanceBuilder createInstanceBuilder(PendingReferenceRegistry referenceRegistry) {
+        return new DefaultInstanceBuilder(classResolver, referenceRegistry, createStringPool(), plans,
+                configuration().getMetrics());
+    }
+
+    @Override
+    public <T> T deserializeInto(Object input, T existing, Map<String, ?> knownInstances) {
+        Objects.requireNonNull(existing);
+        Objects.requireNonNull(knownInstances);
+        final Object event = JsonLdEvents.beginDeserialization();
+        final SubjectIndex index = parse(input);
+        final SubjectIndex.Subject root = findRoot(index, null);
+        final PendingReferenceRegistry referenceRegistry = new PendingReferenceRegistry(configuration().getMetrics());
+        final DefaultInstanceBuilder instanceBuilder = createInstanceBuilder(referenceRegistry);
+        instanceBuilder.enableMergeMode(knownInstances);
+        new SubjectDeserializer(instanceBuilder, classResolver, configuration(), index).deserializeInto(root, existing);
+        referenceRegistry.verifyNoUnresolvedReferencesExist();
+        JsonLdEvents.endDeserialization(event, existing.getClass(), instanceBuilder.getNodeCount(),
+                instanceBuilder.getMaxDepth());
+        return existing;
+    }
+}
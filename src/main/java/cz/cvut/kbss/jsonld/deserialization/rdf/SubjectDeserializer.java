@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
+import cz.cvut.kbss.jsonld.deserialization.InstanceBuilder;
+import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolver;
+import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds subjects from a {@link SubjectIndex} into an {@link InstanceBuilder}.
+ * <p>
+ * Referenced subjects are deserialized when they are first encountered, subsequent references to them are resolved by
+ * the instance builder (possibly via pending references).
+ */
+class SubjectDeserializer {
+
+    private final InstanceBuilder instanceBuilder;
+    private final TargetClassResolver targetResolver;
+    private final Configuration configuration;
+    private final SubjectIndex index;
+
+    private final Set<String> visited = new HashSet<>();
+
+    SubjectDeserializer(InstanceBuilder instanceBuilder, TargetClassResolver targetResolver,
+                        Configuration configuration, SubjectIndex index) {
+        this.instanceBuilder = instanceBuilder;
+        this.targetResolver = targetResolver;
+        this.configuration = configuration;
+        this.index = index;
+    }
+
+    void deserialize(SubjectIndex.Subject subject, Class<?> targetClass) {
+        visited.add(subject.id);
+        final Class<?> cls = resolveTargetClass(subject, targetClass);
+        openObject(() -> instanceBuilder.openObject(subject.id, cls));
+        processSubject(subject);
+        instanceBuilder.closeObject();
+    }
+
+    void deserializeInto(SubjectIndex.Subject subject, Object existing) {
+        visited.add(subject.id);
+        openObject(() -> instanceBuilder.openExistingObject(subject.id, existing));
+        processSubject(subject);
+        instanceBuilder.closeObject();
+    }
+
+    private Class<?> resolveTargetClass(SubjectIndex.Subject subject, Class<?> targetClass) {
+        return BeanClassProcessor.isIdentifierType(targetClass) ? targetClass :
+               targetResolver.getTargetClass(targetClass, subject.types);
+    }
+
+    private void openObject(Runnable opener) {
+        try {
+            opener.run();
+        } catch (UnknownPropertyException e) {
+            if (!configuration.is(ConfigParam.IGNORE_UNKNOWN_PROPERTIES)) {
+                throw e;
+            }
+        }
+    }
+
+    private void processSubject(SubjectIndex.Subject subject) {
+        if (instanceBuilder.getCurrentContextType() == null) {
+            // Subject deserialized as a plain identifier, its statements may be used by another reference
+            visited.remove(subject.id);
+            return;
+        }
+        if (!subject.types.isEmpty()) {
+            instanceBuilder.openCollection(JsonLd.TYPE);
+            subject.types.forEach(instanceBuilder::addValue);
+            instanceBuilder.closeCollection();
+        }
+        for (Map.Entry<String, List<Object>> e : subject.properties.entrySet()) {
+            final String property = e.getKey();
+            if (!instanceBuilder.isPropertyDeserializable(property)) {
+                if (!instanceBuilder.isPropertyMapped(property) &&
+                        !configuration.is(ConfigParam.IGNORE_UNKNOWN_PROPERTIES)) {
+                    throw UnknownPropertyException.create(property, instanceBuilder.getCurrentContextType());
+                }
+                continue;
+            }
+            processValues(property, index.foldLists(e.getValue()));
+        }
+    }
+
+    private void processValues(String property, List<Object> values) {
+        final boolean plural = instanceBuilder.isPlural(property);
+        if (values.size() == 1 && !plural) {
+            processSingularValue(property, values.get(0));
+            return;
+        }
+        if (values.isEmpty() && !plural) {
+            // Empty RDF list as value of a singular property
+            return;
+        }
+        instanceBuilder.openCollection(property);
+        values.forEach(this::processItem);
+        instanceBuilder.closeCollection();
+    }
+
+    private void processSingularValue(String property, Object value) {
+        if (!(value instanceof SubjectIndex.Reference)) {
+            instanceBuilder.addValue(property, value);
+            return;
+        }
+        final String id = ((SubjectIndex.Reference) value).id;
+        final SubjectIndex.Subject subject = index.get(id);
+        if (subject != null && visited.add(id)) {
+            instanceBuilder.openObject(id, property, subject.types);
+            processSubject(subject);
+            instanceBuilder.closeObject();
+        } else {
+            instanceBuilder.addNodeReference(property, id);
+        }
+    }
+
+    private void processItem(Object value) {
+        if (!(value instanceof SubjectIndex.Reference)) {
+            instanceBuilder.addValue(value);
+            return;
+        }
+        final String id = ((SubjectIndex.Reference) value).id;
+        final SubjectIndex.Subject subject = index.get(id);
+        final Class<?> elementType =
+                instanceBuilder.isCurrentCollectionProperties() ? null : instanceBuilder.getCurrentCollectionElementType();
+        if (subject != null && elementType != null && visited.add(id)) {
+            deserializeNested(subject, elementType);
+        } else {
+            instanceBuilder.addNodeReference(id);
+        }
+    }
+
+    private void deserializeNested(SubjectIndex.Subject subject, Class<?> elementType) {
+        final Class<?> cls = resolveTargetClass(subject, elementType);
+        openObject(() -> instanceBuilder.openObject(subject.id, cls));
+        processSubject(subject);
+        instanceBuilder.closeObject();
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.deserialization.util.LangString;
+import cz.cvut.kbss.jsonld.deserialization.util.XSDTypeCoercer;
+import cz.cvut.kbss.jsonld.serialization.rdf.RdfSink;
+
+import java.util.*;
+
+/**
+ * Groups received statements by their subjects.
+ * <p>
+ * Literals are coerced to Java values using {@link XSDTypeCoercer} when they are received, so that only the resulting
+ * values are kept. Literals with datatypes not supported by the coercer and literals whose lexical form is not valid for
+ * their datatype are kept as their lexical forms.
+ * <p>
+ * RDF lists ({@code rdf:first}/{@code rdf:rest} chains) can be folded back into the sequence of their items using
+ * {@link #foldLists(List)}.
+ */
+class SubjectIndex implements RdfSink {
+
+    private static final String RDF_FIRST = RDF.NAMESPACE + "first";
+    private static final String RDF_REST = RDF.NAMESPACE + "rest";
+    private static final String RDF_NIL = RDF.NAMESPACE + "nil";
+
+    private final Map<String, Subject> subjects = new LinkedHashMap<>();
+
+    private final Set<String> referenced = new HashSet<>();
+
+    @Override
+    public void statement(String subject, String predicate, String object) {
+        if (RDF.TYPE.equals(predicate)) {
+            getOrCreate(subject).types.add(object);
+        } else {
+            getOrCreate(subject).addValue(predicate, new Reference(object));
+            referenced.add(object);
+        }
+    }
+
+    @Override
+    public void literal(String subject, String predicate, String lexicalForm, String datatype) {
+        getOrCreate(subject).addValue(predicate, coerce(lexicalForm, datatype));
+    }
+
+    private static Object coerce(String lexicalForm, String datatype) {
+        if (XSD.STRING.equals(datatype)) {
+            return lexicalForm;
+        }
+        try {
+            return XSDTypeCoercer.coerceType(lexicalForm, datatype);
+        } catch (RuntimeException e) {
+            // Unsupported datatype (IllegalArgumentException) or malformed value, e.g., DateTimeParseException
+            return lexicalForm;
+        }
+    }
+
+    @Override
+    public void langString(String subject, String predicate, String lexicalForm, String language) {
+        getOrCreate(subject).addValue(predicate, new LangString(lexicalForm, language));
+    }
+
+    private Subject getOrCreate(String id) {
+        return subjects.computeIfAbsent(id, Subject::new);
+    }
+
+    Subject get(String id) {
+        return subjects.get(id);
+    }
+
+    /**
+     * Replaces references to RDF lists in the specified values with the items of the lists.
+     * <p>
+     * A reference to {@code rdf:nil} represents an empty list and is thus dropped.
+     *
+     * @param values Property values
+     * @return Values with the list items in place of the lists, the specified list if it references no list
+     */
+    List<Object> foldLists(List<Object> values) {
+        if (values.stream().noneMatch(this::isList)) {
+            return values;
+        }
+        final List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (isList(value)) {
+                appendListItems(((Reference) value).id, result);
+            } else {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private boolean isList(Object value) {
+        if (!(value instanceof Reference)) {
+            return false;
+        }
+        final String id = ((Reference) value).id;
+        if (RDF_NIL.equals(id)) {
+            return true;
+        }
+        final Subject subject = subjects.get(id);
+        return subject != null && subject.properties.containsKey(RDF_FIRST);
+    }
+
+    private void appendListItems(String head, List<Object> items) {
+        final Set<String> visited = new HashSet<>();
+        String node = head;
+        // Guards against cyclic lists
+        while (!RDF_NIL.equals(node) && visited.add(node)) {
+            final Subject subject = subjects.get(node);
+            if (subject == null) {
+                return;
+            }
+            items.addAll(subject.properties.getOrDefault(RDF_FIRST, Collections.emptyList()));
+            final List<Object> rest = subject.properties.get(RDF_REST);
+            if (rest == null || rest.size() != 1 || !(rest.get(0) instanceof Reference)) {
+                return;
+            }
+            node = ((Reference) rest.get(0)).id;
+        }
+    }
+
+    /**
+     * Finds the root subject, i.e., the first subject which is not referenced by any statement.
+     * <p>
+     * If every subject is referenced, the first subject is returned.
+     *
+     * @return Root subject, empty if there are no subjects
+     */
+    Optional<Subject> findRoot() {
+        final Optional<Subject> root = subjects.values().stream().filter(s -> !referenced.contains(s.id)).findFirst();
+        return root.isPresent() ? root : subjects.values().stream().findFirst();
+    }
+
+    static final class Subject {
+
+        final String id;
+        final List<String> types = new ArrayList<>(2);
+        final Map<String, List<Object>> properties = new LinkedHashMap<>();
+
+        private Subject(String id) {
+            this.id = id;
+        }
+
+        private void addValue(String property, Object value) {
+            properties.computeIfAbsent(property, p -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    /**
+     * Resource in the object position of a statement.
+     */
+    static final class Reference {
+
+        final String id;
+
+        private Reference(String id) {
+            this.id = id;
+        }
+    }
+}
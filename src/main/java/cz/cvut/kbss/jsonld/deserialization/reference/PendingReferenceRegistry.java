@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jsonld.deserialization.reference;
 
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.exception.UnresolvedReferenceException;
 
 import java.lang.reflect.Field;
@@ -26,6 +27,22 @@ public class PendingReferenceRegistry {
 
     private final Map<String, Set<PendingReference>> pendingReferences = new HashMap<>();
 
+    private final JsonLdMetrics metrics;
+
+    public PendingReferenceRegistry() {
+        this(JsonLdMetrics.NO_OP);
+    }
+
+    /**
+     * Creates a registry reporting the number of pending references and time of their resolution to the specified
+     * listener.
+     *
+     * @param metrics Metrics listener
+     */
+    public PendingReferenceRegistry(JsonLdMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
     /**
      * Registers a pending reference with the specified identifier.
      *
@@ -43,6 +60,7 @@ public class PendingReferenceRegistry {
     private void addReference(String identifier, PendingReference reference) {
         final Set<PendingReference> refs = pendingReferences.computeIfAbsent(identifier, (id) -> new HashSet<>());
         refs.add(reference);
+        metrics.count(JsonLdMetrics.Counter.PENDING_REFERENCES, 1);
     }
 
     /**
@@ -73,7 +91,9 @@ public class PendingReferenceRegistry {
         assert referencedObject != null;
         final Set<PendingReference> refs = pendingReferences.remove(identifier);
         if (refs != null) {
+            final long start = metrics.startTimer();
             refs.forEach(pr -> pr.apply(referencedObject));
+            metrics.stopTimer(JsonLdMetrics.Phase.REFERENCE_RESOLUTION, start);
         }
     }
 
@@ -83,9 +103,25 @@ public class PendingReferenceRegistry {
      * @throws UnresolvedReferenceException Thrown when pending references exist
      */
     public void verifyNoUnresolvedReferencesExist() {
-        if (!pendingReferences.isEmpty()) {
-            throw new UnresolvedReferenceException(
-                    "There are unresolved references to objects " + pendingReferences.keySet());
+        verifyNoUnresolvedReferencesExist(Collections.emptySet());
+    }
+
+    /**
+     * Checks whether any pending unresolved references are left, ignoring references with the specified identifiers.
+     * <p>
+     * This allows to verify a partially deserialized document, where the ignored identifiers are those of nodes whose
+     * deserialization has been deferred.
+     *
+     * @param deferredIdentifiers Identifiers of references which may still be resolved later
+     * @throws UnresolvedReferenceException Thrown when pending references with other identifiers exist
+     */
+    public void verifyNoUnresolvedReferencesExist(Set<String> deferredIdentifiers) {
+        Objects.requireNonNull(deferredIdentifiers);
+        if (deferredIdentifiers.containsAll(pendingReferences.keySet())) {
+            return;
         }
+        final Set<String> unresolved = new HashSet<>(pendingReferences.keySet());
+        unresolved.removeAll(deferredIdentifiers);
+        throw new UnresolvedReferenceException("There are unresolved references to objects " + unresolved);
     }
 }
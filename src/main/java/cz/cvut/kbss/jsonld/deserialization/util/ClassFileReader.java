@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Reads class names and class-level annotations directly from class files, without loading the classes.
+ * <p>
+ * Only the parts of the class file format needed to find runtime-visible class annotations are parsed. The constant
+ * pool is checked first, so that classes which do not reference the annotation type at all are rejected without
+ * reading the rest of the file.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html">The class File Format</a>
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private ClassFileReader() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Gets the binary name of a class annotated with the specified annotation.
+     *
+     * @param classFile            Content of the class file
+     * @param annotationDescriptor Descriptor of the annotation type, e.g. {@code Ljava/lang/Deprecated;}
+     * @return Binary name of the class (e.g. {@code java.util.Map$Entry}) if the class is directly annotated with the
+     * annotation, {@code null} otherwise
+     * @throws IOException If the class file is malformed
+     */
+    static String getAnnotatedClassName(byte[] classFile, String annotationDescriptor) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file.");
+        }
+        // Minor and major version
+        in.skipBytes(4);
+        final int poolSize = in.readUnsignedShort();
+        final String[] utf8 = new String[poolSize];
+        final int[] classNameIndexes = new int[poolSize];
+        boolean referencesAnnotation = false;
+        for (int i = 1; i < poolSize; i++) {
+            final int tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8[i] = in.readUTF();
+                    referencesAnnotation |= annotationDescriptor.equals(utf8[i]);
+                    break;
+                case CONSTANT_CLASS:
+                    classNameIndexes[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    in.skipBytes(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.skipBytes(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    in.skipBytes(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    in.skipBytes(8);
+                    // Eight-byte constants take up two entries
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + ".");
+            }
+        }
+        if (!referencesAnnotation) {
+            return null;
+        }
+        // Access flags
+        in.skipBytes(2);
+        final int thisClass = in.readUnsignedShort();
+        // Superclass
+        in.skipBytes(2);
+        in.skipBytes(2 * in.readUnsignedShort());
+        skipMembers(in);
+        skipMembers(in);
+        final int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            final String name = utf8[in.readUnsignedShort()];
+            final int length = in.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                if (containsAnnotation(in, utf8, annotationDescriptor)) {
+                    return utf8[classNameIndexes[thisClass]].replace('/', '.');
+                }
+                return null;
+            }
+            in.skipBytes(length);
+        }
+        return null;
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            // Access flags, name and descriptor
+            in.skipBytes(6);
+            final int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+    }
+
+    private static boolean containsAnnotation(DataInputStream in, String[] utf8, String annotationDescriptor)
+            throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            if (annotationDescriptor.equals(utf8[in.readUnsignedShort()])) {
+                return true;
+            }
+            skipElementValuePairs(in);
+        }
+        return false;
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        final int pairCount = in.readUnsignedShort();
+        for (int i = 0; i < pairCount; i++) {
+            // Element name
+            in.skipBytes(2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                // Enum type name and constant name
+                in.skipBytes(4);
+                break;
+            case '@':
+                // Annotation type
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+                break;
+            case '[':
+                final int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(in);
+                }
+                break;
+            default:
+                // Constant value or class index
+                in.skipBytes(2);
+                break;
+        }
+    }
+
+    /**
+     * Creates a class file descriptor of the specified type.
+     *
+     * @param type Type
+     * @return Type descriptor, e.g. {@code Ljava/lang/Deprecated;}
+     */
+    static String toDescriptor(Class<?> type) {
+        return 'L' + type.getName().replace('.', '/') + ';';
+    }
+}
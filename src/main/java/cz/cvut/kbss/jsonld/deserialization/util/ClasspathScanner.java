@@ -14,24 +14,34 @@
  */
 package cz.cvut.kbss.jsonld.deserialization.util;
 
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
 import cz.cvut.kbss.jsonld.exception.JsonLdException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Enumeration;
-import java.util.Objects;
+import java.nio.file.Files;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 /**
  * Processes classpath accessible to the application and passes all discovered classes to the registered listener.
+ * <p>
+ * If the scanner is created with an annotation filter, class files are inspected without loading the classes and only
+ * classes directly annotated with the annotation are loaded and passed to the listener.
+ * <p>
+ * Jar files are scanned in parallel, the listener is always invoked by the thread calling {@link
+ * #processClasses(String)}. Classes are loaded without being initialized.
  */
 public class ClasspathScanner {
 
@@ -39,17 +49,39 @@ public class ClasspathScanner {
 
     private static final String JAR_FILE_SUFFIX = ".jar";
     private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+    private static final String VERSIONS_PACKAGE = "META-INF.versions";
+    private static final int JAVA_VERSION = resolveJavaVersion();
 
     private final Consumer<Class<?>> listener;
 
+    // Descriptor of the annotation required on processed classes, null if all classes are processed
+    private final String annotationDescriptor;
+
+    private int classCount;
+
     public ClasspathScanner(Consumer<Class<?>> listener) {
         this.listener = Objects.requireNonNull(listener);
+        this.annotationDescriptor = null;
+    }
+
+    /**
+     * Creates a scanner which passes only classes directly annotated with the specified annotation to the listener.
+     * <p>
+     * The annotation must have runtime retention.
+     *
+     * @param annotation Annotation required on processed classes
+     * @param listener   Listener to pass the discovered classes to
+     */
+    public ClasspathScanner(Class<? extends Annotation> annotation, Consumer<Class<?>> listener) {
+        this.listener = Objects.requireNonNull(listener);
+        this.annotationDescriptor = ClassFileReader.toDescriptor(annotation);
     }
 
     /**
      * Scans classpath accessible from the current thread's class loader.
      * <p>
-     * All available classes are passed to the registered consumer.
+     * All available classes (matching the annotation filter, if specified) are passed to the registered consumer.
      * <p>
      * The {@code scanPath} parameter means that only the specified package (and it subpackages) should be searched.
      * This parameter is optional, but it is highly recommended to specify it, as it can speed up the process
@@ -63,15 +95,19 @@ public class ClasspathScanner {
         if (scanPath == null) {
             scanPath = "";
         }
+        final Object event = JsonLdEvents.beginClasspathScan();
+        this.classCount = 0;
         final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        final Set<String> classNames = new LinkedHashSet<>();
+        final List<URL> jars = new ArrayList<>();
         try {
             Enumeration<URL> urls = loader.getResources(scanPath.replace('.', '/'));
             while (urls.hasMoreElements()) {
                 final URL url = urls.nextElement();
                 if (isJar(url.toString())) {
-                    processJarFile(url, scanPath);
+                    jars.add(url);
                 } else {
-                    processDirectory(new File(getUrlAsUri(url).getPath()), scanPath);
+                    scanDirectory(new File(getUrlAsUri(url).getPath()), scanPath, classNames, jars);
                 }
             }
             // Scan jar files on classpath
@@ -79,11 +115,16 @@ public class ClasspathScanner {
             while (resources.hasMoreElements()) {
                 URL resourceURL = resources.nextElement();
                 if (isJar(resourceURL.toString()))
-                    processJarFile(resourceURL, scanPath);
+                    jars.add(resourceURL);
             }
         } catch (IOException e) {
             throw new JsonLdException("Unable to scan packages.", e);
         }
+        final String packageName = scanPath;
+        jars.parallelStream().map(jar -> scanJarFile(jar, packageName)).collect(Collectors.toList())
+            .forEach(classNames::addAll);
+        classNames.forEach(this::processClass);
+        JsonLdEvents.endClasspathScan(event, scanPath, classCount);
     }
 
     private static boolean isJar(String filePath) {
@@ -100,53 +141,115 @@ public class ClasspathScanner {
     }
 
     protected void processJarFile(URL jarResource, String packageName) {
+        scanJarFile(jarResource, packageName).forEach(this::processClass);
+    }
+
+    /**
+     * Finds classes in the specified package in the specified jar file.
+     * <p>
+     * This method may be invoked concurrently for different jar files.
+     *
+     * @return Names of the discovered classes
+     */
+    private List<String> scanJarFile(URL jarResource, String packageName) {
         final String relPath = packageName.replace('.', '/');
         final String jarPath = jarResource.getPath().replaceFirst("[.]jar[!].*", JAR_FILE_SUFFIX)
                                           .replaceFirst("file:", "");
 
         LOG.trace("Scanning jar file {} for classes.", jarPath);
+        final List<String> result = new ArrayList<>();
         try (final JarFile jarFile = new JarFile(jarPath)) {
             final Enumeration<JarEntry> entries = jarFile.entries();
             while (entries.hasMoreElements()) {
                 final JarEntry entry = entries.nextElement();
                 final String entryName = entry.getName();
-                String className = null;
-                if (shouldSkipEntry(entryName)) {
+                if (shouldSkipEntry(entryName) || !entryName.endsWith(CLASS_FILE_SUFFIX) ||
+                        !entryName.contains(relPath)) {
                     continue;
                 }
-                if (entryName.endsWith(CLASS_FILE_SUFFIX) && entryName.contains(relPath)) {
-                    // Remove prefix from multi-release JAR class names
-                    className = entryName.replaceFirst("META-INF/versions/[1-9][0-9]*/", "");
-                    className = className.replaceFirst("WEB-INF/classes/", "");
-                    className = className.replaceFirst("BOOT-INF/classes/", "");
-                    className = className.replace('/', '.').replace('\\', '.');
-                    className = className.substring(0, className.length() - CLASS_FILE_SUFFIX.length());
+                final String className;
+                if (annotationDescriptor != null) {
+                    try (final InputStream in = jarFile.getInputStream(entry)) {
+                        className = getAnnotatedClassName(readBytes(in), entryName);
+                    }
+                } else {
+                    className = toClassName(entryName);
                 }
                 if (className != null) {
-                    processClass(className);
+                    result.add(className);
                 }
             }
         } catch (IOException e) {
             LOG.error("Unable to scan classes in JAR file " + jarPath, e);
         }
+        return result;
+    }
+
+    private static String toClassName(String entryName) {
+        // Remove prefix from multi-release JAR class names
+        String className = entryName.replaceFirst("META-INF/versions/[1-9][0-9]*/", "");
+        className = className.replaceFirst("WEB-INF/classes/", "");
+        className = className.replaceFirst("BOOT-INF/classes/", "");
+        className = className.replace('/', '.').replace('\\', '.');
+        return className.substring(0, className.length() - CLASS_FILE_SUFFIX.length());
+    }
+
+    private String getAnnotatedClassName(byte[] classFile, String source) {
+        try {
+            return ClassFileReader.getAnnotatedClassName(classFile, annotationDescriptor);
+        } catch (IOException e) {
+            LOG.warn("Unable to read class file " + source, e);
+            return null;
+        }
+    }
+
+    private static byte[] readBytes(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
     }
 
     private static boolean shouldSkipEntry(String entryName) {
         // Skip module-info.class files
-        return entryName.endsWith("module-info" + CLASS_FILE_SUFFIX);
+        return entryName.endsWith("module-info" + CLASS_FILE_SUFFIX) || isUnsupportedVersionEntry(entryName);
+    }
+
+    /**
+     * Multi-release JAR entries for newer Java versions than the current one cannot be loaded.
+     */
+    static boolean isUnsupportedVersionEntry(String entryName) {
+        if (!entryName.startsWith(VERSIONS_PREFIX)) {
+            return false;
+        }
+        final int end = entryName.indexOf('/', VERSIONS_PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(entryName.substring(VERSIONS_PREFIX.length(), end)) > JAVA_VERSION;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static int resolveJavaVersion() {
+        final String version = System.getProperty("java.specification.version", "1.8");
+        // Java 8 and older use the 1.x format
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
     }
 
     private void processClass(String className) {
         try {
-            final Class<?> cls = Class.forName(className);
+            final Class<?> cls = Class.forName(className, false, ClasspathScanner.class.getClassLoader());
+            classCount++;
             listener.accept(cls);
         } catch (ClassNotFoundException | NoClassDefFoundError e) {
             LOG.error("Unable to process class " + className, e);
         }
     }
 
-    private void processDirectory(File dir, String packageName)
-            throws MalformedURLException {
+    void scanDirectory(File dir, String packageName, Set<String> classNames, List<URL> jars) throws IOException {
         LOG.trace("Scanning directory {}.", dir);
         // Get the list of the files contained in the package
         final String[] files = dir.list();
@@ -154,20 +257,28 @@ public class ClasspathScanner {
             return;
         }
         for (String fileName : files) {
-            String className = null;
+            final File file = new File(dir, fileName);
             // we are only interested in .class files
             if (fileName.endsWith(CLASS_FILE_SUFFIX)) {
-                // removes the .class extension
-                className = packageName + '.' + fileName.substring(0, fileName.length() - 6);
-            }
-            if (className != null) {
-                processClass(className);
+                final String className;
+                if (annotationDescriptor != null) {
+                    className = getAnnotatedClassName(Files.readAllBytes(file.toPath()), file.getPath());
+                } else {
+                    // removes the .class extension
+                    className = packageName + '.' + fileName.substring(0, fileName.length() - 6);
+                }
+                if (className != null) {
+                    classNames.add(className);
+                }
             }
-            final File subDir = new File(dir, fileName);
-            if (subDir.isDirectory()) {
-                processDirectory(subDir, packageName + (!packageName.isEmpty() ? '.' : "") + fileName);
-            } else if (isJar(subDir.getAbsolutePath())) {
-                processJarFile(subDir.toURI().toURL(), packageName);
+            if (file.isDirectory()) {
+                final String subPackage = packageName + (!packageName.isEmpty() ? '.' : "") + fileName;
+                // Versioned classes of a multi-release output directory cannot be loaded by their path-based names
+                if (!VERSIONS_PACKAGE.equals(subPackage)) {
+                    scanDirectory(file, subPackage, classNames, jars);
+                }
+            } else if (isJar(file.getAbsolutePath())) {
+                jars.add(file.toURI().toURL());
             }
         }
     }
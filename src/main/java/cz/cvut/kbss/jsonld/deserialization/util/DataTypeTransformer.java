@@ -58,6 +58,8 @@ public class DataTypeTransformer {
         rules.put(new TransformationRuleIdentifier<>(Long.class, Date.class), (src) -> new Date((Long) src));
         rules.put(new TransformationRuleIdentifier<>(ZonedDateTime.class, LocalDateTime.class),
                 src -> ((ZonedDateTime) src).toLocalDateTime());
+        rules.put(new TransformationRuleIdentifier<>(ZonedDateTime.class, Date.class),
+                src -> Date.from(((ZonedDateTime) src).toInstant()));
         rules.put(new TransformationRuleIdentifier<>(LangString.class, MultilingualString.class), src -> {
             final LangString ls = (LangString) src;
             return new MultilingualString(Collections.singletonMap(ls.getLanguage(), ls.getValue()));
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * List whose content is loaded on first access.
+ * <p>
+ * All operations are delegated to the list provided by the loader. The loader is invoked at most once.
+ *
+ * @param <E> Element type
+ * @see cz.cvut.kbss.jsonld.ConfigParam#LAZY_COLLECTIONS
+ */
+public final class LazyList<E> extends AbstractList<E> {
+
+    private Supplier<? extends List<E>> loader;
+
+    private volatile List<E> delegate;
+
+    public LazyList(Supplier<? extends List<E>> loader) {
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+    /**
+     * Whether the content of this list has already been loaded.
+     *
+     * @return {@code true} if the list is loaded, {@code false} otherwise
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    private List<E> delegate() {
+        List<E> result = delegate;
+        if (result == null) {
+            synchronized (this) {
+                result = delegate;
+                if (result == null) {
+                    result = Objects.requireNonNull(loader.get());
+                    this.delegate = result;
+                    this.loader = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public E get(int index) {
+        return delegate().get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate().size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return delegate().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        delegate().add(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        return delegate().remove(index);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return delegate().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return isLoaded() ? delegate.toString() : "LazyList{not loaded}";
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Set whose content is loaded on first access.
+ * <p>
+ * All operations are delegated to the set provided by the loader. The loader is invoked at most once.
+ *
+ * @param <E> Element type
+ * @see cz.cvut.kbss.jsonld.ConfigParam#LAZY_COLLECTIONS
+ */
+public final class LazySet<E> extends AbstractSet<E> {
+
+    private Supplier<? extends Set<E>> loader;
+
+    private volatile Set<E> delegate;
+
+    public LazySet(Supplier<? extends Set<E>> loader) {
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+    /**
+     * Whether the content of this set has already been loaded.
+     *
+     * @return {@code true} if the set is loaded, {@code false} otherwise
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    private Set<E> delegate() {
+        Set<E> result = delegate;
+        if (result == null) {
+            synchronized (this) {
+                result = delegate;
+                if (result == null) {
+                    result = Objects.requireNonNull(loader.get());
+                    this.delegate = result;
+                    this.loader = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return delegate().iterator();
+    }
+
+    @Override
+    public int size() {
+        return delegate().size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return delegate().contains(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return delegate().add(e);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return delegate().remove(o);
+    }
+
+    @Override
+    public String toString() {
+        return isLoaded() ? delegate.toString() : "LazySet{not loaded}";
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded pool of canonical string and {@link URI} instances.
+ * <p>
+ * Large JSON-LD documents tend to contain the same identifiers, types and language tags many times. This pool allows
+ * the deserialization to use a single instance for all equal values, so that the resulting object graph does not hold
+ * unnecessary copies of them.
+ * <p>
+ * When the pool reaches its maximum size, the least recently used values are evicted. A pool with zero size is
+ * disabled, i.e., it returns the values passed to it.
+ * <p>
+ * This class is not thread-safe, a pool is expected to be used by a single deserialization process.
+ */
+public class StringPool {
+
+    private static final StringPool DISABLED = new StringPool(0);
+
+    private final int maxSize;
+
+    private final Map<String, String> strings;
+    private final Map<String, URI> uris;
+
+    /**
+     * Creates a pool of the specified size.
+     *
+     * @param maxSize Maximum number of values held by the pool. Applies separately to strings and URIs
+     */
+    public StringPool(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative.");
+        }
+        this.maxSize = maxSize;
+        this.strings = maxSize > 0 ? new BoundedMap<>(maxSize) : null;
+        this.uris = maxSize > 0 ? new BoundedMap<>(maxSize) : null;
+    }
+
+    /**
+     * Gets a disabled pool, which performs no deduplication.
+     *
+     * @return Disabled pool
+     */
+    public static StringPool disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Whether this pool performs any deduplication.
+     *
+     * @return {@code true} if the pool size is greater than zero, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Gets the canonical instance of the specified string.
+     *
+     * @param value The value to canonicalize, possibly {@code null}
+     * @return Canonical instance equal to the argument
+     */
+    public String intern(String value) {
+        if (value == null || !isEnabled()) {
+            return value;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Gets a {@link URI} created from the specified string.
+     * <p>
+     * Repeated calls with equal arguments return the same {@code URI} instance (as long as it has not been evicted).
+     *
+     * @param value String representation of the URI
+     * @return URI instance
+     * @see URI#create(String)
+     */
+    public URI uri(String value) {
+        if (!isEnabled()) {
+            return URI.create(value);
+        }
+        return uris.computeIfAbsent(intern(value), URI::create);
+    }
+
+    private static final class BoundedMap<K, V> extends LinkedHashMap<K, V> {
+
+        private final int maxSize;
+
+        private BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -13,16 +13,16 @@
 package cz.cvut.kbss.jsonld.deserialization.util;
 
 import cz.cvut.kbss.jopa.model.annotations.OWLClass;
-import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.exception.AmbiguousTargetTypeException;
 import cz.cvut.kbss.jsonld.exception.TargetTypeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -36,14 +36,20 @@ public class TargetClassResolver {
 
     private final TargetClassResolverConfig config;
 
+    private final JsonLdMetrics metrics;
+
     public TargetClassResolver(TypeMap typeMap) {
-        this.typeMap = typeMap;
-        this.config = new TargetClassResolverConfig();
+        this(typeMap, new TargetClassResolverConfig());
     }
 
     public TargetClassResolver(TypeMap typeMap, TargetClassResolverConfig config) {
+        this(typeMap, config, JsonLdMetrics.NO_OP);
+    }
+
+    public TargetClassResolver(TypeMap typeMap, TargetClassResolverConfig config, JsonLdMetrics metrics) {
         this.typeMap = typeMap;
         this.config = config;
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     /**
@@ -57,16 +63,24 @@ public class TargetClassResolver {
      *                             determined
      */
     public <T> Class<? extends T> getTargetClass(Class<T> expectedClass, Collection<String> types) {
+        final long start = metrics.startTimer();
+        try {
+            return resolveTargetClass(expectedClass, types);
+        } finally {
+            metrics.stopTimer(JsonLdMetrics.Phase.TARGET_RESOLUTION, start);
+        }
+    }
+
+    private <T> Class<? extends T> resolveTargetClass(Class<T> expectedClass, Collection<String> types) {
         if (types.isEmpty() && config.shouldAllowAssumingTargetType()) {
             LOG.trace("Assuming target type to be " + expectedClass);
             return expectedClass;
         }
-        final List<Class<?>> candidates = getTargetClassCandidates(types);
+        final BitSet candidates = getTargetClassCandidates(expectedClass, types);
         final Class<?> targetCandidate;
-        reduceTargetClassCandidates(expectedClass, candidates);
-        final List<Class<?>> reducedCandidates = new ArrayList<>(candidates);
-        reduceToMostSpecificSubclasses(candidates);
-        if (candidates.isEmpty()) {
+        final BitSet mostSpecificCandidates = (BitSet) candidates.clone();
+        typeMap.reduceToMostSpecific(mostSpecificCandidates);
+        if (mostSpecificCandidates.isEmpty()) {
             if (doesExpectedClassMatchesTypes(expectedClass, types)) {
                 targetCandidate = expectedClass;
             } else {
@@ -74,53 +88,67 @@ public class TargetClassResolver {
                         "Neither " + expectedClass + " nor any of its subclasses matches the types " + types + ".");
             }
         } else {
-            targetCandidate = selectFinalTargetClass(candidates, reducedCandidates, types);
+            targetCandidate = selectFinalTargetClass(mostSpecificCandidates, candidates, types);
         }
         assert expectedClass.isAssignableFrom(targetCandidate);
         return (Class<? extends T>) targetCandidate;
     }
 
-    private List<Class<?>> getTargetClassCandidates(Collection<String> types) {
-        return types.stream().flatMap(t -> typeMap.get(t).stream()).collect(Collectors.toList());
-    }
-
-    private void reduceTargetClassCandidates(Class<?> expectedClass, List<Class<?>> candidates) {
-        candidates.removeIf(c -> !expectedClass.isAssignableFrom(c) || Modifier.isAbstract(c.getModifiers()));
-    }
-
-    private void reduceToMostSpecificSubclasses(List<Class<?>> candidates) {
-        candidates.removeIf(cls -> candidates.stream().anyMatch(c -> !cls.equals(c) && cls.isAssignableFrom(c)));
+    /**
+     * Gets identifiers of non-abstract classes mapped to the specified types and assignable to the expected class.
+     */
+    private BitSet getTargetClassCandidates(Class<?> expectedClass, Collection<String> types) {
+        final BitSet candidates = new BitSet();
+        types.forEach(t -> typeMap.addClassIds(t, candidates));
+        candidates.and(typeMap.getAssignableTo(expectedClass));
+        candidates.and(typeMap.getConcreteClasses());
+        return candidates;
     }
 
-    private Class<?> selectFinalTargetClass(List<Class<?>> mostSpecificCandidates, List<Class<?>> candidates,
+    private Class<?> selectFinalTargetClass(BitSet mostSpecificCandidates, BitSet candidates,
                                             Collection<String> types) {
-        assert mostSpecificCandidates.size() > 0;
-        if (mostSpecificCandidates.size() > 1) {
+        assert !mostSpecificCandidates.isEmpty();
+        if (mostSpecificCandidates.cardinality() > 1) {
             if (!config.isOptimisticTypeResolutionEnabled()) {
-                throw ambiguousTargetType(types, mostSpecificCandidates);
+                throw ambiguousTargetType(types, toClasses(mostSpecificCandidates));
             }
             if (config.shouldPreferSuperclass()) {
-                return selectTargetClassWithSuperclassPreference(mostSpecificCandidates, candidates);
+                return selectTargetClassWithSuperclassPreference(mostSpecificCandidates, candidates, types);
             }
         }
-        return pickOne(mostSpecificCandidates);
+        return pickOne(mostSpecificCandidates, types);
     }
 
-    private static Class<?> pickOne(List<Class<?>> candidates) {
-        return candidates.size() == 1 ? candidates.get(0) :
-               candidates.stream().filter(BeanAnnotationProcessor::hasPropertiesField).findFirst()
-                         .orElse(candidates.get(0));
+    /**
+     * Picks a candidate, preferring classes with a {@link cz.cvut.kbss.jopa.model.annotations.Properties} field.
+     * <p>
+     * Candidates are considered in the order of the types they are mapped to, i.e., in document order.
+     */
+    private Class<?> pickOne(BitSet candidates, Collection<String> types) {
+        final BitSet withProperties = (BitSet) candidates.clone();
+        withProperties.and(typeMap.getClassesWithProperties());
+        final BitSet preferred = withProperties.isEmpty() ? candidates : withProperties;
+        final BitSet typeCandidates = new BitSet();
+        for (String type : types) {
+            typeCandidates.clear();
+            typeMap.addClassIds(type, typeCandidates);
+            typeCandidates.and(preferred);
+            if (!typeCandidates.isEmpty()) {
+                return typeMap.getRegisteredClass(typeCandidates.nextSetBit(0));
+            }
+        }
+        return typeMap.getRegisteredClass(preferred.nextSetBit(0));
     }
 
-    private Class<?> selectTargetClassWithSuperclassPreference(List<Class<?>> mostSpecificCandidates,
-                                                               List<Class<?>> candidates) {
-        candidates.removeAll(mostSpecificCandidates);
-        reduceToMostGeneralSuperclasses(candidates);
-        return pickOne(candidates);
+    private Class<?> selectTargetClassWithSuperclassPreference(BitSet mostSpecificCandidates, BitSet candidates,
+                                                               Collection<String> types) {
+        candidates.andNot(mostSpecificCandidates);
+        typeMap.reduceToMostGeneral(candidates);
+        return pickOne(candidates.isEmpty() ? mostSpecificCandidates : candidates, types);
     }
 
-    private void reduceToMostGeneralSuperclasses(List<Class<?>> candidates) {
-        candidates.removeIf(cls -> candidates.stream().anyMatch(c -> !cls.equals(c) && c.isAssignableFrom(cls)));
+    private List<Class<?>> toClasses(BitSet ids) {
+        return ids.stream().mapToObj(typeMap::getRegisteredClass).collect(Collectors.toList());
     }
 
     private static AmbiguousTargetTypeException ambiguousTargetType(Collection<String> types,
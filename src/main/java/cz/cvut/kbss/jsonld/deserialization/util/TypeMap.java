@@ -14,28 +14,183 @@
  */
 package cz.cvut.kbss.jsonld.deserialization.util;
 
+import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a map of type IRIs to their mapped Java classes.
  * <p>
  * Used by the deserialization when determining target class from JSON-LD object types.
  * <p>
- * This class is not synchronized, as it is expected that types will be registered by one thread once and then only queried.
+ * Besides the mapping, an index of the hierarchy of the registered classes is maintained. Each registered class gets
+ * an integer identifier and sets of its registered subclasses and superclasses are computed at registration time, so
+ * that target class candidates can be reduced using a few {@link BitSet} operations.
+ * <p>
+ * Registration is synchronized, queries are not synchronized with it. It is expected that types are registered once
+ * (e.g., by the classpath scan) before the map is queried, after which the map may be queried concurrently.
  */
 public class TypeMap {
 
     private final Map<String, Set<Class<?>>> typeMap = new HashMap<>();
 
+    private final Map<String, BitSet> typeIndex = new HashMap<>();
+
+    // Class identifiers are indexes into these lists
+    private final List<Class<?>> classes = new ArrayList<>();
+    private final List<BitSet> subclasses = new ArrayList<>();
+    private final List<BitSet> superclasses = new ArrayList<>();
+
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+
+    private final BitSet concreteClasses = new BitSet();
+
+    private final BitSet classesWithProperties = new BitSet();
+
+    // Registered classes assignable to classes which are not registered themselves (e.g., interfaces)
+    private final Map<Class<?>, BitSet> assignableCache = new ConcurrentHashMap<>();
+
     public synchronized void register(String type, Class<?> cls) {
         if (!typeMap.containsKey(type)) {
             // There will usually be only one class, so make the map as small as possible
             typeMap.put(type, new HashSet<>(2));
         }
         typeMap.get(type).add(cls);
+        typeIndex.computeIfAbsent(type, t -> new BitSet()).set(indexClass(cls));
+    }
+
+    private int indexClass(Class<?> cls) {
+        final Integer existing = classIds.get(cls);
+        if (existing != null) {
+            return existing;
+        }
+        final int id = classes.size();
+        final BitSet subs = new BitSet();
+        final BitSet supers = new BitSet();
+        for (int i = 0; i < id; i++) {
+            final Class<?> other = classes.get(i);
+            if (cls.isAssignableFrom(other)) {
+                subs.set(i);
+                superclasses.get(i).set(id);
+            } else if (other.isAssignableFrom(cls)) {
+                supers.set(i);
+                subclasses.get(i).set(id);
+            }
+        }
+        classes.add(cls);
+        subclasses.add(subs);
+        superclasses.add(supers);
+        classIds.put(cls, id);
+        if (!Modifier.isAbstract(cls.getModifiers())) {
+            concreteClasses.set(id);
+        }
+        if (BeanAnnotationProcessor.hasPropertiesField(cls)) {
+            classesWithProperties.set(id);
+        }
+        assignableCache.clear();
+        return id;
     }
 
     public Set<Class<?>> get(String type) {
         return typeMap.getOrDefault(type, Collections.emptySet());
     }
+
+    /**
+     * Adds identifiers of classes registered for the specified type into the specified set.
+     *
+     * @param type   Type IRI
+     * @param target Set to add the class identifiers to
+     */
+    void addClassIds(String type, BitSet target) {
+        final BitSet ids = typeIndex.get(type);
+        if (ids != null) {
+            target.or(ids);
+        }
+    }
+
+    /**
+     * Gets registered class with the specified identifier.
+     *
+     * @param id Class identifier
+     * @return Registered class
+     */
+    Class<?> getRegisteredClass(int id) {
+        return classes.get(id);
+    }
+
+    /**
+     * Gets identifiers of registered classes which are assignable to the specified class, including the class itself.
+     * <p>
+     * The specified class need not be registered. The returned set must not be modified.
+     *
+     * @param cls Class to which the result should be assignable
+     * @return Set of class identifiers
+     */
+    BitSet getAssignableTo(Class<?> cls) {
+        return assignableCache.computeIfAbsent(cls, c -> {
+            final Integer id = classIds.get(c);
+            final BitSet result;
+            if (id != null) {
+                result = (BitSet) subclasses.get(id).clone();
+                result.set(id);
+            } else {
+                result = new BitSet();
+                for (int i = 0; i < classes.size(); i++) {
+                    if (c.isAssignableFrom(classes.get(i))) {
+                        result.set(i);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Removes classes which have a (strict) subclass in the specified set from it, leaving only the most specific
+     * classes.
+     *
+     * @param ids Set of class identifiers to reduce
+     */
+    void reduceToMostSpecific(BitSet ids) {
+        final BitSet toRemove = new BitSet();
+        ids.stream().forEach(i -> toRemove.or(superclasses.get(i)));
+        ids.andNot(toRemove);
+    }
+
+    /**
+     * Removes classes which have a (strict) superclass in the specified set from it, leaving only the most general
+     * classes.
+     *
+     * @param ids Set of class identifiers to reduce
+     */
+    void reduceToMostGeneral(BitSet ids) {
+        final BitSet toRemove = new BitSet();
+        ids.stream().forEach(i -> toRemove.or(subclasses.get(i)));
+        ids.andNot(toRemove);
+    }
+
+    /**
+     * Gets identifiers of registered classes which are not abstract.
+     * <p>
+     * The returned set must not be modified.
+     *
+     * @return Set of class identifiers
+     */
+    BitSet getConcreteClasses() {
+        return concreteClasses;
+    }
+
+    /**
+     * Gets identifiers of registered classes which contain a {@link cz.cvut.kbss.jopa.model.annotations.Properties}
+     * field.
+     * <p>
+     * The returned set must not be modified.
+     *
+     * @return Set of class identifiers
+     */
+    BitSet getClassesWithProperties() {
+        return classesWithProperties;
+    }
 }
@@ -63,6 +63,7 @@ public class XSDTypeCoercer {
             case XSD.DOUBLE:
                 return Double.parseDouble(value);
             case XSD.DATE:
+                return parseDate(value);
             case XSD.DATETIME:
                 return parseDateTime(value);
             case XSD.TIME:
@@ -74,6 +75,15 @@ public class XSDTypeCoercer {
         }
     }
 
+    private static Object parseDate(String value) {
+        try {
+            return parseDateTime(value);
+        } catch (DateTimeParseException e) {
+            // xsd:date need not contain time
+            return DateTimeFormatter.ISO_LOCAL_DATE.parse(value, LocalDate::from);
+        }
+    }
+
     private static Object parseDateTime(String value) {
         try {
             return DateTimeFormatter.ISO_DATE_TIME.parse(value, ZonedDateTime::from);
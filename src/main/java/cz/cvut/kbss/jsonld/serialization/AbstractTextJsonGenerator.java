@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Base for generators of compact JSON text (without any whitespace).
+ * <p>
+ * Handles separators and escaping, subclasses only append the resulting characters to their output. The state is
+ * reset every time a top-level value is finished, so a generator can be reused for multiple documents.
+ */
+abstract class AbstractTextJsonGenerator implements JsonGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Whether a comma has to be written before the next item, by nesting level
+    private boolean[] hasItems = new boolean[16];
+    private int depth;
+    private boolean afterFieldName;
+
+    /**
+     * Appends the specified character to the output.
+     *
+     * @param c Character to append
+     * @throws IOException If the output cannot be written
+     */
+    abstract void append(char c) throws IOException;
+
+    /**
+     * Appends the specified subsequence to the output.
+     *
+     * @param text  Text to append
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @throws IOException If the output cannot be written
+     */
+    void append(CharSequence text, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            append(text.charAt(i));
+        }
+    }
+
+    void append(CharSequence text) throws IOException {
+        append(text, 0, text.length());
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterFieldName) {
+            this.afterFieldName = false;
+            return;
+        }
+        separateItem();
+    }
+
+    private void separateItem() throws IOException {
+        if (depth > 0) {
+            if (hasItems[depth]) {
+                append(',');
+            }
+            hasItems[depth] = true;
+        }
+    }
+
+    private void open(char c) throws IOException {
+        beforeValue();
+        append(c);
+        if (++depth == hasItems.length) {
+            this.hasItems = Arrays.copyOf(hasItems, depth * 2);
+        }
+        hasItems[depth] = false;
+    }
+
+    private void close(char c) throws IOException {
+        assert depth > 0;
+        append(c);
+        depth--;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        separateItem();
+        appendQuoted(name);
+        append(':');
+        this.afterFieldName = true;
+    }
+
+    @Override
+    public void writeObjectStart() throws IOException {
+        open('{');
+    }
+
+    @Override
+    public void writeObjectEnd() throws IOException {
+        close('}');
+    }
+
+    @Override
+    public void writeArrayStart() throws IOException {
+        open('[');
+    }
+
+    @Override
+    public void writeArrayEnd() throws IOException {
+        close(']');
+    }
+
+    @Override
+    public void writeNumber(Number number) throws IOException {
+        beforeValue();
+        appendNumber(number);
+    }
+
+    @Override
+    public void writeNumber(int number) throws IOException {
+        beforeValue();
+        appendLong(number);
+    }
+
+    @Override
+    public void writeNumber(long number) throws IOException {
+        beforeValue();
+        appendLong(number);
+    }
+
+    @Override
+    public void writeNumber(double number) throws IOException {
+        beforeValue();
+        append(Double.toString(number));
+    }
+
+    /**
+     * Appends textual representation of the specified number to the output.
+     * <p>
+     * Integral numbers are written digit by digit, without creating their string representation.
+     *
+     * @param number Number to append
+     * @throws IOException If the output cannot be written
+     */
+    void appendNumber(Number number) throws IOException {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short ||
+                number instanceof Byte) {
+            appendLong(number.longValue());
+        } else {
+            append(number.toString());
+        }
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        beforeValue();
+        append(value ? "true" : "false");
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        beforeValue();
+        append("null");
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        beforeValue();
+        appendQuoted(text);
+    }
+
+    private void appendQuoted(String text) throws IOException {
+        append('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            append(text, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    append("\\\"");
+                    break;
+                case '\\':
+                    append("\\\\");
+                    break;
+                case '\n':
+                    append("\\n");
+                    break;
+                case '\r':
+                    append("\\r");
+                    break;
+                case '\t':
+                    append("\\t");
+                    break;
+                case '\b':
+                    append("\\b");
+                    break;
+                case '\f':
+                    append("\\f");
+                    break;
+                default:
+                    append("\\u00");
+                    append(HEX[c >> 4]);
+                    append(HEX[c & 0xF]);
+            }
+        }
+        append(text, start, text.length());
+        append('"');
+    }
+}
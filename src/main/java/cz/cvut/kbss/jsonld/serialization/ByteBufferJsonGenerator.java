@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Writes compact UTF-8 encoded JSON text into a {@link ByteBuffer}, draining it into a {@link WritableByteChannel}
+ * whenever it fills up.
+ * <p>
+ * Characters are encoded directly into the buffer and integral numbers are written digit by digit, so no intermediate
+ * {@code byte[]} or {@code String} copies of the output are created. When a direct buffer is used (see {@link
+ * ByteBufferPool}), the channel can transfer its content without further copying.
+ * <p>
+ * The channel is expected to be in blocking mode. {@link #flush()} has to be called after the last value is written to
+ * drain the rest of the buffer. Instances are not thread-safe.
+ */
+public class ByteBufferJsonGenerator extends AbstractTextJsonGenerator implements Flushable {
+
+    private final ByteBuffer buffer;
+
+    private final WritableByteChannel channel;
+
+    private char highSurrogate;
+
+    private long bytesWritten;
+
+    /**
+     * Creates a generator writing into the specified buffer.
+     *
+     * @param buffer  Buffer to use. Has to be able to hold at least 8 bytes. Any content it contains is discarded
+     * @param channel Channel to drain the buffer into
+     */
+    public ByteBufferJsonGenerator(ByteBuffer buffer, WritableByteChannel channel) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.channel = Objects.requireNonNull(channel);
+        if (buffer.capacity() < 8) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 8 bytes.");
+        }
+        buffer.clear();
+    }
+
+    @Override
+    void append(char c) throws IOException {
+        if (highSurrogate != 0) {
+            if (Character.isLowSurrogate(c)) {
+                appendCodePoint(Character.toCodePoint(highSurrogate, c));
+                this.highSurrogate = 0;
+                return;
+            }
+            appendPendingSurrogate();
+        }
+        if (c < 0x80) {
+            ensureRemaining(1);
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            ensureRemaining(2);
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            appendReplacement();
+        } else {
+            ensureRemaining(3);
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void appendCodePoint(int codePoint) throws IOException {
+        ensureRemaining(4);
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    /**
+     * Unpaired surrogates cannot be encoded in UTF-8, they are replaced with '?', like {@link String#getBytes} does.
+     */
+    private void appendPendingSurrogate() throws IOException {
+        if (highSurrogate != 0) {
+            this.highSurrogate = 0;
+            appendReplacement();
+        }
+    }
+
+    private void appendReplacement() throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) '?');
+    }
+
+    private void ensureRemaining(int count) throws IOException {
+        if (buffer.remaining() < count) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes all buffered content into the channel.
+     *
+     * @throws IOException If the channel cannot be written to
+     */
+    @Override
+    public void flush() throws IOException {
+        appendPendingSurrogate();
+        drain();
+    }
+
+    /**
+     * Gets the number of bytes written into the channel so far.
+     *
+     * @return Number of bytes drained from the buffer
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+}
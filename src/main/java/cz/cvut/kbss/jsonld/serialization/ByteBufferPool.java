@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe pool of direct {@link ByteBuffer}s of fixed capacity.
+ * <p>
+ * Buffers are allocated lazily when the pool is empty. Released buffers are kept for reuse up to the configured
+ * maximum, any excess ones are left to the garbage collector. The pool keeps track of the number of buffers in use, so
+ * that the peak memory required by concurrent serializations can be determined and the pool sized accordingly.
+ */
+public class ByteBufferPool {
+
+    /**
+     * Default capacity of pooled buffers (64 KiB).
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final int bufferSize;
+
+    private final BlockingQueue<ByteBuffer> pool;
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * Creates a pool of buffers of {@link #DEFAULT_BUFFER_SIZE} keeping at most as many buffers as there are available
+     * processors.
+     */
+    public ByteBufferPool() {
+        this(DEFAULT_BUFFER_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a pool with the specified parameters.
+     *
+     * @param bufferSize Capacity of the buffers (in bytes). At least 8 bytes are required
+     * @param maxPooled  Maximum number of released buffers kept for reuse
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 8) {
+            throw new IllegalArgumentException("Buffer size must be at least 8 bytes, got " + bufferSize);
+        }
+        if (maxPooled < 1) {
+            throw new IllegalArgumentException("Maximum number of pooled buffers must be positive, got " + maxPooled);
+        }
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Gets a cleared buffer from the pool, allocating a new one if none is available.
+     *
+     * @return Direct buffer ready for writing
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            allocated.incrementAndGet();
+        }
+        final int current = inUse.incrementAndGet();
+        peakInUse.accumulateAndGet(current, Math::max);
+        return buffer;
+    }
+
+    /**
+     * Returns the specified buffer, previously obtained by {@link #acquire()}, into the pool.
+     *
+     * @param buffer Buffer to release
+     */
+    public void release(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        assert buffer.capacity() == bufferSize;
+        inUse.decrementAndGet();
+        buffer.clear();
+        // If the pool is full, the buffer is simply discarded
+        pool.offer(buffer);
+    }
+
+    /**
+     * Gets capacity of the buffers provided by this pool.
+     *
+     * @return Buffer size in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the number of buffers currently acquired and not yet released.
+     *
+     * @return Number of buffers in use
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Gets the maximum number of buffers that have been in use at the same time.
+     *
+     * @return Peak number of buffers in use
+     */
+    public int getPeakInUse() {
+        return peakInUse.get();
+    }
+
+    /**
+     * Gets the maximum amount of buffer memory that has been in use at the same time.
+     *
+     * @return Peak usage in bytes
+     */
+    public long getPeakUsage() {
+        return (long) getPeakInUse() * bufferSize;
+    }
+
+    /**
+     * Gets the total number of buffers allocated by this pool.
+     *
+     * @return Number of allocated buffers
+     */
+    public long getAllocatedCount() {
+        return allocated.get();
+    }
+}
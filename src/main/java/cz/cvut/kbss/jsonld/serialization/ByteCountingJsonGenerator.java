@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+
+import java.io.IOException;
+
+/**
+ * Delegating {@link JsonGenerator} which estimates the number of bytes written and reports it to {@link
+ * JsonLdMetrics}.
+ * <p>
+ * The estimate counts UTF-8 encoded field names and values and structural characters, it does not include separators,
+ * whitespace and escaping done by the underlying generator.
+ */
+final class ByteCountingJsonGenerator implements JsonGenerator {
+
+    private final JsonGenerator delegate;
+
+    private long count;
+
+    ByteCountingJsonGenerator(JsonGenerator delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reports the number of bytes counted so far to the specified metrics listener and resets the count.
+     *
+     * @param metrics Metrics listener
+     * @return The reported count
+     */
+    long report(JsonLdMetrics metrics) {
+        final long result = count;
+        metrics.count(JsonLdMetrics.Counter.BYTES_WRITTEN, result);
+        this.count = 0;
+        return result;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        // Quotes and colon
+        count += utf8Length(name) + 3;
+        delegate.writeFieldName(name);
+    }
+
+    @Override
+    public void writeObjectStart() throws IOException {
+        count++;
+        delegate.writeObjectStart();
+    }
+
+    @Override
+    public void writeObjectEnd() throws IOException {
+        count++;
+        delegate.writeObjectEnd();
+    }
+
+    @Override
+    public void writeArrayStart() throws IOException {
+        count++;
+        delegate.writeArrayStart();
+    }
+
+    @Override
+    public void writeArrayEnd() throws IOException {
+        count++;
+        delegate.writeArrayEnd();
+    }
+
+    @Override
+    public void writeNumber(Number number) throws IOException {
+        count += number.toString().length();
+        delegate.writeNumber(number);
+    }
+
+    @Override
+    public void writeNumber(int number) throws IOException {
+        count += digitCount(number);
+        delegate.writeNumber(number);
+    }
+
+    @Override
+    public void writeNumber(long number) throws IOException {
+        count += digitCount(number);
+        delegate.writeNumber(number);
+    }
+
+    @Override
+    public void writeNumber(double number) throws IOException {
+        count += Double.toString(number).length();
+        delegate.writeNumber(number);
+    }
+
+    private static int digitCount(long value) {
+        if (value == Long.MIN_VALUE) {
+            return 20;
+        }
+        int count = value < 0 ? 2 : 1;
+        for (long v = Math.abs(value); v >= 10; v /= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        count += value ? 4 : 5;
+        delegate.writeBoolean(value);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        count += 4;
+        delegate.writeNull();
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        count += utf8Length(text) + 2;
+        delegate.writeString(text);
+    }
+
+    static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // Surrogate pair is encoded in four bytes
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.common.Cbor;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes JSON as binary <a href="https://www.rfc-editor.org/rfc/rfc8949.html">CBOR</a>.
+ * <p>
+ * Objects and arrays are written with indefinite length, so that they can be streamed. Unless disabled, each top-level
+ * value is wrapped in a stringref namespace and repeated strings (typically property IRIs and types) are replaced with
+ * references into a table of previously written strings (see {@link Cbor}). The output can be read by {@link
+ * cz.cvut.kbss.jsonld.deserialization.CborParser}.
+ * <p>
+ * The output stream is not buffered by the generator. Instances are not thread-safe.
+ */
+public class CborJsonGenerator implements JsonGenerator, Flushable {
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final OutputStream out;
+
+    private final boolean useStringRefs;
+
+    private final Map<String, Integer> stringRefs = new HashMap<>();
+
+    // Byte strings take up table entries as well, although they are never referenced by this generator
+    private int stringRefCount;
+
+    private int depth;
+
+    private final byte[] scratch = new byte[9];
+
+    /**
+     * Creates a generator writing into the specified stream, using stringrefs for repeated strings.
+     *
+     * @param out Stream to write into
+     */
+    public CborJsonGenerator(OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * Creates a generator writing into the specified stream.
+     *
+     * @param out           Stream to write into
+     * @param useStringRefs Whether to replace repeated strings with references
+     */
+    public CborJsonGenerator(OutputStream out, boolean useStringRefs) {
+        this.out = Objects.requireNonNull(out);
+        this.useStringRefs = useStringRefs;
+    }
+
+    private void beforeValue() throws IOException {
+        if (depth == 0 && useStringRefs) {
+            stringRefs.clear();
+            this.stringRefCount = 0;
+            writeHead(Cbor.MAJOR_TAG, Cbor.TAG_STRINGREF_NAMESPACE);
+        }
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        writeText(name);
+    }
+
+    @Override
+    public void writeObjectStart() throws IOException {
+        beforeValue();
+        out.write((Cbor.MAJOR_MAP << 5) | Cbor.INDEFINITE);
+        depth++;
+    }
+
+    @Override
+    public void writeObjectEnd() throws IOException {
+        close();
+    }
+
+    @Override
+    public void writeArrayStart() throws IOException {
+        beforeValue();
+        out.write((Cbor.MAJOR_ARRAY << 5) | Cbor.INDEFINITE);
+        depth++;
+    }
+
+    @Override
+    public void writeArrayEnd() throws IOException {
+        close();
+    }
+
+    private void close() throws IOException {
+        assert depth > 0;
+        out.write(Cbor.BREAK);
+        depth--;
+    }
+
+    @Override
+    public void writeNumber(Number number) throws IOException {
+        beforeValue();
+        if (number instanceof Integer || number instanceof Long || number instanceof Short ||
+                number instanceof Byte) {
+            writeLong(number.longValue());
+        } else if (number instanceof Double) {
+            writeDouble(number.doubleValue());
+        } else if (number instanceof Float) {
+            out.write(Cbor.SINGLE_FLOAT);
+            writeBytes(Float.floatToIntBits(number.floatValue()), 4);
+        } else if (number instanceof BigInteger) {
+            writeBigInteger((BigInteger) number);
+        } else if (number instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) number;
+            writeHead(Cbor.MAJOR_TAG, Cbor.TAG_DECIMAL_FRACTION);
+            writeHead(Cbor.MAJOR_ARRAY, 2);
+            writeLong(-decimal.scale());
+            writeBigInteger(decimal.unscaledValue());
+        } else {
+            writeDouble(number.doubleValue());
+        }
+    }
+
+    @Override
+    public void writeNumber(int number) throws IOException {
+        beforeValue();
+        writeLong(number);
+    }
+
+    @Override
+    public void writeNumber(long number) throws IOException {
+        beforeValue();
+        writeLong(number);
+    }
+
+    @Override
+    public void writeNumber(double number) throws IOException {
+        beforeValue();
+        writeDouble(number);
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            writeHead(Cbor.MAJOR_UNSIGNED, value);
+        } else {
+            // -1 - value, i.e., bitwise complement, cannot overflow
+            writeHead(Cbor.MAJOR_NEGATIVE, ~value);
+        }
+    }
+
+    private void writeDouble(double value) throws IOException {
+        out.write(Cbor.DOUBLE_FLOAT);
+        writeBytes(Double.doubleToLongBits(value), 8);
+    }
+
+    private void writeBigInteger(BigInteger value) throws IOException {
+        if (value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0) {
+            writeLong(value.longValue());
+            return;
+        }
+        final boolean negative = value.signum() < 0;
+        writeHead(Cbor.MAJOR_TAG, negative ? Cbor.TAG_NEGATIVE_BIGNUM : Cbor.TAG_POSITIVE_BIGNUM);
+        final byte[] bytes = (negative ? value.not() : value).toByteArray();
+        // Skip the sign byte
+        final int offset = bytes[0] == 0 ? 1 : 0;
+        final int length = bytes.length - offset;
+        writeHead(Cbor.MAJOR_BYTES, length);
+        out.write(bytes, offset, length);
+        if (useStringRefs && Cbor.isStringRefCandidate(length, stringRefCount)) {
+            stringRefCount++;
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? Cbor.TRUE : Cbor.FALSE);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        beforeValue();
+        out.write(Cbor.NULL);
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        beforeValue();
+        writeText(text);
+    }
+
+    private void writeText(String text) throws IOException {
+        if (useStringRefs) {
+            final Integer ref = stringRefs.get(text);
+            if (ref != null) {
+                writeHead(Cbor.MAJOR_TAG, Cbor.TAG_STRINGREF);
+                writeHead(Cbor.MAJOR_UNSIGNED, ref);
+                return;
+            }
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeHead(Cbor.MAJOR_TEXT, bytes.length);
+        out.write(bytes);
+        if (useStringRefs && Cbor.isStringRefCandidate(bytes.length, stringRefCount)) {
+            stringRefs.put(text, stringRefCount++);
+        }
+    }
+
+    private void writeHead(int majorType, long value) throws IOException {
+        final int major = majorType << 5;
+        if (value < 24 && value >= 0) {
+            out.write(major | (int) value);
+        } else if (value < 0x100 && value >= 0) {
+            out.write(major | 24);
+            out.write((int) value);
+        } else if (value < 0x10000 && value >= 0) {
+            out.write(major | 25);
+            writeBytes(value, 2);
+        } else if (value < 0x100000000L && value >= 0) {
+            out.write(major | 26);
+            writeBytes(value, 4);
+        } else {
+            // Values >= 2^63 are represented by negative longs and written as unsigned
+            out.write(major | 27);
+            writeBytes(value, 8);
+        }
+    }
+
+    private void writeBytes(long value, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            scratch[i] = (byte) (value >>> (8 * (count - 1 - i)));
+        }
+        out.write(scratch, 0, count);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -2,6 +2,7 @@ package cz.cvut.kbss.jsonld.serialization;
 
 import cz.cvut.kbss.jsonld.serialization.traversal.SerializationContext;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -16,6 +17,15 @@ public class CommonValueSerializers implements ValueSerializers {
 
     private final ValueSerializer<?> defaultSerializer = new DefaultValueSerializer(new MultilingualStringSerializer());
 
+    /**
+     * Gets the registered serializers.
+     *
+     * @return Unmodifiable view of serializers mapped by the types they serialize
+     */
+    Map<Class<?>, ValueSerializer<?>> getSerializers() {
+        return Collections.unmodifiableMap(serializers);
+    }
+
     @Override
     public <T> boolean hasCustomSerializer(Class<T> type) {
         return serializers.containsKey(type);
@@ -31,7 +31,8 @@ public class CompactedJsonLdSerializer extends JsonLdSerializer {
 
     @Override
     protected JsonNode buildJsonTree(Object root, ObjectGraphTraverser traverser) {
-        final JsonLdTreeBuilder treeBuilder = new JsonLdTreeBuilder(new ObjectGraphValueSerializers(serializers, traverser));
+        final ValueSerializers valueSerializers = new ObjectGraphValueSerializers(serializers, traverser);
+        final JsonLdTreeBuilder treeBuilder = createTreeBuilder(valueSerializers, traverser);
         traverser.setVisitor(treeBuilder);
         traverser.traverse(root);
         traverser.removeVisitor();
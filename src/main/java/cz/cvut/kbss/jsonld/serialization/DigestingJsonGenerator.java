@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+/**
+ * Computes a digest of the written JSON while (optionally) passing it to another generator.
+ * <p>
+ * The digest is computed over the UTF-8 encoded compact JSON text (as written by {@link TextJsonGenerator}),
+ * regardless of the formatting used by the delegate, so it is stable across output formats. Combined with {@link
+ * cz.cvut.kbss.jsonld.ConfigParam#CANONICAL_OUTPUT}, it can be used to compute ETags in the same pass in which the
+ * response is written. When no delegate is specified, nothing is written and only the digest is computed, which allows
+ * cheap change detection.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class DigestingJsonGenerator implements JsonGenerator {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final JsonGenerator delegate;
+
+    private final MessageDigest digest;
+
+    private final ByteBufferJsonGenerator digestWriter;
+
+    /**
+     * Creates a digest-only generator, which writes no output.
+     *
+     * @param digest Digest to update with the JSON text
+     */
+    public DigestingJsonGenerator(MessageDigest digest) {
+        this(null, digest);
+    }
+
+    /**
+     * Creates a generator writing the JSON into the specified delegate and computing its digest.
+     *
+     * @param delegate Generator to write with, {@code null} to compute just the digest
+     * @param digest   Digest to update with the JSON text
+     */
+    public DigestingJsonGenerator(JsonGenerator delegate, MessageDigest digest) {
+        this.delegate = delegate;
+        this.digest = Objects.requireNonNull(digest);
+        this.digestWriter = new ByteBufferJsonGenerator(ByteBuffer.allocate(BUFFER_SIZE), new DigestChannel(digest));
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        digestWriter.writeFieldName(name);
+        if (delegate != null) {
+            delegate.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeObjectStart() throws IOException {
+        digestWriter.writeObjectStart();
+        if (delegate != null) {
+            delegate.writeObjectStart();
+        }
+    }
+
+    @Override
+    public void writeObjectEnd() throws IOException {
+        digestWriter.writeObjectEnd();
+        if (delegate != null) {
+            delegate.writeObjectEnd();
+        }
+    }
+
+    @Override
+    public void writeArrayStart() throws IOException {
+        digestWriter.writeArrayStart();
+        if (delegate != null) {
+            delegate.writeArrayStart();
+        }
+    }
+
+    @Override
+    public void writeArrayEnd() throws IOException {
+        digestWriter.writeArrayEnd();
+        if (delegate != null) {
+            delegate.writeArrayEnd();
+        }
+    }
+
+    @Override
+    public void writeNumber(Number number) throws IOException {
+        digestWriter.writeNumber(number);
+        if (delegate != null) {
+            delegate.writeNumber(number);
+        }
+    }
+
+    @Override
+    public void writeNumber(int number) throws IOException {
+        digestWriter.writeNumber(number);
+        if (delegate != null) {
+            delegate.writeNumber(number);
+        }
+    }
+
+    @Override
+    public void writeNumber(long number) throws IOException {
+        digestWriter.writeNumber(number);
+        if (delegate != null) {
+            delegate.writeNumber(number);
+        }
+    }
+
+    @Override
+    public void writeNumber(double number) throws IOException {
+        digestWriter.writeNumber(number);
+        if (delegate != null) {
+            delegate.writeNumber(number);
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        digestWriter.writeBoolean(value);
+        if (delegate != null) {
+            delegate.writeBoolean(value);
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        digestWriter.writeNull();
+        if (delegate != null) {
+            delegate.writeNull();
+        }
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        digestWriter.writeString(text);
+        if (delegate != null) {
+            delegate.writeString(text);
+        }
+    }
+
+    /**
+     * Completes the digest computation and returns the result.
+     * <p>
+     * The underlying digest is reset, so the generator can be used to digest another document afterwards.
+     *
+     * @return The digest
+     */
+    public byte[] digest() {
+        try {
+            digestWriter.flush();
+        } catch (IOException e) {
+            // Digest channel does not throw
+            throw new IllegalStateException(e);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Completes the digest computation and returns the result as a lowercase hexadecimal string, suitable e.g. as an
+     * ETag value.
+     *
+     * @return Hexadecimal representation of the digest
+     * @see #digest()
+     */
+    public String digestHex() {
+        final byte[] bytes = digest();
+        final char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            result[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(result);
+    }
+
+    private static final class DigestChannel implements WritableByteChannel {
+
+        private final MessageDigest digest;
+
+        private DigestChannel(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            final int count = src.remaining();
+            digest.update(src);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
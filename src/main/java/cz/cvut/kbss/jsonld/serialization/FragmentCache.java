@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.serialization.model.JsonNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache of already serialized object fragments.
+ * <p>
+ * The cache is intended for immutable or versioned entities (e.g. code lists) which are serialized repeatedly. Only
+ * instances of classes explicitly registered via {@link #register(Class, Function)} are cached. Cached fragments are
+ * keyed by the instance class, its identifier and a version provided by the registered function, so a change of the
+ * version automatically makes the previously cached fragment unreachable. Instances without an identifier or version
+ * are never cached.
+ * <p>
+ * Fragments are also bound to the settings they were built with, i.e., custom value serializers and configuration
+ * parameters affecting the serialized content ({@link ConfigParam#LAZY_FETCH_AS_REFERENCE}, {@link
+ * ConfigParam#MAX_INLINE_DEPTH}, {@link ConfigParam#DEDUPLICATE_BY_ID} and {@link ConfigParam#CANONICAL_OUTPUT}). A
+ * cache shared by serializers with different settings thus keeps separate fragments for each of them. Instances whose
+ * inline depth is limited (by the configuration or by {@link cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth}) are
+ * neither taken from nor stored into the cache, as their content depends on their position in the object graph.
+ * <p>
+ * A fragment is cached only if it is self-contained, i.e. if it does not contain mere references to objects serialized
+ * elsewhere in the object graph. Since fragments retain blank node identifiers of objects without an identifier,
+ * serializers using a fragment cache generate blank node identifiers unique across serializations.
+ * <p>
+ * The cache is bounded by the number of entries, least recently used entries are evicted when the limit is reached.
+ * <p>
+ * This class is thread-safe, so one cache can be shared by multiple serializers.
+ */
+public class FragmentCache {
+
+    private final int maxEntries;
+
+    private final Map<Class<?>, Function<Object, ?>> versionFunctions = new ConcurrentHashMap<>();
+
+    private final Map<Key, List<JsonNode>> fragments;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries Maximum number of cached fragments
+     */
+    public FragmentCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.fragments = new LinkedHashMap<Key, List<JsonNode>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<JsonNode>> eldest) {
+                final boolean evict = size() > FragmentCache.this.maxEntries;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Enables caching of instances of the specified class.
+     * <p>
+     * Note that subclasses of the specified class are not cached unless they are registered as well.
+     *
+     * @param cls             Class whose instances should be cached
+     * @param versionFunction Function returning version (e.g. revision number or ETag) of an instance. If it returns
+     *                        {@code null}, the instance is not cached
+     * @param <T>             Instance type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void register(Class<T> cls, Function<? super T, ?> versionFunction) {
+        Objects.requireNonNull(cls);
+        Objects.requireNonNull(versionFunction);
+        versionFunctions.put(cls, (Function<Object, ?>) versionFunction);
+    }
+
+    /**
+     * Checks whether instances of the specified class are cached.
+     *
+     * @param cls Class to check
+     * @return {@code true} if the class has been registered with this cache
+     */
+    public boolean isCacheable(Class<?> cls) {
+        return versionFunctions.containsKey(cls);
+    }
+
+    /**
+     * Creates cache key for the specified instance.
+     *
+     * @param instance   Instance to create key for
+     * @param identifier Instance identifier, possibly {@code null}
+     * @param settings   Fingerprint of serializer settings, see {@link #settings(Map, Configuration)}
+     * @return Cache key, {@code null} if the instance cannot be cached
+     */
+    Key createKey(Object instance, Object identifier, Object settings) {
+        final Function<Object, ?> versionFunction = versionFunctions.get(instance.getClass());
+        if (versionFunction == null || identifier == null) {
+            return null;
+        }
+        final Object version = versionFunction.apply(instance);
+        return version != null ? new Key(instance.getClass(), identifier.toString(), version, settings) : null;
+    }
+
+    /**
+     * Creates a fingerprint of serializer settings which affect content of serialized fragments.
+     *
+     * @param customSerializers Custom value serializers
+     * @param configuration     Serializer configuration
+     * @return Settings fingerprint to use when creating cache keys
+     */
+    static Object settings(Map<Class<?>, ValueSerializer<?>> customSerializers, Configuration configuration) {
+        return Arrays.asList(new HashMap<>(customSerializers),
+                configuration.is(ConfigParam.LAZY_FETCH_AS_REFERENCE),
+                configuration.getInt(ConfigParam.MAX_INLINE_DEPTH, 0),
+                configuration.is(ConfigParam.DEDUPLICATE_BY_ID),
+                configuration.is(ConfigParam.CANONICAL_OUTPUT));
+    }
+
+    /**
+     * Gets cached content of the object with the specified key.
+     *
+     * @param key Cache key
+     * @return Cached child nodes of the serialized object, {@code null} if there is no matching entry
+     */
+    List<JsonNode> get(Key key) {
+        final List<JsonNode> result;
+        synchronized (fragments) {
+            result = fragments.get(key);
+        }
+        if (result != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Caches content of a serialized object.
+     *
+     * @param key   Cache key
+     * @param items Child nodes of the serialized object
+     */
+    void put(Key key, Collection<JsonNode> items) {
+        final List<JsonNode> fragment = Collections.unmodifiableList(new ArrayList<>(items));
+        synchronized (fragments) {
+            fragments.put(key, fragment);
+        }
+    }
+
+    /**
+     * Removes all cached fragments of the specified instance, regardless of their version.
+     *
+     * @param cls        Instance class
+     * @param identifier Instance identifier
+     */
+    public void invalidate(Class<?> cls, Object identifier) {
+        Objects.requireNonNull(cls);
+        Objects.requireNonNull(identifier);
+        final String id = identifier.toString();
+        synchronized (fragments) {
+            fragments.keySet().removeIf(k -> k.cls.equals(cls) && k.identifier.equals(id));
+        }
+    }
+
+    /**
+     * Removes all cached fragments.
+     */
+    public void clear() {
+        synchronized (fragments) {
+            fragments.clear();
+        }
+    }
+
+    /**
+     * Gets the number of currently cached fragments.
+     *
+     * @return Cache size
+     */
+    public int size() {
+        synchronized (fragments) {
+            return fragments.size();
+        }
+    }
+
+    /**
+     * Gets the number of lookups which found a cached fragment.
+     *
+     * @return Number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups which did not find a cached fragment.
+     *
+     * @return Number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of fragments evicted due to the size limit.
+     *
+     * @return Number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    static final class Key {
+
+        private final Class<?> cls;
+        private final String identifier;
+        private final Object version;
+        private final Object settings;
+
+        private Key(Class<?> cls, String identifier, Object version, Object settings) {
+            this.cls = cls;
+            this.identifier = identifier;
+            this.version = version;
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return cls.equals(key.cls) && identifier.equals(key.identifier) && version.equals(key.version) &&
+                    Objects.equals(settings, key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cls, identifier, version, settings);
+        }
+    }
+}
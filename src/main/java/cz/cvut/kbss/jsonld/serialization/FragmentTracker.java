@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
+import cz.cvut.kbss.jsonld.serialization.model.CompositeNode;
+import cz.cvut.kbss.jsonld.serialization.model.JsonNode;
+import cz.cvut.kbss.jsonld.serialization.model.ObjectNode;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tracks objects serialized by a {@link JsonLdTreeBuilder}, so that their fragments can be looked up in and stored into
+ * a {@link FragmentCache}.
+ * <p>
+ * Besides the cache lookups, the tracker verifies that a fragment is self-contained before it is cached. A fragment is
+ * self-contained if every object it references (other than by a plain identifier) is fully serialized within the
+ * fragment. Otherwise, the fragment would contain only a reference to an object whose content has been serialized
+ * elsewhere in the current object graph and it would be incomplete when spliced into another graph.
+ */
+class FragmentTracker {
+
+    private final FragmentCache cache;
+    private final Object settings;
+    private final BooleanSupplier inlineDepthLimited;
+
+    // Instances opened during the current serialization (i.e., known to the traverser)
+    private final Set<Object> visitedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Instances whose content was taken from the cache
+    private final Map<Object, String> splicedInstances = new IdentityHashMap<>();
+
+    private final Deque<OpenObject> openObjects = new ArrayDeque<>();
+    private final Deque<Fragment> fragments = new ArrayDeque<>();
+
+    private FragmentCache.Key pendingKey;
+
+    /**
+     * Creates a tracker.
+     *
+     * @param cache              Fragment cache
+     * @param settings           Fingerprint of the serializer settings, see {@link FragmentCache#settings(Map,
+     *                           cz.cvut.kbss.jsonld.Configuration)}
+     * @param inlineDepthLimited Whether inline depth of the currently visited instance is limited
+     */
+    FragmentTracker(FragmentCache cache, Object settings, BooleanSupplier inlineDepthLimited) {
+        this.cache = Objects.requireNonNull(cache);
+        this.settings = settings;
+        this.inlineDepthLimited = Objects.requireNonNull(inlineDepthLimited);
+    }
+
+    /**
+     * Attempts to get the node representing the specified instance from the cache.
+     * <p>
+     * If the instance is cacheable but not cached, its key is remembered, so that its fragment can be cached once the
+     * object is serialized.
+     *
+     * @param instance    Visited instance
+     * @param attributeId Identifier of the attribute referencing the instance, possibly {@code null}
+     * @return Node to use instead of traversing the instance, {@code null} if the instance should be traversed
+     */
+    ObjectNode visitObject(Object instance, String attributeId) {
+        if (!cache.isCacheable(instance.getClass()) || visitedInstances.contains(instance) ||
+                inlineDepthLimited.getAsBoolean()) {
+            return null;
+        }
+        if (splicedInstances.containsKey(instance)) {
+            markReference(instance);
+            final ObjectNode reference = createObjectNode(attributeId);
+            reference.addItem(JsonNodeFactory.createObjectIdNode(JsonLd.ID, splicedInstances.get(instance)));
+            reference.close();
+            return reference;
+        }
+        final Object identifier = BeanAnnotationProcessor.getInstanceIdentifier(instance).orElse(null);
+        final FragmentCache.Key key = cache.createKey(instance, identifier, settings);
+        if (key == null) {
+            return null;
+        }
+        final List<JsonNode> cached = cache.get(key);
+        if (cached == null) {
+            this.pendingKey = key;
+            return null;
+        }
+        final ObjectNode node = createObjectNode(attributeId);
+        cached.forEach(node::addItem);
+        node.close();
+        splicedInstances.put(instance, identifier.toString());
+        fragments.forEach(f -> f.instances.add(instance));
+        return node;
+    }
+
+    private static ObjectNode createObjectNode(String attributeId) {
+        return attributeId != null ? JsonNodeFactory.createObjectNode(attributeId) :
+               JsonNodeFactory.createObjectNode();
+    }
+
+    void openObject(Object instance, CompositeNode node) {
+        if (!BeanClassProcessor.isIdentifierType(instance.getClass())) {
+            visitedInstances.add(instance);
+        }
+        openObjects.push(new OpenObject(instance, node));
+        if (pendingKey != null) {
+            fragments.push(new Fragment(pendingKey, node, instance));
+            this.pendingKey = null;
+        }
+    }
+
+    void visitTypes() {
+        final OpenObject current = openObjects.peek();
+        if (current != null) {
+            current.complete = true;
+            fragments.forEach(f -> f.instances.add(current.instance));
+        }
+    }
+
+    /**
+     * Called before the specified node is closed.
+     *
+     * @param node The node being closed
+     */
+    void closeNode(CompositeNode node) {
+        final OpenObject closing = openObjects.peek();
+        if (closing == null || closing.node != node) {
+            // Closing a collection
+            return;
+        }
+        openObjects.pop();
+        if (!closing.complete && !BeanClassProcessor.isIdentifierType(closing.instance.getClass())) {
+            markReference(closing.instance);
+        }
+        final Fragment fragment = fragments.peek();
+        if (fragment != null && fragment.node == node) {
+            fragments.pop();
+            if (closing.complete && !fragment.tainted) {
+                cache.put(fragment.key, node.getItems());
+            }
+        }
+    }
+
+    private void markReference(Object instance) {
+        fragments.forEach(f -> {
+            if (!f.instances.contains(instance)) {
+                f.tainted = true;
+            }
+        });
+    }
+
+    private static final class OpenObject {
+        private final Object instance;
+        private final CompositeNode node;
+        // Whether the object content has been serialized, i.e., it is not just a reference
+        private boolean complete;
+
+        private OpenObject(Object instance, CompositeNode node) {
+            this.instance = instance;
+            this.node = node;
+        }
+    }
+
+    private static final class Fragment {
+        private final FragmentCache.Key key;
+        private final CompositeNode node;
+        // Instances fully serialized within this fragment
+        private final Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean tainted;
+
+        private Fragment(FragmentCache.Key key, CompositeNode node, Object instance) {
+            this.key = key;
+            this.node = node;
+            instances.add(instance);
+        }
+    }
+}
@@ -75,6 +75,45 @@ public interface JsonGenerator {
      */
     void writeNumber(Number number) throws IOException;
 
+    /**
+     * Outputs the given {@code int} value as a JSON number.
+     * <p>
+     * Allows writing primitive values without boxing. The default implementation boxes the value and delegates to
+     * {@link #writeNumber(Number)}.
+     *
+     * @param number Number to write
+     * @throws IOException When JSON writing error occurs
+     */
+    default void writeNumber(int number) throws IOException {
+        writeNumber((Number) number);
+    }
+
+    /**
+     * Outputs the given {@code long} value as a JSON number.
+     * <p>
+     * Allows writing primitive values without boxing. The default implementation boxes the value and delegates to
+     * {@link #writeNumber(Number)}.
+     *
+     * @param number Number to write
+     * @throws IOException When JSON writing error occurs
+     */
+    default void writeNumber(long number) throws IOException {
+        writeNumber((Number) number);
+    }
+
+    /**
+     * Outputs the given {@code double} value as a JSON number.
+     * <p>
+     * Allows writing primitive values without boxing. The default implementation boxes the value and delegates to
+     * {@link #writeNumber(Number)}.
+     *
+     * @param number Number to write
+     * @throws IOException When JSON writing error occurs
+     */
+    default void writeNumber(double number) throws IOException {
+        writeNumber((Number) number);
+    }
+
     /**
      * Outputs the given boolean value as a JSON boolean.
      *
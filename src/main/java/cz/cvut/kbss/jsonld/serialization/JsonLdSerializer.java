@@ -12,9 +12,14 @@ package cz.cvut.kbss.jsonld.serialization;
 
 import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.BlankNodeIdGenerator;
 import cz.cvut.kbss.jsonld.common.Configurable;
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.serialization.model.JsonNode;
 import cz.cvut.kbss.jsonld.serialization.traversal.ObjectGraphTraverser;
+import cz.cvut.kbss.jsonld.serialization.traversal.Projection;
+import cz.cvut.kbss.jsonld.serialization.traversal.SerializationPlanCache;
 
 import java.util.Objects;
 
@@ -29,7 +34,11 @@ public abstract class JsonLdSerializer implements Configurable {
 
     final JsonGenerator jsonGenerator;
 
-    final ValueSerializers serializers = new CommonValueSerializers();
+    final CommonValueSerializers serializers = new CommonValueSerializers();
+
+    private final SerializationPlanCache plans = new SerializationPlanCache();
+
+    FragmentCache fragmentCache;
 
     protected JsonLdSerializer(JsonGenerator jsonGenerator) {
         this.jsonGenerator = Objects.requireNonNull(jsonGenerator);
@@ -61,6 +70,18 @@ public abstract class JsonLdSerializer implements Configurable {
         serializers.registerSerializer(type, serializer);
     }
 
+    /**
+     * Sets cache of serialized fragments to use.
+     * <p>
+     * Instances of classes registered with the cache are not traversed when their fragment is cached, the cached
+     * content is used instead. The cache is not used when serializing a projection.
+     *
+     * @param fragmentCache Fragment cache, {@code null} to disable fragment caching
+     */
+    public void setFragmentCache(FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
     /**
      * Serializes object graph with the specified root.
      * <p>
@@ -70,11 +91,81 @@ public abstract class JsonLdSerializer implements Configurable {
      * @param root Object graph root
      */
     public void serialize(Object root) {
+        serialize(root, null);
+    }
+
+    /**
+     * Serializes the specified projection of object graph with the specified root.
+     * <p>
+     * Only attributes selected by the projection are serialized.
+     *
+     * @param root       Object graph root
+     * @param projection Projection to apply, {@code null} to serialize all attributes
+     * @see Projection
+     */
+    public void serialize(Object root, Projection projection) {
         Objects.requireNonNull(root);
-        final ObjectGraphTraverser traverser = new ObjectGraphTraverser();
-        traverser.setRequireId(configuration.is(ConfigParam.REQUIRE_ID));
+        final Object event = JsonLdEvents.beginSerialization();
+        final ObjectGraphTraverser traverser = new ObjectGraphTraverser(plans);
+        traverser.configure(configuration);
+        if (fragmentCache != null) {
+            // Cached fragments retain blank node identifiers generated by earlier serializations
+            traverser.setBlankNodeIdGenerator(BlankNodeIdGenerator.sessionUnique());
+        }
+        traverser.setProjection(projection);
+        final JsonLdMetrics metrics = configuration.getMetrics();
+        final long start = metrics.startTimer();
         final JsonNode jsonRoot = buildJsonTree(root, traverser);
-        jsonRoot.write(jsonGenerator);
+        metrics.stopTimer(JsonLdMetrics.Phase.TREE_BUILD, start);
+        final long outputSize = writeTree(jsonRoot, jsonGenerator, configuration.is(ConfigParam.CANONICAL_OUTPUT),
+                metrics, event != null);
+        JsonLdEvents.endSerialization(event, root.getClass(), traverser.getVisitedInstanceCount(),
+                traverser.getMaxDepth(), outputSize);
+    }
+
+    /**
+     * Creates a builder of the JSON-LD tree.
+     * <p>
+     * The builder reuses fragments of the fragment cache, if one is set and the traverser applies no projection.
+     *
+     * @param valueSerializers Value serializers to use
+     * @param traverser        Traverser which will drive the builder
+     * @return New tree builder
+     */
+    JsonLdTreeBuilder createTreeBuilder(ValueSerializers valueSerializers, ObjectGraphTraverser traverser) {
+        if (fragmentCache == null || traverser.getProjection() != null) {
+            return new JsonLdTreeBuilder(valueSerializers);
+        }
+        final Object settings = FragmentCache.settings(serializers.getSerializers(), configuration);
+        return new JsonLdTreeBuilder(valueSerializers,
+                new FragmentTracker(fragmentCache, settings, traverser::isInlineDepthLimited));
+    }
+
+    /**
+     * Writes the specified JSON-LD tree, reporting the write time and size to the specified metrics listener.
+     *
+     * @param canonical Whether to write the tree in canonical form, see {@link JsonNode#writeCanonical(JsonGenerator)}
+     * @return Estimated output size in bytes, {@code -1} if the size was neither needed for metrics nor requested
+     */
+    static long writeTree(JsonNode root, JsonGenerator generator, boolean canonical, JsonLdMetrics metrics,
+                          boolean countBytes) {
+        if (!metrics.isEnabled() && !countBytes) {
+            write(root, generator, canonical);
+            return -1;
+        }
+        final ByteCountingJsonGenerator countingGenerator = new ByteCountingJsonGenerator(generator);
+        final long start = metrics.startTimer();
+        write(root, countingGenerator, canonical);
+        metrics.stopTimer(JsonLdMetrics.Phase.WRITE, start);
+        return countingGenerator.report(metrics);
+    }
+
+    private static void write(JsonNode root, JsonGenerator generator, boolean canonical) {
+        if (canonical) {
+            root.writeCanonical(generator);
+        } else {
+            root.write(generator);
+        }
     }
 
     /**
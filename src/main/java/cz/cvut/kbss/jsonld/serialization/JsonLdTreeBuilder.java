@@ -12,12 +12,18 @@ package cz.cvut.kbss.jsonld.serialization;
 
 import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.jsonld.serialization.model.CollectionNode;
+import cz.cvut.kbss.jsonld.serialization.model.BooleanLiteralNode;
 import cz.cvut.kbss.jsonld.serialization.model.CompositeNode;
+import cz.cvut.kbss.jsonld.serialization.model.DoubleLiteralNode;
+import cz.cvut.kbss.jsonld.serialization.model.IntLiteralNode;
 import cz.cvut.kbss.jsonld.serialization.model.JsonNode;
+import cz.cvut.kbss.jsonld.serialization.model.LongLiteralNode;
 import cz.cvut.kbss.jsonld.serialization.traversal.InstanceVisitor;
 import cz.cvut.kbss.jsonld.serialization.traversal.SerializationContext;
 
+import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.Objects;
 import java.util.Stack;
 
 /**
@@ -31,8 +37,22 @@ public class JsonLdTreeBuilder implements InstanceVisitor {
 
     private final ValueSerializers serializers;
 
+    private final FragmentTracker fragmentTracker;
+
     public JsonLdTreeBuilder(ValueSerializers serializers) {
         this.serializers = serializers;
+        this.fragmentTracker = null;
+    }
+
+    /**
+     * Creates a tree builder which reuses object fragments tracked by the specified tracker.
+     *
+     * @param serializers     Value serializers
+     * @param fragmentTracker Tracker of fragments stored in a fragment cache
+     */
+    JsonLdTreeBuilder(ValueSerializers serializers, FragmentTracker fragmentTracker) {
+        this.serializers = serializers;
+        this.fragmentTracker = Objects.requireNonNull(fragmentTracker);
     }
 
     @Override
@@ -41,24 +61,38 @@ public class JsonLdTreeBuilder implements InstanceVisitor {
             final ValueSerializer serializer = serializers.getSerializer(ctx).get();
             final JsonNode node = serializer.serialize(ctx.getValue(), ctx);
             if (node != null) {
-                if (currentNode != null) {
-                    currentNode.addItem(node);
-                } else {
-                    assert node instanceof CompositeNode;
-                    currentNode = (CompositeNode) node;
-                }
+                addNode(node);
             }
             return false;
         }
+        if (fragmentTracker != null) {
+            final JsonNode cached = fragmentTracker.visitObject(ctx.getValue(), ctx.getAttributeId());
+            if (cached != null) {
+                addNode(cached);
+                return false;
+            }
+        }
         return true;
     }
 
+    private void addNode(JsonNode node) {
+        if (currentNode != null) {
+            currentNode.addItem(node);
+        } else {
+            assert node instanceof CompositeNode;
+            currentNode = (CompositeNode) node;
+        }
+    }
+
     @Override
     public void openObject(SerializationContext<?> ctx) {
         final CompositeNode newCurrent =
                 ctx.getAttributeId() != null ? JsonNodeFactory.createObjectNode(ctx.getAttributeId()) :
                         JsonNodeFactory.createObjectNode();
         openNewNode(newCurrent);
+        if (fragmentTracker != null) {
+            fragmentTracker.openObject(ctx.getValue(), newCurrent);
+        }
     }
 
     private void openNewNode(CompositeNode newNode) {
@@ -73,6 +107,9 @@ public class JsonLdTreeBuilder implements InstanceVisitor {
 
     @Override
     public void closeObject(SerializationContext<?> ctx) {
+        if (fragmentTracker != null) {
+            fragmentTracker.closeNode(currentNode);
+        }
         currentNode.close();
         if (!nodeStack.empty()) {
             this.currentNode = nodeStack.pop();
@@ -90,6 +127,9 @@ public class JsonLdTreeBuilder implements InstanceVisitor {
         final CollectionNode typesNode = JsonNodeFactory.createCollectionNode(JsonLd.TYPE, typesCtx.getValue());
         typesCtx.getValue().forEach(type -> typesNode.addItem(JsonNodeFactory.createLiteralNode(type)));
         currentNode.addItem(typesNode);
+        if (fragmentTracker != null) {
+            fragmentTracker.visitTypes();
+        }
     }
 
     @Override
@@ -104,6 +144,45 @@ public class JsonLdTreeBuilder implements InstanceVisitor {
         }
     }
 
+    // Primitive attributes are added as nodes holding the primitive value, unless a custom serializer is registered for
+    // the corresponding wrapper type
+
+    @Override
+    public void visitAttribute(String attributeId, Field field, int value) {
+        if (serializers.hasCustomSerializer(Integer.class)) {
+            visitAttribute(new SerializationContext<>(attributeId, field, value));
+        } else {
+            currentNode.addItem(new IntLiteralNode(attributeId, value));
+        }
+    }
+
+    @Override
+    public void visitAttribute(String attributeId, Field field, long value) {
+        if (serializers.hasCustomSerializer(Long.class)) {
+            visitAttribute(new SerializationContext<>(attributeId, field, value));
+        } else {
+            currentNode.addItem(new LongLiteralNode(attributeId, value));
+        }
+    }
+
+    @Override
+    public void visitAttribute(String attributeId, Field field, double value) {
+        if (serializers.hasCustomSerializer(Double.class)) {
+            visitAttribute(new SerializationContext<>(attributeId, field, value));
+        } else {
+            currentNode.addItem(new DoubleLiteralNode(attributeId, value));
+        }
+    }
+
+    @Override
+    public void visitAttribute(String attributeId, Field field, boolean value) {
+        if (serializers.hasCustomSerializer(Boolean.class)) {
+            visitAttribute(new SerializationContext<>(attributeId, field, value));
+        } else {
+            currentNode.addItem(new BooleanLiteralNode(attributeId, value));
+        }
+    }
+
     @Override
     public void openCollection(SerializationContext<? extends Collection<?>> ctx) {
         final CollectionNode newCurrent =
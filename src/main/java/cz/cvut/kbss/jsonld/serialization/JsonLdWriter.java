@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.BlankNodeIdGenerator;
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+import cz.cvut.kbss.jsonld.exception.JsonLdSerializationException;
+import cz.cvut.kbss.jsonld.serialization.model.JsonNode;
+import cz.cvut.kbss.jsonld.serialization.traversal.ObjectGraphTraverser;
+import cz.cvut.kbss.jsonld.serialization.traversal.Projection;
+import cz.cvut.kbss.jsonld.serialization.traversal.SerializationPlanCache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Immutable, thread-safe JSON-LD serializer producing compacted context-less JSON.
+ * <p>
+ * Unlike {@link JsonLdSerializer}, a writer is not bound to a {@link JsonGenerator}, so it can be created once and
+ * shared by the whole application. It takes a snapshot of the configuration when it is created and reuses per-class
+ * serialization plans and traversal state between calls, so that the setup cost of each serialization is minimal.
+ * <p>
+ * Custom serializers are registered via {@link #withSerializer(Class, ValueSerializer)}, which creates a new writer
+ * instance. Registered serializers must be thread-safe.
+ */
+public final class JsonLdWriter {
+
+    private static final int CONTEXT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final Configuration configuration;
+
+    private final Map<Class<?>, ValueSerializer<?>> customSerializers;
+
+    private final ValueSerializers serializers;
+
+    private final FragmentCache fragmentCache;
+    // Fingerprint of the settings affecting cached fragments
+    private final Object fragmentSettings;
+
+    private final SerializationPlanCache plans = new SerializationPlanCache();
+
+    private final BlockingQueue<WriteContext> contextPool = new ArrayBlockingQueue<>(CONTEXT_POOL_SIZE);
+
+    public JsonLdWriter() {
+        this(new Configuration());
+    }
+
+    /**
+     * Creates a writer using a snapshot of the specified configuration.
+     *
+     * @param configuration Writer configuration. Later changes to it do not affect the writer
+     */
+    public JsonLdWriter(Configuration configuration) {
+        this(Objects.requireNonNull(configuration).snapshot(), Collections.emptyMap(), null);
+    }
+
+    private JsonLdWriter(Configuration configuration, Map<Class<?>, ValueSerializer<?>> customSerializers,
+                         FragmentCache fragmentCache) {
+        this.configuration = configuration;
+        this.customSerializers = Collections.unmodifiableMap(customSerializers);
+        this.fragmentCache = fragmentCache;
+        this.fragmentSettings =
+                fragmentCache != null ? FragmentCache.settings(this.customSerializers, configuration) : null;
+        this.serializers = initSerializers(customSerializers);
+        // Fails fast on invalid configuration and spares the first write creating a context
+        contextPool.offer(new WriteContext());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueSerializers initSerializers(Map<Class<?>, ValueSerializer<?>> customSerializers) {
+        final ValueSerializers result = new CommonValueSerializers();
+        customSerializers.forEach((type, serializer) -> result
+                .registerSerializer((Class<Object>) type, (ValueSerializer<Object>) serializer));
+        return result;
+    }
+
+    /**
+     * Gets the (immutable) configuration of this writer.
+     *
+     * @return Writer configuration
+     */
+    public Configuration configuration() {
+        return configuration;
+    }
+
+    /**
+     * Creates a new writer with the same configuration as this one and the specified custom serializer.
+     * <p>
+     * If a serializer already existed for the type, it is replaced by the new one.
+     *
+     * @param type       Type to register the serializer for
+     * @param serializer Serializer to register
+     * @param <T>        Serialized type
+     * @return New writer instance
+     */
+    public <T> JsonLdWriter withSerializer(Class<T> type, ValueSerializer<T> serializer) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(serializer);
+        final Map<Class<?>, ValueSerializer<?>> newSerializers = new LinkedHashMap<>(customSerializers);
+        newSerializers.put(type, serializer);
+        return new JsonLdWriter(configuration, newSerializers, fragmentCache);
+    }
+
+    /**
+     * Creates a new writer with the same configuration and serializers as this one, which uses the specified cache of
+     * serialized fragments.
+     *
+     * @param fragmentCache Fragment cache, {@code null} to disable fragment caching
+     * @return New writer instance
+     * @see FragmentCache
+     */
+    public JsonLdWriter withFragmentCache(FragmentCache fragmentCache) {
+        return new JsonLdWriter(configuration, customSerializers, fragmentCache);
+    }
+
+    /**
+     * Serializes object graph with the specified root using the specified generator.
+     *
+     * @param root      Object graph root
+     * @param generator Generator to write the JSON-LD with
+     */
+    public void write(Object root, JsonGenerator generator) {
+        write(root, null, generator);
+    }
+
+    /**
+     * Serializes the specified projection of object graph with the specified root using the specified generator.
+     * <p>
+     * Only attributes selected by the projection are serialized.
+     *
+     * @param root       Object graph root
+     * @param projection Projection to apply, {@code null} to serialize all attributes
+     * @param generator  Generator to write the JSON-LD with
+     * @see Projection
+     */
+    public void write(Object root, Projection projection, JsonGenerator generator) {
+        Objects.requireNonNull(root);
+        Objects.requireNonNull(generator);
+        final Object event = JsonLdEvents.beginSerialization();
+        final JsonLdMetrics metrics = configuration.getMetrics();
+        final WriteContext ctx = acquireContext();
+        final int nodeCount;
+        final int depth;
+        final JsonNode jsonRoot;
+        try {
+            final long start = metrics.startTimer();
+            jsonRoot = buildJsonTree(root, projection, ctx);
+            metrics.stopTimer(JsonLdMetrics.Phase.TREE_BUILD, start);
+            nodeCount = ctx.traverser.getVisitedInstanceCount();
+            depth = ctx.traverser.getMaxDepth();
+        } finally {
+            releaseContext(ctx);
+        }
+        final long outputSize = JsonLdSerializer.writeTree(jsonRoot, generator,
+                configuration.is(ConfigParam.CANONICAL_OUTPUT), metrics, event != null);
+        JsonLdEvents.endSerialization(event, root.getClass(), nodeCount, depth, outputSize);
+    }
+
+    /**
+     * Serializes object graph with the specified root directly into the specified channel.
+     *
+     * @param root       Object graph root
+     * @param channel    Channel to write into. Expected to be in blocking mode. It is not closed by this method
+     * @param bufferPool Pool providing the output buffer
+     * @return Number of bytes written into the channel
+     * @see #write(Object, Projection, WritableByteChannel, ByteBufferPool)
+     */
+    public long write(Object root, WritableByteChannel channel, ByteBufferPool bufferPool) {
+        return write(root, null, channel, bufferPool);
+    }
+
+    /**
+     * Serializes the specified projection of object graph with the specified root directly into the specified channel.
+     * <p>
+     * The UTF-8 encoded output is written into a buffer obtained from the specified pool, which is drained into the
+     * channel whenever it fills up. The buffer is returned to the pool afterwards.
+     *
+     * @param root       Object graph root
+     * @param projection Projection to apply, {@code null} to serialize all attributes
+     * @param channel    Channel to write into. Expected to be in blocking mode. It is not closed by this method
+     * @param bufferPool Pool providing the output buffer
+     * @return Number of bytes written into the channel
+     * @throws JsonLdSerializationException If writing into the channel fails
+     * @see ByteBufferJsonGenerator
+     */
+    public long write(Object root, Projection projection, WritableByteChannel channel, ByteBufferPool bufferPool) {
+        Objects.requireNonNull(channel);
+        final ByteBuffer buffer = bufferPool.acquire();
+        try {
+            final ByteBufferJsonGenerator generator = new ByteBufferJsonGenerator(buffer, channel);
+            write(root, projection, generator);
+            generator.flush();
+            return generator.getBytesWritten();
+        } catch (IOException e) {
+            throw new JsonLdSerializationException("Unable to write JSON-LD into channel.", e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private JsonNode buildJsonTree(Object root, Projection projection, WriteContext ctx) {
+        final JsonLdTreeBuilder treeBuilder = fragmentCache != null && projection == null ?
+                                              new JsonLdTreeBuilder(ctx.valueSerializers,
+                                                      new FragmentTracker(fragmentCache, fragmentSettings,
+                                                              ctx.traverser::isInlineDepthLimited)) :
+                                              new JsonLdTreeBuilder(ctx.valueSerializers);
+        ctx.traverser.setVisitor(treeBuilder);
+        ctx.traverser.setProjection(projection);
+        ctx.traverser.traverse(root);
+        return treeBuilder.getTreeRoot();
+    }
+
+    private WriteContext acquireContext() {
+        final WriteContext ctx = contextPool.poll();
+        return ctx != null ? ctx : new WriteContext();
+    }
+
+    private void releaseContext(WriteContext ctx) {
+        ctx.traverser.reset();
+        // If the pool is full, the context is simply discarded
+        contextPool.offer(ctx);
+    }
+
+    /**
+     * Per-call serialization state, pooled so that it can be reused by subsequent calls.
+     */
+    private final class WriteContext {
+
+        private final ObjectGraphTraverser traverser;
+        private final ValueSerializers valueSerializers;
+
+        private WriteContext() {
+            this.traverser = new ObjectGraphTraverser(plans);
+            traverser.configure(configuration);
+            if (fragmentCache != null) {
+                // Cached fragments retain blank node identifiers generated by earlier writes
+                traverser.setBlankNodeIdGenerator(BlankNodeIdGenerator.sessionUnique());
+            }
+            this.valueSerializers = new ObjectGraphValueSerializers(serializers, traverser);
+        }
+    }
+}
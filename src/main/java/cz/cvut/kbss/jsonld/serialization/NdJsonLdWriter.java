@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.exception.JsonLdSerializationException;
+import cz.cvut.kbss.jsonld.serialization.traversal.Projection;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * Writes line-delimited JSON-LD (NDJSON-LD), i.e., one compacted context-less JSON-LD document per line.
+ * <p>
+ * All documents are serialized by the same {@link JsonLdWriter}, so that its cached serialization plans are reused,
+ * and into the same buffer, which is copied to the output once a line is complete. Instances are not thread-safe.
+ */
+public class NdJsonLdWriter implements Flushable, Closeable {
+
+    private final JsonLdWriter writer;
+
+    private final Writer out;
+
+    private final boolean flushEachLine;
+
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    private final TextJsonGenerator generator = new TextJsonGenerator(buffer);
+
+    /**
+     * Creates a writer which does not flush the output after each line.
+     *
+     * @param writer Writer used to serialize the documents
+     * @param out    Output to write to
+     */
+    public NdJsonLdWriter(JsonLdWriter writer, Writer out) {
+        this(writer, out, false);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param writer        Writer used to serialize the documents
+     * @param out           Output to write to
+     * @param flushEachLine Whether to flush the output after each written line
+     */
+    public NdJsonLdWriter(JsonLdWriter writer, Writer out, boolean flushEachLine) {
+        this.writer = Objects.requireNonNull(writer);
+        this.out = Objects.requireNonNull(out);
+        this.flushEachLine = flushEachLine;
+    }
+
+    /**
+     * Writes object graph with the specified root as a single line.
+     *
+     * @param root Object graph root
+     */
+    public void write(Object root) {
+        write(root, null);
+    }
+
+    /**
+     * Writes the specified projection of object graph with the specified root as a single line.
+     *
+     * @param root       Object graph root
+     * @param projection Projection to apply, {@code null} to serialize all attributes
+     */
+    public void write(Object root, Projection projection) {
+        buffer.setLength(0);
+        writer.write(root, projection, generator);
+        buffer.append('\n');
+        try {
+            out.append(buffer);
+            if (flushEachLine) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new JsonLdSerializationException("Unable to write JSON-LD line.", e);
+        }
+    }
+
+    /**
+     * Writes each of the specified object graph roots as a single line.
+     *
+     * @param roots Object graph roots
+     */
+    public void writeAll(Iterable<?> roots) {
+        roots.forEach(this::write);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
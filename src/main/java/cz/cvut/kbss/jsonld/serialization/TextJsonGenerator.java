@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Writes compact JSON text (without any whitespace) into an {@link Appendable}.
+ * <p>
+ * The generator can be reused for writing multiple documents into the same output, its state is reset every time a
+ * top-level value is finished. Instances are not thread-safe.
+ */
+public class TextJsonGenerator extends AbstractTextJsonGenerator {
+
+    private final Appendable out;
+
+    public TextJsonGenerator(Appendable out) {
+        this.out = Objects.requireNonNull(out);
+    }
+
+    @Override
+    void append(char c) throws IOException {
+        out.append(c);
+    }
+
+    @Override
+    void append(CharSequence text, int start, int end) throws IOException {
+        out.append(text, start, end);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders nodes by their content, so that equal trees are ordered the same way regardless of the order in which their
+ * items were added.
+ * <p>
+ * Nodes are ordered first by their kind (strings, numbers, booleans, null, objects, lists and sets) and then by their
+ * values. Composite nodes are compared item by item, object attributes being ordered by their names and set members
+ * by this comparator. The ordered items of composite nodes are remembered by the comparator instance, so it should be
+ * used only for one write.
+ */
+final class CanonicalNodeComparator implements Comparator<JsonNode> {
+
+    private static final Comparator<JsonNode> BY_NAME = Comparator.comparing(JsonNode::getName);
+
+    private final Map<CompositeNode, List<JsonNode>> orderedItems = new IdentityHashMap<>();
+
+    /**
+     * Gets items of the specified node in canonical order.
+     *
+     * @param node Node whose items to order
+     * @return Ordered items
+     */
+    List<JsonNode> orderedItems(CompositeNode node) {
+        List<JsonNode> result = orderedItems.get(node);
+        if (result == null) {
+            result = new ArrayList<>(node.items);
+            if (node instanceof SetNode) {
+                result.sort(this);
+            } else if (node instanceof ObjectNode) {
+                result.sort(BY_NAME);
+            }
+            orderedItems.put(node, result);
+        }
+        return result;
+    }
+
+    @Override
+    public int compare(JsonNode a, JsonNode b) {
+        if (a == b) {
+            return 0;
+        }
+        final int rankA = rank(a);
+        final int rankB = rank(b);
+        if (rankA != rankB) {
+            return Integer.compare(rankA, rankB);
+        }
+        switch (rankA) {
+            case 0:
+                return text(a).compareTo(text(b));
+            case 1:
+                return compareNumbers(number(a), number(b));
+            case 2:
+                return Boolean.compare(((BooleanLiteralNode) a).getValue(), ((BooleanLiteralNode) b).getValue());
+            case 3:
+                return 0;
+            default:
+                return compareItems((CompositeNode) a, (CompositeNode) b, rankA == 4);
+        }
+    }
+
+    private static int rank(JsonNode node) {
+        if (node instanceof StringLiteralNode || node instanceof ObjectIdNode) {
+            return 0;
+        } else if (node instanceof NumericLiteralNode || node instanceof IntLiteralNode ||
+                node instanceof LongLiteralNode || node instanceof DoubleLiteralNode) {
+            return 1;
+        } else if (node instanceof BooleanLiteralNode) {
+            return 2;
+        } else if (node instanceof NullNode) {
+            return 3;
+        } else if (node instanceof ObjectNode) {
+            return 4;
+        } else if (node instanceof ListNode) {
+            return 5;
+        }
+        assert node instanceof SetNode;
+        return 6;
+    }
+
+    private static String text(JsonNode node) {
+        return node instanceof ObjectIdNode ? ((ObjectIdNode) node).getIdentifier() :
+               ((StringLiteralNode) node).getValue();
+    }
+
+    private static Number number(JsonNode node) {
+        if (node instanceof IntLiteralNode) {
+            return ((IntLiteralNode) node).getValue();
+        } else if (node instanceof LongLiteralNode) {
+            return ((LongLiteralNode) node).getValue();
+        } else if (node instanceof DoubleLiteralNode) {
+            return ((DoubleLiteralNode) node).getValue();
+        }
+        return ((NumericLiteralNode<?>) node).getValue();
+    }
+
+    private static int compareNumbers(Number a, Number b) {
+        final int result = Double.compare(a.doubleValue(), b.doubleValue());
+        return result != 0 ? result : a.toString().compareTo(b.toString());
+    }
+
+    private int compareItems(CompositeNode a, CompositeNode b, boolean named) {
+        final Iterator<JsonNode> itA = orderedItems(a).iterator();
+        final Iterator<JsonNode> itB = orderedItems(b).iterator();
+        while (itA.hasNext() && itB.hasNext()) {
+            final JsonNode itemA = itA.next();
+            final JsonNode itemB = itB.next();
+            int result = named ? BY_NAME.compare(itemA, itemB) : 0;
+            if (result == 0) {
+                result = compare(itemA, itemB);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Boolean.compare(itA.hasNext(), itB.hasNext());
+    }
+}
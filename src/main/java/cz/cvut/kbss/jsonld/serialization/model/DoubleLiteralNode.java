@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.model;
+
+import cz.cvut.kbss.jsonld.serialization.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Literal node holding a primitive {@code double} value, which is written without boxing.
+ */
+public class DoubleLiteralNode extends JsonNode {
+
+    private final double value;
+
+    public DoubleLiteralNode(double value) {
+        this.value = value;
+    }
+
+    public DoubleLiteralNode(String name, double value) {
+        super(name);
+        this.value = value;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    void writeValue(JsonGenerator writer) throws IOException {
+        writer.writeNumber(value);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + value + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final DoubleLiteralNode that = (DoubleLiteralNode) o;
+        return Double.compare(value, that.value) == 0 && Objects.equals(getName(), that.getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(value) + Objects.hashCode(getName());
+    }
+}
@@ -44,11 +44,32 @@ public abstract class JsonNode {
     }
 
     public void write(JsonGenerator writer) {
+        write(writer, false);
+    }
+
+    /**
+     * Writes this node in canonical form.
+     * <p>
+     * Object attributes are written ordered by their names and set members ordered by their content,
+     * so that equal trees are always written the same way, regardless of the order in which their items were added.
+     * List items keep their order.
+     *
+     * @param writer Generator to write with
+     */
+    public void writeCanonical(JsonGenerator writer) {
+        write(writer, true);
+    }
+
+    private void write(JsonGenerator writer, boolean canonical) {
         try {
             if (!valueNode) {
                 writeKey(writer);
             }
-            writeValue(writer);
+            if (canonical) {
+                writeCanonicalValue(writer);
+            } else {
+                writeValue(writer);
+            }
         } catch (IOException e) {
             throw new JsonLdSerializationException("Exception during serialization of node " + this, e);
         }
@@ -60,6 +81,10 @@ public abstract class JsonNode {
 
     abstract void writeValue(JsonGenerator writer) throws IOException;
 
+    void writeCanonicalValue(JsonGenerator writer) throws IOException {
+        writeValue(writer);
+    }
+
     @Override
     public String toString() {
         return name == null ? "{" : "{\"" + name + "\": ";
@@ -49,4 +49,14 @@ public class ListNode extends CollectionNode {
         writer.writeArrayEnd();
         writer.writeObjectEnd();
     }
+
+    @Override
+    void writeCanonicalValue(final JsonGenerator writer) throws IOException {
+        writer.writeObjectStart();
+        writer.writeFieldName(JsonLd.LIST);
+        writer.writeArrayStart();
+        items.forEach(item -> item.writeCanonical(writer));
+        writer.writeArrayEnd();
+        writer.writeObjectEnd();
+    }
 }
@@ -35,6 +35,10 @@ public class ObjectIdNode extends JsonNode {
         this.identifier = Objects.requireNonNull(identifier);
     }
 
+    public String getIdentifier() {
+        return identifier;
+    }
+
     @Override
     void writeValue(JsonGenerator writer) throws IOException {
         writer.writeString(identifier);
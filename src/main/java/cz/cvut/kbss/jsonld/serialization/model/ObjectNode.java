@@ -19,6 +19,8 @@ import cz.cvut.kbss.jsonld.serialization.JsonGenerator;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * Represents a JSON object node.
@@ -46,6 +48,15 @@ public class ObjectNode extends CompositeNode {
         writer.writeObjectEnd();
     }
 
+    @Override
+    void writeCanonicalValue(JsonGenerator writer) throws IOException {
+        final List<JsonNode> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(JsonNode::getName));
+        writer.writeObjectStart();
+        sorted.forEach(child -> child.writeCanonical(writer));
+        writer.writeObjectEnd();
+    }
+
     @Override
     public String toString() {
         return super.toString() + items + "}";
@@ -45,4 +45,13 @@ public class SetNode extends CollectionNode {
         items.forEach(item -> item.write(writer));
         writer.writeArrayEnd();
     }
+
+    @Override
+    void writeCanonicalValue(JsonGenerator writer) throws IOException {
+        writer.writeArrayStart();
+        for (JsonNode item : new CanonicalNodeComparator().orderedItems(this)) {
+            item.writeCanonical(writer);
+        }
+        writer.writeArrayEnd();
+    }
 }
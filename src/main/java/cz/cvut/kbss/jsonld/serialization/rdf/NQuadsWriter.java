@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.common.IdentifierUtil;
+import cz.cvut.kbss.jsonld.exception.JsonLdSerializationException;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * Writes received statements in the <a href="https://www.w3.org/TR/n-triples/">N-Triples</a> or, when a graph is
+ * specified, <a href="https://www.w3.org/TR/n-quads/">N-Quads</a> format.
+ * <p>
+ * Statements are written as soon as they are received, the writer does not buffer them. Literals with the {@code
+ * xsd:string} datatype are written as simple literals.
+ */
+public class NQuadsWriter implements RdfSink, Flushable {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final Writer out;
+
+    private final String graph;
+
+    private final StringBuilder buffer = new StringBuilder(128);
+
+    /**
+     * Creates an N-Triples writer.
+     *
+     * @param out Output to write to
+     */
+    public NQuadsWriter(Writer out) {
+        this(out, null);
+    }
+
+    /**
+     * Creates an N-Quads writer putting all statements into the specified graph.
+     *
+     * @param out   Output to write to
+     * @param graph Graph IRI, {@code null} for the default graph, in which case N-Triples are written
+     */
+    public NQuadsWriter(Writer out, String graph) {
+        this.out = Objects.requireNonNull(out);
+        this.graph = graph;
+    }
+
+    @Override
+    public void statement(String subject, String predicate, String object) {
+        appendResource(subject);
+        appendIri(predicate);
+        appendResource(object);
+        endStatement();
+    }
+
+    @Override
+    public void literal(String subject, String predicate, String lexicalForm, String datatype) {
+        appendResource(subject);
+        appendIri(predicate);
+        appendString(lexicalForm);
+        if (datatype != null && !XSD.STRING.equals(datatype)) {
+            buffer.setLength(buffer.length() - 1);
+            buffer.append("^^");
+            appendIri(datatype);
+        }
+        endStatement();
+    }
+
+    @Override
+    public void langString(String subject, String predicate, String lexicalForm, String language) {
+        appendResource(subject);
+        appendIri(predicate);
+        appendString(lexicalForm);
+        buffer.setLength(buffer.length() - 1);
+        buffer.append('@').append(language).append(' ');
+        endStatement();
+    }
+
+    private void appendResource(String id) {
+        if (id.startsWith(IdentifierUtil.B_NODE_PREFIX)) {
+            buffer.append(id).append(' ');
+        } else {
+            appendIri(id);
+        }
+    }
+
+    private void appendIri(String iri) {
+        buffer.append('<');
+        for (int i = 0; i < iri.length(); i++) {
+            final char c = iri.charAt(i);
+            if (c <= 0x20 || c == '<' || c == '>' || c == '"' || c == '{' || c == '}' || c == '|' || c == '^' ||
+                    c == '`' || c == '\\') {
+                appendUnicodeEscape(c);
+            } else {
+                buffer.append(c);
+            }
+        }
+        buffer.append("> ");
+    }
+
+    private void appendUnicodeEscape(char c) {
+        buffer.append("\\u");
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            buffer.append(HEX_DIGITS[(c >> shift) & 0xF]);
+        }
+    }
+
+    private void appendString(String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+        buffer.append("\" ");
+    }
+
+    private void endStatement() {
+        if (graph != null) {
+            appendIri(graph);
+        }
+        buffer.append(".\n");
+        try {
+            out.write(buffer.toString());
+        } catch (IOException e) {
+            throw new JsonLdSerializationException("Unable to write RDF statement.", e);
+        } finally {
+            buffer.setLength(0);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.Configurable;
+import cz.cvut.kbss.jsonld.common.JsonLdEvents;
+import cz.cvut.kbss.jsonld.serialization.traversal.ObjectGraphTraverser;
+import cz.cvut.kbss.jsonld.serialization.traversal.Projection;
+import cz.cvut.kbss.jsonld.serialization.traversal.SerializationPlanCache;
+
+import java.util.Objects;
+
+/**
+ * Serializes object graphs directly into RDF statements, without building JSON-LD first.
+ * <p>
+ * The statements are passed to an {@link RdfSink}, e.g., {@link NQuadsWriter}.
+ */
+public class RdfSerializer implements Configurable {
+
+    private final RdfSink sink;
+
+    private final Configuration configuration;
+
+    private final SerializationPlanCache plans = new SerializationPlanCache();
+
+    public RdfSerializer(RdfSink sink) {
+        this(sink, new Configuration());
+    }
+
+    public RdfSerializer(RdfSink sink, Configuration configuration) {
+        this.sink = Objects.requireNonNull(sink);
+        this.configuration = Objects.requireNonNull(configuration);
+    }
+
+    @Override
+    public Configuration configuration() {
+        return configuration;
+    }
+
+    /**
+     * Serializes object graph with the specified root.
+     *
+     * @param root Object graph root
+     */
+    public void serialize(Object root) {
+        serialize(root, null);
+    }
+
+    /**
+     * Serializes the specified projection of object graph with the specified root.
+     *
+     * @param root       Object graph root
+     * @param projection Projection to apply, {@code null} to serialize all attributes
+     */
+    public void serialize(Object root, Projection projection) {
+        Objects.requireNonNull(root);
+        final Object event = JsonLdEvents.beginSerialization();
+        final ObjectGraphTraverser traverser = new ObjectGraphTraverser(plans);
+        traverser.configure(configuration);
+        traverser.setProjection(projection);
+        traverser.setVisitor(new RdfStatementEmitter(sink, traverser));
+        traverser.traverse(root);
+        JsonLdEvents.endSerialization(event, root.getClass(), traverser.getVisitedInstanceCount(),
+                traverser.getMaxDepth(), -1);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+/**
+ * Receives RDF statements produced by serialization of an object graph.
+ * <p>
+ * Resource identifiers starting with {@link cz.cvut.kbss.jsonld.common.IdentifierUtil#B_NODE_PREFIX} represent blank
+ * nodes, all other identifiers are absolute IRIs.
+ */
+public interface RdfSink {
+
+    /**
+     * Receives a statement whose object is a resource.
+     *
+     * @param subject   Subject identifier
+     * @param predicate Predicate IRI
+     * @param object    Object identifier
+     */
+    void statement(String subject, String predicate, String object);
+
+    /**
+     * Receives a statement whose object is a typed literal.
+     *
+     * @param subject     Subject identifier
+     * @param predicate   Predicate IRI
+     * @param lexicalForm Lexical form of the literal
+     * @param datatype    Datatype IRI of the literal
+     */
+    void literal(String subject, String predicate, String lexicalForm, String datatype);
+
+    /**
+     * Receives a statement whose object is a language-tagged string.
+     *
+     * @param subject     Subject identifier
+     * @param predicate   Predicate IRI
+     * @param lexicalForm Lexical form of the literal
+     * @param language    Language tag
+     */
+    void langString(String subject, String predicate, String lexicalForm, String language);
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
+import cz.cvut.kbss.jsonld.common.BlankNodeIdGenerator;
+import cz.cvut.kbss.jsonld.common.IdentifierUtil;
+import cz.cvut.kbss.jsonld.common.SequentialBlankNodeIdGenerator;
+import cz.cvut.kbss.jsonld.serialization.traversal.InstanceVisitor;
+import cz.cvut.kbss.jsonld.serialization.traversal.ObjectGraphTraverser;
+import cz.cvut.kbss.jsonld.serialization.traversal.SerializationContext;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Emits RDF statements into an {@link RdfSink} directly from object graph traversal by {@link ObjectGraphTraverser}.
+ * <p>
+ * Unlike {@link cz.cvut.kbss.jsonld.serialization.JsonLdTreeBuilder}, no intermediate tree is built, each statement is
+ * passed to the sink as soon as it is discovered. Custom value serializers are not supported, as they produce JSON-LD
+ * nodes.
+ * <p>
+ * Attribute values which are {@link List}s are emitted as RDF lists ({@code rdf:first}/{@code rdf:rest} chains), the
+ * same way JSON-LD {@code @list} is converted to RDF. List nodes are blank nodes labeled {@code _:l0}, {@code _:l1}
+ * and so on.
+ */
+public class RdfStatementEmitter implements InstanceVisitor {
+
+    private static final String RDF_FIRST = RDF.NAMESPACE + "first";
+    private static final String RDF_REST = RDF.NAMESPACE + "rest";
+    private static final String RDF_NIL = RDF.NAMESPACE + "nil";
+
+    private static final String LIST_NODE_PREFIX = IdentifierUtil.B_NODE_PREFIX + "l";
+
+    private final RdfSink sink;
+
+    private final ObjectGraphTraverser traverser;
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private final BlankNodeIdGenerator listNodeIds = new SequentialBlankNodeIdGenerator(LIST_NODE_PREFIX);
+
+    public RdfStatementEmitter(RdfSink sink, ObjectGraphTraverser traverser) {
+        this.sink = Objects.requireNonNull(sink);
+        this.traverser = Objects.requireNonNull(traverser);
+    }
+
+    @Override
+    public boolean visitObject(SerializationContext<?> ctx) {
+        return true;
+    }
+
+    @Override
+    public void openObject(SerializationContext<?> ctx) {
+        final Frame parent = frames.peek();
+        final Frame frame = new Frame(false, resolvePredicate(parent, ctx.getAttributeId()));
+        frame.parent = parent;
+        frame.parentSubject = parent != null ? parent.subject : null;
+        frames.push(frame);
+    }
+
+    private static String resolvePredicate(Frame current, String attributeId) {
+        if (attributeId != null) {
+            return attributeId;
+        }
+        // Collection items have no attribute, they share the predicate of the collection
+        return current != null && current.collection ? current.predicate : null;
+    }
+
+    @Override
+    public void closeObject(SerializationContext<?> ctx) {
+        frames.pop();
+    }
+
+    @Override
+    public void visitIdentifier(SerializationContext<String> ctx) {
+        final Frame frame = frames.peek();
+        assert frame != null;
+        frame.subject = ctx.getValue();
+        if (frame.parent != null && frame.parent.list) {
+            sink.statement(nextListNode(frame.parent), RDF_FIRST, frame.subject);
+        } else if (frame.parentSubject != null && frame.predicate != null) {
+            sink.statement(frame.parentSubject, frame.predicate, frame.subject);
+        }
+    }
+
+    @Override
+    public void visitTypes(SerializationContext<Collection<String>> ctx) {
+        final String subject = frames.peek().subject;
+        ctx.getValue().forEach(type -> sink.statement(subject, RDF.TYPE, type));
+    }
+
+    @Override
+    public void visitAttribute(SerializationContext<?> ctx) {
+        final Object value = ctx.getValue();
+        if (value == null) {
+            return;
+        }
+        if (BeanAnnotationProcessor.isObjectProperty(ctx.getField())) {
+            traverser.traverse(ctx);
+            return;
+        }
+        final Frame frame = frames.peek();
+        assert frame != null;
+        final String predicate = resolvePredicate(frame, ctx.getAttributeId());
+        final boolean annotationProperty = BeanAnnotationProcessor.isAnnotationProperty(ctx.getField());
+        if (value instanceof List) {
+            final Frame list = new Frame(true, predicate);
+            list.list = true;
+            list.subject = frame.subject;
+            for (Object item : (List<?>) value) {
+                if (item != null) {
+                    emitValue(nextListNode(list), RDF_FIRST, item, annotationProperty);
+                }
+            }
+            closeList(list);
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                if (item != null) {
+                    emitValue(frame.subject, predicate, item, annotationProperty);
+                }
+            }
+        } else {
+            emitValue(frame.subject, predicate, value, annotationProperty);
+        }
+    }
+
+    private void emitValue(String subject, String predicate, Object value, boolean annotationProperty) {
+        if (annotationProperty && BeanClassProcessor.isIdentifierType(value.getClass()) && !(value instanceof String)) {
+            sink.statement(subject, predicate, value.toString());
+        } else if (value instanceof MultilingualString) {
+            for (Map.Entry<String, String> e : ((MultilingualString) value).getValue().entrySet()) {
+                if (e.getKey() != null) {
+                    sink.langString(subject, predicate, e.getValue(), e.getKey());
+                } else {
+                    sink.literal(subject, predicate, e.getValue(), XSD.STRING);
+                }
+            }
+        } else {
+            sink.literal(subject, predicate, XsdLiterals.lexicalForm(value), XsdLiterals.datatypeOf(value));
+        }
+    }
+
+    @Override
+    public void openCollection(SerializationContext<? extends Collection<?>> ctx) {
+        final Frame parent = frames.peek();
+        final Frame frame = new Frame(true, ctx.getAttributeId());
+        frame.subject = parent != null ? parent.subject : null;
+        // Only attribute values can be RDF lists, there is no subject to attach a root list to
+        frame.list = ctx.getValue() instanceof List && frame.predicate != null && frame.subject != null;
+        frames.push(frame);
+    }
+
+    @Override
+    public void closeCollection(SerializationContext<?> ctx) {
+        assert frames.peek() != null && frames.peek().collection;
+        final Frame frame = frames.pop();
+        if (frame.list) {
+            closeList(frame);
+        }
+    }
+
+    /**
+     * Appends a new node to the specified list and returns its identifier, so that the next item can be attached to it
+     * by {@code rdf:first}.
+     */
+    private String nextListNode(Frame list) {
+        final String node = listNodeIds.generate();
+        if (list.lastListNode == null) {
+            sink.statement(list.subject, list.predicate, node);
+        } else {
+            sink.statement(list.lastListNode, RDF_REST, node);
+        }
+        list.lastListNode = node;
+        return node;
+    }
+
+    private void closeList(Frame list) {
+        if (list.lastListNode == null) {
+            sink.statement(list.subject, list.predicate, RDF_NIL);
+        } else {
+            sink.statement(list.lastListNode, RDF_REST, RDF_NIL);
+        }
+    }
+
+    /**
+     * Currently open object or collection.
+     */
+    private static final class Frame {
+
+        private final boolean collection;
+        private final String predicate;
+        // For collections, this is the subject of the object owning the collection
+        private String subject;
+        private String parentSubject;
+        private Frame parent;
+        // Whether this collection is emitted as an RDF list
+        private boolean list;
+        // Last node of the RDF list emitted so far, null if the list is still empty
+        private String lastListNode;
+
+        private Frame(boolean collection, String predicate) {
+            this.collection = collection;
+            this.predicate = predicate;
+        }
+    }
+}
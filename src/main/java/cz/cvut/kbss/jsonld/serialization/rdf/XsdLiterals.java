@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Maps Java literal values to XSD datatypes and lexical forms.
+ * <p>
+ * The mapping is an inverse of {@link cz.cvut.kbss.jsonld.deserialization.util.XSDTypeCoercer}, so that values
+ * written as RDF literals are read back as the same types. Values of other types are represented as strings.
+ */
+final class XsdLiterals {
+
+    private XsdLiterals() {
+        throw new AssertionError();
+    }
+
+    static String datatypeOf(Object value) {
+        if (value instanceof Boolean) {
+            return XSD.BOOLEAN;
+        } else if (value instanceof Byte) {
+            return XSD.BYTE;
+        } else if (value instanceof Short) {
+            return XSD.SHORT;
+        } else if (value instanceof Integer) {
+            return XSD.INT;
+        } else if (value instanceof Long) {
+            return XSD.LONG;
+        } else if (value instanceof Float) {
+            return XSD.FLOAT;
+        } else if (value instanceof Double) {
+            return XSD.DOUBLE;
+        } else if (value instanceof BigInteger) {
+            return XSD.INTEGER;
+        } else if (value instanceof BigDecimal) {
+            return XSD.DECIMAL;
+        } else if (value instanceof Date || value instanceof Instant || value instanceof OffsetDateTime ||
+                value instanceof ZonedDateTime || value instanceof LocalDateTime) {
+            return XSD.DATETIME;
+        } else if (value instanceof LocalDate) {
+            return XSD.DATE;
+        } else if (value instanceof LocalTime || value instanceof OffsetTime) {
+            return XSD.TIME;
+        } else if (value instanceof Duration || value instanceof javax.xml.datatype.Duration) {
+            return XSD.DURATION;
+        }
+        return XSD.STRING;
+    }
+
+    static String lexicalForm(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().toString();
+        } else if (value instanceof ZonedDateTime) {
+            // ZonedDateTime.toString appends zone id, which is not valid in xsd:dateTime
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((ZonedDateTime) value);
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.traversal;
+
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
+import cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth;
+import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
+import cz.cvut.kbss.jsonld.exception.BeanProcessingException;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed serialization metadata of a single class.
+ * <p>
+ * Contains the ordered serializable attributes of the class, together with its identifier, types and properties fields
+ * and OWL classes it is mapped to, so that they need not be discovered by reflection for every serialized instance.
+ * <p>
+ * Instances are thread-safe. Attribute lists reduced by a {@link Projection} are compiled on first use and cached.
+ */
+final class ClassSerializationPlan {
+
+    private final Field identifierField;
+    private final Field typesField;
+    private final Field propertiesField;
+    private final Set<String> owlClasses;
+    private final List<Attribute> attributes;
+    // Projections are usually created per request, so only the recently used ones are kept
+    private final Map<Projection, List<Attribute>> projectedAttributes = new ProjectionCache();
+
+    private ClassSerializationPlan(Class<?> cls) {
+        this.identifierField = BeanAnnotationProcessor.getIdentifierField(cls).orElse(null);
+        this.typesField = BeanAnnotationProcessor.getTypesField(cls).orElse(null);
+        this.propertiesField =
+                BeanAnnotationProcessor.hasPropertiesField(cls) ? BeanAnnotationProcessor.getPropertiesField(cls) :
+                null;
+        this.owlClasses = Collections.unmodifiableSet(BeanAnnotationProcessor.getOwlClasses(cls));
+        this.attributes = Collections.unmodifiableList(resolveAttributes(cls));
+    }
+
+    private static List<Attribute> resolveAttributes(Class<?> cls) {
+        final List<Field> fields = orderAttributesForSerialization(BeanAnnotationProcessor.getSerializableFields(cls),
+                BeanAnnotationProcessor.getAttributeOrder(cls));
+        final List<Attribute> result = new ArrayList<>(fields.size());
+        for (Field f : fields) {
+            if (BeanAnnotationProcessor.isInstanceIdentifier(f) || BeanAnnotationProcessor.isPropertiesField(f) ||
+                    BeanAnnotationProcessor.isTypesField(f)) {
+                continue;
+            }
+            result.add(new Attribute(f, BeanAnnotationProcessor.getAttributeIdentifier(f)));
+        }
+        return result;
+    }
+
+    private static List<Field> orderAttributesForSerialization(List<Field> fields, String[] ordering) {
+        final List<Field> result = new ArrayList<>(fields.size());
+        for (String item : ordering) {
+            final Iterator<Field> it = fields.iterator();
+            while (it.hasNext()) {
+                final Field f = it.next();
+                if (f.getName().equals(item)) {
+                    it.remove();
+                    result.add(f);
+                    break;
+                }
+            }
+        }
+        result.addAll(fields);
+        return result;
+    }
+
+    static ClassSerializationPlan compile(Class<?> cls) {
+        return new ClassSerializationPlan(Objects.requireNonNull(cls));
+    }
+
+    /**
+     * Extracts identifier of the specified instance.
+     *
+     * @param instance Instance of the class represented by this plan
+     * @return Identifier value, empty {@code Optional} if the class has no identifier field or its value is {@code
+     * null}
+     */
+    Optional<Object> getIdentifier(Object instance) {
+        if (identifierField == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(BeanClassProcessor.getFieldValue(identifierField, instance));
+    }
+
+    Field getTypesField() {
+        return typesField;
+    }
+
+    Field getPropertiesField() {
+        return propertiesField;
+    }
+
+    Set<String> getOwlClasses() {
+        return owlClasses;
+    }
+
+    /**
+     * Gets serializable attributes (excluding identifier, types and properties) in the order in which they should be
+     * serialized.
+     *
+     * @return Unmodifiable list of attributes
+     */
+    List<Attribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Gets serializable attributes selected by the specified projection, in the order in which they should be
+     * serialized.
+     *
+     * @param projection Projection to apply, {@code null} means all attributes
+     * @return Unmodifiable list of attributes
+     * @see #getAttributes()
+     */
+    List<Attribute> getAttributes(Projection projection) {
+        if (projection == null) {
+            return attributes;
+        }
+        synchronized (projectedAttributes) {
+            return projectedAttributes.computeIfAbsent(projection, p -> Collections
+                    .unmodifiableList(attributes.stream().filter(a -> p.includes(a.getAttributeId()))
+                                                .collect(Collectors.toList())));
+        }
+    }
+
+    /**
+     * Least recently used projections are evicted when the cache exceeds its maximum size.
+     */
+    private static final class ProjectionCache extends LinkedHashMap<Projection, List<Attribute>> {
+
+        private static final int MAX_SIZE = 64;
+
+        private ProjectionCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Projection, List<Attribute>> eldest) {
+            return size() > MAX_SIZE;
+        }
+    }
+
+    /**
+     * Primitive types whose values are read and serialized without boxing.
+     */
+    enum PrimitiveKind {
+        NONE, INT, LONG, DOUBLE, BOOLEAN;
+
+        static PrimitiveKind of(Class<?> type) {
+            if (type == int.class) {
+                return INT;
+            } else if (type == long.class) {
+                return LONG;
+            } else if (type == double.class) {
+                return DOUBLE;
+            } else if (type == boolean.class) {
+                return BOOLEAN;
+            }
+            return NONE;
+        }
+    }
+
+    static final class Attribute {
+
+        private final Field field;
+        private final String attributeId;
+        private final boolean objectProperty;
+        private final boolean lazilyFetched;
+        private final int inlineDepth;
+        private final PrimitiveKind primitiveKind;
+
+        private Attribute(Field field, String attributeId) {
+            this.field = field;
+            this.attributeId = attributeId;
+            this.objectProperty = BeanAnnotationProcessor.isObjectProperty(field);
+            this.lazilyFetched =
+                    objectProperty && field.getDeclaredAnnotation(OWLObjectProperty.class).fetch() == FetchType.LAZY;
+            this.inlineDepth = resolveInlineDepth(field);
+            this.primitiveKind = objectProperty ? PrimitiveKind.NONE : PrimitiveKind.of(field.getType());
+            if (primitiveKind != PrimitiveKind.NONE && !field.isAccessible()) {
+                field.setAccessible(true);
+            }
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getAttributeId() {
+            return attributeId;
+        }
+
+        boolean isObjectProperty() {
+            return objectProperty;
+        }
+
+        /**
+         * Whether this attribute is an object property with {@link FetchType#LAZY} fetch type.
+         *
+         * @return {@code true} if the attribute is lazily fetched, {@code false} otherwise
+         */
+        boolean isLazilyFetched() {
+            return lazilyFetched;
+        }
+
+        private static int resolveInlineDepth(Field field) {
+            final JsonLdInlineDepth annotation = field.getDeclaredAnnotation(JsonLdInlineDepth.class);
+            if (annotation == null) {
+                return -1;
+            }
+            if (annotation.value() < 0) {
+                throw new IllegalArgumentException("Inline depth of field " + field + " must not be negative.");
+            }
+            return annotation.value();
+        }
+
+        /**
+         * Gets the maximum depth of objects serialized in full via this attribute, relative to the instance declaring
+         * the attribute.
+         *
+         * @return Inline depth, {@code -1} if not specified for this attribute
+         * @see JsonLdInlineDepth
+         */
+        int getInlineDepth() {
+            return inlineDepth;
+        }
+
+        /**
+         * Gets the primitive type of this attribute, whose value can be read by the corresponding primitive reader
+         * ({@link #getInt(Object)} etc.) without boxing.
+         *
+         * @return Primitive kind, {@link PrimitiveKind#NONE} if the value has to be read as an object
+         */
+        PrimitiveKind getPrimitiveKind() {
+            return primitiveKind;
+        }
+
+        int getInt(Object instance) {
+            try {
+                return field.getInt(instance);
+            } catch (IllegalAccessException e) {
+                throw unableToRead(e);
+            }
+        }
+
+        long getLong(Object instance) {
+            try {
+                return field.getLong(instance);
+            } catch (IllegalAccessException e) {
+                throw unableToRead(e);
+            }
+        }
+
+        double getDouble(Object instance) {
+            try {
+                return field.getDouble(instance);
+            } catch (IllegalAccessException e) {
+                throw unableToRead(e);
+            }
+        }
+
+        boolean getBoolean(Object instance) {
+            try {
+                return field.getBoolean(instance);
+            } catch (IllegalAccessException e) {
+                throw unableToRead(e);
+            }
+        }
+
+        private BeanProcessingException unableToRead(IllegalAccessException e) {
+            return new BeanProcessingException("Unable to extract value of field " + field, e);
+        }
+    }
+}
@@ -21,7 +21,7 @@ import cz.cvut.kbss.jsonld.exception.MissingTypeInfoException;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.Optional;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -44,17 +44,33 @@ class InstanceTypeResolver {
      */
     Set<String> resolveTypes(Object instance) {
         assert instance != null;
-        final Set<String> declaredTypes = BeanAnnotationProcessor.getOwlClasses(instance);
-        final Optional<Field> typesField = BeanAnnotationProcessor.getTypesField(instance.getClass());
-        typesField.ifPresent(f -> {
-            if (!Collection.class.isAssignableFrom(f.getType())) {
+        return resolveTypes(instance, BeanAnnotationProcessor.getOwlClasses(instance),
+                BeanAnnotationProcessor.getTypesField(instance.getClass()).orElse(null));
+    }
+
+    /**
+     * Resolves all the types the instance belongs to, using precomputed metadata of the instance's class.
+     *
+     * @param instance The instance whose types should be resolved
+     * @param plan     Serialization plan of the instance's class
+     * @return Set of types of the instance
+     * @see #resolveTypes(Object)
+     */
+    Set<String> resolveTypes(Object instance, ClassSerializationPlan plan) {
+        assert instance != null;
+        return resolveTypes(instance, new HashSet<>(plan.getOwlClasses()), plan.getTypesField());
+    }
+
+    private static Set<String> resolveTypes(Object instance, Set<String> declaredTypes, Field typesField) {
+        if (typesField != null) {
+            if (!Collection.class.isAssignableFrom(typesField.getType())) {
                 throw new BeanProcessingException("@Types field in object " + instance + " must be a collection.");
             }
-            final Collection<?> runtimeTypes = (Collection<?>) BeanClassProcessor.getFieldValue(f, instance);
+            final Collection<?> runtimeTypes = (Collection<?>) BeanClassProcessor.getFieldValue(typesField, instance);
             if (runtimeTypes != null) {
                 runtimeTypes.forEach(t -> declaredTypes.add(t.toString()));
             }
-        });
+        }
         if (declaredTypes.isEmpty()) {
             throw new MissingTypeInfoException("No type info found on instance " + instance +
                     ". Either annotate the class with @OWLClass or provide a non-empty @Types field. " +
@@ -1,5 +1,6 @@
 package cz.cvut.kbss.jsonld.serialization.traversal;
 
+import java.lang.reflect.Field;
 import java.util.Collection;
 
 public interface InstanceVisitor {
@@ -43,6 +44,62 @@ public interface InstanceVisitor {
      */
     void visitAttribute(SerializationContext<?> ctx);
 
+    /**
+     * Called when an attribute of primitive type {@code int} is processed by the object graph traverser.
+     * <p>
+     * Allows visitors to process the value without boxing. The default implementation boxes the value and delegates
+     * to {@link #visitAttribute(SerializationContext)}.
+     *
+     * @param attributeId Attribute identifier
+     * @param field       Attribute field
+     * @param value       Attribute value
+     */
+    default void visitAttribute(String attributeId, Field field, int value) {
+        visitAttribute(new SerializationContext<>(attributeId, field, value));
+    }
+
+    /**
+     * Called when an attribute of primitive type {@code long} is processed by the object graph traverser.
+     * <p>
+     * Allows visitors to process the value without boxing. The default implementation boxes the value and delegates
+     * to {@link #visitAttribute(SerializationContext)}.
+     *
+     * @param attributeId Attribute identifier
+     * @param field       Attribute field
+     * @param value       Attribute value
+     */
+    default void visitAttribute(String attributeId, Field field, long value) {
+        visitAttribute(new SerializationContext<>(attributeId, field, value));
+    }
+
+    /**
+     * Called when an attribute of primitive type {@code double} is processed by the object graph traverser.
+     * <p>
+     * Allows visitors to process the value without boxing. The default implementation boxes the value and delegates
+     * to {@link #visitAttribute(SerializationContext)}.
+     *
+     * @param attributeId Attribute identifier
+     * @param field       Attribute field
+     * @param value       Attribute value
+     */
+    default void visitAttribute(String attributeId, Field field, double value) {
+        visitAttribute(new SerializationContext<>(attributeId, field, value));
+    }
+
+    /**
+     * Called when an attribute of primitive type {@code boolean} is processed by the object graph traverser.
+     * <p>
+     * Allows visitors to process the value without boxing. The default implementation boxes the value and delegates
+     * to {@link #visitAttribute(SerializationContext)}.
+     *
+     * @param attributeId Attribute identifier
+     * @param field       Attribute field
+     * @param value       Attribute value
+     */
+    default void visitAttribute(String attributeId, Field field, boolean value) {
+        visitAttribute(new SerializationContext<>(attributeId, field, value));
+    }
+
     /**
      * Called when the identifier of an instance (JSON-LD {@code @id} attribute) is encountered.
      * <p>
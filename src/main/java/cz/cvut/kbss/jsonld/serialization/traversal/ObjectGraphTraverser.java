@@ -10,9 +10,11 @@
  */
 package cz.cvut.kbss.jsonld.serialization.traversal;
 
-import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
 import cz.cvut.kbss.jsonld.common.BeanClassProcessor;
-import cz.cvut.kbss.jsonld.common.IdentifierUtil;
+import cz.cvut.kbss.jsonld.common.BlankNodeIdGenerator;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.exception.MissingIdentifierException;
 
 import java.lang.reflect.Field;
@@ -31,10 +33,50 @@ public class ObjectGraphTraverser {
 
     private final InstanceTypeResolver typeResolver = new InstanceTypeResolver();
 
+    private final SerializationPlanCache plans;
+
     private boolean requireId = false;
 
+    private boolean lazyAsReferences = false;
+
+    // Whether the currently traversed value should be serialized only as references to its instances
+    private boolean referencesOnly;
+
+    private int maxInlineDepth;
+
+    // Depth of the deepest instances serialized in full within the currently traversed value
+    private int inlineDepthLimit = Integer.MAX_VALUE;
+
     private final Map<Object, String> knownInstances = new IdentityHashMap<>();
 
+    // Identifiers of the known instances, null if deduplication by identifier is disabled
+    private Set<String> knownIdentifiers;
+
+    private BlankNodeIdGenerator blankNodeIds = BlankNodeIdGenerator.sequential();
+
+    // Projection applicable to the currently traversed value
+    private Projection projection;
+
+    private JsonLdMetrics metrics = JsonLdMetrics.NO_OP;
+
+    private int depth;
+    private int maxDepth;
+
+    public ObjectGraphTraverser() {
+        this(new SerializationPlanCache());
+    }
+
+    /**
+     * Creates a traverser which uses the specified cache of serialization plans.
+     * <p>
+     * The cache can be shared by multiple traversers.
+     *
+     * @param plans Serialization plan cache
+     */
+    public ObjectGraphTraverser(SerializationPlanCache plans) {
+        this.plans = Objects.requireNonNull(plans);
+    }
+
     public void setVisitor(InstanceVisitor visitor) {
         this.visitor = Objects.requireNonNull(visitor);
     }
@@ -45,7 +87,9 @@ public class ObjectGraphTraverser {
 
     public void traverse(Object instance) {
         Objects.requireNonNull(instance);
+        final long start = metrics.startTimer();
         traverse(new SerializationContext<>(instance));
+        metrics.stopTimer(JsonLdMetrics.Phase.TRAVERSAL, start);
     }
 
     public void traverse(SerializationContext<?> ctx) {
@@ -73,58 +117,118 @@ public class ObjectGraphTraverser {
         if (ctx.getValue() == null) {
             return;
         }
-        final boolean firstEncounter = !knownInstances.containsKey(ctx.getValue());
+        final Object instance = ctx.getValue();
+        // The plan is looked up once per visited instance, so that plan cache metrics reflect the traversed graph
+        final ClassSerializationPlan plan = BeanClassProcessor.isIdentifierType(instance.getClass()) ? null :
+                                            plans.get(instance.getClass(), metrics);
+        if ((referencesOnly || depth >= inlineDepthLimit) && visitReference(ctx, plan)) {
+            return;
+        }
+        final boolean firstEncounter = !knownInstances.containsKey(instance);
+        if (firstEncounter && knownIdentifiers != null && isIdentifierKnown(instance, plan) &&
+                visitReference(ctx, plan)) {
+            return;
+        }
         final boolean shouldTraverse = visitInstance(ctx);
         if (!shouldTraverse) {
             return;
         }
-        openInstance(ctx);
-        visitIdentifier(ctx.getValue());
-        if (!BeanClassProcessor.isIdentifierType(ctx.getValue().getClass()) && firstEncounter) {
-            visitTypes(ctx.getValue());
-            serializeFields(ctx.getValue());
-            serializePropertiesField(ctx.getValue());
+        openInstance(ctx, plan);
+        this.maxDepth = Math.max(maxDepth, ++depth);
+        visitIdentifier(instance, plan);
+        if (plan != null && firstEncounter) {
+            visitTypes(instance, plan);
+            final Projection currentProjection = this.projection;
+            serializeFields(instance, plan, currentProjection);
+            if (currentProjection == null) {
+                serializePropertiesField(instance, plan);
+            }
         }
+        depth--;
         closeInstance(ctx);
     }
 
-    private void serializeFields(Object instance) {
-        final List<Field> fieldsToSerialize =
-                orderAttributesForSerialization(BeanAnnotationProcessor.getSerializableFields(instance),
-                        BeanAnnotationProcessor.getAttributeOrder(instance.getClass()));
-        for (Field f : fieldsToSerialize) {
-            if (BeanAnnotationProcessor.isInstanceIdentifier(f) || BeanAnnotationProcessor.isPropertiesField(f) || BeanAnnotationProcessor.isTypesField(f)) {
+    private boolean isIdentifierKnown(Object instance, ClassSerializationPlan plan) {
+        if (plan == null) {
+            return false;
+        }
+        final Optional<Object> id = plan.getIdentifier(instance);
+        return id.isPresent() && knownIdentifiers.contains(id.get().toString());
+    }
+
+    /**
+     * Visits the specified instance as a reference, i.e., an object containing only its identifier.
+     * <p>
+     * Only the identifier of the instance is read, its attributes are not traversed. Instances without identifier
+     * cannot be referenced and are traversed normally.
+     *
+     * @return Whether the instance has been visited as reference
+     */
+    private boolean visitReference(SerializationContext<?> ctx, ClassSerializationPlan plan) {
+        if (plan == null) {
+            return false;
+        }
+        final Optional<Object> id = plan.getIdentifier(ctx.getValue());
+        if (!id.isPresent()) {
+            return false;
+        }
+        visitor.openObject(ctx);
+        visitor.visitIdentifier(new SerializationContext<>(id.get().toString()));
+        visitor.closeObject(ctx);
+        return true;
+    }
+
+    private void serializeFields(Object instance, ClassSerializationPlan plan, Projection currentProjection) {
+        final boolean currentReferencesOnly = this.referencesOnly;
+        final int currentInlineDepthLimit = this.inlineDepthLimit;
+        for (ClassSerializationPlan.Attribute att : plan.getAttributes(currentProjection)) {
+            if (att.getPrimitiveKind() != ClassSerializationPlan.PrimitiveKind.NONE) {
+                this.projection = null;
+                visitPrimitiveAttribute(instance, att);
                 continue;
             }
-            Object value = BeanClassProcessor.getFieldValue(f, instance);
-            final SerializationContext<?> ctx =
-                    new SerializationContext<>(BeanAnnotationProcessor.getAttributeIdentifier(f), f, value);
+            final Object value = BeanClassProcessor.getFieldValue(att.getField(), instance);
+            // Guarded, so that size of (possibly lazily loaded) collections is not needlessly requested
+            if (value != null && !att.isObjectProperty() && metrics.isEnabled()) {
+                metrics.count(JsonLdMetrics.Counter.LITERALS,
+                        value instanceof Collection ? ((Collection<?>) value).size() : 1);
+            }
+            final SerializationContext<?> ctx = new SerializationContext<>(att.getAttributeId(), att.getField(), value);
+            this.projection = currentProjection != null ? currentProjection.getSubProjection(att.getAttributeId()) :
+                              null;
+            this.referencesOnly = lazyAsReferences && att.isLazilyFetched();
+            this.inlineDepthLimit = att.getInlineDepth() >= 0 ? depth + att.getInlineDepth() : currentInlineDepthLimit;
             visitAttribute(ctx);
         }
+        this.projection = currentProjection;
+        this.referencesOnly = currentReferencesOnly;
+        this.inlineDepthLimit = currentInlineDepthLimit;
     }
 
-    private List<Field> orderAttributesForSerialization(List<Field> fields, String[] ordering) {
-        final List<Field> result = new ArrayList<>(fields.size());
-        for (String item : ordering) {
-            final Iterator<Field> it = fields.iterator();
-            while (it.hasNext()) {
-                final Field f = it.next();
-                if (f.getName().equals(item)) {
-                    it.remove();
-                    result.add(f);
-                    break;
-                }
-            }
+    private void visitPrimitiveAttribute(Object instance, ClassSerializationPlan.Attribute att) {
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
+        metrics.count(JsonLdMetrics.Counter.LITERALS, 1);
+        switch (att.getPrimitiveKind()) {
+            case INT:
+                visitor.visitAttribute(att.getAttributeId(), att.getField(), att.getInt(instance));
+                break;
+            case LONG:
+                visitor.visitAttribute(att.getAttributeId(), att.getField(), att.getLong(instance));
+                break;
+            case DOUBLE:
+                visitor.visitAttribute(att.getAttributeId(), att.getField(), att.getDouble(instance));
+                break;
+            default:
+                assert att.getPrimitiveKind() == ClassSerializationPlan.PrimitiveKind.BOOLEAN;
+                visitor.visitAttribute(att.getAttributeId(), att.getField(), att.getBoolean(instance));
         }
-        result.addAll(fields);
-        return result;
     }
 
-    private void serializePropertiesField(Object instance) {
-        if (!BeanAnnotationProcessor.hasPropertiesField(instance.getClass())) {
+    private void serializePropertiesField(Object instance, ClassSerializationPlan plan) {
+        final Field propertiesField = plan.getPropertiesField();
+        if (propertiesField == null) {
             return;
         }
-        final Field propertiesField = BeanAnnotationProcessor.getPropertiesField(instance.getClass());
         final Object value = BeanClassProcessor.getFieldValue(propertiesField, instance);
         if (value == null) {
             return;
@@ -139,20 +243,29 @@ public class ObjectGraphTraverser {
     }
 
     public void openInstance(SerializationContext<?> ctx) {
-        if (!BeanClassProcessor.isIdentifierType(ctx.getValue().getClass())) {
-            final String identifier = resolveIdentifier(ctx.getValue());
-            knownInstances.put(ctx.getValue(), identifier);
+        openInstance(ctx, BeanClassProcessor.isIdentifierType(ctx.getValue().getClass()) ? null :
+                          plans.get(ctx.getValue().getClass(), metrics));
+    }
+
+    private void openInstance(SerializationContext<?> ctx, ClassSerializationPlan plan) {
+        if (plan != null) {
+            knownInstances.put(ctx.getValue(), resolveIdentifier(ctx.getValue(), plan));
+            if (knownIdentifiers != null) {
+                // Generated blank node identifiers must not make instances with the same actual identifier references
+                plan.getIdentifier(ctx.getValue()).ifPresent(id -> knownIdentifiers.add(id.toString()));
+            }
+            metrics.count(JsonLdMetrics.Counter.NODES, 1);
         }
         visitor.openObject(ctx);
     }
 
-    private String resolveIdentifier(Object instance) {
-        final Optional<Object> extractedId = BeanAnnotationProcessor.getInstanceIdentifier(instance);
+    private String resolveIdentifier(Object instance, ClassSerializationPlan plan) {
+        final Optional<Object> extractedId = plan.getIdentifier(instance);
         if (!extractedId.isPresent() && requireId) {
             throw MissingIdentifierException.create(instance);
         }
         return extractedId.orElseGet(() -> knownInstances.containsKey(instance) ? knownInstances.get(instance) :
-                IdentifierUtil.generateBlankNodeId()).toString();
+                blankNodeIds.generate()).toString();
     }
 
     public void closeInstance(SerializationContext<?> ctx) {
@@ -160,11 +273,16 @@ public class ObjectGraphTraverser {
     }
 
     public void visitIdentifier(Object instance) {
+        visitIdentifier(instance, BeanClassProcessor.isIdentifierType(instance.getClass()) ? null :
+                                  plans.get(instance.getClass()));
+    }
+
+    private void visitIdentifier(Object instance, ClassSerializationPlan plan) {
         final String id;
-        if (BeanClassProcessor.isIdentifierType(instance.getClass())) {
+        if (plan == null) {
             id = instance.toString();
         } else {
-            id = resolveIdentifier(instance);
+            id = resolveIdentifier(instance, plan);
             knownInstances.put(instance, id);
         }
         final SerializationContext<String> idContext = new SerializationContext<>(id);
@@ -172,13 +290,18 @@ public class ObjectGraphTraverser {
     }
 
     public void visitTypes(Object instance) {
-        final Set<String> resolvedTypes = typeResolver.resolveTypes(instance);
+        visitTypes(instance, plans.get(instance.getClass()));
+    }
+
+    private void visitTypes(Object instance, ClassSerializationPlan plan) {
+        final Set<String> resolvedTypes = typeResolver.resolveTypes(instance, plan);
         assert !resolvedTypes.isEmpty();
         final SerializationContext<Collection<String>> typesContext = new SerializationContext<>(resolvedTypes);
         visitor.visitTypes(typesContext);
     }
 
     public void visitAttribute(SerializationContext<?> ctx) {
+        metrics.count(JsonLdMetrics.Counter.ATTRIBUTES, 1);
         visitor.visitAttribute(ctx);
     }
 
@@ -190,7 +313,157 @@ public class ObjectGraphTraverser {
         visitor.closeCollection(ctx);
     }
 
+    /**
+     * Applies traversal settings of the specified configuration to this traverser.
+     * <p>
+     * These are {@link ConfigParam#REQUIRE_ID}, {@link ConfigParam#LAZY_FETCH_AS_REFERENCE}, {@link
+     * ConfigParam#MAX_INLINE_DEPTH} and {@link ConfigParam#DEDUPLICATE_BY_ID}. The metrics listener of the
+     * configuration is used as well.
+     *
+     * @param configuration Configuration to apply
+     * @throws IllegalArgumentException If the maximum inline depth is not a non-negative integer
+     */
+    public void configure(Configuration configuration) {
+        setRequireId(configuration.is(ConfigParam.REQUIRE_ID));
+        setLazyAsReferences(configuration.is(ConfigParam.LAZY_FETCH_AS_REFERENCE));
+        setMaxInlineDepth(configuration.getInt(ConfigParam.MAX_INLINE_DEPTH, 0));
+        setDeduplicateById(configuration.is(ConfigParam.DEDUPLICATE_BY_ID));
+        setMetrics(configuration.getMetrics());
+    }
+
     public void setRequireId(boolean requireId) {
         this.requireId = requireId;
     }
+
+    /**
+     * Sets whether to serialize values of object properties with {@link
+     * cz.cvut.kbss.jopa.model.annotations.FetchType#LAZY} fetch type only as references.
+     * <p>
+     * If enabled, instances referenced by such properties are visited only with their identifier and their attributes
+     * are not traversed (so lazily loaded attributes of managed entities are not triggered). Instances without
+     * identifier are traversed normally. Note that lazy is the default fetch type of object properties.
+     *
+     * @param lazyAsReferences Whether to serialize lazily fetched object properties as references
+     * @see cz.cvut.kbss.jsonld.ConfigParam#LAZY_FETCH_AS_REFERENCE
+     */
+    public void setLazyAsReferences(boolean lazyAsReferences) {
+        this.lazyAsReferences = lazyAsReferences;
+    }
+
+    /**
+     * Sets whether to deduplicate instances by their identifiers.
+     * <p>
+     * By default, instances are recognized as already visited by their identity, so distinct Java objects with the
+     * same identifier (e.g., loaded from different persistence contexts) are all traversed in full. If enabled, only
+     * the first instance with an identifier is traversed in full, later instances with the same identifier are
+     * visited only as references.
+     *
+     * @param deduplicateById Whether to deduplicate instances by identifier
+     * @see cz.cvut.kbss.jsonld.ConfigParam#DEDUPLICATE_BY_ID
+     */
+    public void setDeduplicateById(boolean deduplicateById) {
+        this.knownIdentifiers = deduplicateById ? new HashSet<>() : null;
+    }
+
+    /**
+     * Sets the maximum depth of instances traversed in full.
+     * <p>
+     * Deeper instances are visited only with their identifier, i.e., as references. Instances without identifier are
+     * traversed normally. The limit can be overridden for individual attributes by {@link
+     * cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth}.
+     *
+     * @param maxInlineDepth Maximum depth, root is at depth 1. {@code 0} means unlimited
+     * @see cz.cvut.kbss.jsonld.ConfigParam#MAX_INLINE_DEPTH
+     */
+    public void setMaxInlineDepth(int maxInlineDepth) {
+        if (maxInlineDepth < 0) {
+            throw new IllegalArgumentException("Maximum inline depth must not be negative.");
+        }
+        this.maxInlineDepth = maxInlineDepth;
+        this.inlineDepthLimit = maxInlineDepth > 0 ? maxInlineDepth : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets projection to apply to the traversed object graph root.
+     *
+     * @param projection Projection to apply, {@code null} to traverse all attributes
+     */
+    public void setProjection(Projection projection) {
+        this.projection = projection;
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Gets the number of distinct instances visited by this traverser.
+     *
+     * @return Number of visited instances
+     */
+    public int getVisitedInstanceCount() {
+        return knownInstances.size();
+    }
+
+    /**
+     * Checks whether depth of instances traversed in full is limited at the current position of the traversal.
+     * <p>
+     * The depth is limited either by the maximum inline depth (see {@link #setMaxInlineDepth(int)}) or by {@link
+     * cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth} of an attribute being traversed.
+     *
+     * @return {@code true} if the inline depth is limited, {@code false} otherwise
+     */
+    public boolean isInlineDepthLimited() {
+        return inlineDepthLimit != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the maximum depth of the object graph reached by this traverser.
+     *
+     * @return Maximum depth, root is at depth 1
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets listener receiving traversal metrics.
+     *
+     * @param metrics Metrics listener
+     */
+    public void setMetrics(JsonLdMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Sets the generator of blank node identifiers for instances without an identifier.
+     * <p>
+     * Defaults to a {@link BlankNodeIdGenerator#sequential()} generator, whose sequence starts anew with each traversal
+     * (see {@link #reset()}).
+     *
+     * @param blankNodeIds Blank node identifier generator
+     */
+    public void setBlankNodeIdGenerator(BlankNodeIdGenerator blankNodeIds) {
+        this.blankNodeIds = Objects.requireNonNull(blankNodeIds);
+    }
+
+    /**
+     * Resets the state of this traverser, so that it can be reused for traversal of another object graph.
+     * <p>
+     * This forgets all the already visited instances and traversal statistics, removes the current visitor and
+     * projection and resets the blank node identifier generator.
+     */
+    public void reset() {
+        knownInstances.clear();
+        if (knownIdentifiers != null) {
+            knownIdentifiers.clear();
+        }
+        blankNodeIds.reset();
+        this.projection = null;
+        this.referencesOnly = false;
+        this.inlineDepthLimit = maxInlineDepth > 0 ? maxInlineDepth : Integer.MAX_VALUE;
+        this.depth = 0;
+        this.maxDepth = 0;
+        removeVisitor();
+    }
 }
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.traversal;
+
+import java.util.*;
+
+/**
+ * Specifies a subset of attributes to serialize.
+ * <p>
+ * A projection consists of IRIs of the properties to serialize. Each of them may have its own sub-projection, which
+ * is applied to objects referenced by the property. Properties without a sub-projection reference objects which are
+ * serialized fully.
+ * <p>
+ * Identifier and types of an object are always serialized. {@link cz.cvut.kbss.jopa.model.annotations.Properties}
+ * are not serialized for projected objects.
+ * <p>
+ * Projections are immutable and are intended to be created once and reused, since serialization plans are compiled
+ * per class and projection.
+ */
+public final class Projection {
+
+    private final Map<String, Projection> properties;
+
+    private final int hashCode;
+
+    private Projection(Map<String, Projection> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
+        this.hashCode = properties.hashCode();
+    }
+
+    /**
+     * Creates a projection consisting of the specified properties.
+     *
+     * @param propertyIris Property identifiers
+     * @return New projection
+     */
+    public static Projection of(String... propertyIris) {
+        return of(Arrays.asList(propertyIris));
+    }
+
+    /**
+     * Creates a projection consisting of the specified properties.
+     *
+     * @param propertyIris Property identifiers
+     * @return New projection
+     */
+    public static Projection of(Collection<String> propertyIris) {
+        final Map<String, Projection> properties = new HashMap<>(propertyIris.size());
+        propertyIris.forEach(p -> properties.put(Objects.requireNonNull(p), null));
+        return new Projection(properties);
+    }
+
+    /**
+     * Creates a new projection containing properties of this one and the specified property with a sub-projection.
+     * <p>
+     * If this projection already contains the property, its sub-projection is replaced.
+     *
+     * @param propertyIri   Property identifier
+     * @param subProjection Projection applied to objects referenced by the property
+     * @return New projection
+     */
+    public Projection with(String propertyIri, Projection subProjection) {
+        Objects.requireNonNull(propertyIri);
+        Objects.requireNonNull(subProjection);
+        final Map<String, Projection> newProperties = new HashMap<>(properties);
+        newProperties.put(propertyIri, subProjection);
+        return new Projection(newProperties);
+    }
+
+    /**
+     * Checks whether the specified property is included in this projection.
+     *
+     * @param propertyIri Property identifier
+     * @return {@code true} if the property should be serialized
+     */
+    public boolean includes(String propertyIri) {
+        return properties.containsKey(propertyIri);
+    }
+
+    /**
+     * Gets projection applicable to objects referenced by the specified property.
+     *
+     * @param propertyIri Property identifier
+     * @return Sub-projection, {@code null} if referenced objects should be serialized fully
+     */
+    public Projection getSubProjection(String propertyIri) {
+        return properties.get(propertyIri);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Projection that = (Projection) o;
+        return hashCode == that.hashCode && properties.equals(that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "Projection" + properties;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event emitted for each classpath scan.
+ */
+@Name("cz.cvut.kbss.jsonld.ClasspathScan")
+@Label("JSON-LD Classpath Scan")
+@Category("JB4JSON-LD")
+@Description("Scan of the classpath for mapped classes")
+@StackTrace(false)
+class ClasspathScanEvent extends Event {
+
+    @Label("Scan Path")
+    @Description("Scanned package")
+    String scanPath;
+
+    @Label("Class Count")
+    @Description("Number of classes found")
+    int classCount;
+}
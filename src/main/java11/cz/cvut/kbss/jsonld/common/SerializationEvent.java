@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event emitted for each serialization.
+ */
+@Name("cz.cvut.kbss.jsonld.Serialization")
+@Label("JSON-LD Serialization")
+@Category("JB4JSON-LD")
+@Description("Serialization of an object graph into JSON-LD")
+@StackTrace(false)
+class SerializationEvent extends Event {
+
+    @Label("Root Class")
+    @Description("Class of the object graph root")
+    Class<?> rootClass;
+
+    @Label("Node Count")
+    @Description("Number of serialized objects")
+    int nodeCount;
+
+    @Label("Depth")
+    @Description("Maximum depth of the serialized object graph")
+    int depth;
+
+    @Label("Output Size")
+    @Description("Estimated size of the output JSON")
+    @DataAmount
+    long outputSize;
+}
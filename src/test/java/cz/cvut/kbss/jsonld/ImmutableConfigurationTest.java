@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld;
+
+import cz.cvut.kbss.jsonld.common.AccumulatingJsonLdMetrics;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableConfigurationTest {
+
+    @Test
+    void snapshotContainsValuesOfOriginalConfiguration() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString());
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld");
+        final Configuration snapshot = config.snapshot();
+        assertTrue(snapshot.is(ConfigParam.REQUIRE_ID));
+        assertTrue(snapshot.is(ConfigParam.REQUIRE_ID.getName()));
+        assertFalse(snapshot.is(ConfigParam.IGNORE_UNKNOWN_PROPERTIES));
+        assertEquals("cz.cvut.kbss.jsonld", snapshot.get(ConfigParam.SCAN_PACKAGE));
+    }
+
+    @Test
+    void snapshotIsNotAffectedByChangesToOriginalConfiguration() {
+        final Configuration config = new Configuration();
+        final Configuration snapshot = config.snapshot();
+        config.set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString());
+        assertFalse(snapshot.is(ConfigParam.REQUIRE_ID));
+        assertNull(snapshot.get(ConfigParam.REQUIRE_ID));
+    }
+
+    @Test
+    void setThrowsUnsupportedOperationException() {
+        final Configuration snapshot = new Configuration().snapshot();
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.set("custom", "value"));
+    }
+
+    @Test
+    void getIntReturnsParsedValueOrDefaultWhenParameterIsNotSet() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "5");
+        final Configuration snapshot = config.snapshot();
+        assertEquals(5, snapshot.getInt(ConfigParam.MAX_INLINE_DEPTH, 0));
+        assertEquals(5, snapshot.getInt(ConfigParam.MAX_INLINE_DEPTH, 0));
+        assertEquals(7, snapshot.getInt(ConfigParam.STRING_POOL_SIZE, 7));
+    }
+
+    @Test
+    void getIntThrowsIllegalArgumentExceptionWhenValueIsNotInteger() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "1.5");
+        final Configuration snapshot = config.snapshot();
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getInt(ConfigParam.MAX_INLINE_DEPTH, 0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getInt(ConfigParam.MAX_INLINE_DEPTH, 0));
+    }
+
+    @Test
+    void snapshotOfSnapshotReturnsSameInstance() {
+        final Configuration snapshot = new Configuration().snapshot();
+        assertSame(snapshot, snapshot.snapshot());
+    }
+
+    @Test
+    void snapshotRetainsMetricsListenerAndDoesNotAllowChangingIt() {
+        final Configuration config = new Configuration();
+        final JsonLdMetrics metrics = new AccumulatingJsonLdMetrics();
+        config.setMetrics(metrics);
+        final Configuration snapshot = config.snapshot();
+        assertSame(metrics, snapshot.getMetrics());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.setMetrics(JsonLdMetrics.NO_OP));
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonLdEventsTest {
+
+    @Test
+    void beginMethodsOfJava8VersionReturnNoEventHandle() {
+        assertNull(JsonLdEvents.beginSerialization());
+        assertNull(JsonLdEvents.beginDeserialization());
+        assertNull(JsonLdEvents.beginClasspathScan());
+    }
+
+    @Test
+    void endMethodsOfJava8VersionAcceptMissingEventHandle() {
+        assertDoesNotThrow(() -> {
+            JsonLdEvents.endSerialization(null, Object.class, 1, 1, 10L);
+            JsonLdEvents.endDeserialization(null, Object.class, 1, 1);
+            JsonLdEvents.endClasspathScan(null, "cz.cvut.kbss.jsonld", 1);
+        });
+    }
+}
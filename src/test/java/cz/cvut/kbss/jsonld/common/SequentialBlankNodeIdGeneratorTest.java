@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequentialBlankNodeIdGeneratorTest {
+
+    @Test
+    void generateReturnsSequentialIdentifiers() {
+        final SequentialBlankNodeIdGenerator sut = new SequentialBlankNodeIdGenerator();
+        assertEquals("_:b0", sut.generate());
+        assertEquals("_:b1", sut.generate());
+        assertEquals("_:b2", sut.generate());
+    }
+
+    @Test
+    void resetStartsSequenceFromBeginning() {
+        final SequentialBlankNodeIdGenerator sut = new SequentialBlankNodeIdGenerator("_:node");
+        sut.generate();
+        sut.generate();
+        sut.reset();
+        assertEquals("_:node0", sut.generate());
+    }
+
+    @Test
+    void withSessionPrefixGeneratesIdentifiersUniqueAcrossSessions() {
+        final SequentialBlankNodeIdGenerator sut = SequentialBlankNodeIdGenerator.withSessionPrefix();
+        final String first = sut.generate();
+        assertTrue(first.matches("_:g\\d+b0"));
+        sut.reset();
+        final String afterReset = sut.generate();
+        assertTrue(afterReset.matches("_:g\\d+b0"));
+        assertNotEquals(first, afterReset);
+        assertNotEquals(first, SequentialBlankNodeIdGenerator.withSessionPrefix().generate());
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentForPrefixWhichIsNotBlankNode() {
+        assertThrows(IllegalArgumentException.class, () -> new SequentialBlankNodeIdGenerator("http://example.org/"));
+    }
+}
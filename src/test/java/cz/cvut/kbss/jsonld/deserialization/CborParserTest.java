@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import com.github.jsonldjava.core.JsonLdProcessor;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+import cz.cvut.kbss.jsonld.serialization.CborJsonGenerator;
+import cz.cvut.kbss.jsonld.serialization.JsonLdWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborParserTest {
+
+    private static byte[] bytes(int... values) {
+        final byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    void parseReadsScalarsOfAllSizes() {
+        assertEquals(10, CborParser.parse(bytes(0x0A)));
+        assertEquals(-500, CborParser.parse(bytes(0x39, 0x01, 0xF3)));
+        assertEquals(4294967296L, CborParser.parse(bytes(0x1B, 0, 0, 0, 1, 0, 0, 0, 0)));
+        assertEquals(new BigInteger("18446744073709551615"),
+                CborParser.parse(bytes(0x1B, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)));
+        assertEquals(1.5, CborParser.parse(bytes(0xF9, 0x3E, 0x00)));
+        assertEquals(100000.0, CborParser.parse(bytes(0xFA, 0x47, 0xC3, 0x50, 0x00)));
+        assertEquals(false, CborParser.parse(bytes(0xF4)));
+        assertNull(CborParser.parse(bytes(0xF6)));
+        assertEquals("ü", CborParser.parse(bytes(0x62, 0xC3, 0xBC)));
+    }
+
+    @Test
+    void parseReadsDefiniteAndIndefiniteLengthContainers() {
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("a", 1);
+        expected.put("b", Arrays.asList(2, 3));
+        assertEquals(expected, CborParser.parse(bytes(0xA2, 0x61, 'a', 0x01, 0x61, 'b', 0x82, 0x02, 0x03)));
+        assertEquals(expected, CborParser.parse(bytes(0xBF, 0x61, 'a', 0x01, 0x61, 'b', 0x9F, 0x02, 0x03, 0xFF,
+                0xFF)));
+        assertEquals("strea", CborParser.parse(bytes(0x7F, 0x62, 's', 't', 0x63, 'r', 'e', 'a', 0xFF)));
+    }
+
+    @Test
+    void parseResolvesStringReferences() {
+        final List<?> result = (List<?>) CborParser.parse(bytes(0xD9, 0x01, 0x00, 0x84, 0x63, 'a', 'a', 'a', 0xD8,
+                0x19, 0x00, 0x62, 'b', 'b', 0xD8, 0x19, 0x00));
+        assertEquals(Arrays.asList("aaa", "aaa", "bb", "aaa"), result);
+    }
+
+    @Test
+    void parseReadsValuesWrittenByGenerator() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CborJsonGenerator generator = new CborJsonGenerator(out);
+        generator.writeObjectStart();
+        generator.writeFieldName("http://example.org/decimal");
+        generator.writeNumber(new BigDecimal("-12.345"));
+        generator.writeFieldName("http://example.org/big");
+        generator.writeArrayStart();
+        generator.writeNumber(new BigInteger("-18446744073709551617"));
+        generator.writeNumber(Long.MIN_VALUE);
+        generator.writeString("http://example.org/decimal");
+        generator.writeArrayEnd();
+        generator.writeObjectEnd();
+
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("http://example.org/decimal", new BigDecimal("-12.345"));
+        expected.put("http://example.org/big", Arrays.asList(new BigInteger("-18446744073709551617"),
+                Long.MIN_VALUE, "http://example.org/decimal"));
+        assertEquals(expected, CborParser.parse(out.toByteArray()));
+    }
+
+    @Test
+    void nextReadsSubsequentTopLevelItemsWithSeparateStringReferenceNamespaces() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CborJsonGenerator generator = new CborJsonGenerator(out);
+        for (int i = 0; i < 3; i++) {
+            generator.writeArrayStart();
+            generator.writeString("repeated");
+            generator.writeString("repeated");
+            generator.writeArrayEnd();
+        }
+        final CborParser sut = new CborParser(new ByteArrayInputStream(out.toByteArray()));
+        int count = 0;
+        while (sut.hasNext()) {
+            assertEquals(Arrays.asList("repeated", "repeated"), sut.next());
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
+    @Test
+    void parseThrowsDeserializationExceptionWithOffsetForTruncatedInput() {
+        final JsonLdDeserializationException ex = assertThrows(JsonLdDeserializationException.class,
+                () -> CborParser.parse(bytes(0x82, 0x01)));
+        assertThat(ex.getMessage(), containsString("offset 2"));
+    }
+
+    @Test
+    void parseThrowsDeserializationExceptionForInvalidStringReference() {
+        assertThrows(JsonLdDeserializationException.class,
+                () -> CborParser.parse(bytes(0xD9, 0x01, 0x00, 0x81, 0xD8, 0x19, 0x00)));
+    }
+
+    @Test
+    void objectGraphSurvivesCborRoundTrip() throws Exception {
+        final Organization org = Generator.generateOrganization();
+        final Employee employee = Generator.generateEmployee();
+        employee.setEmployer(org);
+        org.setEmployees(Collections.singleton(employee));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonLdWriter().write(employee, new CborJsonGenerator(out));
+
+        final Object expanded = JsonLdProcessor.expand(CborParser.parse(out.toByteArray()));
+        final Employee result = new JsonLdReader().read(expanded, Employee.class);
+        assertEquals(employee.getUri(), result.getUri());
+        assertEquals(employee.getFirstName(), result.getFirstName());
+        assertEquals(employee.getLastName(), result.getLastName());
+        assertEquals(org.getUri(), result.getEmployer().getUri());
+        assertEquals(org.getName(), result.getEmployer().getName());
+    }
+}
@@ -24,6 +24,7 @@ import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.jsonld.common.CollectionType;
 import cz.cvut.kbss.jsonld.deserialization.reference.PendingReferenceRegistry;
 import cz.cvut.kbss.jsonld.deserialization.util.LangString;
+import cz.cvut.kbss.jsonld.deserialization.util.StringPool;
 import cz.cvut.kbss.jsonld.deserialization.util.TargetClassResolver;
 import cz.cvut.kbss.jsonld.environment.Generator;
 import cz.cvut.kbss.jsonld.environment.TestUtil;
@@ -44,6 +45,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
@@ -380,6 +383,57 @@ class DefaultInstanceBuilderTest {
     }
 
     @SuppressWarnings("unused")
+    @Test
+    void openObjectGeneratesSequentialBlankNodeIdentifiersForStringIdentifierFieldWhenIdIsMissing() {
+        sut.openCollection(CollectionType.LIST);
+        sut.openObject(null, StringIdentified.class);
+        sut.closeObject();
+        sut.openObject(null, StringIdentified.class);
+        sut.closeObject();
+        final List<?> result = (List<?>) sut.getCurrentRoot();
+        final String first = ((StringIdentified) result.get(0)).id;
+        assertTrue(first.matches("_:g\\d+b0"));
+        assertEquals(first.substring(0, first.length() - 1) + "1", ((StringIdentified) result.get(1)).id);
+    }
+
+    @Test
+    void openObjectGeneratesBlankNodeIdentifiersNotCollidingWithBlankNodeLabelsOfInput() {
+        sut.openCollection(CollectionType.LIST);
+        sut.openObject(null, StringIdentified.class);
+        sut.closeObject();
+        sut.openObject("_:b0", StringIdentified.class);
+        sut.closeObject();
+        sut.openObject(null, StringIdentified.class);
+        sut.closeObject();
+        final List<?> result = (List<?>) sut.getCurrentRoot();
+        assertEquals(3, result.size());
+        assertEquals("_:b0", ((StringIdentified) result.get(1)).id);
+        assertEquals(3, result.stream().map(o -> ((StringIdentified) o).id).distinct().count());
+        assertEquals(3, result.stream().distinct().count());
+    }
+
+    @Test
+    void openObjectGeneratesBlankNodeIdentifiersUniqueAcrossBuilders() {
+        final DefaultInstanceBuilder other = new DefaultInstanceBuilder(
+                new TargetClassResolver(TestUtil.getDefaultTypeMap()), new PendingReferenceRegistry());
+        sut.openObject(null, StringIdentified.class);
+        other.openObject(null, StringIdentified.class);
+        assertNotEquals(((StringIdentified) sut.getCurrentRoot()).id, ((StringIdentified) other.getCurrentRoot()).id);
+    }
+
+    @Test
+    void openObjectDoesNotGenerateIdentifierWhenItCannotBeStoredInInstance() {
+        sut.openObject(null, Person.class);
+        final Person result = (Person) sut.getCurrentRoot();
+        assertNull(result.getUri());
+    }
+
+    @OWLClass(iri = Generator.URI_BASE + "StringIdentified")
+    public static class StringIdentified {
+        @Id
+        private String id;
+    }
+
     @OWLClass(iri = Generator.URI_BASE + "Event")
     public static class Event {
         @Id
@@ -579,4 +633,47 @@ class DefaultInstanceBuilderTest {
         sut.addValue(new LangString(value, lang));
         assertEquals(value, ((MultilingualString) sut.getCurrentRoot()).get(lang));
     }
+
+    @Test
+    void addNodeReferenceReusesUriInstanceForRepeatedReferenceWhenStringPoolIsEnabled() {
+        this.sut = new DefaultInstanceBuilder(new TargetClassResolver(TestUtil.getDefaultTypeMap()),
+                pendingReferenceRegistry, new StringPool(16));
+        final String nodeId = Generator.generateUri().toString();
+        sut.openObject(Generator.generateUri().toString(), Organization.class);
+        sut.addNodeReference(Vocabulary.ORIGIN, new String(nodeId));
+        final URI first = ((Organization) sut.getCurrentRoot()).getCountry();
+        sut.closeObject();
+        sut.openObject(Generator.generateUri().toString(), Organization.class);
+        sut.addNodeReference(Vocabulary.ORIGIN, new String(nodeId));
+        assertSame(first, ((Organization) sut.getCurrentRoot()).getCountry());
+    }
+
+    @Test
+    void addValueDeduplicatesTypesWhenStringPoolIsEnabled() {
+        this.sut = new DefaultInstanceBuilder(new TargetClassResolver(TestUtil.getDefaultTypeMap()),
+                pendingReferenceRegistry, new StringPool(16));
+        final String type = Generator.generateUri().toString();
+        sut.openCollection(CollectionType.SET);
+        final User first = addUserWithType(new String(type));
+        final User second = addUserWithType(new String(type));
+        assertSame(first.getTypes().iterator().next(), second.getTypes().iterator().next());
+    }
+
+    private User addUserWithType(String type) {
+        sut.openObject(Generator.generateUri().toString(), User.class);
+        final User user = (User) sut.getCurrentRoot();
+        sut.openCollection(JsonLd.TYPE);
+        sut.addValue(type);
+        sut.closeCollection();
+        sut.closeObject();
+        return user;
+    }
+
+    @Test
+    void defaultOpenExistingObjectThrowsJsonLdDeserializationException() {
+        final InstanceBuilder builder = mock(InstanceBuilder.class, CALLS_REAL_METHODS);
+        final Person existing = new Person();
+        assertThrows(JsonLdDeserializationException.class,
+                () -> builder.openExistingObject(Generator.generateUri().toString(), existing));
+    }
 }
@@ -27,6 +27,7 @@ import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.Collections;
 
 import static cz.cvut.kbss.jsonld.environment.TestUtil.readAndExpand;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -80,4 +81,17 @@ class JsonLdDeserializerTest {
         assertFalse(typeMap(deserializer).get(Vocabulary.STUDY).isEmpty());
         assertThat(typeMap(deserializer).get(Vocabulary.STUDY), hasItem(StudyWithNamespaces.class));
     }
+
+    @Test
+    void deserializeIntoThrowsJsonLdDeserializationExceptionWhenNotSupportedBySubclass() {
+        final JsonLdDeserializer deserializer = new JsonLdDeserializer(new Configuration()) {
+            @Override
+            public <T> T deserialize(Object jsonLd, Class<T> resultClass) {
+                return null;
+            }
+        };
+        final User existing = new User();
+        assertThrows(JsonLdDeserializationException.class,
+                () -> deserializer.deserializeInto(Collections.emptyList(), existing));
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.environment.TestUtil;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static cz.cvut.kbss.jsonld.environment.TestUtil.readAndExpand;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLdReaderTest {
+
+    private Configuration config;
+
+    private JsonLdReader sut;
+
+    @BeforeEach
+    void setUp() {
+        this.config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld.environment.model");
+        this.sut = new JsonLdReader(config);
+    }
+
+    @Test
+    void readDeserializesExpandedJsonLd() throws Exception {
+        final Object input = readAndExpand("objectWithSingularReference.json");
+        final Employee result = sut.read(input, Employee.class);
+        assertEquals(TestUtil.HALSEY_URI, result.getUri());
+        assertNotNull(result.getEmployer());
+        assertEquals(TestUtil.UNSC_URI, result.getEmployer().getUri());
+    }
+
+    @Test
+    void readCreatesNewObjectGraphForEachCall() throws Exception {
+        final Object input = readAndExpand("objectWithSingularReference.json");
+        final Employee first = sut.read(input, Employee.class);
+        final Employee second = sut.read(input, Employee.class);
+        assertNotSame(first, second);
+        assertNotSame(first.getEmployer(), second.getEmployer());
+        assertEquals(first.getEmployer().getUri(), second.getEmployer().getUri());
+    }
+
+    @Test
+    void readIsSafeForConcurrentUse() throws Exception {
+        final Object input = readAndExpand("objectWithPluralReference.json");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> sut.read(input, Organization.class)));
+            }
+            for (Future<Object> f : results) {
+                assertEquals(TestUtil.UNSC_URI, ((Organization) f.get()).getUri());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void readerIsNotAffectedByChangesToConfigurationAfterItsCreation() throws Exception {
+        final Object input = readAndExpand("objectWithUnknownProperty.json");
+        config.set(ConfigParam.IGNORE_UNKNOWN_PROPERTIES, Boolean.TRUE.toString());
+        assertThrows(UnknownPropertyException.class, () -> sut.read(input, Organization.class));
+        assertFalse(sut.configuration().is(ConfigParam.IGNORE_UNKNOWN_PROPERTIES));
+    }
+
+    @Test
+    void readIntoPopulatesExistingInstance() throws Exception {
+        final Object input = readAndExpand("objectWithSingularReference.json");
+        final Employee existing = new Employee();
+        final Employee result = sut.readInto(input, existing);
+        assertSame(existing, result);
+        assertEquals(TestUtil.HALSEY_URI, existing.getUri());
+        assertEquals(TestUtil.UNSC_URI, existing.getEmployer().getUri());
+    }
+}
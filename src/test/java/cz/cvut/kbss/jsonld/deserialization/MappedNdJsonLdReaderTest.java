@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import com.github.jsonldjava.core.JsonLdProcessor;
+import com.github.jsonldjava.utils.JsonUtils;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+import cz.cvut.kbss.jsonld.serialization.JsonLdWriter;
+import cz.cvut.kbss.jsonld.serialization.NdJsonLdWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedNdJsonLdReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static JsonLdReader createReader() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld.environment.model");
+        return new JsonLdReader(config);
+    }
+
+    private static Object expand(String line) {
+        try {
+            return JsonLdProcessor.expand(JsonUtils.fromString(line));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Path writeUsers(List<User> users, String lineSeparator, boolean trailingNewline) throws Exception {
+        final StringWriter out = new StringWriter();
+        new NdJsonLdWriter(new JsonLdWriter(), out).writeAll(users);
+        String content = out.toString().replace("\n", lineSeparator);
+        if (!trailingNewline) {
+            content = content.substring(0, content.length() - lineSeparator.length());
+        }
+        final Path file = tempDir.resolve("users.jsonl");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<User> generateUsers(int count) {
+        final List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(Generator.generateUser());
+        }
+        return users;
+    }
+
+    @Test
+    void forEachReturnsResultsInFileOrderWhenSplitIntoManyChunksAndMappedWindows() throws Exception {
+        final List<User> users = generateUsers(50);
+        final Path file = writeUsers(users, "\n", true);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Small chunks and mapped windows force lines to cross both chunk and window boundaries
+            final MappedNdJsonLdReader sut =
+                    new MappedNdJsonLdReader(createReader(), MappedNdJsonLdReaderTest::expand, executor, 300, 3, 2048);
+            final List<User> result = new ArrayList<>();
+            sut.forEach(file, User.class, result::add);
+            assertEquals(users.stream().map(User::getUri).collect(Collectors.toList()),
+                    result.stream().map(User::getUri).collect(Collectors.toList()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void streamSupportsCrLfLineEndingsAndMissingTrailingNewline() throws Exception {
+        final List<User> users = generateUsers(5);
+        final Path file = writeUsers(users, "\r\n", false);
+        final MappedNdJsonLdReader sut = new MappedNdJsonLdReader(createReader(), MappedNdJsonLdReaderTest::expand);
+        try (Stream<User> stream = sut.stream(file, User.class)) {
+            assertEquals(users.stream().map(User::getUsername).collect(Collectors.toList()),
+                    stream.map(User::getUsername).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void forEachReportsByteOffsetOfLineWhichCannotBeParsed() throws Exception {
+        final List<User> users = generateUsers(1);
+        final Path file = writeUsers(users, "\n", true);
+        final long offset = Files.size(file);
+        Files.write(file, "{invalid\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        final MappedNdJsonLdReader sut = new MappedNdJsonLdReader(createReader(), MappedNdJsonLdReaderTest::expand);
+        final JsonLdDeserializationException ex = assertThrows(JsonLdDeserializationException.class,
+                () -> sut.forEach(file, User.class, u -> {
+                }));
+        assertThat(ex.getMessage(), containsString("byte offset " + offset));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import com.github.jsonldjava.core.JsonLdProcessor;
+import com.github.jsonldjava.utils.JsonUtils;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+import cz.cvut.kbss.jsonld.serialization.JsonLdWriter;
+import cz.cvut.kbss.jsonld.serialization.NdJsonLdWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdJsonLdReaderTest {
+
+    private final NdJsonLdReader sut = new NdJsonLdReader(createReader(), NdJsonLdReaderTest::expand);
+
+    private static JsonLdReader createReader() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld.environment.model");
+        return new JsonLdReader(config);
+    }
+
+    private static Object expand(String line) {
+        try {
+            return JsonLdProcessor.expand(JsonUtils.fromString(line));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Test
+    void streamDeserializesEachLineSkippingBlankLines() {
+        final List<User> users = Arrays.asList(Generator.generateUser(), Generator.generateUser());
+        final StringWriter out = new StringWriter();
+        new NdJsonLdWriter(new JsonLdWriter(), out).writeAll(users);
+
+        final List<User> result =
+                sut.stream(new StringReader(out.toString() + "\n  \n"), User.class).collect(Collectors.toList());
+        assertEquals(users.size(), result.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(users.get(i).getUri(), result.get(i).getUri());
+            assertEquals(users.get(i).getUsername(), result.get(i).getUsername());
+        }
+    }
+
+    @Test
+    void readReportsLineNumberWhenLineCannotBeParsed() {
+        final StringWriter out = new StringWriter();
+        new NdJsonLdWriter(new JsonLdWriter(), out).write(Generator.generateUser());
+        final Iterator<User> it = sut.read(new StringReader(out + "{invalid\n"), User.class);
+        assertNotNull(it.next());
+        final JsonLdDeserializationException ex = assertThrows(JsonLdDeserializationException.class, it::next);
+        assertTrue(ex.getMessage().contains("line 2"));
+    }
+}
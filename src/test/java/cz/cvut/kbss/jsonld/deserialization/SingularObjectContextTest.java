@@ -14,6 +14,7 @@ package cz.cvut.kbss.jsonld.deserialization;
 
 import cz.cvut.kbss.jopa.model.annotations.Id;
 import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
 import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
 import cz.cvut.kbss.jsonld.common.BeanAnnotationProcessor;
 import cz.cvut.kbss.jsonld.common.IdentifierUtil;
@@ -24,6 +25,7 @@ import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +34,8 @@ import java.util.Map;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 class SingularObjectContextTest {
 
@@ -210,4 +214,82 @@ class SingularObjectContextTest {
                 new HashMap<>());
         assertThrows(UnknownPropertyException.class, () -> sut.setIdentifierValue(Generator.generateUri().toString()));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setFieldValueDoesNotLookUpKnownInstancesForValueWhichCannotBeReference() throws Exception {
+        final Map<String, Object> knownInstances = mock(Map.class);
+        final SingularObjectContext<Study> sut = new SingularObjectContext<>(new Study(),
+                BeanAnnotationProcessor.mapFieldsForDeserialization(Study.class), knownInstances);
+        sut.setFieldValue(Study.class.getDeclaredField("uri"), Generator.generateUri().toString());
+        assertNotNull(sut.getInstance().getUri());
+        verifyNoInteractions(knownInstances);
+    }
+
+    @Test
+    void setFieldValueSetsPrimitiveFieldsUsingTypedSettersOfPlan() throws Exception {
+        final SingularObjectContext<WithPrimitives> sut = new SingularObjectContext<>(new WithPrimitives(),
+                ClassDeserializationPlan.compile(WithPrimitives.class), Collections.emptyMap());
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("intValue"), 42);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("longValue"), 1L << 40);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), 2.5);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("booleanValue"), true);
+        assertEquals(42, sut.getInstance().intValue);
+        assertEquals(1L << 40, sut.getInstance().longValue);
+        assertEquals(2.5, sut.getInstance().doubleValue);
+        assertTrue(sut.getInstance().booleanValue);
+    }
+
+    @Test
+    void setFieldValueWidensIntegralValuesOfPrimitiveFields() throws Exception {
+        final SingularObjectContext<WithPrimitives> sut = new SingularObjectContext<>(new WithPrimitives(),
+                ClassDeserializationPlan.compile(WithPrimitives.class), Collections.emptyMap());
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("intValue"), 117L);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("longValue"), 42);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), 5);
+        assertEquals(117, sut.getInstance().intValue);
+        assertEquals(42L, sut.getInstance().longValue);
+        assertEquals(5.0, sut.getInstance().doubleValue);
+        sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), 1L << 53);
+        assertEquals(0x1p53, sut.getInstance().doubleValue);
+    }
+
+    @Test
+    void setFieldValueThrowsDeserializationExceptionWhenValueDoesNotFitPrimitiveField() throws Exception {
+        final SingularObjectContext<WithPrimitives> sut = new SingularObjectContext<>(new WithPrimitives(),
+                ClassDeserializationPlan.compile(WithPrimitives.class), Collections.emptyMap());
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("intValue"), 1L << 40));
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("longValue"), 2.5));
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("booleanValue"), 1));
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), (1L << 53) + 1));
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), Long.MAX_VALUE));
+        assertThrows(JsonLdDeserializationException.class,
+                () -> sut.setFieldValue(WithPrimitives.class.getDeclaredField("doubleValue"), new BigDecimal("0.1")));
+        assertEquals(0, sut.getInstance().intValue);
+        assertEquals(0.0, sut.getInstance().doubleValue);
+    }
+
+    @OWLClass(iri = Vocabulary.DEFAULT_PREFIX + "WithPrimitives")
+    public static class WithPrimitives {
+
+        @Id
+        private URI uri;
+
+        @OWLDataProperty(iri = Vocabulary.DEFAULT_PREFIX + "intValue")
+        private int intValue;
+
+        @OWLDataProperty(iri = Vocabulary.DEFAULT_PREFIX + "longValue")
+        private long longValue;
+
+        @OWLDataProperty(iri = Vocabulary.DEFAULT_PREFIX + "doubleValue")
+        private double doubleValue;
+
+        @OWLDataProperty(iri = Vocabulary.DEFAULT_PREFIX + "booleanValue")
+        private boolean booleanValue;
+    }
 }
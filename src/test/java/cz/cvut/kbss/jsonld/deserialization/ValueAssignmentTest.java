@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization;
+
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.environment.model.Person;
+import cz.cvut.kbss.jsonld.environment.model.Role;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ValueAssignmentTest {
+
+    @Test
+    void ofReturnsDirectForAssignableValueClass() {
+        assertEquals(ValueAssignment.DIRECT, ValueAssignment.of(Person.class, User.class));
+        assertEquals(ValueAssignment.DIRECT, ValueAssignment.of(Object.class, Integer.class));
+    }
+
+    @Test
+    void ofReturnsConvertForValuesWhichCannotReferenceKnownInstances() {
+        assertEquals(ValueAssignment.CONVERT, ValueAssignment.of(Long.class, Integer.class));
+        assertEquals(ValueAssignment.CONVERT, ValueAssignment.of(Date.class, Long.class));
+        assertEquals(ValueAssignment.CONVERT, ValueAssignment.of(URI.class, String.class));
+        assertEquals(ValueAssignment.CONVERT, ValueAssignment.of(Role.class, String.class));
+        assertEquals(ValueAssignment.CONVERT, ValueAssignment.of(int.class, String.class));
+    }
+
+    @Test
+    void ofReturnsReferenceForIdentifierValueAndEntityTarget() {
+        assertEquals(ValueAssignment.REFERENCE, ValueAssignment.of(Organization.class, String.class));
+        assertEquals(ValueAssignment.REFERENCE, ValueAssignment.of(Organization.class, URI.class));
+    }
+
+    @Test
+    void ofReturnsCachedDecisionForRepeatedQuery() {
+        assertSame(ValueAssignment.of(Double.class, Long.class), ValueAssignment.of(Double.class, Long.class));
+    }
+}
@@ -16,7 +16,11 @@ import cz.cvut.kbss.jopa.model.annotations.Properties;
 import cz.cvut.kbss.jopa.model.annotations.*;
 import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.common.AccumulatingJsonLdMetrics;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.deserialization.JsonLdDeserializer;
+import cz.cvut.kbss.jsonld.deserialization.util.LazySet;
+import cz.cvut.kbss.jsonld.environment.Generator;
 import cz.cvut.kbss.jsonld.environment.TestUtil;
 import cz.cvut.kbss.jsonld.environment.Vocabulary;
 import cz.cvut.kbss.jsonld.environment.model.*;
@@ -29,6 +33,7 @@ import java.util.*;
 
 import static cz.cvut.kbss.jsonld.environment.TestUtil.*;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -716,4 +721,173 @@ class ExpandedJsonLdDeserializerTest {
         assertFalse(result.getMembers().isEmpty());
         assertFalse(result.getParticipants().isEmpty());
     }
+
+    @Test
+    void deserializeIntoPopulatesExistingInstance() throws Exception {
+        final Object input = readAndExpand("objectWithDataProperties.json");
+        final User existing = new User(HALSEY_URI, "Cat", "H", "old@unsc.org", false);
+        existing.setPassword("secret");
+        final User result = sut.deserializeInto(input, existing);
+        assertSame(existing, result);
+        verifyUserAttributes(USERS.get(HALSEY_URI), result);
+        // Attribute missing in the input is left untouched
+        assertEquals("secret", result.getPassword());
+    }
+
+    @Test
+    void deserializeIntoReusesNestedObjectWithMatchingIdentifier() throws Exception {
+        final Object input = readAndExpand("objectWithSingularReference.json");
+        final Employee existing = new Employee();
+        existing.setUri(HALSEY_URI);
+        final Organization employer = new Organization();
+        employer.setUri(UNSC_URI);
+        employer.setName("Old name");
+        existing.setEmployer(employer);
+        final Employee result = sut.deserializeInto(input, existing);
+        assertSame(existing, result);
+        assertSame(employer, result.getEmployer());
+        verifyOrganizationAttributes(employer);
+    }
+
+    @Test
+    void deserializeIntoReplacesNestedObjectWithDifferentIdentifier() throws Exception {
+        final Object input = readAndExpand("objectWithSingularReference.json");
+        final Employee existing = new Employee();
+        existing.setUri(HALSEY_URI);
+        final Organization employer = new Organization();
+        employer.setUri(Generator.generateUri());
+        existing.setEmployer(employer);
+        final Employee result = sut.deserializeInto(input, existing);
+        assertNotSame(employer, result.getEmployer());
+        verifyOrganizationAttributes(result.getEmployer());
+    }
+
+    @Test
+    void deserializeIntoReplacesPluralAttributeValueAndReusesMatchingItems() throws Exception {
+        final Object input = readAndExpand("objectWithPluralReference.json");
+        final Organization existing = new Organization();
+        existing.setUri(UNSC_URI);
+        final Employee halsey = new Employee();
+        halsey.setUri(HALSEY_URI);
+        final Employee removed = new Employee();
+        removed.setUri(Generator.generateUri());
+        existing.setEmployees(new HashSet<>(Arrays.asList(halsey, removed)));
+        final Organization result = sut.deserializeInto(input, existing);
+        assertEquals(3, result.getEmployees().size());
+        assertFalse(result.getEmployees().contains(removed));
+        assertTrue(result.getEmployees().stream().anyMatch(e -> e == halsey));
+        verifyUserAttributes(USERS.get(HALSEY_URI), halsey);
+    }
+
+    @Test
+    void deserializeIntoReusesSpecifiedKnownInstances() throws Exception {
+        final Object input = readAndExpand("objectWithPluralReference.json");
+        final Employee lasky = new Employee();
+        lasky.setUri(LASKY_URI);
+        final Organization result = sut.deserializeInto(input, new Organization(),
+                Collections.singletonMap(LASKY_URI.toString(), lasky));
+        assertTrue(result.getEmployees().stream().anyMatch(e -> e == lasky));
+        verifyUserAttributes(USERS.get(LASKY_URI), lasky);
+        verifyOrganizationAttributes(result);
+    }
+
+    @Test
+    void deserializationReportsMetricsToConfiguredListener() throws Exception {
+        final AccumulatingJsonLdMetrics metrics = new AccumulatingJsonLdMetrics();
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld");
+        config.setMetrics(metrics);
+        this.sut = JsonLdDeserializer.createExpandedDeserializer(config);
+        assertEquals(1, metrics.getInvocationCount(JsonLdMetrics.Phase.CLASSPATH_SCAN));
+
+        final Object input = readAndExpand("objectWithReferencePrecedingFullObject.json");
+        sut.deserialize(input, Study.class);
+        assertThat(metrics.getInvocationCount(JsonLdMetrics.Phase.TARGET_RESOLUTION), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.PENDING_REFERENCES), greaterThan(0L));
+        assertThat(metrics.getInvocationCount(JsonLdMetrics.Phase.REFERENCE_RESOLUTION), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.NODES), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.ATTRIBUTES), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.LITERALS), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.CACHE_MISSES), greaterThan(0L));
+    }
+
+    @Test
+    void deserializeWithLazyCollectionsDefersDeserializationOfPluralObjectPropertyUntilAccessed() throws Exception {
+        final JsonLdDeserializer sut = createLazyDeserializer();
+        final Object input = readAndExpand("objectWithPluralObjectPropertyWithBackwardReferences.json");
+        final Organization result = sut.deserialize(input, Organization.class);
+        verifyOrganizationAttributes(result);
+        assertThat(result.getEmployees(), instanceOf(LazySet.class));
+        assertFalse(((LazySet<?>) result.getEmployees()).isLoaded());
+
+        assertEquals(3, result.getEmployees().size());
+        for (Employee e : result.getEmployees()) {
+            verifyUserAttributes(USERS.get(e.getUri()), e);
+            assertSame(result, e.getEmployer());
+        }
+    }
+
+    private static JsonLdDeserializer createLazyDeserializer() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld");
+        config.set(ConfigParam.LAZY_COLLECTIONS, Boolean.TRUE.toString());
+        return JsonLdDeserializer.createExpandedDeserializer(config);
+    }
+
+    @Test
+    void deserializeWithLazyCollectionsResolvesReferencesToNodesInOtherLazyCollectionWhenItIsLoaded()
+            throws Exception {
+        final JsonLdDeserializer sut = createLazyDeserializer();
+        final Object input = readAndExpand("objectWithPluralReferenceSharingObject.json");
+        final Study result = sut.deserialize(input, Study.class);
+        assertFalse(result.getMembers().isEmpty());
+        final Employee member = result.getMembers().iterator().next();
+        assertNull(member.getEmployer());
+
+        assertFalse(result.getParticipants().isEmpty());
+        final Organization org = result.getParticipants().iterator().next().getEmployer();
+        assertNotNull(org);
+        assertSame(org, member.getEmployer());
+    }
+
+    @Test
+    void deserializeWithLazyCollectionsDeserializesLiteralCollectionsEagerly() throws Exception {
+        final JsonLdDeserializer sut = createLazyDeserializer();
+        final Object input = readAndExpand("objectWithPluralReference.json");
+        final Organization result = sut.deserialize(input, Organization.class);
+        assertThat(result.getBrands(), not(instanceOf(LazySet.class)));
+        assertThat(result.getEmployees(), instanceOf(LazySet.class));
+    }
+
+    @Test
+    void deserializeWithLazyCollectionsVerifiesReferencesOutsideOfLazyCollections() throws Exception {
+        final JsonLdDeserializer sut = createLazyDeserializer();
+        final Object input = readAndExpand("objectWithUnresolvedReferenceNextToPluralReference.json");
+        assertThrows(UnresolvedReferenceException.class, () -> sut.deserialize(input, SponsoredStudy.class));
+    }
+
+    @OWLClass(iri = Vocabulary.STUDY)
+    public static class SponsoredStudy {
+        @Id
+        private URI id;
+
+        @OWLObjectProperty(iri = Vocabulary.HAS_MEMBER)
+        private Set<Employee> members;
+
+        @OWLObjectProperty(iri = Vocabulary.IS_MEMBER_OF)
+        private Organization sponsor;
+
+        public SponsoredStudy() {
+        }
+    }
+
+    @Test
+    void deserializeWithLazyCollectionsThrowsUnresolvedReferenceExceptionWhenLoadedCollectionContainsUnresolvedReference()
+            throws Exception {
+        final JsonLdDeserializer sut = createLazyDeserializer();
+        final Object input = readAndExpand("objectWithUnresolvedReference.json");
+        final Study result = sut.deserialize(input, Study.class);
+        assertThrows(UnresolvedReferenceException.class, () -> result.getMembers().size());
+        assertThrows(UnresolvedReferenceException.class, () -> result.getMembers().size());
+    }
 }
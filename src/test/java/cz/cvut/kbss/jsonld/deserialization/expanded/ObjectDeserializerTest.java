@@ -29,10 +29,8 @@ import cz.cvut.kbss.jsonld.environment.model.Study;
 import cz.cvut.kbss.jsonld.environment.model.User;
 import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
 import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
-import org.hamcrest.core.StringStartsWith;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -155,7 +153,7 @@ class ObjectDeserializerTest {
     }
 
     @Test
-    void processValueGeneratesIdWhenIncomingObjectDoesNotContainIt() throws Exception {
+    void processValueLeavesIdGenerationToInstanceBuilderWhenIncomingObjectDoesNotContainIt() throws Exception {
         doReturn(User.class).when(tcResolverMock).getTargetClass(eq(User.class), anyCollection());
         when(instanceBuilderMock.isPropertyDeserializable(any())).thenReturn(true);
         this.sut = new ObjectDeserializer(instanceBuilderMock,
@@ -163,10 +161,7 @@ class ObjectDeserializerTest {
         final List<?> input = (List<?>) TestUtil.readAndExpand("objectWithDataProperties.json");
         ((Map<?, ?>) input.get(0)).remove(JsonLd.ID);
         sut.processValue((Map<?, ?>) input.get(0));
-        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(instanceBuilderMock).openObject(captor.capture(), eq(User.class));
-        assertNotNull(captor.getValue());
-        assertThat(captor.getValue(), StringStartsWith.startsWith("_:"));
+        verify(instanceBuilderMock).openObject(isNull(), eq(User.class));
     }
 
     @Test
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.exception.JsonLdDeserializationException;
+import cz.cvut.kbss.jsonld.serialization.rdf.RdfSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class NTriplesParserTest {
+
+    private static final String SUBJECT = "http://krizik.felk.cvut.cz/ontologies/jb4jsonld#subject";
+
+    private final RdfSink sink = mock(RdfSink.class);
+
+    @Test
+    void parseReportsResourceStatementsIncludingBlankNodesAndSkipsComments() {
+        final String input = "# Comment\n\n<" + SUBJECT + "> <" + RDF.TYPE + "> _:b1.\n" +
+                "_:b1 <" + RDF.TYPE + "> <http://example.org/a\\u0020b> . # Trailing comment\n";
+        new NTriplesParser(new StringReader(input)).parse(sink);
+        verify(sink).statement(SUBJECT, RDF.TYPE, "_:b1");
+        verify(sink).statement("_:b1", RDF.TYPE, "http://example.org/a b");
+        verifyNoMoreInteractions(sink);
+    }
+
+    @Test
+    void parseReportsLiteralsWithDatatypesAndLanguageTags() {
+        final String input = "<" + SUBJECT + "> <" + RDFS.LABEL + "> \"a \\\"quoted\\\"\\nvalue\" .\n" +
+                "<" + SUBJECT + "> <" + RDFS.LABEL + "> \"117\"^^<" + XSD.INT + "> .\n" +
+                "<" + SUBJECT + "> <" + RDFS.LABEL + "> \"Budova\"@cs-CZ .\n";
+        new NTriplesParser(new StringReader(input)).parse(sink);
+        verify(sink).literal(SUBJECT, RDFS.LABEL, "a \"quoted\"\nvalue", XSD.STRING);
+        verify(sink).literal(SUBJECT, RDFS.LABEL, "117", XSD.INT);
+        verify(sink).langString(SUBJECT, RDFS.LABEL, "Budova", "cs-CZ");
+    }
+
+    @Test
+    void parseIgnoresGraphLabelOfNQuads() {
+        final String input = "<" + SUBJECT + "> <" + RDFS.LABEL + "> \"a\" <http://example.org/graph> .";
+        new NTriplesParser(new StringReader(input)).parse(sink);
+        verify(sink).literal(SUBJECT, RDFS.LABEL, "a", XSD.STRING);
+    }
+
+    @Test
+    void parseThrowsDeserializationExceptionWithPositionForInvalidStatement() {
+        final String input = "<" + SUBJECT + "> <" + RDFS.LABEL + "> \"a\"\n";
+        final JsonLdDeserializationException ex = assertThrows(JsonLdDeserializationException.class,
+                () -> new NTriplesParser(new StringReader(input)).parse(sink));
+        assertThat(ex.getMessage(), containsString("line 1"));
+        verifyNoInteractions(sink);
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.rdf;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.annotations.Id;
+import cz.cvut.kbss.jopa.model.annotations.OWLAnnotationProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.*;
+import cz.cvut.kbss.jsonld.exception.UnknownPropertyException;
+import cz.cvut.kbss.jsonld.serialization.rdf.NQuadsWriter;
+import cz.cvut.kbss.jsonld.serialization.rdf.RdfSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RdfDeserializerTest {
+
+    private RdfDeserializer sut;
+
+    @BeforeEach
+    void setUp() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.SCAN_PACKAGE, "cz.cvut.kbss.jsonld.environment.model");
+        this.sut = new RdfDeserializer(config);
+    }
+
+    private static String toNTriples(Object root) {
+        final StringWriter out = new StringWriter();
+        new RdfSerializer(new NQuadsWriter(out)).serialize(root);
+        return out.toString();
+    }
+
+    @Test
+    void deserializeBuildsObjectGraphFromSerializedNTriples() {
+        final Employee employee = Generator.generateEmployee();
+        employee.setRole(Role.ADMIN);
+        final Organization org = employee.getEmployer();
+        org.setEmployees(Collections.singleton(employee));
+
+        final Employee result = sut.deserialize(new StringReader(toNTriples(employee)), Employee.class);
+        assertEquals(employee.getUri(), result.getUri());
+        assertEquals(employee.getFirstName(), result.getFirstName());
+        assertEquals(employee.getAdmin(), result.getAdmin());
+        assertEquals(Role.ADMIN, result.getRole());
+        assertEquals(org.getUri(), result.getEmployer().getUri());
+        assertEquals(org.getName(), result.getEmployer().getName());
+        assertEquals(org.getDateCreated(), result.getEmployer().getDateCreated());
+        assertEquals(org.getBrands(), result.getEmployer().getBrands());
+        // Cyclic reference is resolved to the same instance
+        assertSame(result, result.getEmployer().getEmployees().iterator().next());
+    }
+
+    @Test
+    void deserializeReadsLanguageTaggedStringsIntoMultilingualString() {
+        final ObjectWithMultilingualString instance = new ObjectWithMultilingualString(Generator.generateUri());
+        final MultilingualString label = new MultilingualString();
+        label.set("en", "Building");
+        label.set("cs", "Budova");
+        instance.setLabel(label);
+
+        final ObjectWithMultilingualString result =
+                sut.deserialize(toNTriples(instance), ObjectWithMultilingualString.class);
+        assertEquals(label.getValue(), result.getLabel().getValue());
+    }
+
+    @Test
+    void deserializeUsesSpecifiedRootAndResolvesReferencesToOtherSubjects() {
+        final Employee employee = Generator.generateEmployee();
+        final Organization org = employee.getEmployer();
+        org.setEmployees(new HashSet<>(Collections.singleton(employee)));
+
+        final Organization result = sut.deserialize(toNTriples(employee), org.getUri().toString(), Organization.class);
+        assertEquals(org.getUri(), result.getUri());
+        final Employee resultEmployee = result.getEmployees().iterator().next();
+        assertEquals(employee.getUri(), resultEmployee.getUri());
+        assertSame(result, resultEmployee.getEmployer());
+    }
+
+    @Test
+    void deserializeThrowsUnknownPropertyExceptionForUnmappedPropertyWhenNotIgnored() {
+        final Organization org = Generator.generateOrganization();
+        final String input = toNTriples(org) +
+                "<" + org.getUri() + "> <" + Vocabulary.DEFAULT_PREFIX + "unknown> \"value\" .\n";
+        assertThrows(UnknownPropertyException.class, () -> sut.deserialize(input, Organization.class));
+    }
+
+    @Test
+    void deserializeIntoPopulatesExistingInstance() {
+        final User user = Generator.generateUser();
+        final User existing = new User();
+        existing.setRole(Role.GUEST);
+        final User result = sut.deserializeInto(toNTriples(user), existing);
+        assertSame(existing, result);
+        assertEquals(user.getUri(), existing.getUri());
+        assertEquals(user.getUsername(), existing.getUsername());
+        assertEquals(Role.GUEST, existing.getRole());
+    }
+
+    @Test
+    void deserializeKeepsLexicalFormOfMalformedTemporalLiteral() {
+        final User user = Generator.generateUser();
+        user.setFirstName(null);
+        final String input = toNTriples(user) + "<" + user.getUri() + "> <" + Vocabulary.FIRST_NAME +
+                "> \"2021-13-45T99:00:00\"^^<" + XSD.DATETIME + "> .\n";
+        final User result = sut.deserialize(input, User.class);
+        assertEquals("2021-13-45T99:00:00", result.getFirstName());
+    }
+
+    @Test
+    void deserializeFoldsRdfListsProducedBySerializerIntoListAttributes() {
+        final WithLists instance = new WithLists();
+        instance.id = Generator.generateUri();
+        final Employee first = Generator.generateEmployee();
+        first.setEmployer(null);
+        final Employee second = Generator.generateEmployee();
+        second.setEmployer(null);
+        instance.members = Arrays.asList(second, first);
+        instance.brands = Arrays.asList("b", "a", "c", "a");
+        instance.aliases = Collections.emptyList();
+
+        final WithLists result = sut.deserialize(toNTriples(instance), WithLists.class);
+        assertEquals(instance.id, result.id);
+        assertEquals(Arrays.asList(second.getUri(), first.getUri()),
+                result.members.stream().map(Employee::getUri).collect(Collectors.toList()));
+        assertEquals(second.getFirstName(), result.members.get(0).getFirstName());
+        assertEquals(instance.brands, result.brands);
+        assertTrue(result.aliases == null || result.aliases.isEmpty());
+    }
+
+    @OWLClass(iri = Vocabulary.DEFAULT_PREFIX + "WithLists")
+    public static class WithLists {
+        @Id
+        private URI id;
+
+        @OWLObjectProperty(iri = Vocabulary.HAS_MEMBER)
+        private List<Employee> members;
+
+        @OWLDataProperty(iri = Vocabulary.BRAND)
+        private List<String> brands;
+
+        @OWLAnnotationProperty(iri = RDFS.LABEL)
+        private List<String> aliases;
+    }
+}
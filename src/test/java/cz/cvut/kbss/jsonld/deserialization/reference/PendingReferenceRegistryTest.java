@@ -26,7 +26,7 @@ import org.junit.jupiter.api.Test;
 import java.lang.reflect.Field;
 import java.util.*;
 
-import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,6 +84,21 @@ class PendingReferenceRegistryTest {
         sut.verifyNoUnresolvedReferencesExist();
     }
 
+    @Test
+    void verifyNoUnresolvedReferencesExistIgnoresDeferredIdentifiers() throws Exception {
+        final String deferred = Generator.generateUri().toString();
+        final String other = Generator.generateUri().toString();
+        final Field targetField = Employee.class.getDeclaredField("employer");
+        sut.addPendingReference(deferred, new Employee(), targetField);
+        sut.verifyNoUnresolvedReferencesExist(Collections.singleton(deferred));
+
+        sut.addPendingReference(other, new Employee(), targetField);
+        final UnresolvedReferenceException ex = assertThrows(UnresolvedReferenceException.class,
+                () -> sut.verifyNoUnresolvedReferencesExist(Collections.singleton(deferred)));
+        assertThat(ex.getMessage(), containsString(other));
+        assertThat(ex.getMessage(), not(containsString(deferred)));
+    }
+
     @Test
     void resolveReferencesSetsSpecifiedValueOnPendingReferenceTarget() throws Exception {
         final Map<String, Set<PendingReference>> pendingReferences = getPendingReferences();
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jsonld.environment.model.Person;
+import cz.cvut.kbss.jsonld.environment.model.Role;
+import cz.cvut.kbss.jsonld.environment.model.Study;
+import cz.cvut.kbss.jsonld.environment.model.StudyWithNamespaces;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFileReaderTest {
+
+    private static final String OWL_CLASS = ClassFileReader.toDescriptor(OWLClass.class);
+
+    @Test
+    void getAnnotatedClassNameReturnsNameOfClassWithAnnotation() throws Exception {
+        assertEquals(Person.class.getName(), ClassFileReader.getAnnotatedClassName(read(Person.class), OWL_CLASS));
+    }
+
+    @Test
+    void getAnnotatedClassNameReturnsNullForClassWithoutAnnotation() throws Exception {
+        assertNull(ClassFileReader.getAnnotatedClassName(read(Role.class), OWL_CLASS));
+    }
+
+    @Test
+    void getAnnotatedClassNameSkipsPrecedingAnnotationsWithArrayAndNestedAnnotationValues() throws Exception {
+        assertEquals(Study.class.getName(), ClassFileReader.getAnnotatedClassName(read(Study.class), OWL_CLASS));
+        assertEquals(StudyWithNamespaces.class.getName(),
+                ClassFileReader.getAnnotatedClassName(read(StudyWithNamespaces.class), OWL_CLASS));
+    }
+
+    @Test
+    void getAnnotatedClassNameReturnsBinaryNameOfNestedClass() throws Exception {
+        assertEquals(NestedEntity.class.getName(),
+                ClassFileReader.getAnnotatedClassName(read(NestedEntity.class), OWL_CLASS));
+    }
+
+    @OWLClass(iri = "http://krizik.felk.cvut.cz/ontologies/jb4jsonld/NestedEntity")
+    private static class NestedEntity {
+    }
+
+    @Test
+    void getAnnotatedClassNameThrowsIOExceptionForInvalidClassFile() {
+        assertThrows(IOException.class, () -> ClassFileReader.getAnnotatedClassName(new byte[]{1, 2, 3, 4}, OWL_CLASS));
+    }
+
+    private static byte[] read(Class<?> cls) throws IOException {
+        final String resource = cls.getName().replace('.', '/') + ".class";
+        try (final InputStream in = ClassLoader.getSystemResourceAsStream(resource)) {
+            assertNotNull(in);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -13,13 +13,29 @@
 
 package cz.cvut.kbss.jsonld.deserialization.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jsonld.environment.model.Person;
+import cz.cvut.kbss.jsonld.environment.model.Role;
+import cz.cvut.kbss.jsonld.environment.model.StudyWithNamespaces;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class ClasspathScannerTest {
 
@@ -34,6 +50,40 @@ class ClasspathScannerTest {
         sut.processClasses(null);
     }
 
+    @Test
+    void processClassesWithAnnotationFilterPassesOnlyAnnotatedClassesToListener() {
+        final List<Class<?>> classes = new ArrayList<>();
+        final ClasspathScanner sut = new ClasspathScanner(OWLClass.class, classes::add);
+        sut.processClasses("cz.cvut.kbss.jsonld.environment.model");
+        assertTrue(classes.contains(Person.class));
+        assertTrue(classes.contains(StudyWithNamespaces.class));
+        assertFalse(classes.contains(Role.class));
+        classes.forEach(cls -> assertNotNull(cls.getDeclaredAnnotation(OWLClass.class)));
+    }
+
+    @Test
+    void isUnsupportedVersionEntryReturnsTrueForMultiReleaseEntriesOfNewerJavaVersions() {
+        assertTrue(ClasspathScanner.isUnsupportedVersionEntry("META-INF/versions/999/cz/cvut/Test.class"));
+        assertFalse(ClasspathScanner.isUnsupportedVersionEntry("META-INF/versions/9/cz/cvut/Test.class"));
+        assertFalse(ClasspathScanner.isUnsupportedVersionEntry("cz/cvut/Test.class"));
+    }
+
+    @Test
+    void scanDirectorySkipsMultiReleaseVersionDirectories(@TempDir Path dir) throws IOException {
+        final Path versioned = dir.resolve("META-INF/versions/11/cz/cvut");
+        Files.createDirectories(versioned);
+        Files.write(versioned.resolve("Versioned.class"), new byte[0]);
+        final Path plain = dir.resolve("cz/cvut");
+        Files.createDirectories(plain);
+        Files.write(plain.resolve("Plain.class"), new byte[0]);
+        final Set<String> classNames = new HashSet<>();
+        final ClasspathScanner sut = new ClasspathScanner(cls -> {
+        });
+
+        sut.scanDirectory(dir.toFile(), "", classNames, new ArrayList<>());
+        assertEquals(Collections.singleton("cz.cvut.Plain"), classNames);
+    }
+
     @Test
     void processClassesSupportsWarFiles() throws IOException {
         processClassesSupportsJarFiles("testjar.war", "cz.cvut.kbss.testjar.model");
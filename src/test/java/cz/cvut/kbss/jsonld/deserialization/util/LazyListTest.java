@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyListTest {
+
+    @Test
+    void loaderIsInvokedOnFirstAccessOnly() {
+        final AtomicInteger invocations = new AtomicInteger();
+        final LazyList<String> sut = new LazyList<>(() -> {
+            invocations.incrementAndGet();
+            return new ArrayList<>(Arrays.asList("a", "b"));
+        });
+        assertFalse(sut.isLoaded());
+        assertEquals(0, invocations.get());
+
+        assertEquals(2, sut.size());
+        assertEquals("b", sut.get(1));
+        assertTrue(sut.isLoaded());
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void modificationsAreAppliedToLoadedList() {
+        final List<String> loaded = new ArrayList<>(Arrays.asList("a", "b"));
+        final LazyList<String> sut = new LazyList<>(() -> loaded);
+        sut.add("c");
+        sut.remove("a");
+        assertEquals(Arrays.asList("b", "c"), loaded);
+        assertEquals(loaded, sut);
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import cz.cvut.kbss.jsonld.environment.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void internReturnsSameInstanceForEqualStrings() {
+        final StringPool sut = new StringPool(10);
+        final String value = Generator.generateUri().toString();
+        final String first = sut.intern(new String(value));
+        assertSame(first, sut.intern(new String(value)));
+    }
+
+    @Test
+    void internEvictsLeastRecentlyUsedValueWhenPoolIsFull() {
+        final StringPool sut = new StringPool(2);
+        final String first = sut.intern(new String("a"));
+        sut.intern("b");
+        sut.intern("c");
+        assertNotSame(first, sut.intern(new String("a")));
+    }
+
+    @Test
+    void uriReturnsSameInstanceForRepeatedIdentifier() {
+        final StringPool sut = new StringPool(10);
+        final String value = Generator.generateUri().toString();
+        final URI first = sut.uri(value);
+        assertEquals(URI.create(value), first);
+        assertSame(first, sut.uri(new String(value)));
+    }
+
+    @Test
+    void disabledPoolReturnsArgument() {
+        final StringPool sut = StringPool.disabled();
+        final String value = Generator.generateUri().toString();
+        assertFalse(sut.isEnabled());
+        assertSame(value, sut.intern(value));
+        assertNotSame(sut.uri(value), sut.uri(value));
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentForNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(-1));
+    }
+}
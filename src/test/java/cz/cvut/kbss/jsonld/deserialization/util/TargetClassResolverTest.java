@@ -113,6 +113,16 @@ class TargetClassResolverTest {
         assertTrue(Person.class.isAssignableFrom(result));
     }
 
+    @Test
+    void getTargetClassPicksMostSpecificCandidateInDocumentOrderWhenOptimisticTargetTypeResolutionIsEnabled() {
+        typeMap.register(Vocabulary.AGENT, MostSpecific.class);
+        this.sut = new TargetClassResolver(typeMap, new TargetClassResolverConfig(false, true, false));
+        assertEquals(MostSpecific.class, sut.getTargetClass(Person.class,
+                Arrays.asList(Vocabulary.PERSON, Vocabulary.AGENT, Vocabulary.USER)));
+        assertEquals(User.class, sut.getTargetClass(Person.class,
+                Arrays.asList(Vocabulary.PERSON, Vocabulary.USER, Vocabulary.AGENT)));
+    }
+
     @Test
     void getTargetClassReturnsMatchingParentClassWhenSuperclassIsPreferredWithOptimisticTypeResolution() {
         typeMap.register(Vocabulary.AGENT, MostSpecific.class);
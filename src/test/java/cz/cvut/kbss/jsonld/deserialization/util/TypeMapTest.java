@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.deserialization.util;
+
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeMapTest {
+
+    private final TypeMap sut = new TypeMap();
+
+    @Test
+    void reduceToMostSpecificKeepsOnlyClassesWithoutSubclassesInSet() {
+        // Register in an order where superclasses come both before and after their subclasses
+        sut.register(Vocabulary.USER, User.class);
+        sut.register(Vocabulary.EMPLOYEE, Employee.class);
+        sut.register(Vocabulary.PERSON, Person.class);
+        sut.register(Vocabulary.ORGANIZATION, Organization.class);
+        final BitSet ids = idsOf(Vocabulary.USER, Vocabulary.EMPLOYEE, Vocabulary.PERSON, Vocabulary.ORGANIZATION);
+
+        sut.reduceToMostSpecific(ids);
+        assertEquals(set(Employee.class, Organization.class), toClasses(ids));
+    }
+
+    @Test
+    void reduceToMostGeneralKeepsOnlyClassesWithoutSuperclassesInSet() {
+        sut.register(Vocabulary.EMPLOYEE, Employee.class);
+        sut.register(Vocabulary.PERSON, Person.class);
+        sut.register(Vocabulary.USER, User.class);
+        final BitSet ids = idsOf(Vocabulary.USER, Vocabulary.EMPLOYEE, Vocabulary.PERSON);
+
+        sut.reduceToMostGeneral(ids);
+        assertEquals(set(Person.class), toClasses(ids));
+    }
+
+    @Test
+    void getAssignableToSupportsClassesWhichAreNotRegistered() {
+        sut.register(Vocabulary.EMPLOYEE, Employee.class);
+        sut.register(Vocabulary.ORGANIZATION, Organization.class);
+        assertEquals(set(Employee.class, Organization.class), toClasses(sut.getAssignableTo(Object.class)));
+        assertEquals(set(Employee.class), toClasses(sut.getAssignableTo(User.class)));
+    }
+
+    @Test
+    void getAssignableToReflectsClassesRegisteredLater() {
+        sut.register(Vocabulary.PERSON, Person.class);
+        assertEquals(set(Person.class), toClasses(sut.getAssignableTo(Person.class)));
+        sut.register(Vocabulary.USER, User.class);
+        assertThat(toClasses(sut.getAssignableTo(Person.class)), hasItems(Person.class, User.class));
+    }
+
+    @Test
+    void registerIndexesClassRegisteredForMultipleTypesOnlyOnce() {
+        sut.register(Vocabulary.PERSON, Person.class);
+        sut.register(Vocabulary.AGENT, Person.class);
+        final BitSet ids = idsOf(Vocabulary.PERSON, Vocabulary.AGENT);
+        assertEquals(1, ids.cardinality());
+        assertTrue(sut.getConcreteClasses().get(ids.nextSetBit(0)));
+    }
+
+    private BitSet idsOf(String... types) {
+        final BitSet ids = new BitSet();
+        for (String t : types) {
+            sut.addClassIds(t, ids);
+        }
+        return ids;
+    }
+
+    private Set<Class<?>> toClasses(BitSet ids) {
+        final Set<Class<?>> result = new HashSet<>();
+        ids.stream().forEach(i -> result.add(sut.getRegisteredClass(i)));
+        return result;
+    }
+
+    private static Set<Class<?>> set(Class<?>... classes) {
+        final Set<Class<?>> result = new HashSet<>();
+        for (Class<?> cls : classes) {
+            result.add(cls);
+        }
+        return result;
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import javax.xml.datatype.DatatypeFactory;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
@@ -48,6 +49,7 @@ class XSDTypeCoercerTest {
                         ISO_DATE_TIME.parse("2020-06-16T08:27:25Z", ZonedDateTime::from)),
                 Arguments.arguments("2020-06-16T08:27:25", XSD.DATETIME,
                         ISO_DATE_TIME.parse("2020-06-16T08:27:25", LocalDateTime::from)),
+                Arguments.arguments("2020-06-16", XSD.DATE, LocalDate.of(2020, 6, 16)),
                 Arguments.arguments("13:47:30", XSD.TIME, LocalTime.of(13, 47, 30)),
                 Arguments.arguments("PT17S", XSD.DURATION, DatatypeFactory.newInstance().newDuration(17000))
         );
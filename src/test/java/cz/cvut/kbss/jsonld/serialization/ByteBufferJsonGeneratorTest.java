@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteBufferJsonGeneratorTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final WritableByteChannel channel = Channels.newChannel(out);
+
+    @Test
+    void writesSameOutputAsTextGenerator() throws Exception {
+        final ByteBufferJsonGenerator sut = new ByteBufferJsonGenerator(ByteBuffer.allocateDirect(1024), channel);
+        final StringBuilder expected = new StringBuilder();
+        writeDocument(sut);
+        writeDocument(new TextJsonGenerator(expected));
+        sut.flush();
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static void writeDocument(JsonGenerator generator) throws Exception {
+        generator.writeObjectStart();
+        generator.writeFieldName("a");
+        generator.writeNumber(-1234567890123L);
+        generator.writeFieldName("b");
+        generator.writeArrayStart();
+        generator.writeNumber(0);
+        generator.writeNumber(Long.MIN_VALUE);
+        generator.writeNumber(new BigDecimal("3.14"));
+        generator.writeNumber(2.5);
+        generator.writeBoolean(false);
+        generator.writeNull();
+        generator.writeArrayEnd();
+        generator.writeFieldName("c\n");
+        generator.writeString("quoted \"value\"");
+        generator.writeObjectEnd();
+    }
+
+    @Test
+    void encodesMultibyteCharactersAcrossBufferBoundaries() throws Exception {
+        final ByteBufferJsonGenerator sut = new ByteBufferJsonGenerator(ByteBuffer.allocateDirect(8), channel);
+        final String value = "Příliš žluťoučký kůň € 😀 úpěl ďábelské ódy";
+        sut.writeObjectStart();
+        sut.writeFieldName("klíč");
+        sut.writeString(value);
+        sut.writeObjectEnd();
+        sut.flush();
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("klíč", value);
+        final byte[] bytes = out.toByteArray();
+        assertEquals(expected, JsonUtils.fromString(new String(bytes, StandardCharsets.UTF_8)));
+        assertEquals(bytes.length, sut.getBytesWritten());
+        assertEquals(("{\"klíč\":\"" + value + "\"}").getBytes(StandardCharsets.UTF_8).length, bytes.length);
+    }
+
+    @Test
+    void replacesUnpairedSurrogatesLikeStringEncoding() throws Exception {
+        final ByteBufferJsonGenerator sut = new ByteBufferJsonGenerator(ByteBuffer.allocate(16), channel);
+        final String value = "a\uD83Db\uDE00c\uD83D";
+        sut.writeString(value);
+        sut.flush();
+        assertEquals(Arrays.toString(("\"" + value + "\"").getBytes(StandardCharsets.UTF_8)),
+                Arrays.toString(out.toByteArray()));
+    }
+
+    @Test
+    void nothingIsWrittenIntoChannelUntilBufferIsFullOrFlushed() throws Exception {
+        final ByteBufferJsonGenerator sut = new ByteBufferJsonGenerator(ByteBuffer.allocateDirect(64), channel);
+        sut.writeString("short");
+        assertEquals(0, out.size());
+        sut.flush();
+        assertEquals("\"short\"", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentForTooSmallBuffer() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ByteBufferJsonGenerator(ByteBuffer.allocate(4), channel));
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBufferPoolTest {
+
+    private final ByteBufferPool sut = new ByteBufferPool(128, 2);
+
+    @Test
+    void acquireReturnsClearedDirectBufferOfConfiguredSize() {
+        final ByteBuffer buffer = sut.acquire();
+        assertTrue(buffer.isDirect());
+        assertEquals(128, buffer.capacity());
+        assertEquals(0, buffer.position());
+        assertEquals(128, buffer.limit());
+    }
+
+    @Test
+    void releasedBufferIsReused() {
+        final ByteBuffer buffer = sut.acquire();
+        buffer.put((byte) 1);
+        sut.release(buffer);
+        final ByteBuffer reused = sut.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1, sut.getAllocatedCount());
+    }
+
+    @Test
+    void poolTracksBuffersInUseAndPeakUsage() {
+        final ByteBuffer first = sut.acquire();
+        final ByteBuffer second = sut.acquire();
+        final ByteBuffer third = sut.acquire();
+        assertEquals(3, sut.getInUse());
+        sut.release(first);
+        sut.release(second);
+        sut.release(third);
+        sut.release(sut.acquire());
+        assertEquals(0, sut.getInUse());
+        assertEquals(3, sut.getPeakInUse());
+        assertEquals(3 * 128, sut.getPeakUsage());
+        assertEquals(3, sut.getAllocatedCount());
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentForInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(1024, 0));
+    }
+}
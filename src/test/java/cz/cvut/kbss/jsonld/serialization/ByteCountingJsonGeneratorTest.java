@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.common.AccumulatingJsonLdMetrics;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
+import cz.cvut.kbss.jsonld.serialization.util.BufferedJsonGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ByteCountingJsonGeneratorTest {
+
+    private final BufferedJsonGenerator delegate = new BufferedJsonGenerator();
+
+    private final ByteCountingJsonGenerator sut = new ByteCountingJsonGenerator(delegate);
+
+    @Test
+    void countsBytesOfOutputWithoutSeparators() throws Exception {
+        sut.writeObjectStart();
+        sut.writeFieldName("name");
+        sut.writeString("Žluťoučký kůň");
+        sut.writeFieldName("count");
+        sut.writeNumber(117);
+        sut.writeFieldName("valid");
+        sut.writeBoolean(true);
+        sut.writeObjectEnd();
+        final AccumulatingJsonLdMetrics metrics = new AccumulatingJsonLdMetrics();
+        sut.report(metrics);
+
+        final String result = delegate.getResult();
+        // Two commas separating the attributes are not counted
+        assertEquals(result.getBytes(StandardCharsets.UTF_8).length - 2,
+                metrics.getCount(JsonLdMetrics.Counter.BYTES_WRITTEN));
+    }
+
+    @Test
+    void utf8LengthCountsSurrogatePairsAsFourBytes() {
+        final String text = "a😀b";
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, ByteCountingJsonGenerator.utf8Length(text));
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CborJsonGeneratorTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    void writesScalarsUsingShortestHeads() throws Exception {
+        final CborJsonGenerator sut = new CborJsonGenerator(out, false);
+        sut.writeNumber(10);
+        sut.writeNumber(500);
+        sut.writeNumber(-500L);
+        sut.writeNumber(1.5);
+        sut.writeBoolean(true);
+        sut.writeNull();
+        sut.writeString("a");
+        assertArrayEquals(bytes(0x0A, 0x19, 0x01, 0xF4, 0x39, 0x01, 0xF3,
+                0xFB, 0x3F, 0xF8, 0, 0, 0, 0, 0, 0, 0xF5, 0xF6, 0x61, 'a'), out.toByteArray());
+    }
+
+    private static byte[] bytes(int... values) {
+        final byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    void writesBigNumbersAsTaggedItems() throws Exception {
+        final CborJsonGenerator sut = new CborJsonGenerator(out, false);
+        sut.writeNumber(new BigInteger("18446744073709551616"));
+        sut.writeNumber(new BigDecimal("273.15"));
+        assertArrayEquals(bytes(0xC2, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0,
+                0xC4, 0x82, 0x21, 0x19, 0x6A, 0xB3), out.toByteArray());
+    }
+
+    @Test
+    void writesObjectsAndArraysWithIndefiniteLength() throws Exception {
+        final CborJsonGenerator sut = new CborJsonGenerator(out, false);
+        sut.writeObjectStart();
+        sut.writeFieldName("a");
+        sut.writeArrayStart();
+        sut.writeNumber(1);
+        sut.writeArrayEnd();
+        sut.writeObjectEnd();
+        assertArrayEquals(bytes(0xBF, 0x61, 'a', 0x9F, 0x01, 0xFF, 0xFF), out.toByteArray());
+    }
+
+    @Test
+    void replacesRepeatedStringsWithReferencesInNamespace() throws Exception {
+        final CborJsonGenerator sut = new CborJsonGenerator(out);
+        sut.writeArrayStart();
+        sut.writeString("aaa");
+        sut.writeString("aaa");
+        sut.writeString("bb");
+        sut.writeString("bb");
+        sut.writeArrayEnd();
+        final byte[] aaa = "aaa".getBytes(StandardCharsets.US_ASCII);
+        assertArrayEquals(bytes(0xD9, 0x01, 0x00, 0x9F, 0x63, aaa[0], aaa[1], aaa[2], 0xD8, 0x19, 0x00,
+                0x62, 'b', 'b', 0x62, 'b', 'b', 0xFF), out.toByteArray());
+    }
+
+    @Test
+    void stringReferencesMakeSerializedObjectGraphSmaller() {
+        final JsonLdWriter writer = new JsonLdWriter();
+        final Organization root = Generator.generateOrganization();
+        for (int i = 0; i < 5; i++) {
+            final Employee emp = Generator.generateEmployee();
+            emp.setEmployer(root);
+            root.addEmployee(emp);
+        }
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        writer.write(root, new CborJsonGenerator(plain, false));
+        writer.write(root, new CborJsonGenerator(out));
+        assertThat(out.size(), lessThan(plain.size()));
+    }
+}
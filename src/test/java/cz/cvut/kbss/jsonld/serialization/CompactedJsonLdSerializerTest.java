@@ -20,13 +20,16 @@ import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
 import cz.cvut.kbss.jopa.vocabulary.RDFS;
 import cz.cvut.kbss.jsonld.ConfigParam;
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.common.AccumulatingJsonLdMetrics;
 import cz.cvut.kbss.jsonld.common.IdentifierUtil;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.environment.Generator;
 import cz.cvut.kbss.jsonld.environment.TestUtil;
 import cz.cvut.kbss.jsonld.environment.Vocabulary;
 import cz.cvut.kbss.jsonld.environment.model.*;
 import cz.cvut.kbss.jsonld.exception.MissingIdentifierException;
 import cz.cvut.kbss.jsonld.serialization.model.ObjectNode;
+import cz.cvut.kbss.jsonld.serialization.traversal.Projection;
 import cz.cvut.kbss.jsonld.serialization.util.BufferedJsonGenerator;
 import org.hamcrest.core.StringStartsWith;
 import org.junit.jupiter.api.BeforeEach;
@@ -574,4 +577,57 @@ class CompactedJsonLdSerializerTest {
             assertEquals(exp.getUsername(), res.get(Vocabulary.USERNAME));
         }
     }
+
+    @Test
+    void serializeWithProjectionSerializesOnlySelectedAttributesWithIdentifierAndTypes() throws Exception {
+        final User user = Generator.generateUser();
+        sut.serialize(user, Projection.of(Vocabulary.FIRST_NAME, Vocabulary.USERNAME));
+        final Map<String, ?> json = (Map<String, ?>) JsonUtils.fromString(jsonWriter.getResult());
+        assertEquals(new HashSet<>(Arrays.asList(JsonLd.ID, JsonLd.TYPE, Vocabulary.FIRST_NAME, Vocabulary.USERNAME)),
+                json.keySet());
+        assertEquals(user.getFirstName(), json.get(Vocabulary.FIRST_NAME));
+    }
+
+    @Test
+    void serializeWithProjectionAppliesSubProjectionToReferencedObjects() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        sut.serialize(employee, Projection.of(Vocabulary.FIRST_NAME)
+                                          .with(Vocabulary.IS_MEMBER_OF, Projection.of(RDFS.LABEL)));
+        final Map<String, ?> json = (Map<String, ?>) JsonUtils.fromString(jsonWriter.getResult());
+        assertEquals(new HashSet<>(Arrays.asList(JsonLd.ID, JsonLd.TYPE, Vocabulary.FIRST_NAME, Vocabulary.IS_MEMBER_OF)),
+                json.keySet());
+        final Map<String, ?> employer = (Map<String, ?>) json.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(new HashSet<>(Arrays.asList(JsonLd.ID, JsonLd.TYPE, RDFS.LABEL)), employer.keySet());
+        assertEquals(employee.getEmployer().getName(), employer.get(RDFS.LABEL));
+    }
+
+    @Test
+    void serializeWithProjectionSerializesReferencedObjectsFullyWhenNoSubProjectionIsSpecified() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        sut.serialize(employee, Projection.of(Vocabulary.IS_MEMBER_OF));
+        final Map<String, ?> json = (Map<String, ?>) JsonUtils.fromString(jsonWriter.getResult());
+        assertFalse(json.containsKey(Vocabulary.FIRST_NAME));
+        final Map<String, ?> employer = (Map<String, ?>) json.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(employee.getEmployer().getName(), employer.get(RDFS.LABEL));
+        assertTrue(employer.containsKey(Vocabulary.BRAND));
+    }
+
+    @Test
+    void serializationReportsMetricsToConfiguredListener() {
+        final AccumulatingJsonLdMetrics metrics = new AccumulatingJsonLdMetrics();
+        sut.configuration().setMetrics(metrics);
+        final Employee employee = Generator.generateEmployee();
+        sut.serialize(employee);
+        assertEquals(1, metrics.getInvocationCount(JsonLdMetrics.Phase.TRAVERSAL));
+        assertEquals(1, metrics.getInvocationCount(JsonLdMetrics.Phase.TREE_BUILD));
+        assertEquals(1, metrics.getInvocationCount(JsonLdMetrics.Phase.WRITE));
+        // Employee and its employer
+        assertEquals(2, metrics.getCount(JsonLdMetrics.Counter.NODES));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.ATTRIBUTES), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.LITERALS), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.CACHE_MISSES), greaterThan(0L));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.BYTES_WRITTEN), lessThanOrEqualTo(
+                (long) jsonWriter.getResult().length()));
+        assertThat(metrics.getCount(JsonLdMetrics.Counter.BYTES_WRITTEN), greaterThan(0L));
+    }
 }
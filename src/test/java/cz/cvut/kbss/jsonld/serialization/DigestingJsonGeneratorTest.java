@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigestingJsonGeneratorTest {
+
+    private static MessageDigest sha256() throws Exception {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    @Test
+    void digestIsComputedOverCompactJsonTextWhileWritingIntoDelegate() throws Exception {
+        final Organization org = Generator.generateOrganization();
+        final JsonLdWriter writer = new JsonLdWriter();
+        final StringBuilder out = new StringBuilder();
+        final DigestingJsonGenerator sut = new DigestingJsonGenerator(new TextJsonGenerator(out), sha256());
+        writer.write(org, sut);
+
+        final byte[] expected = sha256().digest(out.toString().getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected, sut.digest());
+    }
+
+    @Test
+    void digestOnlyGeneratorProducesSameDigestAsWritingGenerator() throws Exception {
+        final Organization org = Generator.generateOrganization();
+        org.setName("Organizace s háčky a čárkami 😀");
+        final JsonLdWriter writer = new JsonLdWriter();
+        final DigestingJsonGenerator writing = new DigestingJsonGenerator(new TextJsonGenerator(new StringBuilder()),
+                sha256());
+        writer.write(org, writing);
+        final DigestingJsonGenerator digestOnly = new DigestingJsonGenerator(sha256());
+        writer.write(org, digestOnly);
+        assertEquals(writing.digestHex(), digestOnly.digestHex());
+    }
+
+    @Test
+    void digestIsResetAfterItIsReturned() throws Exception {
+        final DigestingJsonGenerator sut = new DigestingJsonGenerator(sha256());
+        sut.writeString("test");
+        final String first = sut.digestHex();
+        sut.writeString("test");
+        assertEquals(first, sut.digestHex());
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    void canonicalOutputDigestDoesNotDependOnInsertionOrder() throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.CANONICAL_OUTPUT, Boolean.TRUE.toString());
+        final JsonLdWriter writer = new JsonLdWriter(config);
+        final Organization org = Generator.generateOrganization();
+        org.setBrands(new LinkedHashSet<>(Arrays.asList("Alpha", "Beta", "Gamma")));
+        final List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Employee emp = Generator.generateEmployee();
+            emp.setEmployer(org);
+            employees.add(emp);
+        }
+        org.setEmployees(new LinkedHashSet<>(employees));
+        final DigestingJsonGenerator first = new DigestingJsonGenerator(sha256());
+        writer.write(org, first);
+
+        Collections.reverse(employees);
+        org.setEmployees(new LinkedHashSet<>(employees));
+        org.setBrands(new LinkedHashSet<>(Arrays.asList("Gamma", "Alpha", "Beta")));
+        final DigestingJsonGenerator second = new DigestingJsonGenerator(sha256());
+        writer.write(org, second);
+        assertEquals(first.digestHex(), second.digestHex());
+
+        final DigestingJsonGenerator nonCanonical = new DigestingJsonGenerator(sha256());
+        new JsonLdWriter().write(org, nonCanonical);
+        assertNotEquals(first.digestHex(), nonCanonical.digestHex());
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.serialization.util.BufferedJsonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unchecked")
+class FragmentCacheTest {
+
+    private final Map<Organization, Integer> versions = new IdentityHashMap<>();
+
+    private FragmentCache sut;
+
+    @BeforeEach
+    void setUp() {
+        this.sut = new FragmentCache(10);
+        sut.register(Organization.class, o -> versions.getOrDefault(o, 1));
+    }
+
+    private String serialize(Object root) {
+        return serialize(root, new Configuration());
+    }
+
+    private String serialize(Object root, Configuration configuration) {
+        final BufferedJsonGenerator generator = new BufferedJsonGenerator();
+        final JsonLdSerializer serializer = JsonLdSerializer.createCompactedJsonLdSerializer(generator, configuration);
+        serializer.setFragmentCache(sut);
+        serializer.serialize(root);
+        return generator.getResult();
+    }
+
+    @Test
+    void serializationReusesCachedFragmentOfRegisteredInstance() {
+        final Employee employee = Generator.generateEmployee();
+        final String first = serialize(employee);
+        assertEquals(1, sut.size());
+        assertEquals(0, sut.getHitCount());
+        assertEquals(1, sut.getMissCount());
+
+        final String second = serialize(employee);
+        assertEquals(first, second);
+        assertEquals(1, sut.getHitCount());
+    }
+
+    @Test
+    void cachedFragmentIsSplicedIntoOutputOfDifferentRoot() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        serialize(employee.getEmployer());
+        final Employee another = Generator.generateEmployee();
+        another.setEmployer(employee.getEmployer());
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(serialize(another));
+        assertEquals(1, sut.getHitCount());
+        final Map<String, ?> employer = (Map<String, ?>) result.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(employee.getEmployer().getUri().toString(), employer.get(JsonLd.ID));
+        assertEquals(employee.getEmployer().getName(), employer.get(RDFS.LABEL));
+    }
+
+    @Test
+    void repeatedOccurrenceOfSplicedInstanceIsSerializedAsReference() throws Exception {
+        final Organization org = Generator.generateOrganization();
+        serialize(org);
+        final Employee one = Generator.generateEmployee();
+        one.setEmployer(org);
+        final Employee two = Generator.generateEmployee();
+        two.setEmployer(org);
+        final List<Object> result =
+                (List<Object>) JsonUtils.fromString(serialize(new LinkedHashSet<>(Arrays.asList(one, two))));
+        final Map<String, ?> first = (Map<String, ?>) ((Map<String, ?>) result.get(0)).get(Vocabulary.IS_MEMBER_OF);
+        final Map<String, ?> second = (Map<String, ?>) ((Map<String, ?>) result.get(1)).get(Vocabulary.IS_MEMBER_OF);
+        assertTrue(first.containsKey(RDFS.LABEL));
+        assertEquals(Collections.singleton(JsonLd.ID), second.keySet());
+        assertEquals(1, sut.getHitCount());
+    }
+
+    @Test
+    void changedVersionCausesCacheMiss() {
+        final Organization org = Generator.generateOrganization();
+        serialize(org);
+        org.setName("Updated name");
+        versions.put(org, 2);
+        final String result = serialize(org);
+        assertTrue(result.contains("Updated name"));
+        assertEquals(0, sut.getHitCount());
+        assertEquals(2, sut.getMissCount());
+    }
+
+    @Test
+    void fragmentReferencingObjectSerializedOutsideOfItIsNotCached() {
+        final Organization org = Generator.generateOrganization();
+        final Employee employee = Generator.generateEmployee();
+        employee.setEmployer(null);
+        org.addEmployee(employee);
+        // Employee is serialized first, so the organization fragment contains just a reference to it
+        serialize(new LinkedHashSet<>(Arrays.asList(employee, org)));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    void fragmentWithBackwardReferenceToItsRootIsCached() {
+        final Organization org = Generator.generateOrganization();
+        final Employee employee = Generator.generateEmployee();
+        employee.setEmployer(org);
+        org.addEmployee(employee);
+        final String first = serialize(org);
+        assertEquals(1, sut.size());
+        assertEquals(first, serialize(org));
+        assertEquals(1, sut.getHitCount());
+    }
+
+    @Test
+    void instancesOfUnregisteredClassesAreNotCached() {
+        final FragmentCache cache = new FragmentCache(10);
+        this.sut = cache;
+        serialize(Generator.generateEmployee());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedFragmentWhenSizeLimitIsReached() {
+        this.sut = new FragmentCache(1);
+        sut.register(Organization.class, o -> 1);
+        serialize(Generator.generateOrganization());
+        serialize(Generator.generateOrganization());
+        assertEquals(1, sut.size());
+        assertEquals(1, sut.getEvictionCount());
+    }
+
+    @Test
+    void splicedFragmentDoesNotShareBlankNodeIdentifiersWithObjectsOfCurrentSerialization() {
+        final Organization org = Generator.generateOrganization();
+        final Employee member = Generator.generateEmployee();
+        member.setUri(null);
+        member.setEmployer(null);
+        org.addEmployee(member);
+        serialize(org);
+        final Employee other = Generator.generateEmployee();
+        other.setUri(null);
+        other.setEmployer(null);
+
+        final String result = serialize(new LinkedHashSet<>(Arrays.asList(org, other)));
+        assertEquals(1, sut.getHitCount());
+        assertDistinctBlankNodeIdentifiers(result, 2);
+    }
+
+    private static void assertDistinctBlankNodeIdentifiers(String json, int expectedCount) {
+        final List<String> blankNodeIds = new ArrayList<>();
+        final Matcher matcher = Pattern.compile("\"(_:[^\"]+)\"").matcher(json);
+        while (matcher.find()) {
+            blankNodeIds.add(matcher.group(1));
+        }
+        assertEquals(expectedCount, blankNodeIds.size());
+        assertEquals(expectedCount, new HashSet<>(blankNodeIds).size());
+    }
+
+    @Test
+    void writerWithCacheDoesNotReuseBlankNodeIdentifiersOfSplicedFragmentInSubsequentWrites() {
+        final JsonLdWriter writer = new JsonLdWriter().withFragmentCache(sut);
+        final Organization org = Generator.generateOrganization();
+        final Employee member = Generator.generateEmployee();
+        member.setUri(null);
+        member.setEmployer(null);
+        org.addEmployee(member);
+        writer.write(org, new BufferedJsonGenerator());
+        final Employee other = Generator.generateEmployee();
+        other.setUri(null);
+        other.setEmployer(null);
+
+        final BufferedJsonGenerator generator = new BufferedJsonGenerator();
+        writer.write(new LinkedHashSet<>(Arrays.asList(org, other)), generator);
+        assertEquals(1, sut.getHitCount());
+        assertDistinctBlankNodeIdentifiers(generator.getResult(), 2);
+    }
+
+    @Test
+    void serializerWithDifferentCustomSerializerDoesNotReuseCachedFragment() throws Exception {
+        final Organization org = Generator.generateOrganization();
+        serialize(org);
+        final BufferedJsonGenerator generator = new BufferedJsonGenerator();
+        final JsonLdSerializer serializer = JsonLdSerializer.createCompactedJsonLdSerializer(generator);
+        serializer.setFragmentCache(sut);
+        serializer.registerSerializer(String.class, (value, ctx) -> JsonNodeFactory
+                .createLiteralNode(ctx.getAttributeId(), value.toUpperCase()));
+        serializer.serialize(org);
+
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(generator.getResult());
+        assertEquals(org.getName().toUpperCase(), result.get(RDFS.LABEL));
+        assertEquals(0, sut.getHitCount());
+        assertEquals(2, sut.size());
+    }
+
+    @Test
+    void fragmentsAreNeitherCachedNorSplicedWhenInlineDepthIsLimited() throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "2");
+        final Organization org = Generator.generateOrganization();
+        final Employee member = Generator.generateEmployee();
+        member.setEmployer(null);
+        org.addEmployee(member);
+        // Organization as root inlines its members
+        serialize(org, config);
+        final Employee employee = Generator.generateEmployee();
+        employee.setEmployer(org);
+
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(serialize(employee, config));
+        final Map<String, ?> employer = (Map<String, ?>) result.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(org.getName(), employer.get(RDFS.LABEL));
+        final Object members = employer.get(Vocabulary.HAS_MEMBER);
+        final Map<String, ?> serializedMember =
+                (Map<String, ?>) (members instanceof List ? ((List<?>) members).get(0) : members);
+        assertEquals(Collections.singletonMap(JsonLd.ID, member.getUri().toString()), serializedMember);
+        assertEquals(0, sut.size());
+        assertEquals(0, sut.getHitCount());
+    }
+
+    @Test
+    void invalidateRemovesFragmentsOfSpecifiedInstance() {
+        final Organization org = Generator.generateOrganization();
+        serialize(org);
+        sut.invalidate(Organization.class, org.getUri());
+        assertEquals(0, sut.size());
+    }
+}
@@ -0,0 +1,373 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.annotations.Id;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.annotation.JsonLdInlineDepth;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.environment.model.Study;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import cz.cvut.kbss.jsonld.exception.MissingIdentifierException;
+import cz.cvut.kbss.jsonld.serialization.model.StringLiteralNode;
+import cz.cvut.kbss.jsonld.serialization.util.BufferedJsonGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class JsonLdWriterTest {
+
+    private final JsonLdWriter sut = new JsonLdWriter();
+
+    @Test
+    void writeSerializesObjectGraphUsingSpecifiedGenerator() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(write(sut, employee));
+        assertEquals(employee.getUri().toString(), result.get(JsonLd.ID));
+        assertEquals(employee.getFirstName(), result.get(Vocabulary.FIRST_NAME));
+        final Map<String, ?> employer = (Map<String, ?>) result.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(employee.getEmployer().getUri().toString(), employer.get(JsonLd.ID));
+    }
+
+    private static String write(JsonLdWriter writer, Object root) {
+        final BufferedJsonGenerator generator = new BufferedJsonGenerator();
+        writer.write(root, generator);
+        return generator.getResult();
+    }
+
+    @Test
+    void writeToChannelProducesSameOutputAsGeneratorAndReleasesBuffer() {
+        final Organization org = Generator.generateOrganization();
+        for (int i = 0; i < 5; i++) {
+            final Employee emp = Generator.generateEmployee();
+            emp.setEmployer(org);
+            org.addEmployee(emp);
+        }
+        final ByteBufferPool pool = new ByteBufferPool(32, 1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final long written = sut.write(org, Channels.newChannel(out), pool);
+
+        assertEquals(out.size(), written);
+        final StringBuilder expected = new StringBuilder();
+        sut.write(org, new TextJsonGenerator(expected));
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, pool.getInUse());
+        assertEquals(1, pool.getPeakInUse());
+    }
+
+    @Test
+    void writeGeneratesSequentialBlankNodeIdentifiersStartingAnewForEachCall() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        employee.setUri(null);
+        employee.getEmployer().setUri(null);
+        final Map<String, ?> first = (Map<String, ?>) JsonUtils.fromString(write(sut, employee));
+        assertEquals("_:b0", first.get(JsonLd.ID));
+        assertEquals("_:b1", ((Map<String, ?>) first.get(Vocabulary.IS_MEMBER_OF)).get(JsonLd.ID));
+        assertEquals(first, JsonUtils.fromString(write(sut, employee)));
+    }
+
+    @Test
+    void writeProducesSameOutputWhenWriterIsReused() {
+        final Organization org = Generator.generateOrganization();
+        for (int i = 0; i < 5; i++) {
+            final Employee emp = Generator.generateEmployee();
+            emp.setEmployer(org);
+            org.addEmployee(emp);
+        }
+        final String first = write(sut, org);
+        assertEquals(first, write(sut, org));
+    }
+
+    @Test
+    void writeIsSafeForConcurrentUse() throws Exception {
+        final List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            employees.add(Generator.generateEmployee());
+        }
+        final List<String> expected = new ArrayList<>();
+        employees.forEach(e -> expected.add(write(new JsonLdWriter(), e)));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            employees.forEach(e -> results.add(executor.submit(() -> write(sut, e))));
+            for (int i = 0; i < employees.size(); i++) {
+                assertEquals(expected.get(i), results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void writerIsNotAffectedByChangesToConfigurationAfterItsCreation() {
+        final Configuration config = new Configuration();
+        final JsonLdWriter writer = new JsonLdWriter(config);
+        config.set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString());
+        final User user = Generator.generateUser();
+        user.setUri(null);
+        assertFalse(write(writer, user).isEmpty());
+        assertThrows(MissingIdentifierException.class, () -> write(new JsonLdWriter(config), user));
+    }
+
+    @Test
+    void configurationOfWriterCannotBeModified() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> sut.configuration().set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString()));
+    }
+
+    @Test
+    void withSerializerCreatesNewWriterUsingSpecifiedSerializer() throws Exception {
+        final Employee employee = Generator.generateEmployee();
+        final JsonLdWriter writer = sut.withSerializer(Organization.class,
+                (value, ctx) -> new StringLiteralNode(ctx.getAttributeId(), value.getName()));
+        assertNotSame(sut, writer);
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(write(writer, employee));
+        assertEquals(employee.getEmployer().getName(), result.get(Vocabulary.IS_MEMBER_OF));
+        final Map<String, ?> original = (Map<String, ?>) JsonUtils.fromString(write(sut, employee));
+        assertTrue(original.get(Vocabulary.IS_MEMBER_OF) instanceof Map);
+    }
+
+    @Test
+    void writePassesPrimitiveAttributeValuesToGeneratorWithoutBoxing() throws Exception {
+        final JsonGenerator generator = mock(JsonGenerator.class);
+        sut.write(new WithPrimitives(), generator);
+        verify(generator).writeNumber(42);
+        verify(generator).writeNumber(1L << 40);
+        verify(generator).writeNumber(2.5);
+        verify(generator).writeBoolean(true);
+        verify(generator, never()).writeNumber(any(Number.class));
+    }
+
+    @Test
+    void writeSerializesPrimitiveAttributesSameAsTheirWrappers() throws Exception {
+        final StringBuilder out = new StringBuilder();
+        sut.write(new WithPrimitives(), new TextJsonGenerator(out));
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(out.toString());
+        assertEquals(42, result.get(Generator.URI_BASE + "int"));
+        assertEquals(1L << 40, result.get(Generator.URI_BASE + "long"));
+        assertEquals(2.5, result.get(Generator.URI_BASE + "double"));
+        assertEquals(true, result.get(Generator.URI_BASE + "boolean"));
+    }
+
+    @Test
+    void writeUsesCustomSerializerOfWrapperTypeForPrimitiveAttribute() throws Exception {
+        final JsonLdWriter writer = sut.withSerializer(Integer.class,
+                (value, ctx) -> new StringLiteralNode(ctx.getAttributeId(), "int:" + value));
+        final Map<String, ?> result =
+                (Map<String, ?>) JsonUtils.fromString(write(writer, new WithPrimitives()));
+        assertEquals("int:42", result.get(Generator.URI_BASE + "int"));
+        assertEquals(1L << 40, result.get(Generator.URI_BASE + "long"));
+    }
+
+    @OWLClass(iri = Generator.URI_BASE + "WithPrimitives")
+    public static class WithPrimitives {
+
+        @Id
+        private URI uri = Generator.generateUri();
+
+        @OWLDataProperty(iri = Generator.URI_BASE + "int")
+        private int intValue = 42;
+
+        @OWLDataProperty(iri = Generator.URI_BASE + "long")
+        private long longValue = 1L << 40;
+
+        @OWLDataProperty(iri = Generator.URI_BASE + "double")
+        private double doubleValue = 2.5;
+
+        @OWLDataProperty(iri = Generator.URI_BASE + "boolean")
+        private boolean booleanValue = true;
+    }
+
+    @Test
+    void writeSerializesLazilyFetchedObjectPropertiesAsReferencesWhenConfigured() throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.LAZY_FETCH_AS_REFERENCE, Boolean.TRUE.toString());
+        final JsonLdWriter writer = new JsonLdWriter(config);
+        final WithLazyReferences root = new WithLazyReferences();
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(write(writer, root));
+
+        final Map<String, ?> lazy = (Map<String, ?>) result.get(Generator.URI_BASE + "lazy");
+        assertEquals(Collections.singletonMap(JsonLd.ID, root.lazy.getUri().toString()), lazy);
+        final List<Map<String, ?>> lazyPlural = (List<Map<String, ?>>) result.get(Generator.URI_BASE + "lazyPlural");
+        assertEquals(root.lazyPlural.stream().map(e -> Collections.singletonMap(JsonLd.ID, e.getUri().toString()))
+                                    .collect(Collectors.toList()), lazyPlural);
+        final Map<String, ?> eager = (Map<String, ?>) result.get(Generator.URI_BASE + "eager");
+        assertEquals(root.eager.getFirstName(), eager.get(Vocabulary.FIRST_NAME));
+        // Lazy is the default fetch type
+        assertEquals(Collections.singletonMap(JsonLd.ID, root.eager.getEmployer().getUri().toString()),
+                eager.get(Vocabulary.IS_MEMBER_OF));
+    }
+
+    @Test
+    void writeSerializesLazilyFetchedObjectPropertiesInFullByDefault() throws Exception {
+        final WithLazyReferences root = new WithLazyReferences();
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(write(sut, root));
+        final Map<String, ?> lazy = (Map<String, ?>) result.get(Generator.URI_BASE + "lazy");
+        assertEquals(root.lazy.getFirstName(), lazy.get(Vocabulary.FIRST_NAME));
+    }
+
+    @Test
+    void writeSerializesLazilyFetchedInstanceWithoutIdentifierInFull() throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.LAZY_FETCH_AS_REFERENCE, Boolean.TRUE.toString());
+        final WithLazyReferences root = new WithLazyReferences();
+        root.lazy.setUri(null);
+        final Map<String, ?> result =
+                (Map<String, ?>) JsonUtils.fromString(write(new JsonLdWriter(config), root));
+        final Map<String, ?> lazy = (Map<String, ?>) result.get(Generator.URI_BASE + "lazy");
+        assertEquals(root.lazy.getFirstName(), lazy.get(Vocabulary.FIRST_NAME));
+    }
+
+    @OWLClass(iri = Generator.URI_BASE + "WithLazyReferences")
+    public static class WithLazyReferences {
+
+        @Id
+        private URI uri = Generator.generateUri();
+
+        @OWLObjectProperty(iri = Generator.URI_BASE + "lazy", fetch = FetchType.LAZY)
+        private Employee lazy = Generator.generateEmployee();
+
+        @OWLObjectProperty(iri = Generator.URI_BASE + "lazyPlural", fetch = FetchType.LAZY)
+        private Set<Employee> lazyPlural =
+                new LinkedHashSet<>(Arrays.asList(Generator.generateEmployee(), Generator.generateEmployee()));
+
+        @OWLObjectProperty(iri = Generator.URI_BASE + "eager", fetch = FetchType.EAGER)
+        private Employee eager = Generator.generateEmployee();
+    }
+
+    @Test
+    void writeSerializesObjectsBeyondMaxInlineDepthAsReferences() throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "2");
+        final Employee employee = Generator.generateEmployee();
+        final Employee colleague = Generator.generateEmployee();
+        colleague.setEmployer(employee.getEmployer());
+        employee.getEmployer().addEmployee(employee);
+        employee.getEmployer().addEmployee(colleague);
+        final Map<String, ?> result =
+                (Map<String, ?>) JsonUtils.fromString(write(new JsonLdWriter(config), employee));
+
+        final Map<String, ?> employer = (Map<String, ?>) result.get(Vocabulary.IS_MEMBER_OF);
+        assertEquals(employee.getEmployer().getName(), employer.get(RDFS.LABEL));
+        final List<Map<String, ?>> members = (List<Map<String, ?>>) employer.get(Vocabulary.HAS_MEMBER);
+        assertEquals(2, members.size());
+        assertTrue(members.contains(Collections.singletonMap(JsonLd.ID, colleague.getUri().toString())));
+        assertTrue(members.contains(Collections.singletonMap(JsonLd.ID, employee.getUri().toString())));
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentExceptionWhenMaxInlineDepthIsInvalid() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "two");
+        assertThrows(IllegalArgumentException.class, () -> new JsonLdWriter(config));
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "-1");
+        assertThrows(IllegalArgumentException.class, () -> new JsonLdWriter(config));
+    }
+
+    @Test
+    void writeUsesInlineDepthDeclaredOnAttributeInsteadOfConfiguredMaxInlineDepth() throws Exception {
+        final WithInlineDepth root = new WithInlineDepth();
+        final Map<String, ?> result = (Map<String, ?>) JsonUtils.fromString(write(sut, root));
+
+        assertEquals(Collections.singletonMap(JsonLd.ID, root.referenced.getUri().toString()),
+                result.get(Generator.URI_BASE + "referenced"));
+        final Map<String, ?> shallow = (Map<String, ?>) result.get(Generator.URI_BASE + "shallow");
+        assertEquals(root.shallow.getFirstName(), shallow.get(Vocabulary.FIRST_NAME));
+        assertEquals(Collections.singletonMap(JsonLd.ID, root.shallow.getEmployer().getUri().toString()),
+                shallow.get(Vocabulary.IS_MEMBER_OF));
+    }
+
+    @Test
+    void writeSerializesDistinctInstancesWithSameIdentifierOnlyOnceWhenDeduplicationIsConfigured()
+            throws Exception {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.DEDUPLICATE_BY_ID, Boolean.TRUE.toString());
+        final Study study = studyWithDuplicateEmployee();
+        final String result = write(new JsonLdWriter(config), study);
+
+        final Employee employee = study.getMembers().iterator().next();
+        assertEquals(1, countOccurrences(result, employee.getFirstName()));
+        assertEquals(2, countOccurrences(result, employee.getUri().toString()));
+    }
+
+    private static Study studyWithDuplicateEmployee() {
+        final Study study = new Study();
+        study.setUri(Generator.generateUri());
+        final Employee employee = Generator.generateEmployee();
+        final Employee copy = new Employee();
+        copy.setUri(employee.getUri());
+        copy.setFirstName(employee.getFirstName());
+        copy.setLastName(employee.getLastName());
+        copy.setUsername(employee.getUsername());
+        copy.setEmployer(employee.getEmployer());
+        study.setMembers(Collections.singleton(employee));
+        study.setParticipants(Collections.singleton(copy));
+        return study;
+    }
+
+    private static int countOccurrences(String str, String value) {
+        int count = 0;
+        for (int i = str.indexOf(value); i >= 0; i = str.indexOf(value, i + value.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    void writeSerializesDistinctInstancesWithSameIdentifierInFullByDefault() {
+        final Study study = studyWithDuplicateEmployee();
+        final String result = write(sut, study);
+        assertEquals(2, countOccurrences(result, study.getMembers().iterator().next().getFirstName()));
+    }
+
+    @OWLClass(iri = Generator.URI_BASE + "WithInlineDepth")
+    public static class WithInlineDepth {
+
+        @Id
+        private URI uri = Generator.generateUri();
+
+        @JsonLdInlineDepth(0)
+        @OWLObjectProperty(iri = Generator.URI_BASE + "referenced")
+        private Employee referenced = Generator.generateEmployee();
+
+        @JsonLdInlineDepth(1)
+        @OWLObjectProperty(iri = Generator.URI_BASE + "shallow")
+        private Employee shallow = Generator.generateEmployee();
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NdJsonLdWriterTest {
+
+    private final JsonLdWriter jsonLdWriter = new JsonLdWriter();
+
+    @Test
+    void writeAllWritesOneDocumentPerLine() throws Exception {
+        final StringWriter out = new StringWriter();
+        final NdJsonLdWriter sut = new NdJsonLdWriter(jsonLdWriter, out);
+        final List<User> users = Arrays.asList(Generator.generateUser(), Generator.generateUser());
+        sut.writeAll(users);
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals(users.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            final Map<?, ?> document = (Map<?, ?>) JsonUtils.fromString(lines[i]);
+            assertEquals(users.get(i).getUri().toString(), document.get(JsonLd.ID));
+        }
+        assertEquals('\n', out.toString().charAt(out.toString().length() - 1));
+    }
+
+    @Test
+    void writeFlushesOutputAfterEachLineWhenConfigured() throws Exception {
+        final Writer out = mock(Writer.class);
+        when(out.append(any())).thenReturn(out);
+        new NdJsonLdWriter(jsonLdWriter, out, true).write(Generator.generateUser());
+        verify(out).flush();
+    }
+
+    @Test
+    void writeDoesNotFlushOutputByDefault() throws Exception {
+        final Writer out = mock(Writer.class);
+        when(out.append(any())).thenReturn(out);
+        new NdJsonLdWriter(jsonLdWriter, out).write(Generator.generateUser());
+        verify(out, never()).flush();
+    }
+}
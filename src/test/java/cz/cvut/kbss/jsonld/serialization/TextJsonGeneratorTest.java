@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextJsonGeneratorTest {
+
+    private final StringBuilder out = new StringBuilder();
+
+    private final TextJsonGenerator sut = new TextJsonGenerator(out);
+
+    @Test
+    void writesNestedObjectsAndArraysWithSeparators() throws Exception {
+        sut.writeObjectStart();
+        sut.writeFieldName("a");
+        sut.writeNumber(1);
+        sut.writeFieldName("b");
+        sut.writeArrayStart();
+        sut.writeBoolean(true);
+        sut.writeNull();
+        sut.writeObjectStart();
+        sut.writeFieldName("c");
+        sut.writeString("d");
+        sut.writeObjectEnd();
+        sut.writeArrayEnd();
+        sut.writeObjectEnd();
+        assertEquals("{\"a\":1,\"b\":[true,null,{\"c\":\"d\"}]}", out.toString());
+    }
+
+    @Test
+    void writeStringEscapesQuotesBackslashesAndControlCharacters() throws Exception {
+        final String value = "a \"quoted\" \\ value\n\twith\u0001control";
+        sut.writeObjectStart();
+        sut.writeFieldName("key\"");
+        sut.writeString(value);
+        sut.writeObjectEnd();
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("key\"", value);
+        assertEquals(expected, JsonUtils.fromString(out.toString()));
+    }
+
+    @Test
+    void generatorCanBeReusedForSubsequentDocuments() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            sut.writeArrayStart();
+            sut.writeNumber(i);
+            sut.writeNumber(i + 1);
+            sut.writeArrayEnd();
+            out.append('\n');
+        }
+        assertEquals(Arrays.asList("[0,1]", "[1,2]"), Arrays.asList(out.toString().split("\n")));
+    }
+
+    @Test
+    void primitiveNumbersAreWrittenSameAsBoxedOnes() throws Exception {
+        final StringBuilder boxed = new StringBuilder();
+        final TextJsonGenerator boxedGenerator = new TextJsonGenerator(boxed);
+        boxedGenerator.writeArrayStart();
+        sut.writeArrayStart();
+        for (long value : new long[]{0, -7, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            sut.writeNumber(value);
+            boxedGenerator.writeNumber((Number) value);
+        }
+        sut.writeNumber(-12);
+        boxedGenerator.writeNumber((Number) (-12));
+        sut.writeNumber(0.1);
+        boxedGenerator.writeNumber((Number) 0.1);
+        sut.writeArrayEnd();
+        boxedGenerator.writeArrayEnd();
+        assertEquals(boxed.toString(), out.toString());
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class IntLiteralNodeTest extends AbstractNodeTest {
+
+    @Test
+    void writeValueWritesPrimitiveNumber() throws Exception {
+        final JsonNode node = new IntLiteralNode("test", 117);
+        node.write(serializerMock);
+        verify(serializerMock).writeFieldName("test");
+        verify(serializerMock).writeNumber(117);
+        verify(serializerMock, never()).writeNumber(any(Number.class));
+    }
+
+    @Test
+    void equalsComparesNameAndValue() {
+        assertEquals(new IntLiteralNode("test", 1), new IntLiteralNode("test", 1));
+        assertEquals(new IntLiteralNode("test", 1).hashCode(), new IntLiteralNode("test", 1).hashCode());
+        assertNotEquals(new IntLiteralNode("test", 1), new IntLiteralNode("test", 2));
+        assertNotEquals(new IntLiteralNode("test", 1), new IntLiteralNode(1));
+    }
+}
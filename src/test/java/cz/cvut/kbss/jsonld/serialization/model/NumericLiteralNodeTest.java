@@ -24,6 +24,6 @@ public class NumericLiteralNodeTest extends AbstractNodeTest {
         final long value = System.currentTimeMillis();
         final JsonNode node = new NumericLiteralNode<>(name, value);
         node.write(serializerMock);
-        verify(serializerMock).writeNumber(value);
+        verify(serializerMock).writeNumber((Number) value);
     }
 }
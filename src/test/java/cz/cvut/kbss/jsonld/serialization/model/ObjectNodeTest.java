@@ -57,4 +57,20 @@ public class ObjectNodeTest extends AbstractNodeTest {
         inOrder.verify(serializerMock).writeObjectEnd();
         verify(serializerMock, never()).writeFieldName(anyString());
     }
+
+    @Test
+    void writeCanonicalOutputsChildrenOrderedByName() throws Exception {
+        final ObjectNode node = new ObjectNode();
+        node.addItem(new StringLiteralNode(Generator.URI_BASE + "b", "b"));
+        node.addItem(new StringLiteralNode(Generator.URI_BASE + "a", "a"));
+        node.addItem(new StringLiteralNode("@id", Generator.URI_BASE + "instance"));
+        node.writeCanonical(serializerMock);
+
+        final InOrder inOrder = inOrder(serializerMock);
+        inOrder.verify(serializerMock).writeObjectStart();
+        inOrder.verify(serializerMock).writeFieldName("@id");
+        inOrder.verify(serializerMock).writeFieldName(Generator.URI_BASE + "a");
+        inOrder.verify(serializerMock).writeFieldName(Generator.URI_BASE + "b");
+        inOrder.verify(serializerMock).writeObjectEnd();
+    }
 }
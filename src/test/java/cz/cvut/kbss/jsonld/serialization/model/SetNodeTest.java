@@ -13,12 +13,20 @@
 package cz.cvut.kbss.jsonld.serialization.model;
 
 import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.serialization.JsonGenerator;
+import cz.cvut.kbss.jsonld.serialization.TextJsonGenerator;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 public class SetNodeTest extends AbstractNodeTest {
@@ -56,4 +64,94 @@ public class SetNodeTest extends AbstractNodeTest {
         inOrder.verify(serializerMock).writeArrayStart();
         inOrder.verify(serializerMock).writeArrayEnd();
     }
+
+    @Test
+    void writeCanonicalOutputsItemsOrderedByTheirSerialization() throws Exception {
+        final CollectionNode node = new SetNode();
+        node.addItem(new StringLiteralNode("b"));
+        node.addItem(new NumericLiteralNode<>(2));
+        node.addItem(new StringLiteralNode("a"));
+        node.writeCanonical(serializerMock);
+
+        final InOrder inOrder = inOrder(serializerMock);
+        inOrder.verify(serializerMock).writeArrayStart();
+        inOrder.verify(serializerMock).writeString("a");
+        inOrder.verify(serializerMock).writeString("b");
+        inOrder.verify(serializerMock).writeNumber((Number) 2);
+        inOrder.verify(serializerMock).writeArrayEnd();
+    }
+
+    @Test
+    void writeCanonicalRendersMembersOfNestedSetsOncePerEnclosingSet() {
+        final int depth = 16;
+        final int[] renderCount = new int[1];
+        final JsonNode leaf = new StringLiteralNode("leaf") {
+            @Override
+            void writeCanonicalValue(JsonGenerator writer) throws IOException {
+                renderCount[0]++;
+                super.writeCanonicalValue(writer);
+            }
+        };
+        SetNode node = new SetNode();
+        node.addItem(leaf);
+        for (int i = 1; i < depth; i++) {
+            final SetNode parent = new SetNode();
+            parent.addItem(node);
+            parent.addItem(new StringLiteralNode("item" + i));
+            node = parent;
+        }
+        final StringBuilder sb = new StringBuilder();
+        node.writeCanonical(new TextJsonGenerator(sb));
+        assertThat(renderCount[0], lessThanOrEqualTo(depth + 1));
+        assertThat(sb.toString(), containsString("\"leaf\""));
+    }
+
+    @Test
+    void writeCanonicalOutputsEqualSetsOfObjectsAndNestedSetsTheSameRegardlessOfInsertionOrder() {
+        final SetNode first = new SetNode();
+        final SetNode second = new SetNode();
+        final List<JsonNode> firstItems = generateMixedItems();
+        final List<JsonNode> secondItems = generateMixedItems();
+        Collections.reverse(secondItems);
+        firstItems.forEach(first::addItem);
+        secondItems.forEach(second::addItem);
+
+        final StringBuilder firstText = new StringBuilder();
+        first.writeCanonical(new TextJsonGenerator(firstText));
+        final StringBuilder secondText = new StringBuilder();
+        second.writeCanonical(new TextJsonGenerator(secondText));
+        assertEquals(firstText.toString(), secondText.toString());
+    }
+
+    private static List<JsonNode> generateMixedItems() {
+        final List<JsonNode> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final ObjectNode object = new ObjectNode();
+            object.addItem(new ObjectIdNode("@id", "http://example.org/" + i));
+            final SetNode values = new SetNode("values");
+            values.addItem(new IntLiteralNode(i));
+            values.addItem(new StringLiteralNode("value" + i));
+            object.addItem(values);
+            items.add(object);
+        }
+        final SetNode nested = new SetNode();
+        nested.addItem(new BooleanLiteralNode(true));
+        nested.addItem(new DoubleLiteralNode(1.5));
+        items.add(nested);
+        items.add(new NullNode());
+        items.add(new LongLiteralNode(Long.MAX_VALUE));
+        return items;
+    }
+
+    @Test
+    void writeCanonicalReflectsItemsAddedAfterPreviousWrite() {
+        final SetNode node = new SetNode();
+        node.addItem(new StringLiteralNode("b"));
+        node.writeCanonical(new TextJsonGenerator(new StringBuilder()));
+        node.addItem(new StringLiteralNode("a"));
+
+        final StringBuilder sb = new StringBuilder();
+        node.writeCanonical(new TextJsonGenerator(sb));
+        assertEquals("[\"a\",\"b\"]", sb.toString());
+    }
 }
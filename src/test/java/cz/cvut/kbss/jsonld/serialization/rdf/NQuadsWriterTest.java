@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NQuadsWriterTest {
+
+    private static final String SUBJECT = "http://krizik.felk.cvut.cz/ontologies/jb4jsonld#subject";
+
+    private final StringWriter out = new StringWriter();
+
+    @Test
+    void literalWritesSimpleLiteralForXsdStringAndEscapesSpecialCharacters() {
+        final NQuadsWriter sut = new NQuadsWriter(out);
+        sut.literal(SUBJECT, RDFS.LABEL, "line \"one\"\\\nline two", XSD.STRING);
+        assertEquals("<" + SUBJECT + "> <" + RDFS.LABEL + "> \"line \\\"one\\\"\\\\\\nline two\" .\n",
+                out.toString());
+    }
+
+    @Test
+    void literalWritesDatatypeOfTypedLiteral() {
+        final NQuadsWriter sut = new NQuadsWriter(out);
+        sut.literal(SUBJECT, RDFS.LABEL, "117", XSD.INT);
+        assertEquals("<" + SUBJECT + "> <" + RDFS.LABEL + "> \"117\"^^<" + XSD.INT + "> .\n", out.toString());
+    }
+
+    @Test
+    void langStringWritesLanguageTag() {
+        final NQuadsWriter sut = new NQuadsWriter(out);
+        sut.langString(SUBJECT, RDFS.LABEL, "Budova", "cs");
+        assertEquals("<" + SUBJECT + "> <" + RDFS.LABEL + "> \"Budova\"@cs .\n", out.toString());
+    }
+
+    @Test
+    void statementWritesBlankNodesAndEscapesIllegalIriCharacters() {
+        final NQuadsWriter sut = new NQuadsWriter(out);
+        sut.statement("_:b1", RDF.TYPE, "http://example.org/a b");
+        assertEquals("_:b1 <" + RDF.TYPE + "> <http://example.org/a\\u0020b> .\n", out.toString());
+    }
+
+    @Test
+    void statementEscapesIllegalIriCharactersWithUppercaseHexDigits() {
+        final NQuadsWriter sut = new NQuadsWriter(out);
+        sut.statement(SUBJECT, RDF.TYPE, "http://example.org/{a}\t");
+        assertEquals("<" + SUBJECT + "> <" + RDF.TYPE + "> <http://example.org/\\u007Ba\\u007D\\u0009> .\n",
+                out.toString());
+    }
+
+    @Test
+    void statementWritesGraphWhenSpecified() {
+        final NQuadsWriter sut = new NQuadsWriter(out, "http://example.org/graph");
+        sut.statement(SUBJECT, RDF.TYPE, "http://example.org/a");
+        assertEquals("<" + SUBJECT + "> <" + RDF.TYPE + "> <http://example.org/a> <http://example.org/graph> .\n",
+                out.toString());
+    }
+}
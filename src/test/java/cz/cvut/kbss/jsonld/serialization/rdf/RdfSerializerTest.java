@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.rdf;
+
+import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.core.RDFDatasetUtils;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.annotations.Id;
+import cz.cvut.kbss.jopa.model.annotations.OWLAnnotationProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.OWLDataProperty;
+import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jopa.vocabulary.XSD;
+import cz.cvut.kbss.jsonld.environment.Generator;
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.Employee;
+import cz.cvut.kbss.jsonld.environment.model.ObjectWithMultilingualString;
+import cz.cvut.kbss.jsonld.environment.model.Organization;
+import cz.cvut.kbss.jsonld.environment.model.Role;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RdfSerializerTest {
+
+    private final StringWriter out = new StringWriter();
+
+    private final RdfSerializer sut = new RdfSerializer(new NQuadsWriter(out));
+
+    @Test
+    void serializeWritesTypesAndTypedLiteralsOfInstance() {
+        final User user = Generator.generateUser();
+        user.setAdmin(true);
+        user.setRole(Role.ADMIN);
+        sut.serialize(user);
+        final Set<String> lines = lines();
+        final String subject = "<" + user.getUri() + ">";
+        assertThat(lines, hasItem(subject + " <" + RDF.TYPE + "> <" + Vocabulary.USER + "> ."));
+        assertThat(lines, hasItem(subject + " <" + Vocabulary.FIRST_NAME + "> \"" + user.getFirstName() + "\" ."));
+        assertThat(lines,
+                hasItem(subject + " <" + Vocabulary.IS_ADMIN + "> \"true\"^^<" + XSD.BOOLEAN + "> ."));
+        assertThat(lines, hasItem(subject + " <" + Vocabulary.ROLE + "> \"" + user.getRole() + "\" ."));
+    }
+
+    private Set<String> lines() {
+        return new HashSet<>(Arrays.asList(out.toString().split("\n")));
+    }
+
+    @Test
+    void serializeLinksReferencedObjectsAndSerializesThemOnlyOnce() {
+        final Employee employee = Generator.generateEmployee();
+        final Organization org = employee.getEmployer();
+        org.setEmployees(Collections.singleton(employee));
+        sut.serialize(employee);
+        final Set<String> lines = lines();
+        assertThat(lines, hasItem(
+                "<" + employee.getUri() + "> <" + Vocabulary.IS_MEMBER_OF + "> <" + org.getUri() + "> ."));
+        assertThat(lines, hasItem(
+                "<" + org.getUri() + "> <" + Vocabulary.HAS_MEMBER + "> <" + employee.getUri() + "> ."));
+        assertThat(lines, hasItem("<" + org.getUri() + "> <" + Vocabulary.DATE_CREATED + "> \"" +
+                org.getDateCreated().toInstant() + "\"^^<" + XSD.DATETIME + "> ."));
+        final long orgTypeStatements = lines.stream().filter(l -> l.equals(
+                "<" + org.getUri() + "> <" + RDF.TYPE + "> <" + Vocabulary.ORGANIZATION + "> .")).count();
+        assertEquals(1, orgTypeStatements);
+        // Brands are a collection of literals
+        org.getBrands().forEach(b -> assertThat(lines,
+                hasItem("<" + org.getUri() + "> <" + Vocabulary.BRAND + "> \"" + b + "\" .")));
+    }
+
+    @Test
+    void serializeWritesMultilingualStringAsLanguageTaggedLiterals() {
+        final ObjectWithMultilingualString instance = new ObjectWithMultilingualString(Generator.generateUri());
+        final MultilingualString label = new MultilingualString();
+        label.set("en", "Building");
+        label.set("cs", "Budova");
+        instance.setLabel(label);
+        sut.serialize(instance);
+        final Set<String> lines = lines();
+        assertThat(lines, hasItem("<" + instance.getId() + "> <" + RDFS.LABEL + "> \"Building\"@en ."));
+        assertThat(lines, hasItem("<" + instance.getId() + "> <" + RDFS.LABEL + "> \"Budova\"@cs ."));
+    }
+
+    @Test
+    void serializeUsesBlankNodeForInstanceWithoutIdentifier() {
+        final User user = Generator.generateUser();
+        user.setUri(null);
+        sut.serialize(user);
+        assertTrue(lines().stream().allMatch(l -> l.startsWith("_:")));
+    }
+
+    @Test
+    void serializeProducesValidNQuadsIncludingPropertiesAndCollectionRoot() throws Exception {
+        final StringWriter quads = new StringWriter();
+        final RdfSerializer serializer =
+                new RdfSerializer(new NQuadsWriter(quads, "http://krizik.felk.cvut.cz/ontologies/jb4jsonld/graph"));
+        final Set<User> users = Generator.generateUsers();
+        final User first = Generator.generateUser();
+        users.add(first);
+        first.setProperties(Collections.singletonMap(Vocabulary.CHANGED_VALUE,
+                new HashSet<>(Arrays.asList("a \"quoted\"\nvalue", "b"))));
+        serializer.serialize(users);
+
+        final RDFDataset dataset = RDFDatasetUtils.parseNQuads(quads.toString());
+        final List<RDFDataset.Quad> statements =
+                dataset.getQuads("http://krizik.felk.cvut.cz/ontologies/jb4jsonld/graph");
+        assertEquals(quads.toString().split("\n").length, statements.size());
+        assertTrue(statements.stream().anyMatch(q -> q.getSubject().getValue().equals(first.getUri().toString()) &&
+                q.getPredicate().getValue().equals(Vocabulary.CHANGED_VALUE) &&
+                q.getObject().getValue().equals("a \"quoted\"\nvalue")));
+    }
+
+    @Test
+    void serializeWritesListAttributesAsRdfListsPreservingOrder() {
+        final WithLists instance = new WithLists();
+        instance.id = Generator.generateUri();
+        final Employee first = Generator.generateEmployee();
+        final Employee second = Generator.generateEmployee();
+        instance.members = Arrays.asList(second, first);
+        instance.brands = Arrays.asList("b", "a", "c");
+        instance.aliases = Collections.emptyList();
+        sut.serialize(instance);
+
+        final RDFDataset dataset = RDFDatasetUtils.parseNQuads(out.toString());
+        final List<RDFDataset.Quad> statements = dataset.getQuads("@default");
+        assertEquals(Arrays.asList(second.getUri().toString(), first.getUri().toString()),
+                readList(statements, instance.id.toString(), Vocabulary.HAS_MEMBER));
+        assertEquals(Arrays.asList("b", "a", "c"), readList(statements, instance.id.toString(), Vocabulary.BRAND));
+        assertEquals(Collections.emptyList(), readList(statements, instance.id.toString(), RDFS.LABEL));
+        // Members are still serialized in full
+        assertTrue(statements.stream().anyMatch(q -> q.getSubject().getValue().equals(first.getUri().toString()) &&
+                q.getPredicate().getValue().equals(RDF.TYPE)));
+    }
+
+    private static List<String> readList(List<RDFDataset.Quad> statements, String subject, String predicate) {
+        final List<String> result = new ArrayList<>();
+        String node = objectOf(statements, subject, predicate);
+        while (!(RDF.NAMESPACE + "nil").equals(node)) {
+            result.add(objectOf(statements, node, RDF.NAMESPACE + "first"));
+            node = objectOf(statements, node, RDF.NAMESPACE + "rest");
+        }
+        return result;
+    }
+
+    private static String objectOf(List<RDFDataset.Quad> statements, String subject, String predicate) {
+        final List<String> objects = new ArrayList<>();
+        statements.stream().filter(q -> q.getSubject().getValue().equals(subject) &&
+                q.getPredicate().getValue().equals(predicate)).forEach(q -> objects.add(q.getObject().getValue()));
+        assertEquals(1, objects.size());
+        return objects.get(0);
+    }
+
+    @OWLClass(iri = Vocabulary.DEFAULT_PREFIX + "WithLists")
+    public static class WithLists {
+        @Id
+        private URI id;
+
+        @OWLObjectProperty(iri = Vocabulary.HAS_MEMBER)
+        private List<Employee> members;
+
+        @OWLDataProperty(iri = Vocabulary.BRAND)
+        private List<String> brands;
+
+        @OWLAnnotationProperty(iri = RDFS.LABEL)
+        private List<String> aliases;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.traversal;
+
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import cz.cvut.kbss.jsonld.environment.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassSerializationPlanTest {
+
+    private final ClassSerializationPlan sut = ClassSerializationPlan.compile(User.class);
+
+    @Test
+    void getAttributesReturnsOnlyAttributesSelectedByProjection() {
+        final List<ClassSerializationPlan.Attribute> result =
+                sut.getAttributes(Projection.of(Vocabulary.FIRST_NAME, Vocabulary.USERNAME));
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(a -> a.getAttributeId().equals(Vocabulary.FIRST_NAME) ||
+                a.getAttributeId().equals(Vocabulary.USERNAME)));
+    }
+
+    @Test
+    void getAttributesReusesAttributesComputedForEqualProjection() {
+        final List<ClassSerializationPlan.Attribute> result = sut.getAttributes(Projection.of(Vocabulary.FIRST_NAME));
+        assertSame(result, sut.getAttributes(Projection.of(Vocabulary.FIRST_NAME)));
+    }
+
+    @Test
+    void getAttributesKeepsOnlyBoundedNumberOfProjections() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            sut.getAttributes(Projection.of(Vocabulary.FIRST_NAME, Vocabulary.DEFAULT_PREFIX + "property" + i));
+        }
+        final Field cacheField = ClassSerializationPlan.class.getDeclaredField("projectedAttributes");
+        cacheField.setAccessible(true);
+        assertThat(((Map<?, ?>) cacheField.get(sut)).size(), lessThanOrEqualTo(64));
+    }
+}
@@ -15,7 +15,11 @@ import cz.cvut.kbss.jopa.model.annotations.OWLClass;
 import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
 import cz.cvut.kbss.jopa.model.annotations.Types;
 import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jsonld.ConfigParam;
+import cz.cvut.kbss.jsonld.Configuration;
 import cz.cvut.kbss.jsonld.annotation.JsonLdAttributeOrder;
+import cz.cvut.kbss.jsonld.common.AccumulatingJsonLdMetrics;
+import cz.cvut.kbss.jsonld.common.JsonLdMetrics;
 import cz.cvut.kbss.jsonld.environment.Generator;
 import cz.cvut.kbss.jsonld.environment.Vocabulary;
 import cz.cvut.kbss.jsonld.environment.model.*;
@@ -200,6 +204,20 @@ class ObjectGraphTraverserTest {
         assertThat(knownInstances.get(person), StringStartsWith.startsWith("_:"));
     }
 
+    @Test
+    void traverseDoesNotTreatInstanceAsDuplicateWhenItsIdentifierEqualsGeneratedBlankNodeIdentifier()
+            throws Exception {
+        final Organization org = Generator.generateOrganization();
+        org.setUri(null);
+        final Employee employee = Generator.generateEmployee();
+        traverser.setDeduplicateById(true);
+        traverser.setBlankNodeIdGenerator(() -> employee.getUri().toString());
+        traverser.traverse(Arrays.asList(org, employee));
+
+        verify(visitor).visitAttribute(
+                ctx(Vocabulary.FIRST_NAME, Person.getFirstNameField(), employee.getFirstName()));
+    }
+
     @Test
     void traverseInvokesVisitIdentifierWithInstanceIdentifier() {
         final Person person = Generator.generatePerson();
@@ -241,6 +259,26 @@ class ObjectGraphTraverserTest {
         assertThrows(MissingIdentifierException.class, () -> traverser.traverse(person));
     }
 
+    @Test
+    void configureAppliesSettingsOfConfiguration() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.REQUIRE_ID, Boolean.TRUE.toString());
+        config.set(ConfigParam.MAX_INLINE_DEPTH, " 3 ");
+        traverser.configure(config.snapshot());
+        final Person person = Generator.generatePerson();
+        person.setUri(null);
+        assertThrows(MissingIdentifierException.class, () -> traverser.traverse(person));
+    }
+
+    @Test
+    void configureThrowsIllegalArgumentExceptionWhenMaxInlineDepthIsNotInteger() {
+        final Configuration config = new Configuration();
+        config.set(ConfigParam.MAX_INLINE_DEPTH, "deep");
+        final IllegalArgumentException result =
+                assertThrows(IllegalArgumentException.class, () -> traverser.configure(config));
+        assertThat(result.getMessage(), containsString(ConfigParam.MAX_INLINE_DEPTH.getName()));
+    }
+
     @Test
     void traverseThrowsMissingTypeInfoExceptionWhenObjectHasNoTypesAndIsNotOwlClass() {
         final NoType instance = new NoType();
@@ -317,4 +355,35 @@ class ObjectGraphTraverserTest {
         verify(visitor).visitObject(ctx(null, null, p));
         verify(visitor, never()).openObject(any());
     }
+
+    @Test
+    void traverseVisitsOnlyAttributesSelectedByProjection() throws Exception {
+        final User user = Generator.generateUser();
+        traverser.setProjection(Projection.of(Vocabulary.FIRST_NAME));
+        traverser.traverse(user);
+        verify(visitor).visitIdentifier(new SerializationContext<>(null, null, user.getUri().toString()));
+        verify(visitor).visitTypes(any());
+        verify(visitor).visitAttribute(ctx(Vocabulary.FIRST_NAME, Person.getFirstNameField(), user.getFirstName()));
+        verify(visitor, times(1)).visitAttribute(any());
+    }
+
+    @Test
+    void traverseDoesNotRequestSizeOfDataPropertyCollectionsWhenMetricsAreDisabled() {
+        final Organization org = Generator.generateOrganization();
+        final Set<String> brands = spy(new HashSet<>(org.getBrands()));
+        org.setBrands(brands);
+        traverser.traverse(org);
+        verify(brands, never()).size();
+    }
+
+    @Test
+    void traverseLooksUpSerializationPlanOncePerVisitedInstance() {
+        final AccumulatingJsonLdMetrics metrics = new AccumulatingJsonLdMetrics();
+        traverser.setMetrics(metrics);
+        traverser.setDeduplicateById(true);
+        traverser.traverse(Arrays.asList(Generator.generateUser(), Generator.generateUser(),
+                Generator.generateUser()));
+        assertEquals(1, metrics.getCount(JsonLdMetrics.Counter.CACHE_MISSES));
+        assertEquals(2, metrics.getCount(JsonLdMetrics.Counter.CACHE_HITS));
+    }
 }
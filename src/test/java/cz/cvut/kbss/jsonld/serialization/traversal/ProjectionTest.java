@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.serialization.traversal;
+
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jsonld.environment.Vocabulary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionTest {
+
+    @Test
+    void includesReturnsTrueForSelectedProperties() {
+        final Projection sut = Projection.of(Vocabulary.FIRST_NAME, Vocabulary.LAST_NAME);
+        assertTrue(sut.includes(Vocabulary.FIRST_NAME));
+        assertTrue(sut.includes(Vocabulary.LAST_NAME));
+        assertFalse(sut.includes(Vocabulary.USERNAME));
+    }
+
+    @Test
+    void withCreatesNewProjectionContainingPropertyWithSubProjection() {
+        final Projection original = Projection.of(Vocabulary.FIRST_NAME);
+        final Projection sub = Projection.of(RDFS.LABEL);
+        final Projection sut = original.with(Vocabulary.IS_MEMBER_OF, sub);
+        assertNotSame(original, sut);
+        assertFalse(original.includes(Vocabulary.IS_MEMBER_OF));
+        assertTrue(sut.includes(Vocabulary.IS_MEMBER_OF));
+        assertEquals(sub, sut.getSubProjection(Vocabulary.IS_MEMBER_OF));
+        assertNull(sut.getSubProjection(Vocabulary.FIRST_NAME));
+    }
+
+    @Test
+    void projectionsWithSamePropertiesAndSubProjectionsAreEqual() {
+        final Projection one =
+                Projection.of(Vocabulary.FIRST_NAME).with(Vocabulary.IS_MEMBER_OF, Projection.of(RDFS.LABEL));
+        final Projection two =
+                Projection.of(Vocabulary.FIRST_NAME).with(Vocabulary.IS_MEMBER_OF, Projection.of(RDFS.LABEL));
+        assertEquals(one, two);
+        assertEquals(one.hashCode(), two.hashCode());
+        assertNotEquals(one, Projection.of(Vocabulary.FIRST_NAME, Vocabulary.IS_MEMBER_OF));
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jsonld.common;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records events emitted by the Java 11 version of {@link JsonLdEvents}.
+ * <p>
+ * Tests run against the class output directory, where the versioned classes are not picked up automatically, so they
+ * are loaded from the multi-release layer explicitly.
+ */
+class JsonLdEventsRecordingTest {
+
+    private static final String VERSIONED_ROOT = "META-INF/versions/11/";
+
+    @TempDir
+    Path tempDir;
+
+    private ClassLoader versionedLoader;
+
+    @BeforeEach
+    void setUp() {
+        final URL root = JsonLdEventsRecordingTest.class.getClassLoader().getResource(VERSIONED_ROOT);
+        assertNotNull(root, "Java 11 layer of the library is not present.");
+        this.versionedLoader = new VersionedClassLoader(root, JsonLdEventsRecordingTest.class.getClassLoader());
+    }
+
+    @Test
+    void serializationEventIsRecordedWithItsFields() throws Exception {
+        final List<RecordedEvent> recorded = record("SerializationEvent", events -> {
+            final Object handle = events.getMethod("beginSerialization").invoke(null);
+            assertNotNull(handle);
+            events.getMethod("endSerialization", Object.class, Class.class, int.class, int.class, long.class)
+                  .invoke(null, handle, String.class, 5, 3, 1024L);
+        });
+        assertEquals(1, recorded.size());
+        final RecordedEvent event = recorded.get(0);
+        assertEquals("cz.cvut.kbss.jsonld.Serialization", event.getEventType().getName());
+        assertEquals(String.class.getName(), event.getClass("rootClass").getName());
+        assertEquals(5, event.getInt("nodeCount"));
+        assertEquals(3, event.getInt("depth"));
+        assertEquals(1024L, event.getLong("outputSize"));
+    }
+
+    @Test
+    void deserializationEventIsRecordedWithItsFields() throws Exception {
+        final List<RecordedEvent> recorded = record("DeserializationEvent", events -> {
+            final Object handle = events.getMethod("beginDeserialization").invoke(null);
+            assertNotNull(handle);
+            events.getMethod("endDeserialization", Object.class, Class.class, int.class, int.class)
+                  .invoke(null, handle, Integer.class, 7, 2);
+        });
+        assertEquals(1, recorded.size());
+        final RecordedEvent event = recorded.get(0);
+        assertEquals("cz.cvut.kbss.jsonld.Deserialization", event.getEventType().getName());
+        assertEquals(Integer.class.getName(), event.getClass("rootClass").getName());
+        assertEquals(7, event.getInt("nodeCount"));
+        assertEquals(2, event.getInt("depth"));
+    }
+
+    @Test
+    void classpathScanEventIsRecordedWithItsFields() throws Exception {
+        final List<RecordedEvent> recorded = record("ClasspathScanEvent", events -> {
+            final Object handle = events.getMethod("beginClasspathScan").invoke(null);
+            assertNotNull(handle);
+            events.getMethod("endClasspathScan", Object.class, String.class, int.class)
+                  .invoke(null, handle, "cz.cvut.kbss.jsonld", 42);
+        });
+        assertEquals(1, recorded.size());
+        final RecordedEvent event = recorded.get(0);
+        assertEquals("cz.cvut.kbss.jsonld.ClasspathScan", event.getEventType().getName());
+        assertEquals("cz.cvut.kbss.jsonld", event.getString("scanPath"));
+        assertEquals(42, event.getInt("classCount"));
+    }
+
+    @Test
+    void beginMethodsReturnNoEventHandleWhenEventsAreNotRecorded() throws Exception {
+        final Class<?> events = versionedLoader.loadClass(JsonLdEvents.class.getName());
+        assertNull(events.getMethod("beginSerialization").invoke(null));
+        assertNull(events.getMethod("beginDeserialization").invoke(null));
+        assertNull(events.getMethod("beginClasspathScan").invoke(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RecordedEvent> record(String eventClassName, EventEmitter emitter) throws Exception {
+        final Class<?> events = versionedLoader.loadClass(JsonLdEvents.class.getName());
+        final Class<? extends Event> eventClass =
+                (Class<? extends Event>) versionedLoader.loadClass(JsonLdEvents.class.getPackage().getName() + '.' +
+                        eventClassName);
+        final Path output = tempDir.resolve(eventClassName + ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventClass).withoutThreshold();
+            recording.start();
+            emitter.emit(events);
+            recording.stop();
+            recording.dump(output);
+        }
+        return RecordingFile.readAllEvents(output);
+    }
+
+    @FunctionalInterface
+    private interface EventEmitter {
+        void emit(Class<?> events) throws Exception;
+    }
+
+    /**
+     * Loads classes of the Java 11 layer in preference to their Java 8 versions.
+     */
+    private static final class VersionedClassLoader extends URLClassLoader {
+
+        private VersionedClassLoader(URL versionedRoot, ClassLoader parent) {
+            super(new URL[]{versionedRoot}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null && findResource(name.replace('.', '/') + ".class") != null) {
+                    cls = findClass(name);
+                }
+                if (cls == null) {
+                    return super.loadClass(name, resolve);
+                }
+                if (resolve) {
+                    resolveClass(cls);
+                }
+                return cls;
+            }
+        }
+    }
+}